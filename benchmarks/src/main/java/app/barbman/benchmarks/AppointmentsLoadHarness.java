@@ -0,0 +1,192 @@
+package app.barbman.benchmarks;
+
+import app.barbman.core.service.OnBarberApiClient;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load harness for the appointments calendar against {@link FakeOnBarberServer}.
+ *
+ * For each network scenario it measures, through the real OnBarberApiClient:
+ * - calendar week load: what AppointmentsViewController fetches when a week is shown
+ *   (7 slot requests + the week's appointments), cold (empty response cache) and warm
+ *   (navigating back to a week already seen), as p50 / p95 / max;
+ * - client throughput: a fixed number of callers issuing mixed reads (slots, appointment
+ *   windows, overrides) back to back for a fixed time, as requests/s and failures.
+ *
+ * The JMH benchmarks cover CPU-bound paths; this is wall-clock under latency and
+ * failures, so it runs as a plain main:
+ * <pre>
+ * java -cp target/benchmarks.jar app.barbman.benchmarks.AppointmentsLoadHarness \
+ *      --scenarios good,slow,lossy --weeks 20 --callers 16 --seconds 10 --appointments 10000
+ * </pre>
+ */
+public class AppointmentsLoadHarness {
+
+    private static final Logger logger = LogManager.getLogger(AppointmentsLoadHarness.class);
+    private static final String PREFIX = "[LOAD-HARNESS]";
+
+    /** Latency base + jitter (ms), share of 503s, share of stalled requests. */
+    private record Scenario(String name, long latencyMillis, long jitterMillis, double errorRate, double stallRate) {}
+
+    private static final Map<String, Scenario> SCENARIOS = Map.of(
+            "good", new Scenario("good", 5, 5, 0, 0),
+            "slow", new Scenario("slow", 150, 150, 0, 0),
+            "lossy", new Scenario("lossy", 80, 120, 0.05, 0),
+            "stalls", new Scenario("stalls", 40, 40, 0.02, 0.01)
+    );
+
+    private final FakeOnBarberServer server;
+    private final OnBarberApiClient client;
+    private final int weeks;
+    private final int callers;
+    private final int seconds;
+
+    public AppointmentsLoadHarness(FakeOnBarberServer server, int weeks, int callers, int seconds) {
+        this.server = server;
+        this.client = new OnBarberApiClient(server.baseUrl(), "harness-token");
+        this.weeks = weeks;
+        this.callers = callers;
+        this.seconds = seconds;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = parseArgs(args);
+        List<String> scenarios = Arrays.asList(opts.getOrDefault("scenarios", "good,slow,lossy").split(","));
+        int weeks = Integer.parseInt(opts.getOrDefault("weeks", "20"));
+        int callers = Integer.parseInt(opts.getOrDefault("callers", "16"));
+        int seconds = Integer.parseInt(opts.getOrDefault("seconds", "10"));
+        int appointments = Integer.parseInt(opts.getOrDefault("appointments", "10000"));
+
+        try (FakeOnBarberServer server = new FakeOnBarberServer(
+                FakeOnBarberServer.Config.defaults().withAppointments(appointments))) {
+            AppointmentsLoadHarness harness = new AppointmentsLoadHarness(server, weeks, callers, seconds);
+            System.out.printf("%-8s %-22s %-22s %-28s%n",
+                    "scenario", "cold week p50/p95/max", "warm week p50/p95/max", "throughput (req/s, failed)");
+            for (String name : scenarios) {
+                Scenario scenario = SCENARIOS.get(name.trim());
+                if (scenario == null) {
+                    throw new IllegalArgumentException("Unknown scenario: " + name + " (known: " + SCENARIOS.keySet() + ")");
+                }
+                harness.run(scenario);
+            }
+        }
+        System.exit(0); // The client's executors are daemon threads, but the HttpClient's are not
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --name value pairs, got: " + args[i]);
+            }
+            opts.put(args[i].substring(2), args[++i]);
+        }
+        return opts;
+    }
+
+    // ============================================================
+    // SCENARIOS
+    // ============================================================
+
+    void run(Scenario scenario) {
+        server.setNetwork(scenario.latencyMillis(), scenario.jitterMillis(), scenario.errorRate(), scenario.stallRate());
+        OnBarberApiClient.clearCache();
+        logger.info("{} Scenario {}", PREFIX, scenario.name());
+
+        int barberId = client.getBarbersAsync()
+                .exceptionally(e -> List.of())
+                .thenApply(list -> list.isEmpty() ? 1 : list.get(0).getId())
+                .join();
+
+        LocalDate firstWeek = LocalDate.now().with(DayOfWeek.MONDAY).minusWeeks(weeks / 2);
+        long[] cold = new long[weeks];
+        long[] warm = new long[weeks];
+        for (int w = 0; w < weeks; w++) {
+            cold[w] = loadWeek(barberId, firstWeek.plusWeeks(w));
+        }
+        for (int w = 0; w < weeks; w++) {
+            warm[w] = loadWeek(barberId, firstWeek.plusWeeks(w));
+        }
+
+        OnBarberApiClient.clearCache();
+        long[] throughput = throughput(barberId);
+
+        System.out.printf("%-8s %-22s %-22s %,10.0f req/s, %d failed%n",
+                scenario.name(), percentiles(cold), percentiles(warm),
+                throughput[0] / (double) seconds, throughput[1]);
+    }
+
+    /** One calendar week load, in microseconds; failed requests count as done (the view shows what it got). */
+    private long loadWeek(int barberId, LocalDate weekStart) {
+        long start = System.nanoTime();
+        List<CompletableFuture<?>> requests = new ArrayList<>(8);
+        requests.add(client.getAppointmentChangesAsync(null, weekStart, weekStart.plusDays(6)));
+        for (int d = 0; d < 7; d++) {
+            requests.add(client.getAvailableSlotsAsync(barberId, weekStart.plusDays(d)));
+        }
+        CompletableFuture.allOf(requests.stream()
+                        .map(f -> f.exceptionally(e -> null))
+                        .toArray(CompletableFuture[]::new))
+                .join();
+        return (System.nanoTime() - start) / 1_000;
+    }
+
+    /** {completed requests, failed requests} over {@link #seconds} with {@link #callers} concurrent callers. */
+    private long[] throughput(int barberId) {
+        AtomicLong completed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+        List<Thread> threads = new ArrayList<>(callers);
+        for (int i = 0; i < callers; i++) {
+            Thread thread = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    LocalDate day = LocalDate.now().plusDays(random.nextInt(-60, 60));
+                    CompletableFuture<?> request = switch (random.nextInt(3)) {
+                        case 0 -> client.getAvailableSlotsAsync(barberId, day);
+                        case 1 -> client.getAppointmentChangesAsync(null, day, day.plusDays(6));
+                        default -> client.getClosedDaysAsync(barberId);
+                    };
+                    try {
+                        request.join();
+                        completed.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        failed.incrementAndGet();
+                    }
+                }
+            }, "harness-caller-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return new long[]{completed.get(), failed.get()};
+    }
+
+    private static String percentiles(long[] micros) {
+        long[] sorted = micros.clone();
+        Arrays.sort(sorted);
+        return String.format("%d/%d/%d ms",
+                sorted[(int) (sorted.length * 0.50)] / 1_000,
+                sorted[Math.min(sorted.length - 1, (int) (sorted.length * 0.95))] / 1_000,
+                sorted[sorted.length - 1] / 1_000);
+    }
+}
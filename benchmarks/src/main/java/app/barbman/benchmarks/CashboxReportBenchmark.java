@@ -0,0 +1,41 @@
+package app.barbman.benchmarks;
+
+import app.barbman.core.dto.CashboxReportDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Report generation: daily and monthly cashbox reports (movements, per-barber
+ * production and openings in range).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j2.configurationFile=log4j2-bench.xml")
+public class CashboxReportBenchmark {
+
+    @Benchmark
+    public CashboxReportDTO dailyReport(ShopState state) {
+        return state.cashboxReportService.getDailyReport(LocalDate.now().minusDays(1));
+    }
+
+    @Benchmark
+    public CashboxReportDTO monthlyReport(ShopState state) {
+        return state.cashboxReportService.getMonthlyReport(YearMonth.now().minusMonths(1));
+    }
+
+    @Benchmark
+    public long expectedCash(ShopState state) {
+        return state.cashboxService.getExpectedCash(state.currentOpeningId);
+    }
+}
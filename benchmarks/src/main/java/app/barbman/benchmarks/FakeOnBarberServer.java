@@ -0,0 +1,473 @@
+package app.barbman.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-process stand-in for the OnBarber booking API, on the JDK's HttpServer.
+ *
+ * Serves the endpoints OnBarberApiClient uses, over an in-memory dataset generated
+ * from a seed:
+ * <pre>
+ * GET    /api/barbers                      GET    /api/barbers/{id}/slots?date=
+ * GET    /api/appointments[?updated_since= | ?from=&to=]
+ * POST   /api/appointments                 PATCH  /api/appointments/{id}
+ * POST   /api/schedule-overrides           DELETE /api/schedule-overrides/{id}
+ * GET    /api/barbers/{id}/overrides
+ * </pre>
+ * Behaves like the real server where the client depends on it: 1h slots from 09:00
+ * to 19:00 minus booked ones and closed days, 422 for a taken slot, Idempotency-Key
+ * replay, ETag / 304 and gzip when asked for. Protected endpoints accept any Bearer token.
+ *
+ * Degraded networks are simulated per request: a base latency plus random jitter,
+ * a share of requests answered 503, and a share that stall for {@code stallMillis}
+ * (longer than the client's timeout, to exercise it).
+ *
+ * Usage as a standalone server (e.g. to point the app at it through .env):
+ * <pre>
+ * java -cp target/benchmarks.jar app.barbman.benchmarks.FakeOnBarberServer \
+ *      --port 8000 --appointments 10000 --latency-ms 80 --error-rate 0.05
+ * </pre>
+ */
+public class FakeOnBarberServer implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(FakeOnBarberServer.class);
+    private static final String PREFIX = "[FAKE-ONBARBER]";
+
+    private static final Pattern SLOTS = Pattern.compile("/barbers/(\\d+)/slots");
+    private static final Pattern OVERRIDES = Pattern.compile("/barbers/(\\d+)/overrides");
+    private static final Pattern APPOINTMENT = Pattern.compile("/appointments/(\\d+)");
+    private static final Pattern OVERRIDE = Pattern.compile("/schedule-overrides/(\\d+)");
+    private static final String[] STATUSES = {"pending", "confirmed", "completed", "cancelled"};
+    private static final int FIRST_HOUR = 9;
+    private static final int LAST_HOUR = 19;
+
+    /** Network and dataset shape. Rates are fractions of requests (0..1). */
+    public record Config(int port, int barbers, int appointments, int daysBack, int daysAhead,
+                         long latencyMillis, long jitterMillis, double errorRate,
+                         double stallRate, long stallMillis, long seed) {
+
+        public static Config defaults() {
+            return new Config(0, 4, 2_000, 180, 60, 0, 0, 0, 0, 30_000, 42);
+        }
+
+        public Config withNetwork(long latencyMillis, long jitterMillis, double errorRate, double stallRate) {
+            return new Config(port, barbers, appointments, daysBack, daysAhead,
+                    latencyMillis, jitterMillis, errorRate, stallRate, stallMillis, seed);
+        }
+
+        public Config withAppointments(int appointments) {
+            return new Config(port, barbers, appointments, daysBack, daysAhead,
+                    latencyMillis, jitterMillis, errorRate, stallRate, stallMillis, seed);
+        }
+
+        public Config withPort(int port) {
+            return new Config(port, barbers, appointments, daysBack, daysAhead,
+                    latencyMillis, jitterMillis, errorRate, stallRate, stallMillis, seed);
+        }
+    }
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private volatile Config config;
+
+    // Dataset, guarded by "this"
+    private final Map<Integer, ObjectNode> appointments = new LinkedHashMap<>();
+    private final Map<Integer, ObjectNode> overrides = new LinkedHashMap<>();
+    private final Map<String, byte[]> idempotentReplies = new HashMap<>();
+    private final List<ObjectNode> barbers = new ArrayList<>();
+    private int nextAppointmentId;
+    private int nextOverrideId = 1;
+    private long version; // Bumped on every write; part of the ETag
+
+    // Counters
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong injectedStalls = new AtomicLong();
+
+    public FakeOnBarberServer(Config config) throws IOException {
+        this.config = config;
+        seed(config);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", config.port()), 0);
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "fake-onbarber");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/api", this::handle);
+        server.start();
+        logger.info("{} Listening on {} ({} barbers, {} appointments)",
+                PREFIX, baseUrl(), config.barbers(), config.appointments());
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --name value pairs, got: " + args[i]);
+            }
+            opts.put(args[i].substring(2), args[++i]);
+        }
+        Config config = Config.defaults()
+                .withPort(Integer.parseInt(opts.getOrDefault("port", "8000")))
+                .withAppointments(Integer.parseInt(opts.getOrDefault("appointments", "2000")))
+                .withNetwork(Long.parseLong(opts.getOrDefault("latency-ms", "0")),
+                        Long.parseLong(opts.getOrDefault("jitter-ms", "0")),
+                        Double.parseDouble(opts.getOrDefault("error-rate", "0")),
+                        Double.parseDouble(opts.getOrDefault("stall-rate", "0")));
+        new FakeOnBarberServer(config);
+        Thread.currentThread().join(); // Until killed
+    }
+
+    /** Base URL for OnBarberApiClient, e.g. http://127.0.0.1:54321/api */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/api";
+    }
+
+    /** Changes latency / failure injection on the fly (the dataset is kept). */
+    public void setNetwork(long latencyMillis, long jitterMillis, double errorRate, double stallRate) {
+        config = config.withNetwork(latencyMillis, jitterMillis, errorRate, stallRate);
+    }
+
+    public long requests() { return requests.get(); }
+    public long injectedErrors() { return injectedErrors.get(); }
+    public long injectedStalls() { return injectedStalls.get(); }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // ============================================================
+    // DATASET
+    // ============================================================
+
+    private synchronized void seed(Config config) {
+        Random random = new Random(config.seed());
+        for (int b = 1; b <= config.barbers(); b++) {
+            ObjectNode barber = mapper.createObjectNode();
+            barber.put("id", b);
+            barber.put("name", "Barbero " + b);
+            barber.put("phone", "0981" + (100000 + b));
+            barber.putNull("photo_url");
+            barbers.add(barber);
+        }
+
+        LocalDate today = LocalDate.now();
+        int span = config.daysBack() + config.daysAhead();
+        for (int i = 0; i < config.appointments(); i++) {
+            int barberId = 1 + random.nextInt(config.barbers());
+            LocalDate date = today.minusDays(config.daysBack()).plusDays(random.nextInt(Math.max(span, 1)));
+            int hour = FIRST_HOUR + random.nextInt(LAST_HOUR - FIRST_HOUR);
+            String status = date.isBefore(today)
+                    ? STATUSES[2 + random.nextInt(2)]      // completed / cancelled
+                    : STATUSES[random.nextInt(2)];         // pending / confirmed
+            addAppointment(barberId, "Cliente " + random.nextInt(5_000),
+                    "09" + (81000000 + random.nextInt(9_000_000)), date, String.format("%02d:00:00", hour), status);
+        }
+    }
+
+    private ObjectNode addAppointment(int barberId, String clientName, String clientPhone,
+                                      LocalDate date, String time, String status) {
+        ObjectNode a = mapper.createObjectNode();
+        a.put("id", ++nextAppointmentId);
+        a.put("barber_id", barberId);
+        a.put("client_name", clientName);
+        a.put("client_phone", clientPhone);
+        a.put("appointment_date", date + "T00:00:00.000000Z");
+        a.put("appointment_time", time);
+        a.put("status", status);
+        a.put("updated_at", now());
+        a.set("barber", barbers.get(barberId - 1));
+        appointments.put(a.get("id").asInt(), a);
+        version++;
+        return a;
+    }
+
+    private boolean isTaken(int barberId, String date, String hhmm) {
+        for (ObjectNode a : appointments.values()) {
+            if (a.get("barber_id").asInt() == barberId
+                    && a.get("appointment_date").asText().startsWith(date)
+                    && a.get("appointment_time").asText().startsWith(hhmm)
+                    && !"cancelled".equals(a.get("status").asText())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isClosed(int barberId, String date) {
+        for (ObjectNode o : overrides.values()) {
+            if (o.get("barber_id").asInt() == barberId && o.get("date").asText().startsWith(date)
+                    && !o.get("is_open").asBoolean()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ============================================================
+    // HTTP
+    // ============================================================
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            if (injectFailure(exchange)) return;
+
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath().substring("/api".length());
+            Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+            Matcher m;
+
+            if (method.equals("GET") && path.equals("/barbers")) {
+                JsonNode body;
+                synchronized (this) {
+                    body = mapper.valueToTree(barbers);
+                }
+                reply(exchange, 200, body);
+            } else if (method.equals("GET") && (m = SLOTS.matcher(path)).matches()) {
+                reply(exchange, 200, slots(Integer.parseInt(m.group(1)), query.get("date")));
+            } else if (method.equals("GET") && (m = OVERRIDES.matcher(path)).matches()) {
+                reply(exchange, 200, overridesOf(Integer.parseInt(m.group(1))));
+            } else if (method.equals("GET") && path.equals("/appointments")) {
+                reply(exchange, 200, listAppointments(query));
+            } else if (method.equals("POST") && path.equals("/appointments")) {
+                idempotent(exchange, () -> createAppointment(read(exchange)));
+            } else if (method.equals("PATCH") && (m = APPOINTMENT.matcher(path)).matches()) {
+                int id = Integer.parseInt(m.group(1));
+                idempotent(exchange, () -> updateStatus(id, read(exchange)));
+            } else if (method.equals("POST") && path.equals("/schedule-overrides")) {
+                idempotent(exchange, () -> createOverride(read(exchange)));
+            } else if (method.equals("DELETE") && (m = OVERRIDE.matcher(path)).matches()) {
+                synchronized (this) {
+                    overrides.remove(Integer.parseInt(m.group(1)));
+                    version++;
+                }
+                exchange.sendResponseHeaders(204, -1);
+            } else {
+                reply(exchange, 404, error("Not found: " + method + " " + path));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("{} Handler failed: {}", PREFIX, e.getMessage());
+        }
+    }
+
+    /** Applies latency and failure injection. Returns true if the request was answered with a failure. */
+    private boolean injectFailure(HttpExchange exchange) throws IOException {
+        Config c = config;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = c.latencyMillis() + (c.jitterMillis() > 0 ? random.nextLong(c.jitterMillis() + 1) : 0);
+        if (c.stallRate() > 0 && random.nextDouble() < c.stallRate()) {
+            injectedStalls.incrementAndGet();
+            delay = c.stallMillis();
+        }
+        sleep(delay);
+
+        if (c.errorRate() > 0 && random.nextDouble() < c.errorRate()) {
+            injectedErrors.incrementAndGet();
+            reply(exchange, 503, error("Servicio no disponible (simulado)"));
+            return true;
+        }
+        return false;
+    }
+
+    private interface Write {
+        Reply apply() throws IOException;
+    }
+
+    private record Reply(int status, JsonNode body) {}
+
+    /** Runs a write once per Idempotency-Key; repeats get the first reply. */
+    private void idempotent(HttpExchange exchange, Write write) throws IOException {
+        String key = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+        if (key != null) {
+            byte[] previous;
+            synchronized (this) {
+                previous = idempotentReplies.get(key);
+            }
+            if (previous != null) {
+                send(exchange, 200, previous);
+                return;
+            }
+        }
+        Reply reply = write.apply();
+        byte[] body = mapper.writeValueAsBytes(reply.body());
+        if (key != null && reply.status() < 300) {
+            synchronized (this) {
+                idempotentReplies.put(key, body);
+            }
+        }
+        send(exchange, reply.status(), body);
+    }
+
+    private synchronized JsonNode slots(int barberId, String date) {
+        ObjectNode root = mapper.createObjectNode();
+        ArrayNode slots = root.putArray("slots");
+        if (date == null || isClosed(barberId, date)) return root;
+        for (int h = FIRST_HOUR; h < LAST_HOUR; h++) {
+            String time = String.format("%02d:00", h);
+            ObjectNode slot = slots.addObject();
+            slot.put("time", time);
+            slot.put("available", !isTaken(barberId, date, time));
+        }
+        return root;
+    }
+
+    private synchronized JsonNode overridesOf(int barberId) {
+        ArrayNode result = mapper.createArrayNode();
+        for (ObjectNode o : overrides.values()) {
+            if (o.get("barber_id").asInt() == barberId) result.add(o);
+        }
+        return result;
+    }
+
+    private synchronized JsonNode listAppointments(Map<String, String> query) {
+        String since = query.get("updated_since");
+        String from = query.get("from");
+        String to = query.get("to");
+        ArrayNode result = mapper.createArrayNode();
+        for (ObjectNode a : appointments.values()) {
+            String date = a.get("appointment_date").asText().substring(0, 10);
+            if (since != null && a.get("updated_at").asText().compareTo(since) <= 0) continue;
+            if (since == null && from != null && (date.compareTo(from) < 0 || date.compareTo(to) > 0)) continue;
+            result.add(a);
+        }
+        return result;
+    }
+
+    private synchronized Reply createAppointment(JsonNode body) {
+        int barberId = body.path("barber_id").asInt();
+        String date = body.path("appointment_date").asText();
+        String time = body.path("appointment_time").asText();
+        if (barberId < 1 || barberId > barbers.size() || date.isEmpty() || time.length() < 5) {
+            return new Reply(422, error("Datos incompletos"));
+        }
+        if (isClosed(barberId, date) || isTaken(barberId, date, time.substring(0, 5))) {
+            return new Reply(422, error("El horario ya no esta disponible"));
+        }
+        String fullTime = time.length() == 5 ? time + ":00" : time;
+        return new Reply(201, addAppointment(barberId, body.path("client_name").asText(),
+                body.path("client_phone").asText(), LocalDate.parse(date), fullTime, "pending"));
+    }
+
+    private synchronized Reply updateStatus(int id, JsonNode body) {
+        ObjectNode a = appointments.get(id);
+        if (a == null) return new Reply(404, error("Reserva no encontrada"));
+        a.put("status", body.path("status").asText());
+        a.put("updated_at", now());
+        version++;
+        return new Reply(200, a);
+    }
+
+    private synchronized Reply createOverride(JsonNode body) {
+        ObjectNode o = mapper.createObjectNode();
+        o.put("id", nextOverrideId++);
+        o.put("barber_id", body.path("barber_id").asInt());
+        o.put("date", body.path("date").asText());
+        o.put("is_open", body.path("is_open").asBoolean(false));
+        overrides.put(o.get("id").asInt(), o);
+        version++;
+        return new Reply(201, o);
+    }
+
+    // ============================================================
+    // HELPERS
+    // ============================================================
+
+    private void reply(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(body);
+        if (status == 200 && exchange.getRequestMethod().equals("GET")) {
+            // Weak validator: changes with every write and with the response itself
+            String etag = "W/\"" + version + "-" + bytes.length + "\"";
+            exchange.getResponseHeaders().set("ETag", etag);
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+        }
+        send(exchange, status, bytes);
+    }
+
+    private void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (accept != null && accept.contains("gzip") && body.length > 1024) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(body);
+            }
+            body = compressed.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private JsonNode read(HttpExchange exchange) throws IOException {
+        return mapper.readTree(exchange.getRequestBody());
+    }
+
+    private JsonNode error(String message) {
+        return mapper.createObjectNode().put("message", message);
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> result = new HashMap<>();
+        if (rawQuery == null) return result;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                result.put(pair.substring(0, eq), URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return result;
+    }
+
+    private static String now() {
+        return LocalDateTime.now() + "Z";
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
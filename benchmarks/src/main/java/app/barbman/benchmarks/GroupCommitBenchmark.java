@@ -0,0 +1,124 @@
+package app.barbman.benchmarks;
+
+import app.barbman.core.infrastructure.HibernateUtil;
+import app.barbman.core.model.Expense;
+import app.barbman.core.model.cashbox.CashboxMovement;
+import app.barbman.core.repositories.cashbox.movement.CashboxMovementRepositoryImpl;
+import app.barbman.core.repositories.expense.ExpenseRepositoryImpl;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write throughput of the group-commit queue versus one transaction per write.
+ *
+ * One invocation is one second's worth of load: {@code writesPerSecond} expense
+ * registrations (expense + cashbox movement) issued concurrently, as if they arrived
+ * from the UI, the journal applier and background jobs in the same moment. The score is
+ * how long it takes until all of them are durably committed; anything under 1000 ms
+ * means the rate is sustainable.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j2.configurationFile=log4j2-bench.xml")
+public class GroupCommitBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Load {
+
+        @Param({"1", "10", "100"})
+        public int writesPerSecond;
+
+        ExecutorService clients;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            clients = Executors.newFixedThreadPool(writesPerSecond);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            clients.shutdownNow();
+        }
+    }
+
+    private final ExpenseRepositoryImpl expenseRepo = new ExpenseRepositoryImpl();
+    private final CashboxMovementRepositoryImpl movementRepo = new CashboxMovementRepositoryImpl();
+
+    @Benchmark
+    public int groupCommit(ShopState state, Load load) throws Exception {
+        return runConcurrently(load, () ->
+                state.expensesService.registerExpense("otros", 10_000, "bench", 0, state.barbers.get(0).getId()));
+    }
+
+    @Benchmark
+    public int commitEach(ShopState state, Load load) throws Exception {
+        return runConcurrently(load, () -> registerInOwnTransaction(state));
+    }
+
+    private static int runConcurrently(Load load, Runnable write) throws Exception {
+        List<Future<?>> pending = new ArrayList<>(load.writesPerSecond);
+        for (int i = 0; i < load.writesPerSecond; i++) {
+            pending.add(load.clients.submit(write));
+        }
+        for (Future<?> f : pending) f.get();
+        return pending.size();
+    }
+
+    /** The pre-queue write path: expense + movement in a dedicated transaction. */
+    private void registerInOwnTransaction(ShopState state) {
+        EntityManager em = HibernateUtil.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            Expense expense = Expense.builder()
+                    .description("bench")
+                    .amount(10_000)
+                    .date(LocalDate.now())
+                    .type("otros")
+                    .paymentMethodId(0)
+                    .build();
+            expenseRepo.save(expense, em);
+            movementRepo.save(CashboxMovement.builder()
+                    .movementType("EXPENSE")
+                    .direction("OUT")
+                    .amount(10_000)
+                    .paymentMethodId(0)
+                    .referenceType("EXPENSE")
+                    .referenceId(expense.getId())
+                    .description("Expense registered")
+                    .userId(state.barbers.get(0).getId())
+                    .occurredAt(LocalDateTime.now())
+                    .createdAt(LocalDateTime.now())
+                    .openingId(state.currentOpeningId)
+                    .build(), em);
+            em.getTransaction().commit();
+        } catch (RuntimeException e) {
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package app.barbman.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Report accumulator cost: summing a period's movement amounts as primitive long
+ * guaraníes (what the reports do now, see util/Money) versus double and BigDecimal.
+ * No database involved; amounts mimic the generator's price distribution.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoneyBenchmark {
+
+    /** Movements in the period (~1 day, ~1 month, ~1 year at 40 sales/day). */
+    @Param({"40", "1200", "15000"})
+    public int movements;
+
+    private long[] longAmounts;
+    private double[] doubleAmounts;
+    private BigDecimal[] decimalAmounts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        longAmounts = new long[movements];
+        doubleAmounts = new double[movements];
+        decimalAmounts = new BigDecimal[movements];
+        for (int i = 0; i < movements; i++) {
+            long amount = 25_000 + random.nextInt(60) * 5_000L;
+            longAmounts[i] = amount;
+            doubleAmounts[i] = amount;
+            decimalAmounts[i] = BigDecimal.valueOf(amount);
+        }
+    }
+
+    @Benchmark
+    public long sumLong() {
+        long total = 0;
+        for (long amount : longAmounts) total += amount;
+        return total;
+    }
+
+    @Benchmark
+    public double sumDouble() {
+        double total = 0;
+        for (double amount : doubleAmounts) total += amount;
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal sumBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal amount : decimalAmounts) total = total.add(amount);
+        return total;
+    }
+}
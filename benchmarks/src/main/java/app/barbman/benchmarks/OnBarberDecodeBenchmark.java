@@ -0,0 +1,151 @@
+package app.barbman.benchmarks;
+
+import app.barbman.core.service.OnBarberApiClient.AppointmentDTO;
+import app.barbman.core.service.OnBarberApiClient.BarberDTO;
+import app.barbman.core.service.OnBarberCodec;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Decoding a GET /appointments body: the previous path (whole body as a String,
+ * parsed into a JsonNode tree, then walked by hand into DTOs) versus the client's
+ * current one (Jackson binding straight from the body stream, see OnBarberCodec),
+ * plain and gzip-compressed. No network involved; the fixture mimics the API's
+ * appointment objects, nested barber included.
+ *
+ * Run with {@code -prof gc} to compare allocation per operation as well as time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OnBarberDecodeBenchmark {
+
+    private static final String[] STATUSES = {"pending", "confirmed", "completed", "cancelled"};
+
+    @Param({"10000"})
+    public int appointments;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private byte[] body;
+    private byte[] gzipBody;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        body = fixture(appointments).getBytes(StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        gzipBody = out.toByteArray();
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> stringTree() throws IOException {
+        // What HttpResponse.BodyHandlers.ofString() + readTree + the old parseAppointment did
+        String text = new String(body, StandardCharsets.UTF_8);
+        JsonNode root = mapper.readTree(text);
+        List<AppointmentDTO> result = new ArrayList<>();
+        for (JsonNode node : root) {
+            result.add(parseAppointment(node));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> streamBinding() throws IOException {
+        return OnBarberCodec.readAppointments(new ByteArrayInputStream(body), null);
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> streamBindingGzip() throws IOException {
+        return OnBarberCodec.readAppointments(new ByteArrayInputStream(gzipBody), "gzip");
+    }
+
+    // ============================================================
+    // PREVIOUS TREE PARSING
+    // ============================================================
+
+    private static BarberDTO parseBarber(JsonNode node) {
+        return new BarberDTO(
+                node.get("id").asInt(),
+                node.get("name").asText(),
+                node.has("phone") && !node.get("phone").isNull() ? node.get("phone").asText() : null,
+                node.has("photo_url") && !node.get("photo_url").isNull() ? node.get("photo_url").asText() : null
+        );
+    }
+
+    private static AppointmentDTO parseAppointment(JsonNode node) {
+        BarberDTO barber = null;
+        if (node.has("barber") && !node.get("barber").isNull()) {
+            barber = parseBarber(node.get("barber"));
+        }
+        return new AppointmentDTO(
+                node.get("id").asInt(),
+                node.get("barber_id").asInt(),
+                node.get("client_name").asText(),
+                node.get("client_phone").asText(),
+                node.get("appointment_date").asText(),
+                node.get("appointment_time").asText(),
+                node.get("status").asText(),
+                barber,
+                node.hasNonNull("updated_at") ? node.get("updated_at").asText() : null
+        );
+    }
+
+    // ============================================================
+    // FIXTURE
+    // ============================================================
+
+    /** JSON array shaped like the API's response, deterministic for a given size. */
+    static String fixture(int count) {
+        Random random = new Random(42);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        StringBuilder json = new StringBuilder(count * 420).append('[');
+        for (int i = 0; i < count; i++) {
+            int barberId = 1 + random.nextInt(4);
+            LocalDate date = start.plusDays(random.nextInt(900));
+            if (i > 0) json.append(',');
+            json.append("{\"id\":").append(i + 1)
+                    .append(",\"barber_id\":").append(barberId)
+                    .append(",\"client_name\":\"Cliente ").append(random.nextInt(5000)).append('"')
+                    .append(",\"client_phone\":\"09").append(81000000 + random.nextInt(9000000)).append('"')
+                    .append(",\"appointment_date\":\"").append(date).append("T00:00:00.000000Z\"")
+                    .append(",\"appointment_time\":\"").append(String.format("%02d:00:00", 8 + random.nextInt(12))).append('"')
+                    .append(",\"status\":\"").append(STATUSES[random.nextInt(STATUSES.length)]).append('"')
+                    .append(",\"created_at\":\"").append(date.minusDays(3)).append("T12:00:00.000000Z\"")
+                    .append(",\"updated_at\":\"").append(date).append("T12:00:00.000000Z\"")
+                    .append(",\"barber\":{\"id\":").append(barberId)
+                    .append(",\"name\":\"Barbero ").append(barberId)
+                    .append("\",\"phone\":null,\"photo_url\":\"https://onbarber.example/photos/").append(barberId)
+                    .append(".jpg\",\"is_active\":true}}");
+        }
+        return json.append(']').toString();
+    }
+}
@@ -0,0 +1,43 @@
+package app.barbman.benchmarks;
+
+import app.barbman.core.dto.SalaryDTO;
+import app.barbman.core.model.human.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Salaries screen load: one {@link SalaryDTO} per barber, per-user (3 queries each)
+ * versus the batch API used by {@code SalaryController.loadData}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j2.configurationFile=log4j2-bench.xml")
+public class SalariesBenchmark {
+
+    @Benchmark
+    public List<SalaryDTO> salaryTable(ShopState state) {
+        LocalDate today = LocalDate.now();
+        List<SalaryDTO> rows = new ArrayList<>(state.barbers.size());
+        for (User barber : state.barbers) {
+            rows.add(state.salariesService.buildSalaryDTO(barber, today));
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public List<SalaryDTO> salaryTableBatch(ShopState state) {
+        return state.salariesService.buildSalaryDTOs(state.barbers, LocalDate.now());
+    }
+}
@@ -0,0 +1,48 @@
+package app.barbman.benchmarks;
+
+import app.barbman.core.dto.salecart.SaleCartDTO;
+import app.barbman.core.model.human.User;
+import app.barbman.core.model.sales.Sale;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write path of the POS screen: one full sale (2 services + 1 product) through
+ * {@code SaleFlowService.completeSale}, including stock update and cashbox movement.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j2.configurationFile=log4j2-bench.xml")
+public class SaleFlowBenchmark {
+
+    @Benchmark
+    public Sale completeSale(ShopState state) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        User barber = state.barbers.get(rnd.nextInt(state.barbers.size()));
+
+        SaleCartDTO cart = new SaleCartDTO(barber.getId());
+        cart.setSelectedUserId(barber.getId());
+        cart.setPaymentMethod(0);
+
+        state.saleFlowService.addService(cart, pick(state.serviceIds, rnd), "servicio", 40_000);
+        state.saleFlowService.addService(cart, pick(state.serviceIds, rnd), "servicio", 35_000);
+        state.saleFlowService.addProduct(cart, pick(state.productIds, rnd), "producto", 25_000);
+
+        return state.saleFlowService.completeSale(cart);
+    }
+
+    private static int pick(List<Integer> ids, ThreadLocalRandom rnd) {
+        return ids.get(rnd.nextInt(ids.size()));
+    }
+}
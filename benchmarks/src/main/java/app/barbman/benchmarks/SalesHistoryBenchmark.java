@@ -0,0 +1,39 @@
+package app.barbman.benchmarks;
+
+import app.barbman.core.dto.history.SaleDetailDTO;
+import app.barbman.core.dto.history.SaleHistoryDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths of the sales history screen: the 30-day list and a single sale detail.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j2.configurationFile=log4j2-bench.xml")
+public class SalesHistoryBenchmark {
+
+    @Benchmark
+    public List<SaleHistoryDTO> last30Days(ShopState state) {
+        LocalDate today = LocalDate.now();
+        return state.salesHistoryService.getSalesHistory(today.minusDays(30), today);
+    }
+
+    @Benchmark
+    public SaleDetailDTO saleDetail(ShopState state) {
+        int saleId = 1 + ThreadLocalRandom.current().nextInt(state.maxSaleId);
+        return state.salesHistoryService.getSaleDetail(saleId, null); // Live data only
+    }
+}
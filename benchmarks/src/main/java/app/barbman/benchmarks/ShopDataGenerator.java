@@ -0,0 +1,573 @@
+package app.barbman.benchmarks;
+
+import app.barbman.core.infrastructure.HibernateUtil;
+import app.barbman.core.model.Expense;
+import app.barbman.core.model.cashbox.CashboxClosure;
+import app.barbman.core.model.cashbox.CashboxMovement;
+import app.barbman.core.model.cashbox.CashboxOpening;
+import app.barbman.core.model.human.Client;
+import app.barbman.core.model.human.User;
+import app.barbman.core.model.salaries.Advance;
+import app.barbman.core.model.salaries.Salary;
+import app.barbman.core.model.sales.Sale;
+import app.barbman.core.model.sales.products.Product;
+import app.barbman.core.model.sales.products.ProductHeader;
+import app.barbman.core.model.sales.products.ProductSaleItem;
+import app.barbman.core.model.sales.services.ServiceDefinition;
+import app.barbman.core.model.sales.services.ServiceHeader;
+import app.barbman.core.model.sales.services.ServiceItem;
+import app.barbman.core.model.time.DateRange;
+import app.barbman.core.repositories.DbBootstrap;
+import app.barbman.core.repositories.sales.production.UserDailyProductionRepositoryImpl;
+import app.barbman.core.service.salaries.period.SalaryPeriodResolver;
+import app.barbman.core.util.Money;
+import jakarta.persistence.EntityManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic shop data generator for load and scale testing.
+ *
+ * Writes {@code years} of history ending today at {@code salesPerDay} sales/day:
+ * barbers, clients, catalog, sales with service and product lines, daily cashbox
+ * openings/closures with their movements, expenses, advances and salaries paid at
+ * the end of each barber's pay period. Everything goes through the real JPA
+ * entities in batched transactions (one per {@value #DAYS_PER_TRANSACTION} days).
+ *
+ * Optionally emits {@code data/legacy.db} in the old {@code servicios_realizados} /
+ * {@code barberos} / {@code egresos} shape covering the years before the new data,
+ * so the legacy merge paths in history and expenses get exercised.
+ *
+ * Same arguments and seed always produce the same database (dates are relative to today).
+ *
+ * Usage:
+ * <pre>
+ * java -cp target/benchmarks.jar app.barbman.benchmarks.ShopDataGenerator \
+ *      --out "/tmp/Barbman Data" --years 3 --sales-per-day 40 --legacy-years 2 --seed 42
+ * </pre>
+ * The output folder has the same layout as the real app folder, so it can be
+ * copied over "Documents/Barbman Data" to load it in the app.
+ */
+public class ShopDataGenerator {
+
+    private static final Logger logger = LogManager.getLogger(ShopDataGenerator.class);
+    private static final String PREFIX = "[DATA-GEN]";
+
+    private static final int BARBERS = 8;
+    private static final int CLIENTS = 400;
+    private static final int PRODUCTS = 30;
+    private static final int DAYS_PER_TRANSACTION = 30;
+    private static final int ADMIN_USER_ID = 1;
+    private static final long OPENING_CASH = 500_000;
+
+    private static final String[] SERVICE_NAMES = {"corte", "barba", "corte + barba", "cejas", "lavado",
+            "degradado", "tintura", "perfilado", "corte niño", "alisado"};
+    private static final String[] FIRST_NAMES = {"Juan", "Carlos", "Luis", "Pedro", "Diego", "Marcos",
+            "Jorge", "Andrés", "Miguel", "Hugo", "Ramón", "Oscar", "Iván", "Rodrigo", "Fabián"};
+    private static final String[] LAST_NAMES = {"Gómez", "Benítez", "Martínez", "López", "Giménez",
+            "Ramírez", "Duarte", "Acosta", "Villalba", "Ortiz", "Rojas", "Cáceres"};
+
+    private final int years;
+    private final int salesPerDay;
+    private final Random random;
+    private final SalaryPeriodResolver periodResolver = new SalaryPeriodResolver();
+
+    private final List<User> barbers = new ArrayList<>();
+    private final List<Integer> clientIds = new ArrayList<>();
+    private final List<ServiceDefinition> services = new ArrayList<>();
+    private final List<Product> products = new ArrayList<>();
+
+    // Per-barber running totals for the current pay period
+    private final Map<Integer, Long> periodProduction = new HashMap<>();
+    private final Map<Integer, Long> periodAdvances = new HashMap<>();
+
+    public ShopDataGenerator(int years, int salesPerDay, long seed) {
+        this.years = years;
+        this.salesPerDay = salesPerDay;
+        this.random = new Random(seed);
+    }
+
+    /** Snapshot of the generated catalog that benchmarks pick their inputs from. */
+    public record Summary(List<User> barbers, List<Integer> serviceIds, List<Integer> productIds,
+                          int maxSaleId, int currentOpeningId) {}
+
+    // ============================================================
+    // CLI
+    // ============================================================
+
+    public static void main(String[] args) throws SQLException {
+        Map<String, String> opts = parseArgs(args);
+        File out = new File(opts.getOrDefault("out", "barbman-data"));
+        int years = Integer.parseInt(opts.getOrDefault("years", "1"));
+        int salesPerDay = Integer.parseInt(opts.getOrDefault("sales-per-day", "40"));
+        int legacyYears = Integer.parseInt(opts.getOrDefault("legacy-years", "0"));
+        long seed = Long.parseLong(opts.getOrDefault("seed", "42"));
+
+        DbBootstrap.initAt(out);
+        try {
+            ShopDataGenerator generator = new ShopDataGenerator(years, salesPerDay, seed);
+            generator.generate();
+            if (legacyYears > 0) {
+                generator.writeLegacyDb(new File(out, "data/legacy.db"), legacyYears);
+            }
+        } finally {
+            HibernateUtil.shutdown();
+        }
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --name value pairs, got: " + args[i]);
+            }
+            opts.put(args[i].substring(2), args[++i]);
+        }
+        return opts;
+    }
+
+    // ============================================================
+    // GENERATION
+    // ============================================================
+
+    /**
+     * Generates the full history into the database Hibernate is initialized on.
+     * Expects a freshly migrated database (only the default admin user).
+     */
+    public void generate() {
+        LocalDate today = LocalDate.now();
+        LocalDate start = today.minusYears(years);
+        logger.info("{} Generating {} years ({} -> {}) at {} sales/day", PREFIX, years, start, today, salesPerDay);
+
+        EntityManager em = HibernateUtil.createEntityManager();
+        try {
+            long existingSales = em.createQuery("SELECT COUNT(s) FROM Sale s", Long.class).getSingleResult();
+            if (existingSales > 0) {
+                throw new IllegalStateException("Target database already has " + existingSales + " sales");
+            }
+
+            em.getTransaction().begin();
+            seedCatalog(em);
+            em.getTransaction().commit();
+
+            int dayCount = 0;
+            em.getTransaction().begin();
+            for (LocalDate day = start; !day.isAfter(today); day = day.plusDays(1)) {
+                seedDay(em, day, !day.equals(today));
+                em.flush();
+                em.clear();
+
+                if (++dayCount % DAYS_PER_TRANSACTION == 0) {
+                    em.getTransaction().commit();
+                    em.getTransaction().begin();
+                    logger.info("{} {} days written", PREFIX, dayCount);
+                }
+            }
+            em.getTransaction().commit();
+            logger.info("{} Done: {} days", PREFIX, dayCount);
+
+            // Raw rows are written directly, so derive the aggregate in one pass
+            new UserDailyProductionRepositoryImpl().rebuild();
+        } catch (RuntimeException e) {
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    public static Summary readSummary() {
+        try (EntityManager em = HibernateUtil.createEntityManager()) {
+            List<User> barbers = em.createQuery("FROM User WHERE role = 'user' ORDER BY id", User.class)
+                    .getResultList();
+            List<Integer> serviceIds = em.createQuery("SELECT s.id FROM ServiceDefinition s ORDER BY s.id", Integer.class)
+                    .getResultList();
+            List<Integer> productIds = em.createQuery("SELECT p.id FROM Product p ORDER BY p.id", Integer.class)
+                    .getResultList();
+            Integer maxSaleId = em.createQuery("SELECT MAX(s.id) FROM Sale s", Integer.class)
+                    .getSingleResult();
+            Integer openingId = em.createQuery("SELECT MAX(o.id) FROM CashboxOpening o WHERE o.closed = false", Integer.class)
+                    .getSingleResult();
+            return new Summary(barbers, serviceIds, productIds,
+                    maxSaleId != null ? maxSaleId : 0,
+                    openingId != null ? openingId : 0);
+        }
+    }
+
+    // ============================================================
+    // CATALOG
+    // ============================================================
+
+    private void seedCatalog(EntityManager em) {
+        User.PayFrequency[] frequencies = User.PayFrequency.values();
+        for (int i = 0; i < BARBERS; i++) {
+            User u = new User();
+            u.setName(FIRST_NAMES[i % FIRST_NAMES.length] + " " + LAST_NAMES[i % LAST_NAMES.length]);
+            u.setRole("user");
+            u.setPin(String.valueOf(1001 + i));
+            u.setPaymentType(1 + (i % 4));
+            u.setPayFrequency(frequencies[i % frequencies.length]);
+            switch (u.getPaymentType()) {
+                case 1 -> { u.setParam1(0.5); u.setParam2(0.0); }
+                case 2 -> { u.setParam1(300_000.0); u.setParam2(0.3); }
+                case 3 -> { u.setParam1(1_500_000.0); u.setParam2(0.0); }
+                default -> { u.setParam1(400_000.0); u.setParam2(0.45); }
+            }
+            em.persist(u);
+            barbers.add(u);
+            periodProduction.put(u.getId(), 0L);
+            periodAdvances.put(u.getId(), 0L);
+        }
+
+        for (int i = 0; i < CLIENTS; i++) {
+            Client c = Client.builder()
+                    .name(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                            + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " " + (i + 1))
+                    .document(String.valueOf(1_000_000 + random.nextInt(8_000_000)))
+                    .phone("09" + (80_000_000 + random.nextInt(19_999_999)))
+                    .active(true)
+                    .build();
+            em.persist(c);
+            clientIds.add(c.getId());
+        }
+
+        for (int i = 0; i < SERVICE_NAMES.length; i++) {
+            ServiceDefinition def = ServiceDefinition.builder()
+                    .name(SERVICE_NAMES[i])
+                    .basePrice(30_000 + i * 5_000)
+                    .available(true)
+                    .build();
+            em.persist(def);
+            services.add(def);
+        }
+
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product p = Product.builder()
+                    .name("producto " + (i + 1))
+                    .costPrice(10_000 + i * 1_000)
+                    .unitPrice(20_000 + i * 2_000)
+                    .stock(10_000_000)
+                    .category(i % 2 == 0 ? "pomadas" : "shampoo")
+                    .notes("")
+                    .build();
+            em.persist(p);
+            products.add(p);
+        }
+    }
+
+    // ============================================================
+    // DAILY ACTIVITY
+    // ============================================================
+
+    private void seedDay(EntityManager em, LocalDate day, boolean closeAtEndOfDay) {
+        LocalDateTime openedAt = day.atTime(8, 0);
+        CashboxOpening opening = CashboxOpening.builder()
+                .periodStartDate(day)
+                .openedAt(openedAt)
+                .openedByUserId(ADMIN_USER_ID)
+                .cashAmount(OPENING_CASH)
+                .bankAmount(0)
+                .closed(closeAtEndOfDay)
+                .build();
+        em.persist(opening);
+        em.persist(movement("OPENING", "IN", OPENING_CASH, 0, "CASHBOX_OPENING", opening.getId(),
+                "Apertura de caja", ADMIN_USER_ID, openedAt, opening.getId()));
+
+        // [0] = cash, [1] = bank
+        long[] balance = {OPENING_CASH, 0};
+
+        // Sundays are slow days
+        int sales = day.getDayOfWeek() == DayOfWeek.SUNDAY ? salesPerDay / 3 : salesPerDay;
+        for (int i = 0; i < sales; i++) {
+            LocalDateTime at = openedAt.plusMinutes(30 + (long) i * 600 / Math.max(1, sales));
+            seedSale(em, day, at, opening.getId(), balance);
+        }
+
+        // One supply expense per day, paid in cash
+        long supplies = 20_000 + random.nextInt(10) * 5_000;
+        seedExpense(em, "supply", supplies, 0, "Insumos del día", day, openedAt.plusHours(4),
+                ADMIN_USER_ID, opening.getId(), balance);
+
+        // Occasional advances
+        for (User barber : barbers) {
+            if (random.nextInt(25) == 0) {
+                seedAdvance(em, barber, 50_000 + random.nextInt(4) * 50_000, day,
+                        openedAt.plusHours(6), opening.getId(), balance);
+            }
+        }
+
+        // Salaries for every barber whose pay period ends today
+        for (User barber : barbers) {
+            DateRange period = periodResolver.resolve(barber, day);
+            if (period.getEnd().equals(day) && closeAtEndOfDay) {
+                seedSalary(em, barber, period, day.atTime(19, 30), opening.getId(), balance);
+            }
+        }
+
+        if (closeAtEndOfDay) {
+            em.persist(CashboxClosure.builder()
+                    .openingId(opening.getId())
+                    .closedAt(day.atTime(20, 0))
+                    .closedByUserId(ADMIN_USER_ID)
+                    .expectedCash(balance[0])
+                    .expectedBank(balance[1])
+                    .actualCash(balance[0])
+                    .actualBank(balance[1])
+                    .cashDiscrepancy(0)
+                    .bankDiscrepancy(0)
+                    .build());
+        }
+    }
+
+    private void seedSale(EntityManager em, LocalDate day, LocalDateTime at, int openingId, long[] balance) {
+        User barber = barbers.get(random.nextInt(barbers.size()));
+        int paymentMethodId = random.nextInt(10) < 6 ? 0 : 1 + random.nextInt(3);
+        Integer clientId = random.nextInt(10) < 4 ? clientIds.get(random.nextInt(clientIds.size())) : null;
+
+        Sale sale = Sale.builder()
+                .userId(barber.getId())
+                .clientId(clientId)
+                .paymentMethodId(paymentMethodId)
+                .date(day)
+                .total(0)
+                .build();
+        em.persist(sale);
+
+        ServiceHeader serviceHeader = ServiceHeader.builder()
+                .userId(barber.getId())
+                .saleId(sale.getId())
+                .date(day)
+                .subtotal(0)
+                .build();
+        em.persist(serviceHeader);
+
+        long servicesTotal = 0;
+        int serviceLines = 1 + random.nextInt(2);
+        for (int l = 0; l < serviceLines; l++) {
+            ServiceDefinition def = services.get(random.nextInt(services.size()));
+            em.persist(ServiceItem.builder()
+                    .serviceHeaderId(serviceHeader.getId())
+                    .serviceDefinitionId(def.getId())
+                    .quantity(1)
+                    .unitPrice(def.getBasePrice())
+                    .itemTotal(def.getBasePrice())
+                    .build());
+            servicesTotal += def.getBasePrice();
+        }
+        serviceHeader.setSubtotal(servicesTotal);
+        periodProduction.merge(barber.getId(), servicesTotal, Long::sum);
+
+        long productsTotal = 0;
+        if (random.nextInt(10) < 3) {
+            Product p = products.get(random.nextInt(products.size()));
+            int qty = 1 + random.nextInt(2);
+            productsTotal = p.getUnitPrice() * qty;
+
+            ProductHeader productHeader = ProductHeader.builder()
+                    .saleId(sale.getId())
+                    .subtotal(productsTotal)
+                    .build();
+            em.persist(productHeader);
+            em.persist(ProductSaleItem.builder()
+                    .productHeaderId(productHeader.getId())
+                    .productId(p.getId())
+                    .quantity(qty)
+                    .unitPrice(p.getUnitPrice())
+                    .itemTotal(productsTotal)
+                    .build());
+        }
+
+        long total = servicesTotal + productsTotal;
+        sale.setTotal(total);
+        em.persist(movement("SALE", "IN", total, paymentMethodId, "SALE", sale.getId(),
+                "Venta #" + sale.getId(), barber.getId(), at, openingId));
+
+        balance[paymentMethodId == 0 ? 0 : 1] += total;
+    }
+
+    private Expense seedExpense(EntityManager em, String type, long amount, int paymentMethodId,
+                                String description, LocalDate day, LocalDateTime at, int userId,
+                                int openingId, long[] balance) {
+        Expense expense = Expense.builder()
+                .description(description)
+                .amount(amount)
+                .date(day)
+                .type(type)
+                .paymentMethodId(paymentMethodId)
+                .build();
+        em.persist(expense);
+        em.persist(movement("EXPENSE", "OUT", amount, paymentMethodId, "EXPENSE", expense.getId(),
+                description, userId, at, openingId));
+
+        balance[paymentMethodId == 0 ? 0 : 1] -= amount;
+        return expense;
+    }
+
+    private void seedAdvance(EntityManager em, User barber, long amount, LocalDate day,
+                             LocalDateTime at, int openingId, long[] balance) {
+        String description = String.format("Advance | user_id: %d | date %s", barber.getId(), day);
+        Expense expense = seedExpense(em, "advance", amount, 0, description, day, at,
+                barber.getId(), openingId, balance);
+
+        em.persist(Advance.builder()
+                .userId(barber.getId())
+                .amount(amount)
+                .date(day)
+                .paymentMethodId(0)
+                .expenseId(expense.getId())
+                .description("Adelanto")
+                .build());
+        periodAdvances.merge(barber.getId(), amount, Long::sum);
+    }
+
+    private void seedSalary(EntityManager em, User barber, DateRange period, LocalDateTime at,
+                            int openingId, long[] balance) {
+        long production = periodProduction.put(barber.getId(), 0L);
+        long advances = periodAdvances.put(barber.getId(), 0L);
+
+        long amount = Math.max(0, salaryFor(barber, production) - advances);
+        int paymentMethodId = random.nextInt(2);
+
+        Integer expenseId = null;
+        if (amount > 0) {
+            String description = String.format("Salary | user_id: %d | date %s | method %d",
+                    barber.getId(), period.getEnd(), paymentMethodId);
+            expenseId = seedExpense(em, "salary", amount, paymentMethodId, description,
+                    period.getEnd(), at, barber.getId(), openingId, balance).getId();
+        }
+
+        em.persist(Salary.builder()
+                .userId(barber.getId())
+                .startDate(period.getStart())
+                .endDate(period.getEnd())
+                .totalProduction(production)
+                .amountPaid(amount)
+                .payTypeSnapshot(barber.getPaymentType())
+                .payDate(period.getEnd())
+                .paymentMethodId(paymentMethodId)
+                .expenseId(expenseId)
+                .build());
+    }
+
+    /** Mirrors SalariesService.calculateByPaymentType. */
+    private static long salaryFor(User barber, long production) {
+        double p1 = barber.getParam1() != null ? barber.getParam1() : 0;
+        double p2 = barber.getParam2() != null ? barber.getParam2() : 0;
+        return switch (barber.getPaymentType()) {
+            case 1 -> Money.of(production * p1);
+            case 2 -> Money.of(p1 + production * p2);
+            case 3 -> Money.of(p1);
+            case 4 -> Math.max(Money.of(p1), Money.of(production * p2));
+            default -> 0;
+        };
+    }
+
+    private static CashboxMovement movement(String type, String direction, long amount, int paymentMethodId,
+                                            String refType, int refId, String description, int userId,
+                                            LocalDateTime at, int openingId) {
+        return CashboxMovement.builder()
+                .movementType(type)
+                .direction(direction)
+                .amount(amount)
+                .paymentMethodId(paymentMethodId)
+                .referenceType(refType)
+                .referenceId(refId)
+                .description(description)
+                .userId(userId)
+                .occurredAt(at)
+                .createdAt(at)
+                .openingId(openingId)
+                .build();
+    }
+
+    // ============================================================
+    // LEGACY DB
+    // ============================================================
+
+    /**
+     * Writes a legacy database (pre-Hibernate schema) covering the {@code legacyYears}
+     * before the generated history, as read by LegacySaleRepository / LegacyExpenseRepository.
+     */
+    public void writeLegacyDb(File legacyFile, int legacyYears) throws SQLException {
+        LocalDate end = LocalDate.now().minusYears(years).minusDays(1);
+        LocalDate start = end.minusYears(legacyYears);
+        logger.info("{} Writing legacy.db ({} -> {}) at {}", PREFIX, start, end, legacyFile.getAbsolutePath());
+
+        try {
+            Files.deleteIfExists(legacyFile.toPath());
+        } catch (IOException e) {
+            throw new RuntimeException("Could not replace " + legacyFile, e);
+        }
+
+        String[] paymentForms = {"efectivo", "efectivo", "transferencia", "pos"};
+        String[] expenseTypes = {"insumos", "servicios", "compras", "fijo", "adelanto", "salario"};
+
+        try (Connection db = DriverManager.getConnection("jdbc:sqlite:" + legacyFile.getAbsolutePath())) {
+            db.setAutoCommit(false);
+            try (Statement st = db.createStatement()) {
+                st.execute("CREATE TABLE barberos (id INTEGER PRIMARY KEY, nombre TEXT NOT NULL)");
+                st.execute("CREATE TABLE servicios_realizados (id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                        + "precio REAL NOT NULL, fecha TEXT NOT NULL, forma_pago TEXT, observaciones TEXT, "
+                        + "barbero_id INTEGER NOT NULL REFERENCES barberos(id))");
+                st.execute("CREATE TABLE egresos (id INTEGER PRIMARY KEY AUTOINCREMENT, descripcion TEXT, "
+                        + "monto REAL NOT NULL, fecha TEXT NOT NULL, tipo TEXT, forma_pago TEXT)");
+            }
+
+            try (PreparedStatement ps = db.prepareStatement("INSERT INTO barberos (id, nombre) VALUES (?, ?)")) {
+                for (int i = 0; i < BARBERS / 2; i++) {
+                    ps.setInt(1, i + 1);
+                    ps.setString(2, FIRST_NAMES[(i + 7) % FIRST_NAMES.length]);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+
+            try (PreparedStatement sale = db.prepareStatement(
+                         "INSERT INTO servicios_realizados (precio, fecha, forma_pago, observaciones, barbero_id) "
+                                 + "VALUES (?, ?, ?, ?, ?)");
+                 PreparedStatement expense = db.prepareStatement(
+                         "INSERT INTO egresos (descripcion, monto, fecha, tipo, forma_pago) VALUES (?, ?, ?, ?, ?)")) {
+
+                int legacySalesPerDay = Math.max(1, salesPerDay / 2);
+                for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+                    String fecha = day.toString();
+                    for (int i = 0; i < legacySalesPerDay; i++) {
+                        sale.setDouble(1, 25_000 + random.nextInt(8) * 5_000);
+                        sale.setString(2, fecha);
+                        sale.setString(3, paymentForms[random.nextInt(paymentForms.length)]);
+                        sale.setString(4, random.nextInt(3) == 0 ? "cliente frecuente" : "");
+                        sale.setInt(5, 1 + random.nextInt(BARBERS / 2));
+                        sale.addBatch();
+                    }
+                    sale.executeBatch();
+
+                    String tipo = expenseTypes[random.nextInt(expenseTypes.length)];
+                    expense.setString(1, "Egreso " + tipo);
+                    expense.setDouble(2, 10_000 + random.nextInt(20) * 5_000);
+                    expense.setString(3, fecha);
+                    expense.setString(4, tipo);
+                    expense.setString(5, paymentForms[random.nextInt(paymentForms.length)]);
+                    expense.executeUpdate();
+                }
+            }
+            db.commit();
+        }
+    }
+}
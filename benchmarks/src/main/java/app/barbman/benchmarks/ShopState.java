@@ -0,0 +1,213 @@
+package app.barbman.benchmarks;
+
+import app.barbman.core.infrastructure.HibernateUtil;
+import app.barbman.core.model.human.User;
+import app.barbman.core.repositories.DbBootstrap;
+import app.barbman.core.repositories.cashbox.closure.CashboxClosureRepositoryImpl;
+import app.barbman.core.repositories.cashbox.movement.CashboxMovementRepositoryImpl;
+import app.barbman.core.repositories.cashbox.opening.CashboxOpeningRepositoryImpl;
+import app.barbman.core.repositories.expense.ExpenseRepositoryImpl;
+import app.barbman.core.repositories.salaries.salaries.SalariesRepositoryImpl;
+import app.barbman.core.repositories.sales.SaleRepositoryImpl;
+import app.barbman.core.repositories.sales.products.product.ProductRepositoryImpl;
+import app.barbman.core.repositories.sales.products.productheader.ProductHeaderRepositoryImpl;
+import app.barbman.core.repositories.sales.production.UserDailyProductionRepositoryImpl;
+import app.barbman.core.repositories.sales.products.productsaleitem.ProductSaleItemRepositoryImpl;
+import app.barbman.core.repositories.sales.services.servicedefinition.ServiceDefinitionRepositoryImpl;
+import app.barbman.core.repositories.sales.services.serviceheader.ServiceHeaderRepositoryImpl;
+import app.barbman.core.repositories.sales.services.serviceitems.ServiceItemRepositoryImpl;
+import app.barbman.core.repositories.users.UsersRepositoryImpl;
+import app.barbman.core.service.cashbox.CashboxReportService;
+import app.barbman.core.service.cashbox.CashboxService;
+import app.barbman.core.service.expenses.ExpensesService;
+import app.barbman.core.service.salaries.SalariesService;
+import app.barbman.core.service.salaries.advances.AdvancesService;
+import app.barbman.core.service.salaries.period.SalaryPeriodResolver;
+import app.barbman.core.service.sales.SalesHistoryService;
+import app.barbman.core.service.sales.products.ProductHeaderService;
+import app.barbman.core.service.sales.products.ProductItemService;
+import app.barbman.core.service.sales.saleflow.SaleFlowService;
+import app.barbman.core.service.sales.services.ServiceHeaderService;
+import app.barbman.core.service.sales.services.ServiceItemService;
+import app.barbman.core.util.legacy.LegacySaleRepository;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Shared benchmark state: a seeded SQLite database plus the services wired the
+ * same way the controllers wire them.
+ *
+ * Generating several years of data takes a while, so each (years, salesPerDay)
+ * combination is generated once by {@link ShopDataGenerator} into a template app
+ * folder under {@code target/bench-data} (database.db + legacy.db) and copied to a
+ * fresh temp folder for every trial. Write benchmarks therefore never leak into
+ * the next run.
+ */
+@State(Scope.Benchmark)
+public class ShopState {
+
+    /** Years of history in the database. */
+    @Param({"1", "3", "10"})
+    public int years;
+
+    /** Sales per day; override with -Dbarbman.bench.salesPerDay=N (via -jvmArgsAppend). */
+    public static final int SALES_PER_DAY = Integer.getInteger("barbman.bench.salesPerDay", 40);
+
+    private static final Path DATA_DIR =
+            Paths.get(System.getProperty("barbman.bench.dataDir", "target/bench-data"));
+
+    /** Years of legacy.db history before the generated data. */
+    private static final int LEGACY_YEARS = 1;
+    private static final long SEED = 42;
+
+    private Path appFolder;
+
+    // Seed metadata
+    public List<User> barbers;
+    public List<Integer> serviceIds;
+    public List<Integer> productIds;
+    public int maxSaleId;
+    public int currentOpeningId;
+
+    // Services
+    public SaleFlowService saleFlowService;
+    public SalesHistoryService salesHistoryService;
+    public CashboxService cashboxService;
+    public CashboxReportService cashboxReportService;
+    public ExpensesService expensesService;
+    public SalariesService salariesService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path template = ensureTemplate();
+
+        appFolder = Files.createTempDirectory("barbman_bench_");
+        Path data = Files.createDirectories(appFolder.resolve("data"));
+        try (Stream<Path> files = Files.list(template.resolve("data"))) {
+            for (Path f : (Iterable<Path>) files::iterator) {
+                Files.copy(f, data.resolve(f.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        DbBootstrap.initAt(appFolder.toFile());
+
+        ShopDataGenerator.Summary summary = ShopDataGenerator.readSummary();
+        barbers = summary.barbers();
+        serviceIds = summary.serviceIds();
+        productIds = summary.productIds();
+        maxSaleId = summary.maxSaleId();
+        currentOpeningId = summary.currentOpeningId();
+
+        wireServices();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        HibernateUtil.shutdown();
+        deleteRecursively(appFolder);
+    }
+
+    // ============================================================
+    // INTERNALS
+    // ============================================================
+
+    /** Returns the template app folder for this configuration, generating it on first use. */
+    private Path ensureTemplate() throws IOException {
+        Files.createDirectories(DATA_DIR);
+        Path template = DATA_DIR.resolve("shop-" + years + "y-" + SALES_PER_DAY + "spd");
+        if (Files.exists(template)) return template;
+
+        Path partial = DATA_DIR.resolve(template.getFileName() + ".partial");
+        deleteRecursively(partial);
+
+        DbBootstrap.initAt(partial.toFile());
+        try {
+            ShopDataGenerator generator = new ShopDataGenerator(years, SALES_PER_DAY, SEED);
+            generator.generate();
+            generator.writeLegacyDb(partial.resolve("data/legacy.db").toFile(), LEGACY_YEARS);
+        } catch (SQLException e) {
+            throw new IOException("Failed to write legacy.db", e);
+        } finally {
+            HibernateUtil.shutdown();
+        }
+
+        Files.move(partial, template);
+        return template;
+    }
+
+    private static void deleteRecursively(Path root) throws IOException {
+        if (root == null || !Files.exists(root)) return;
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try {
+                    Files.delete(p);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private void wireServices() {
+        var openingRepo = new CashboxOpeningRepositoryImpl();
+        var closureRepo = new CashboxClosureRepositoryImpl();
+        var movementRepo = new CashboxMovementRepositoryImpl();
+        var serviceHeaderRepo = new ServiceHeaderRepositoryImpl();
+        var productHeaderRepo = new ProductHeaderRepositoryImpl();
+
+        cashboxService = new CashboxService(openingRepo, closureRepo, movementRepo);
+
+        saleFlowService = new SaleFlowService(
+                new SaleRepositoryImpl(),
+                new ServiceHeaderService(serviceHeaderRepo),
+                new ServiceItemService(new ServiceItemRepositoryImpl()),
+                new ProductHeaderService(productHeaderRepo),
+                new ProductItemService(new ProductSaleItemRepositoryImpl()),
+                movementRepo,
+                cashboxService
+        );
+
+        salesHistoryService = new SalesHistoryService(
+                new SaleRepositoryImpl(),
+                serviceHeaderRepo,
+                new ServiceItemRepositoryImpl(),
+                productHeaderRepo,
+                new ProductSaleItemRepositoryImpl(),
+                new ServiceDefinitionRepositoryImpl(),
+                new ProductRepositoryImpl(),
+                movementRepo,
+                new LegacySaleRepository()
+        );
+
+        cashboxReportService = new CashboxReportService(
+                movementRepo,
+                new UserDailyProductionRepositoryImpl(),
+                new UsersRepositoryImpl(),
+                openingRepo
+        );
+
+        expensesService = new ExpensesService(new ExpenseRepositoryImpl(), cashboxService);
+
+        salariesService = new SalariesService(
+                new SalariesRepositoryImpl(),
+                expensesService,
+                new AdvancesService(),
+                new ServiceHeaderService(serviceHeaderRepo),
+                new SalaryPeriodResolver()
+        );
+    }
+}
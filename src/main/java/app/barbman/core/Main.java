@@ -1,7 +1,18 @@
 package app.barbman.core;
 
+import app.barbman.core.infrastructure.GroupCommitQueue;
 import app.barbman.core.infrastructure.HibernateUtil;
 import app.barbman.core.repositories.DbBootstrap;
+import app.barbman.core.repositories.cashbox.movement.CashboxMovementRepositoryImpl;
+import app.barbman.core.repositories.cashbox.opening.CashboxOpeningRepositoryImpl;
+import app.barbman.core.repositories.sales.production.UserDailyProductionRepositoryImpl;
+import app.barbman.core.repositories.users.UsersRepositoryImpl;
+import app.barbman.core.service.archive.ArchiveService;
+import app.barbman.core.service.appointments.AppointmentMirrorService;
+import app.barbman.core.service.appointments.AppointmentOutboxService;
+import app.barbman.core.service.cashbox.CashboxReportService;
+import app.barbman.core.service.catalog.CatalogCache;
+import app.barbman.core.service.sales.saleflow.SaleJournalService;
 import app.barbman.core.util.window.WindowManager;
 import app.barbman.core.util.window.WindowRequest;
 import javafx.application.Application;
@@ -11,6 +22,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 
 public class Main extends Application {
@@ -31,6 +43,10 @@ public class Main extends Application {
 
     @Override
     public void stop() {
+        SaleJournalService.getInstance().shutdown();
+        AppointmentOutboxService.getInstance().shutdown();
+        AppointmentMirrorService.getInstance().shutdown();
+        GroupCommitQueue.getInstance().shutdown();
         HibernateUtil.shutdown();
         logger.info("[BARBMAN] App closed.");
         LogManager.shutdown();
@@ -71,9 +87,48 @@ public class Main extends Application {
         // Inicializa la base de datos
         DbBootstrap.init();
 
+        // Comando de mantenimiento: recalcula user_daily_production y sale sin abrir la UI
+        if (Arrays.asList(args).contains("--rebuild-production")) {
+            int rows = new UserDailyProductionRepositoryImpl().rebuild();
+            logger.info("[BARBMAN] Daily production rebuilt ({} rows).", rows);
+            HibernateUtil.shutdown();
+            return;
+        }
+
+        // Comando de mantenimiento: mueve los años cerrados a archive_YYYY.db y sale sin abrir la UI
+        if (Arrays.asList(args).contains("--archive-closed-years")) {
+            var archived = new ArchiveService().archiveClosedYears();
+            logger.info("[BARBMAN] Closed years archived: {}", archived);
+            HibernateUtil.shutdown();
+            return;
+        }
+
+        // Auditoría: recalcula cada período cerrado desde los movimientos y lo compara con su snapshot
+        if (Arrays.asList(args).contains("--audit-cashbox-reports")) {
+            var reportService = new CashboxReportService(
+                    new CashboxMovementRepositoryImpl(),
+                    new UserDailyProductionRepositoryImpl(),
+                    new UsersRepositoryImpl(),
+                    new CashboxOpeningRepositoryImpl()
+            );
+            reportService.snapshotClosedPeriods();
+            int mismatches = reportService.auditClosedPeriods();
+            logger.info("[BARBMAN] Cashbox report audit finished: {} mismatch(es)", mismatches);
+            HibernateUtil.shutdown();
+            return;
+        }
+
+        // Precarga el catálogo del punto de venta en segundo plano
+        CatalogCache.getInstance().warmUpAsync();
+
         // Carga el .env desde Barbman Data
         app.barbman.core.infrastructure.EnvConfig.init();
 
+        // Envía los cambios de reservas que quedaron pendientes (p. ej. sin internet al cerrar)
+        if (app.barbman.core.infrastructure.EnvConfig.isConfigured()) {
+            AppointmentOutboxService.getInstance().start();
+        }
+
         // Mensaje de inicio en el log
         String separador = "=".repeat(60);
         String horaInicio = java.time.LocalDateTime.now().toString();
@@ -2,12 +2,12 @@ package app.barbman.core.controller;
 
 import app.barbman.core.controller.cashbox.CashboxClosureController;
 import app.barbman.core.dto.CashboxReportDTO;
+import app.barbman.core.model.cashbox.CashboxClosure;
 import app.barbman.core.model.cashbox.CashboxOpening;
 import app.barbman.core.repositories.cashbox.closure.CashboxClosureRepositoryImpl;
 import app.barbman.core.repositories.cashbox.movement.CashboxMovementRepositoryImpl;
 import app.barbman.core.repositories.cashbox.opening.CashboxOpeningRepositoryImpl;
-import app.barbman.core.repositories.sales.products.productheader.ProductHeaderRepositoryImpl;
-import app.barbman.core.repositories.sales.services.serviceheader.ServiceHeaderRepositoryImpl;
+import app.barbman.core.repositories.sales.production.UserDailyProductionRepositoryImpl;
 import app.barbman.core.repositories.users.UsersRepositoryImpl;
 import app.barbman.core.service.cashbox.CashboxReportService;
 import app.barbman.core.service.cashbox.CashboxService;
@@ -122,8 +122,7 @@ public class CashboxController implements Initializable {
         this.cashboxService = new CashboxService(openingRepo, closureRepo, movementRepo);
         this.reportService = new CashboxReportService(
                 movementRepo,
-                new ServiceHeaderRepositoryImpl(),
-                new ProductHeaderRepositoryImpl(),
+                new UserDailyProductionRepositoryImpl(),
                 new UsersRepositoryImpl(),
                 openingRepo
         );
@@ -152,6 +151,7 @@ public class CashboxController implements Initializable {
     private void refreshLiveBalance() {
         CashboxOpening opening = cashboxService.getCurrentOpening();
         if (opening == null) {
+            if (showLastClosedPeriod()) return;
             lblLiveOpenedSince.setText("Sin caja abierta");
             lblLiveCash.setText("0 Gs");
             lblLiveBank.setText("0 Gs");
@@ -183,6 +183,27 @@ public class CashboxController implements Initializable {
         }
     }
 
+    /** With no cashbox open, shows how the last one closed: one snapshot read. */
+    private boolean showLastClosedPeriod() {
+        try {
+            CashboxClosure closure = cashboxService.getLastClosure();
+            if (closure == null) return false;
+
+            CashboxReportDTO report = reportService.getClosedPeriodReport(closure.getOpeningId());
+            lblLiveOpenedSince.setText("Sin caja abierta — cerrada el " +
+                    closure.getClosedAt().format(DateTimeFormatter.ofPattern("dd/MM HH:mm")));
+            lblLiveCash.setText(NumberFormatterUtil.format(report.getCashBalance()) + " Gs");
+            lblLiveBank.setText(NumberFormatterUtil.format(report.getBankBalance()) + " Gs");
+            lblLiveTotal.setText(NumberFormatterUtil.format(report.getTotalBalance()) + " Gs");
+            lblLiveTotalIn.setText("+ " + NumberFormatterUtil.format(report.getTotalIn()) + " Gs");
+            lblLiveTotalOut.setText("- " + NumberFormatterUtil.format(report.getTotalOut()) + " Gs");
+            return true;
+        } catch (Exception e) {
+            logger.error("{} Error loading last closed period", PREFIX, e);
+            return false;
+        }
+    }
+
     // ============================================================
     // DAILY REPORT
     // ============================================================
@@ -466,20 +487,24 @@ public class CashboxController implements Initializable {
         XYChart.Series<String, Number> seriesOut = new XYChart.Series<>();
         seriesOut.setName("Egresos");
 
+        List<CashboxReportService.DayTotals> days;
+        try {
+            days = reportService.getDailyTotals(weekStart, weekStart.plusDays(6));
+        } catch (Exception e) {
+            logger.error("{} Error loading weekly chart", PREFIX, e);
+            days = List.of();
+        }
+
         for (int i = 0; i < 7; i++) {
             LocalDate day = weekStart.plusDays(i);
             String dayLabel = day.getDayOfWeek()
                     .getDisplayName(TextStyle.SHORT, new Locale("es"))
                     + " " + day.getDayOfMonth();
 
-            try {
-                CashboxReportDTO dayReport = reportService.getDailyReport(day);
-                seriesIn.getData().add(new XYChart.Data<>(dayLabel, dayReport.getTotalIn()));
-                seriesOut.getData().add(new XYChart.Data<>(dayLabel, dayReport.getTotalOut()));
-            } catch (Exception e) {
-                seriesIn.getData().add(new XYChart.Data<>(dayLabel, 0));
-                seriesOut.getData().add(new XYChart.Data<>(dayLabel, 0));
-            }
+            long totalIn = i < days.size() ? days.get(i).totalIn() : 0;
+            long totalOut = i < days.size() ? days.get(i).totalOut() : 0;
+            seriesIn.getData().add(new XYChart.Data<>(dayLabel, totalIn));
+            seriesOut.getData().add(new XYChart.Data<>(dayLabel, totalOut));
         }
 
         chart.getData().addAll(seriesIn, seriesOut);
@@ -512,6 +537,13 @@ public class CashboxController implements Initializable {
         LocalDate monthStart = month.atDay(1);
         LocalDate monthEnd = month.atEndOfMonth();
 
+        Map<LocalDate, CashboxReportService.DayTotals> days = new HashMap<>();
+        try {
+            reportService.getDailyTotals(monthStart, monthEnd).forEach(d -> days.put(d.date(), d));
+        } catch (Exception e) {
+            logger.error("{} Error loading monthly chart", PREFIX, e);
+        }
+
         int weekNum = 1;
         LocalDate chunkStart = monthStart;
 
@@ -525,12 +557,10 @@ public class CashboxController implements Initializable {
             double totalIn = 0, totalOut = 0;
             LocalDate day = chunkStart;
             while (!day.isAfter(chunkEnd)) {
-                try {
-                    CashboxReportDTO dayReport = reportService.getDailyReport(day);
-                    totalIn += dayReport.getTotalIn();
-                    totalOut += dayReport.getTotalOut();
-                } catch (Exception e) {
-                    // skip
+                CashboxReportService.DayTotals totals = days.get(day);
+                if (totals != null) {
+                    totalIn += totals.totalIn();
+                    totalOut += totals.totalOut();
                 }
                 day = day.plusDays(1);
             }
@@ -10,6 +10,7 @@ import app.barbman.core.service.paymentmethods.PaymentMethodsService;
 import app.barbman.core.util.NumberFormatterUtil;
 import app.barbman.core.util.SessionManager;
 import app.barbman.core.util.TextFormatterUtil;
+import app.barbman.core.util.Money;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -155,9 +156,9 @@ public class ExpensesViewController implements Initializable {
 
     private void updateStats() {
         try {
-            double todayTotal = expenseService.getTodayTotal();
-            double weekTotal = expenseService.getWeekTotal();
-            double monthTotal = expenseService.getMonthTotal();
+            long todayTotal = expenseService.getTodayTotal();
+            long weekTotal = expenseService.getWeekTotal();
+            long monthTotal = expenseService.getMonthTotal();
 
             todayTotalLabel.setText(NumberFormatterUtil.format(todayTotal) + " Gs");
             weekTotalLabel.setText(NumberFormatterUtil.format(weekTotal) + " Gs");
@@ -216,7 +217,7 @@ public class ExpensesViewController implements Initializable {
         }
 
         try {
-            double amount = Double.parseDouble(amountStr);
+            long amount = Money.of(Double.parseDouble(amountStr));
 
             expenseService.registerExpense(
                     type,
@@ -260,6 +261,16 @@ public class ExpensesViewController implements Initializable {
             return;
         }
 
+        if (expenseService.isArchived(expense)) {
+            showAlert("El egreso pertenece a un año archivado y no se puede eliminar.");
+            return;
+        }
+
+        if (expenseService.isInClosedPeriod(expense)) {
+            showAlert("El egreso pertenece a una caja ya cerrada y no se puede eliminar.");
+            return;
+        }
+
         // First confirmation
         Alert firstAlert = new Alert(Alert.AlertType.CONFIRMATION);
         firstAlert.setTitle("Confirmar eliminación");
@@ -95,13 +95,7 @@ public class QuickAddClientModalController implements Initializable {
 
         try {
             // Create client
-            clientService.registerClient(name, document, phone, email, null);
-
-            // Get the created client (find by name - last one with that name)
-            Client createdClient = clientService.findAll().stream()
-                    .filter(c -> c.getName().equals(name))
-                    .reduce((first, second) -> second) // Get last
-                    .orElse(null);
+            Client createdClient = clientService.registerClient(name, document, phone, email, null);
 
             logger.info("{} Client created successfully: {}", PREFIX, name);
 
@@ -8,12 +8,14 @@ import app.barbman.core.repositories.client.ClientRepositoryImpl;
 import app.barbman.core.repositories.sales.products.product.ProductRepositoryImpl;
 import app.barbman.core.repositories.sales.services.servicedefinition.ServiceDefinitionRepositoryImpl;
 import app.barbman.core.repositories.users.UsersRepositoryImpl;
+import app.barbman.core.service.catalog.CatalogCache;
 import app.barbman.core.service.clients.ClientService;
 import app.barbman.core.service.sales.products.ProductService;
 import app.barbman.core.service.sales.services.ServiceDefinitionsService;
 import app.barbman.core.service.users.UsersService;
 import app.barbman.core.util.AlertUtil;
 import app.barbman.core.util.NumberFormatterUtil;
+import app.barbman.core.util.Money;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.geometry.Insets;
@@ -58,6 +60,7 @@ public class SettingsController implements Initializable {
     @FXML private TextField productCostField;
     @FXML private TextField productPriceField;
     @FXML private TextField productStockField;
+    @FXML private TextField productBarcodeField;
     @FXML private TextField lowStockThresholdField;
 
     private Product currentEditingProduct = null;
@@ -240,6 +243,7 @@ public class SettingsController implements Initializable {
         productCostField.clear();
         productPriceField.clear();
         productStockField.clear();
+        productBarcodeField.clear();
 
         // Show form
         productFormContainer.setVisible(true);
@@ -257,6 +261,7 @@ public class SettingsController implements Initializable {
         productCostField.setText(String.valueOf((int)product.getCostPrice()));
         productPriceField.setText(String.valueOf((int)product.getUnitPrice()));
         productStockField.setText(String.valueOf(product.getStock()));
+        productBarcodeField.setText(product.getBarcode() != null ? product.getBarcode() : "");
 
         // Show form
         productFormContainer.setVisible(true);
@@ -301,13 +306,13 @@ public class SettingsController implements Initializable {
             return;
         }
 
-        double costPrice;  // NUEVO
-        double unitPrice;
+        long costPrice;  // NUEVO
+        long unitPrice;
         int stock;
 
         try {
-            costPrice = Double.parseDouble(costStr);  // NUEVO
-            unitPrice = Double.parseDouble(priceStr);
+            costPrice = Money.of(Double.parseDouble(costStr));  // NUEVO
+            unitPrice = Money.of(Double.parseDouble(priceStr));
             stock = Integer.parseInt(stockStr);
         } catch (NumberFormatException e) {
             AlertUtil.showWarning("Validacion", "Los precios y stock deben ser numeros validos.");
@@ -334,6 +339,17 @@ public class SettingsController implements Initializable {
             return;
         }
 
+        String barcodeText = productBarcodeField.getText();
+        String barcode = barcodeText == null || barcodeText.isBlank() ? null : barcodeText.trim();
+        if (barcode != null) {
+            Product owner = productService.getByBarcode(barcode);
+            if (owner != null && (currentEditingProduct == null || owner.getId() != currentEditingProduct.getId())) {
+                AlertUtil.showWarning("Validacion",
+                        "El codigo de barras ya esta asignado a '" + owner.getName() + "'.");
+                return;
+            }
+        }
+
         try {
             if (currentEditingProduct == null) {
                 // CREATE
@@ -342,8 +358,10 @@ public class SettingsController implements Initializable {
                         .costPrice(costPrice)
                         .unitPrice(unitPrice)
                         .stock(stock)
+                        .barcode(barcode)
                         .build();
                 productService.save(newProduct);
+                CatalogCache.getInstance().invalidate();
 
                 AlertUtil.showInfo("Exito", "Producto creado exitosamente.");
             } else {
@@ -352,8 +370,10 @@ public class SettingsController implements Initializable {
                 currentEditingProduct.setCostPrice(costPrice);  // NUEVO
                 currentEditingProduct.setUnitPrice(unitPrice);
                 currentEditingProduct.setStock(stock);
+                currentEditingProduct.setBarcode(barcode);
 
                 productService.update(currentEditingProduct);
+                CatalogCache.getInstance().invalidate();
 
                 AlertUtil.showInfo("Exito", "Producto actualizado exitosamente.");
             }
@@ -382,6 +402,7 @@ public class SettingsController implements Initializable {
 
         try {
             productService.delete(product.getId());
+            CatalogCache.getInstance().invalidate();
 
             AlertUtil.showInfo(
                     "Producto eliminado",
@@ -516,10 +537,10 @@ public class SettingsController implements Initializable {
             return;
         }
 
-        double price;
+        long price;
 
         try {
-            price = Double.parseDouble(priceStr);
+            price = Money.of(Double.parseDouble(priceStr));
         } catch (NumberFormatException e) {
             AlertUtil.showWarning("Validacion", "El precio debe ser un numero valido.");
             return;
@@ -541,6 +562,7 @@ public class SettingsController implements Initializable {
                         .available(available)
                         .build();
                 serviceService.save(newService);
+                CatalogCache.getInstance().invalidate();
 
                 AlertUtil.showInfo("Exito", "Servicio creado exitosamente.");
             } else {
@@ -550,6 +572,7 @@ public class SettingsController implements Initializable {
                 currentEditingService.setAvailable(available);
 
                 serviceService.update(currentEditingService);
+                CatalogCache.getInstance().invalidate();
 
                 AlertUtil.showInfo("Exito", "Servicio actualizado exitosamente.");
             }
@@ -578,6 +601,7 @@ public class SettingsController implements Initializable {
 
         try {
             serviceService.delete(service.getId());
+            CatalogCache.getInstance().invalidate();
 
             AlertUtil.showInfo(
                     "Servicio eliminado",
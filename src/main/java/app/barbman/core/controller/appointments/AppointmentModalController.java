@@ -1,13 +1,20 @@
 package app.barbman.core.controller.appointments;
 
+import app.barbman.core.model.human.Client;
+import app.barbman.core.repositories.client.ClientRepositoryImpl;
 import app.barbman.core.service.OnBarberApiClient;
 import app.barbman.core.service.OnBarberApiClient.AppointmentDTO;
 import app.barbman.core.service.OnBarberApiClient.BarberDTO;
+import app.barbman.core.service.appointments.AppointmentOutboxService;
+import app.barbman.core.service.clients.ClientService;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
+import javafx.geometry.Bounds;
 import javafx.scene.control.*;
+import javafx.scene.input.KeyCode;
 import javafx.scene.layout.VBox;
+import javafx.stage.Popup;
 import javafx.stage.Stage;
 import javafx.util.StringConverter;
 import org.apache.logging.log4j.LogManager;
@@ -49,6 +56,12 @@ public class AppointmentModalController {
     private AppointmentDTO currentAppointment;
     private Runnable onSaved;
 
+    private static final int MAX_CLIENT_SUGGESTIONS = 6;
+    private final ClientService clientService = new ClientService(new ClientRepositoryImpl());
+    private final Popup suggestionPopup = new Popup();
+    private final ListView<Client> suggestionList = new ListView<>();
+    private boolean applyingSuggestion;
+
     public void setOnSaved(Runnable onSaved) {
         this.onSaved = onSaved;
     }
@@ -117,23 +130,16 @@ public class AppointmentModalController {
     private void updateAndClose(String newStatus) {
         disableAll(true);
 
-        Thread thread = new Thread(() -> {
-            try {
-                apiClient.updateAppointmentStatus(currentAppointment.getId(), newStatus);
-                Platform.runLater(() -> {
-                    if (onSaved != null) onSaved.run();
-                    closeModal();
-                });
-            } catch (Exception e) {
-                logger.error("[APPOINTMENT-MODAL] Failed to update: {}", e.getMessage());
-                Platform.runLater(() -> {
-                    disableAll(false);
-                    showError("Error al actualizar: " + e.getMessage());
-                });
-            }
-        });
-        thread.setDaemon(true);
-        thread.start();
+        // Saved locally and sent by the outbox; works offline
+        try {
+            AppointmentOutboxService.getInstance().updateStatus(currentAppointment, newStatus);
+            if (onSaved != null) onSaved.run();
+            closeModal();
+        } catch (Exception e) {
+            logger.error("[APPOINTMENT-MODAL] Failed to update: {}", e.getMessage());
+            disableAll(false);
+            showError("Error al actualizar: " + e.getMessage());
+        }
     }
 
     // ============================================================
@@ -164,6 +170,8 @@ public class AppointmentModalController {
         timeCombo.valueProperty().addListener((obs, old, val) -> checkCreateReady());
         clientNameField.textProperty().addListener((obs, old, val) -> checkCreateReady());
         clientPhoneField.textProperty().addListener((obs, old, val) -> checkCreateReady());
+
+        setupClientSuggestions();
     }
 
     /**
@@ -206,6 +214,7 @@ public class AppointmentModalController {
         clientNameField.textProperty().addListener((obs, old, val) -> checkCreateReady());
         clientPhoneField.textProperty().addListener((obs, old, val) -> checkCreateReady());
 
+        setupClientSuggestions();
         resizeToContent();
     }
 
@@ -295,23 +304,90 @@ public class AppointmentModalController {
 
         btnCreate.setDisable(true);
 
-        Thread thread = new Thread(() -> {
-            try {
-                apiClient.createAppointment(barber.getId(), name, phone, date, time);
-                Platform.runLater(() -> {
-                    if (onSaved != null) onSaved.run();
-                    closeModal();
-                });
-            } catch (Exception e) {
-                logger.error("[APPOINTMENT-MODAL] Failed to create: {}", e.getMessage());
-                Platform.runLater(() -> {
-                    btnCreate.setDisable(false);
-                    showError("Error al crear reserva: " + e.getMessage());
-                });
+        // Saved locally and sent by the outbox; works offline
+        try {
+            AppointmentOutboxService.getInstance().createAppointment(barber, name, phone, date, time);
+            if (onSaved != null) onSaved.run();
+            closeModal();
+        } catch (Exception e) {
+            logger.error("[APPOINTMENT-MODAL] Failed to create: {}", e.getMessage());
+            btnCreate.setDisable(false);
+            showError("Error al crear reserva: " + e.getMessage());
+        }
+    }
+
+    // ============================================================
+    // CLIENT SUGGESTIONS
+    // ============================================================
+
+    /**
+     * Suggests registered clients while typing the name (or phone/document);
+     * picking one fills name and phone.
+     */
+    private void setupClientSuggestions() {
+        suggestionList.setPrefWidth(320);
+        suggestionList.setPrefHeight(150);
+        suggestionList.setCellFactory(lv -> new ListCell<>() {
+            @Override
+            protected void updateItem(Client c, boolean empty) {
+                super.updateItem(c, empty);
+                if (empty || c == null) {
+                    setText(null);
+                } else {
+                    setText(c.getPhone() != null && !c.getPhone().isBlank()
+                            ? c.getName() + " · " + c.getPhone()
+                            : c.getName());
+                }
             }
         });
-        thread.setDaemon(true);
-        thread.start();
+        suggestionList.setOnMouseClicked(e -> applySuggestion(suggestionList.getSelectionModel().getSelectedItem()));
+        suggestionList.setOnKeyPressed(e -> {
+            if (e.getCode() == KeyCode.ENTER) {
+                applySuggestion(suggestionList.getSelectionModel().getSelectedItem());
+            } else if (e.getCode() == KeyCode.ESCAPE) {
+                suggestionPopup.hide();
+            }
+        });
+        suggestionPopup.setAutoHide(true);
+        suggestionPopup.getContent().setAll(suggestionList);
+
+        clientNameField.textProperty().addListener((obs, old, text) -> {
+            if (applyingSuggestion) return;
+            if (text == null || text.isBlank()) {
+                suggestionPopup.hide();
+                return;
+            }
+            List<Client> matches = clientService.search(text, MAX_CLIENT_SUGGESTIONS);
+            if (matches.isEmpty()) {
+                suggestionPopup.hide();
+                return;
+            }
+            suggestionList.getItems().setAll(matches);
+            if (!suggestionPopup.isShowing() && clientNameField.getScene() != null) {
+                Bounds bounds = clientNameField.localToScreen(clientNameField.getBoundsInLocal());
+                suggestionPopup.show(clientNameField, bounds.getMinX(), bounds.getMaxY());
+            }
+        });
+
+        clientNameField.setOnKeyPressed(e -> {
+            if (e.getCode() == KeyCode.DOWN && suggestionPopup.isShowing()) {
+                suggestionList.requestFocus();
+                suggestionList.getSelectionModel().selectFirst();
+            }
+        });
+    }
+
+    private void applySuggestion(Client client) {
+        if (client == null) return;
+        applyingSuggestion = true;
+        clientNameField.setText(client.getName());
+        if (client.getPhone() != null && !client.getPhone().isBlank()) {
+            clientPhoneField.setText(client.getPhone());
+        }
+        applyingSuggestion = false;
+        suggestionPopup.hide();
+        clientNameField.requestFocus();
+        clientNameField.positionCaret(clientNameField.getText().length());
     }
 
     // ============================================================
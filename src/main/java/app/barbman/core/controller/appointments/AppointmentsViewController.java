@@ -2,6 +2,8 @@ package app.barbman.core.controller.appointments;
 
 import app.barbman.core.infrastructure.EnvConfig;
 import app.barbman.core.service.OnBarberApiClient;
+import app.barbman.core.service.appointments.AppointmentMirrorService;
+import app.barbman.core.service.appointments.AppointmentOutboxService;
 import app.barbman.core.service.OnBarberApiClient.AppointmentDTO;
 import app.barbman.core.service.OnBarberApiClient.BarberDTO;
 import app.barbman.core.service.OnBarberApiClient.ClosedDayDTO;
@@ -11,7 +13,6 @@ import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.geometry.HPos;
-import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
@@ -27,7 +28,7 @@ import java.time.format.TextStyle;
 import java.time.temporal.TemporalAdjusters;
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 public class AppointmentsViewController {
 
@@ -35,15 +36,27 @@ public class AppointmentsViewController {
     private static final String PREFIX = "[APPOINTMENTS]";
 
     private final OnBarberApiClient apiClient = new OnBarberApiClient();
+    private final AppointmentMirrorService mirror = AppointmentMirrorService.getInstance();
+    private final Runnable onMirrorChanged = () -> Platform.runLater(this::reloadWeekAppointments);
+    private final AppointmentOutboxService outbox = AppointmentOutboxService.getInstance();
+    private final Consumer<AppointmentOutboxService.Event> onOutboxEvent = this::onOutboxEvent;
     private LocalDate weekStart;
 
     // Cached data
     private List<BarberDTO> barbers = new ArrayList<>();
-    private List<AppointmentDTO> allAppointments = new ArrayList<>();
+    private List<AppointmentDTO> weekAppointments = new ArrayList<>();
 
     // Map: "yyyy-MM-dd" -> list of available time strings ("09:00", "10:00", ...)
     private final Map<String, List<String>> availableSlotsCache = new HashMap<>();
 
+    // Created on first render; reuses its nodes across weeks and barbers
+    private WeekScheduleGrid scheduleGridView;
+
+    // Bumped on every week load (FX thread only)
+    private long loadGeneration;
+    // Week load in progress; cancelled when a newer one starts (FX thread only)
+    private CompletableFuture<?> weekLoad;
+
     @FXML private Label weekLabel;
     @FXML private Label statTotal;
     @FXML private Label statPending;
@@ -69,6 +82,19 @@ public class AppointmentsViewController {
 
         setupBarberCombo();
         updateWeekLabel();
+        // The week may have been drawn from cache; redraw when revalidation brings changes
+        apiClient.setOnCacheRefreshed(() -> Platform.runLater(this::loadWeekData));
+        // Redraw when a background sync changes the local appointments; stop when the view is closed
+        mirror.addListener(onMirrorChanged);
+        outbox.addListener(onOutboxEvent);
+        scheduleGrid.sceneProperty().addListener((obs, old, scene) -> {
+            if (scene == null) {
+                mirror.removeListener(onMirrorChanged);
+                outbox.removeListener(onOutboxEvent);
+            }
+        });
+        mirror.start();
+        outbox.start();
         loadBarbers();
     }
 
@@ -93,29 +119,27 @@ public class AppointmentsViewController {
     private void loadBarbers() {
         showLoading("Cargando barberos...");
 
-        Thread thread = new Thread(() -> {
-            try {
-                List<BarberDTO> result = apiClient.getBarbers();
-                List<AppointmentDTO> appointments = apiClient.getAppointments();
-                Platform.runLater(() -> {
-                    barbers = result;
-                    allAppointments = appointments;
-                    barberCombo.setItems(FXCollections.observableArrayList(barbers));
-                    if (!barbers.isEmpty()) {
-                        barberCombo.setValue(barbers.get(0));
-                    }
-                    hideLoading();
-                });
-            } catch (Exception e) {
-                logger.error("{} Failed to load barbers: {}", PREFIX, e.getMessage());
-                Platform.runLater(() -> {
-                    hideLoading();
-                    showStatus("Error al conectar con la API: " + e.getMessage());
+        apiClient.getBarbersAsync()
+                .thenApply(result -> {
+                    Platform.runLater(() -> {
+                        barbers = result;
+                        barberCombo.setItems(FXCollections.observableArrayList(barbers));
+                        if (!barbers.isEmpty()) {
+                            barberCombo.setValue(barbers.get(0));
+                        }
+                        hideLoading();
+                    });
+                    return null;
+                })
+                .exceptionally(e -> {
+                    Throwable cause = OnBarberApiClient.rootCause(e);
+                    logger.error("{} Failed to load barbers: {}", PREFIX, cause.getMessage());
+                    Platform.runLater(() -> {
+                        hideLoading();
+                        showStatus("Error al conectar con la API: " + cause.getMessage());
+                    });
+                    return null;
                 });
-            }
-        });
-        thread.setDaemon(true);
-        thread.start();
     }
 
     // ============================================================
@@ -170,56 +194,87 @@ public class AppointmentsViewController {
         showLoading("Cargando horarios...");
         availableSlotsCache.clear();
 
-        Thread thread = new Thread(() -> {
-            try {
-                ExecutorService pool = Executors.newFixedThreadPool(8);
-
-                // All 8 requests in parallel: 1 appointments + 7 slots
-                Future<List<AppointmentDTO>> appointmentsFuture =
-                        pool.submit(() -> apiClient.getAppointments());
-
-                Map<String, Future<List<String>>> slotFutures = new LinkedHashMap<>();
-                for (int i = 0; i < 7; i++) {
-                    LocalDate day = weekStart.plusDays(i);
-                    String dateStr = day.toString();
-                    int barberId = barber.getId();
-                    slotFutures.put(dateStr, pool.submit(() -> apiClient.getAvailableSlots(barberId, day)));
-                }
-
-                // Collect results
-                List<AppointmentDTO> appointments = appointmentsFuture.get(15, TimeUnit.SECONDS);
+        // A load the user already navigated away from is cancelled before it can build the
+        // grid; its requests still finish and warm the API cache for when they come back
+        long generation = ++loadGeneration;
+        if (weekLoad != null) weekLoad.cancel(false);
+        LocalDate start = weekStart;
 
-                Map<String, List<String>> slotsMap = new LinkedHashMap<>();
-                for (var entry : slotFutures.entrySet()) {
-                    try {
-                        slotsMap.put(entry.getKey(), entry.getValue().get(15, TimeUnit.SECONDS));
-                    } catch (Exception e) {
-                        slotsMap.put(entry.getKey(), Collections.emptyList());
-                        logger.debug("{} No slots for {}: {}", PREFIX, entry.getKey(), e.getMessage());
-                    }
-                }
+        // The week's appointments come from the local mirror (fetched first if the week is
+        // outside the synced window); the 7 slot requests go out in parallel meanwhile
+        CompletableFuture<List<AppointmentDTO>> appointmentsFuture = mirror.focus(start, start.plusDays(6))
+                .thenApply(v -> mirror.findWeek(barber.getId(), start))
+                // Auto-complete confirmed appointments that ended 1+ hour ago
+                .thenCompose(this::autoCompleteExpired);
 
-                pool.shutdown();
+        Map<String, CompletableFuture<List<String>>> slotFutures = new LinkedHashMap<>();
+        for (int i = 0; i < 7; i++) {
+            LocalDate day = start.plusDays(i);
+            slotFutures.put(day.toString(), apiClient.getAvailableSlotsAsync(barber.getId(), day)
+                    .exceptionally(e -> {
+                        logger.debug("{} No slots for {}: {}", PREFIX, day,
+                                OnBarberApiClient.rootCause(e).getMessage());
+                        return Collections.emptyList();
+                    }));
+        }
 
-                // Auto-complete confirmed appointments that ended 1+ hour ago
-                List<AppointmentDTO> updatedAppointments = autoCompleteExpired(appointments);
+        CompletableFuture<Void> load = CompletableFuture.allOf(slotFutures.values().toArray(CompletableFuture[]::new))
+                .thenCombine(appointmentsFuture, (v, appointments) -> {
+                    Map<String, List<String>> slotsMap = new LinkedHashMap<>();
+                    slotFutures.forEach((date, f) -> slotsMap.put(date, f.join()));
+                    int pendingChanges = outbox.pendingCount();
 
-                Platform.runLater(() -> {
-                    allAppointments = updatedAppointments;
-                    availableSlotsCache.putAll(slotsMap);
-                    buildGrid();
-                    hideLoading();
+                    Platform.runLater(() -> {
+                        if (generation != loadGeneration) return;
+                        weekAppointments = appointments;
+                        availableSlotsCache.putAll(slotsMap);
+                        buildGrid();
+                        hideLoading();
+                        if (pendingChanges > 0) {
+                            showStatus(pendingChanges + " cambio(s) pendiente(s) de envío al servidor.");
+                        }
+                    });
+                    return null;
                 });
-            } catch (Exception e) {
-                logger.error("{} Failed to load week data: {}", PREFIX, e.getMessage());
-                Platform.runLater(() -> {
-                    hideLoading();
-                    showStatus("Error al cargar datos: " + e.getMessage());
+        weekLoad = load;
+
+        load
+                // Picks up changes made elsewhere (web bookings, modals); the listener redraws
+                .thenRun(mirror::syncNow)
+                .exceptionally(e -> {
+                    Throwable cause = OnBarberApiClient.rootCause(e);
+                    if (cause instanceof CancellationException) return null; // Superseded
+                    logger.error("{} Failed to load week data: {}", PREFIX, cause.getMessage());
+                    Platform.runLater(() -> {
+                        if (generation != loadGeneration) return;
+                        hideLoading();
+                        showStatus("Error al cargar datos: " + cause.getMessage());
+                    });
+                    return null;
                 });
-            }
+    }
+
+    /** Reloads once a queued change reached the server (slots may have changed) or was rejected. */
+    private void onOutboxEvent(AppointmentOutboxService.Event event) {
+        Platform.runLater(() -> {
+            loadWeekData();
+            if (!event.delivered()) showStatus(event.message());
         });
-        thread.setDaemon(true);
-        thread.start();
+    }
+
+    /** Re-reads the shown week from the mirror after a sync, keeping the loaded slots. */
+    private void reloadWeekAppointments() {
+        BarberDTO barber = barberCombo.getValue();
+        if (barber == null || scheduleGridView == null) return;
+
+        long generation = loadGeneration;
+        LocalDate start = weekStart;
+        CompletableFuture.supplyAsync(() -> mirror.findWeek(barber.getId(), start))
+                .thenAccept(appointments -> Platform.runLater(() -> {
+                    if (generation != loadGeneration) return;
+                    weekAppointments = appointments;
+                    buildGrid();
+                }));
     }
 
     // ============================================================
@@ -227,192 +282,21 @@ public class AppointmentsViewController {
     // ============================================================
 
     private void buildGrid() {
-        scheduleGrid.getChildren().clear();
-        scheduleGrid.getColumnConstraints().clear();
-        scheduleGrid.getRowConstraints().clear();
-
         BarberDTO barber = barberCombo.getValue();
         if (barber == null) return;
 
-        Locale es = new Locale("es");
-
-        // Filter appointments for selected barber & week
-        List<AppointmentDTO> weekAppointments = allAppointments.stream()
-                .filter(a -> a.getBarberId() == barber.getId())
-                .filter(a -> {
-                    LocalDate d = LocalDate.parse(a.getDateOnly());
-                    return !d.isBefore(weekStart) && !d.isAfter(weekStart.plusDays(6));
-                })
-                .collect(Collectors.toList());
-
-        // Collect all time slots (available + booked) to determine rows
-        Set<String> allTimes = new TreeSet<>();
-        for (int i = 0; i < 7; i++) {
-            String dateStr = weekStart.plusDays(i).toString();
-            List<String> available = availableSlotsCache.getOrDefault(dateStr, Collections.emptyList());
-            allTimes.addAll(available);
-        }
-        for (AppointmentDTO a : weekAppointments) {
-            allTimes.add(a.getFormattedTime());
-        }
-
-        if (allTimes.isEmpty()) {
-            showStatus("Sin horarios disponibles para esta semana.");
-            updateStats(weekAppointments);
-            return;
-        }
-
-        List<String> timeSlots = new ArrayList<>(allTimes);
-
-        // Column constraints: time label + 7 days
-        ColumnConstraints timeCol = new ColumnConstraints();
-        timeCol.setMinWidth(60);
-        timeCol.setPrefWidth(65);
-        timeCol.setMaxWidth(70);
-        scheduleGrid.getColumnConstraints().add(timeCol);
-
-        for (int i = 0; i < 7; i++) {
-            ColumnConstraints dayCol = new ColumnConstraints();
-            dayCol.setHgrow(Priority.ALWAYS);
-            dayCol.setFillWidth(true);
-            scheduleGrid.getColumnConstraints().add(dayCol);
-        }
-
-        // Header row
-        RowConstraints headerRow = new RowConstraints();
-        headerRow.setMinHeight(48);
-        headerRow.setPrefHeight(48);
-        scheduleGrid.getRowConstraints().add(headerRow);
-
-        // Empty top-left corner
-        Label corner = new Label("Hora");
-        corner.getStyleClass().add("schedule-header-time");
-        corner.setMaxWidth(Double.MAX_VALUE);
-        corner.setMaxHeight(Double.MAX_VALUE);
-        corner.setAlignment(Pos.CENTER);
-        scheduleGrid.add(corner, 0, 0);
-
-        // Day headers
-        for (int i = 0; i < 7; i++) {
-            LocalDate day = weekStart.plusDays(i);
-            String dayName = capitalize(day.getDayOfWeek().getDisplayName(TextStyle.SHORT, es));
-            String dayNum = String.valueOf(day.getDayOfMonth());
-
-            VBox header = new VBox(1);
-            header.setAlignment(Pos.CENTER);
-            header.getStyleClass().add("schedule-day-header");
-            header.setMaxWidth(Double.MAX_VALUE);
-            header.setMaxHeight(Double.MAX_VALUE);
-
-            if (day.equals(LocalDate.now())) {
-                header.getStyleClass().add("schedule-day-today");
-            }
-
-            Label nameLabel = new Label(dayName);
-            nameLabel.getStyleClass().add("schedule-day-name");
-            Label numLabel = new Label(dayNum);
-            numLabel.getStyleClass().add("schedule-day-num");
-
-            header.getChildren().addAll(nameLabel, numLabel);
-            scheduleGrid.add(header, i + 1, 0);
-        }
-
-        // Time rows
-        for (int row = 0; row < timeSlots.size(); row++) {
-            RowConstraints rc = new RowConstraints();
-            rc.setMinHeight(62);
-            rc.setPrefHeight(68);
-            scheduleGrid.getRowConstraints().add(rc);
-
-            String time = timeSlots.get(row);
-            int gridRow = row + 1;
-
-            // Time label
-            Label timeLabel = new Label(time);
-            timeLabel.getStyleClass().add("schedule-time-label");
-            timeLabel.setMaxWidth(Double.MAX_VALUE);
-            timeLabel.setMaxHeight(Double.MAX_VALUE);
-            timeLabel.setAlignment(Pos.CENTER);
-            scheduleGrid.add(timeLabel, 0, gridRow);
-
-            // Day cells
-            for (int dayIdx = 0; dayIdx < 7; dayIdx++) {
-                LocalDate day = weekStart.plusDays(dayIdx);
-                String dateStr = day.toString();
-
-                List<String> available = availableSlotsCache.getOrDefault(dateStr, Collections.emptyList());
-
-                // Find appointment at this time
-                AppointmentDTO appointment = findAppointment(weekAppointments, dateStr, time);
-
-                VBox cell = createCell(day, time, available.contains(time), appointment);
-                cell.setMaxWidth(Double.MAX_VALUE);
-                cell.setMaxHeight(Double.MAX_VALUE);
-                GridPane.setFillWidth(cell, true);
-                GridPane.setFillHeight(cell, true);
-                scheduleGrid.add(cell, dayIdx + 1, gridRow);
-            }
-        }
-
-        updateStats(weekAppointments);
-    }
-
-    private VBox createCell(LocalDate date, String time, boolean isAvailable, AppointmentDTO appointment) {
-        VBox cell = new VBox(2);
-        cell.setAlignment(Pos.CENTER);
-        cell.getStyleClass().add("schedule-cell");
-
-        // Hide available slots that are already in the past
-        boolean slotPast = isSlotInPast(date, time);
-        if (slotPast && isAvailable && appointment == null) {
-            isAvailable = false;
+        if (scheduleGridView == null) {
+            scheduleGridView = new WeekScheduleGrid(scheduleGrid, this::openCreateModal, this::openDetailModal);
         }
 
-        if (appointment != null) {
-            String status = appointment.getStatus();
-            cell.getStyleClass().add("schedule-cell-" + status);
-
-            Label clientLabel = new Label(appointment.getClientName());
-            clientLabel.getStyleClass().add("schedule-cell-client");
-            clientLabel.setMaxWidth(Double.MAX_VALUE);
-            clientLabel.setAlignment(Pos.CENTER);
+        WeekScheduleGrid.WeekIndex week = WeekScheduleGrid.WeekIndex.build(
+                weekStart, barber.getId(), weekAppointments, availableSlotsCache);
 
-            Label statusLabel = new Label(appointment.getStatusDisplay());
-            statusLabel.getStyleClass().add("schedule-cell-status");
-            statusLabel.setMaxWidth(Double.MAX_VALUE);
-            statusLabel.setAlignment(Pos.CENTER);
-
-            cell.getChildren().addAll(clientLabel, statusLabel);
-
-            cell.setOnMouseClicked(e -> openDetailModal(appointment));
-            cell.setCursor(javafx.scene.Cursor.HAND);
-
-        } else if (isAvailable) {
-            cell.getStyleClass().add("schedule-cell-available");
-
-            Label label = new Label("Disponible");
-            label.getStyleClass().add("schedule-cell-available-text");
-            label.setMaxWidth(Double.MAX_VALUE);
-            label.setAlignment(Pos.CENTER);
-            cell.getChildren().add(label);
-
-            cell.setOnMouseClicked(e -> openCreateModal(date, time));
-            cell.setCursor(javafx.scene.Cursor.HAND);
-
-        } else {
-            // Closed / not available
-            cell.getStyleClass().add("schedule-cell-closed");
+        if (week.timeSlots().isEmpty()) {
+            showStatus("Sin horarios disponibles para esta semana.");
         }
-
-        return cell;
-    }
-
-    private AppointmentDTO findAppointment(List<AppointmentDTO> appointments, String dateStr, String time) {
-        return appointments.stream()
-                .filter(a -> a.getDateOnly().equals(dateStr) && a.getFormattedTime().equals(time))
-                .filter(a -> !"cancelled".equals(a.getStatus()))
-                .findFirst()
-                .orElse(null);
+        scheduleGridView.render(week);
+        updateStats(week.appointments());
     }
 
     // ============================================================
@@ -518,24 +402,14 @@ public class AppointmentsViewController {
 
         Optional<LocalDate> result = dialog.showAndWait();
         result.ifPresent(date -> {
-            showLoading("Cerrando día...");
-            Thread thread = new Thread(() -> {
-                try {
-                    apiClient.closeDayForBarber(barber.getId(), date);
-                    Platform.runLater(() -> {
-                        hideLoading();
-                        loadWeekData();
-                    });
-                } catch (Exception e) {
-                    logger.error("{} Failed to close day: {}", PREFIX, e.getMessage());
-                    Platform.runLater(() -> {
-                        hideLoading();
-                        showStatus("Error al cerrar el día: " + e.getMessage());
-                    });
-                }
-            });
-            thread.setDaemon(true);
-            thread.start();
+            try {
+                // Sent by the outbox; the grid reloads once the server has it
+                outbox.closeDay(barber.getId(), date);
+                showStatus("Cierre del día en cola de envío.");
+            } catch (Exception e) {
+                logger.error("{} Failed to close day: {}", PREFIX, e.getMessage());
+                showStatus("Error al cerrar el día: " + e.getMessage());
+            }
         });
     }
 
@@ -578,24 +452,13 @@ public class AppointmentsViewController {
 
                     Optional<ClosedDayDTO> selected = dialog.showAndWait();
                     selected.ifPresent(closedDay -> {
-                        showLoading("Reabriendo día...");
-                        Thread reopenThread = new Thread(() -> {
-                            try {
-                                apiClient.reopenDayForBarber(barber.getId(), LocalDate.parse(closedDay.getDate()));
-                                Platform.runLater(() -> {
-                                    hideLoading();
-                                    loadWeekData();
-                                });
-                            } catch (Exception e) {
-                                logger.error("{} Failed to reopen day: {}", PREFIX, e.getMessage());
-                                Platform.runLater(() -> {
-                                    hideLoading();
-                                    showStatus("Error al reabrir el día: " + e.getMessage());
-                                });
-                            }
-                        });
-                        reopenThread.setDaemon(true);
-                        reopenThread.start();
+                        try {
+                            outbox.reopenDay(barber.getId(), LocalDate.parse(closedDay.getDate()));
+                            showStatus("Reapertura del día en cola de envío.");
+                        } catch (Exception e) {
+                            logger.error("{} Failed to reopen day: {}", PREFIX, e.getMessage());
+                            showStatus("Error al reabrir el día: " + e.getMessage());
+                        }
                     });
                 });
             } catch (Exception e) {
@@ -616,50 +479,39 @@ public class AppointmentsViewController {
 
     /**
      * Marks confirmed appointments as "completed" if the appointment time
-     * ended more than 1 hour ago. Calls the API for each and returns
-     * the updated list.
+     * ended more than 1 hour ago. Updates are sent in parallel and the
+     * returned list carries the updated appointments.
      */
-    private List<AppointmentDTO> autoCompleteExpired(List<AppointmentDTO> appointments) {
+    private CompletableFuture<List<AppointmentDTO>> autoCompleteExpired(List<AppointmentDTO> appointments) {
         LocalDateTime now = LocalDateTime.now();
-        List<AppointmentDTO> result = new ArrayList<>();
+        List<Integer> expired = new ArrayList<>();
 
         for (AppointmentDTO a : appointments) {
-            if ("confirmed".equals(a.getStatus())) {
-                try {
-                    LocalDate date = LocalDate.parse(a.getDateOnly());
-                    LocalTime time = LocalTime.parse(a.getFormattedTime());
-                    LocalDateTime appointmentEnd = LocalDateTime.of(date, time).plusHours(1);
-
-                    if (now.isAfter(appointmentEnd.plusHours(1))) {
-                        logger.info("{} Auto-completing expired appointment #{} ({} {})",
-                                PREFIX, a.getId(), a.getDateOnly(), a.getFormattedTime());
-                        try {
-                            AppointmentDTO updated = apiClient.updateAppointmentStatus(a.getId(), "completed");
-                            result.add(updated);
-                            continue;
-                        } catch (Exception e) {
-                            logger.warn("{} Failed to auto-complete #{}: {}", PREFIX, a.getId(), e.getMessage());
-                        }
-                    }
-                } catch (Exception e) {
-                    logger.debug("{} Could not parse date/time for #{}", PREFIX, a.getId());
+            if (!"confirmed".equals(a.getStatus())) continue;
+            try {
+                LocalDate date = LocalDate.parse(a.getDateOnly());
+                LocalTime time = LocalTime.parse(a.getFormattedTime());
+                LocalDateTime appointmentEnd = LocalDateTime.of(date, time).plusHours(1);
+
+                if (now.isAfter(appointmentEnd.plusHours(1))) {
+                    logger.info("{} Auto-completing expired appointment #{} ({} {})",
+                            PREFIX, a.getId(), a.getDateOnly(), a.getFormattedTime());
+                    expired.add(a.getId());
                 }
+            } catch (Exception e) {
+                logger.debug("{} Could not parse date/time for #{}", PREFIX, a.getId());
             }
-            result.add(a);
         }
-        return result;
-    }
+        if (expired.isEmpty()) return CompletableFuture.completedFuture(appointments);
 
-    /**
-     * Returns true if the given date+time slot is in the past.
-     */
-    private boolean isSlotInPast(LocalDate date, String time) {
-        try {
-            LocalTime slotTime = LocalTime.parse(time);
-            return LocalDateTime.of(date, slotTime).isBefore(LocalDateTime.now());
-        } catch (Exception e) {
-            return false;
-        }
+        return apiClient.updateAppointmentStatusesAsync(expired, "completed")
+                .thenApply(updated -> {
+                    mirror.upsert(updated.values());
+                    return updated;
+                })
+                .thenApply(updated -> appointments.stream()
+                        .map(a -> updated.getOrDefault(a.getId(), a))
+                        .toList());
     }
 
     // ============================================================
@@ -0,0 +1,339 @@
+package app.barbman.core.controller.appointments;
+
+import app.barbman.core.service.OnBarberApiClient.AppointmentDTO;
+import javafx.geometry.Pos;
+import javafx.scene.Cursor;
+import javafx.scene.control.Label;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.RowConstraints;
+import javafx.scene.layout.VBox;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Weekly schedule (time slots x 7 days) rendered into a GridPane with recycled nodes.
+ *
+ * Header, row and cell nodes are created once and kept in a pool: a render only
+ * rewrites texts, style classes and the state behind each cell's click handler,
+ * growing the pool when a week has more slots than any week shown before and
+ * hiding the rows it does not need. Cell contents come from a {@link WeekIndex}
+ * built once per render, so each cell is two hash lookups instead of a scan of
+ * every appointment.
+ */
+class WeekScheduleGrid {
+
+    private static final Logger logger = LogManager.getLogger(WeekScheduleGrid.class);
+    private static final String PREFIX = "[SCHEDULE-GRID]";
+
+    private static final int DAYS = 7;
+    private static final Locale ES = new Locale("es");
+
+    private final GridPane grid;
+    private final BiConsumer<LocalDate, String> onAvailableClicked;
+    private final Consumer<AppointmentDTO> onAppointmentClicked;
+
+    private final DayHeader[] headers = new DayHeader[DAYS];
+    private final RowConstraints headerRow = new RowConstraints();
+    private final List<SlotRow> rows = new ArrayList<>();
+
+    /**
+     * Appointments and availability of one barber's week, keyed by (day index, "HH:mm").
+     * Cancelled appointments are left out of the slot map (their slot can be booked again)
+     * but are kept in {@link #appointments()} for the stats.
+     */
+    record WeekIndex(LocalDate weekStart,
+                     List<String> timeSlots,
+                     List<Map<String, AppointmentDTO>> bookedByDay,
+                     List<Set<String>> availableByDay,
+                     List<AppointmentDTO> appointments) {
+
+        static WeekIndex build(LocalDate weekStart, int barberId,
+                               Collection<AppointmentDTO> allAppointments,
+                               Map<String, List<String>> availableSlotsByDate) {
+            List<Map<String, AppointmentDTO>> booked = new ArrayList<>(DAYS);
+            List<Set<String>> available = new ArrayList<>(DAYS);
+            Map<String, Integer> dayIndex = new HashMap<>();
+            Set<String> times = new TreeSet<>();
+
+            for (int i = 0; i < DAYS; i++) {
+                String date = weekStart.plusDays(i).toString();
+                dayIndex.put(date, i);
+                booked.add(new HashMap<>());
+                Set<String> slots = new HashSet<>(availableSlotsByDate.getOrDefault(date, List.of()));
+                available.add(slots);
+                times.addAll(slots);
+            }
+
+            List<AppointmentDTO> week = new ArrayList<>();
+            for (AppointmentDTO a : allAppointments) {
+                if (a.getBarberId() != barberId) continue;
+                Integer day = dayIndex.get(a.getDateOnly());
+                if (day == null) continue;
+
+                week.add(a);
+                times.add(a.getFormattedTime());
+                if (!"cancelled".equals(a.getStatus())) {
+                    booked.get(day).putIfAbsent(a.getFormattedTime(), a);
+                }
+            }
+            return new WeekIndex(weekStart, new ArrayList<>(times), booked, available, week);
+        }
+    }
+
+    WeekScheduleGrid(GridPane grid,
+                     BiConsumer<LocalDate, String> onAvailableClicked,
+                     Consumer<AppointmentDTO> onAppointmentClicked) {
+        this.grid = grid;
+        this.onAvailableClicked = onAvailableClicked;
+        this.onAppointmentClicked = onAppointmentClicked;
+        buildSkeleton();
+    }
+
+    // ============================================================
+    // RENDER
+    // ============================================================
+
+    void render(WeekIndex week) {
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int d = 0; d < DAYS; d++) {
+            headers[d].update(week.weekStart().plusDays(d), today);
+        }
+
+        List<String> slots = week.timeSlots();
+        while (rows.size() < slots.size()) {
+            rows.add(new SlotRow(rows.size() + 1));
+        }
+
+        for (int r = 0; r < rows.size(); r++) {
+            SlotRow row = rows.get(r);
+            if (r >= slots.size()) {
+                row.setShown(false);
+                continue;
+            }
+            row.setShown(true);
+            row.update(week, slots.get(r), now);
+        }
+
+        // Header + visible rows only; hidden rows must not reserve height
+        grid.getRowConstraints().setAll(headerRow);
+        for (int r = 0; r < slots.size(); r++) {
+            grid.getRowConstraints().add(rows.get(r).constraints);
+        }
+
+        logger.debug("{} Rendered {} slots x {} days in {} us",
+                PREFIX, slots.size(), DAYS, (System.nanoTime() - start) / 1_000);
+    }
+
+    // ============================================================
+    // NODES
+    // ============================================================
+
+    private void buildSkeleton() {
+        grid.getChildren().clear();
+        grid.getColumnConstraints().clear();
+        grid.getRowConstraints().clear();
+
+        // Column constraints: time label + 7 days
+        ColumnConstraints timeCol = new ColumnConstraints();
+        timeCol.setMinWidth(60);
+        timeCol.setPrefWidth(65);
+        timeCol.setMaxWidth(70);
+        grid.getColumnConstraints().add(timeCol);
+
+        for (int i = 0; i < DAYS; i++) {
+            ColumnConstraints dayCol = new ColumnConstraints();
+            dayCol.setHgrow(Priority.ALWAYS);
+            dayCol.setFillWidth(true);
+            grid.getColumnConstraints().add(dayCol);
+        }
+
+        headerRow.setMinHeight(48);
+        headerRow.setPrefHeight(48);
+
+        Label corner = new Label("Hora");
+        corner.getStyleClass().add("schedule-header-time");
+        corner.setMaxWidth(Double.MAX_VALUE);
+        corner.setMaxHeight(Double.MAX_VALUE);
+        corner.setAlignment(Pos.CENTER);
+        grid.add(corner, 0, 0);
+
+        for (int i = 0; i < DAYS; i++) {
+            headers[i] = new DayHeader();
+            grid.add(headers[i].box, i + 1, 0);
+        }
+    }
+
+    private static final class DayHeader {
+        final VBox box = new VBox(1);
+        final Label name = new Label();
+        final Label number = new Label();
+
+        DayHeader() {
+            box.setAlignment(Pos.CENTER);
+            box.getStyleClass().add("schedule-day-header");
+            box.setMaxWidth(Double.MAX_VALUE);
+            box.setMaxHeight(Double.MAX_VALUE);
+            name.getStyleClass().add("schedule-day-name");
+            number.getStyleClass().add("schedule-day-num");
+            box.getChildren().addAll(name, number);
+        }
+
+        void update(LocalDate day, LocalDate today) {
+            name.setText(capitalize(day.getDayOfWeek().getDisplayName(TextStyle.SHORT, ES)));
+            number.setText(String.valueOf(day.getDayOfMonth()));
+            box.getStyleClass().remove("schedule-day-today");
+            if (day.equals(today)) box.getStyleClass().add("schedule-day-today");
+        }
+    }
+
+    private final class SlotRow {
+        final RowConstraints constraints = new RowConstraints();
+        final Label timeLabel = new Label();
+        final SlotCell[] cells = new SlotCell[DAYS];
+
+        SlotRow(int gridRow) {
+            constraints.setMinHeight(62);
+            constraints.setPrefHeight(68);
+
+            timeLabel.getStyleClass().add("schedule-time-label");
+            timeLabel.setMaxWidth(Double.MAX_VALUE);
+            timeLabel.setMaxHeight(Double.MAX_VALUE);
+            timeLabel.setAlignment(Pos.CENTER);
+            grid.add(timeLabel, 0, gridRow);
+
+            for (int d = 0; d < DAYS; d++) {
+                cells[d] = new SlotCell();
+                GridPane.setFillWidth(cells[d], true);
+                GridPane.setFillHeight(cells[d], true);
+                grid.add(cells[d], d + 1, gridRow);
+            }
+        }
+
+        void setShown(boolean shown) {
+            timeLabel.setVisible(shown);
+            timeLabel.setManaged(shown);
+            for (SlotCell cell : cells) {
+                cell.setVisible(shown);
+                cell.setManaged(shown);
+            }
+        }
+
+        void update(WeekIndex week, String time, LocalDateTime now) {
+            timeLabel.setText(time);
+            LocalTime slotTime = parseTime(time);
+
+            for (int d = 0; d < DAYS; d++) {
+                LocalDate date = week.weekStart().plusDays(d);
+                AppointmentDTO appointment = week.bookedByDay().get(d).get(time);
+                boolean available = week.availableByDay().get(d).contains(time);
+
+                // Hide available slots that are already in the past
+                if (available && slotTime != null && LocalDateTime.of(date, slotTime).isBefore(now)) {
+                    available = false;
+                }
+                cells[d].update(date, time, appointment, available);
+            }
+        }
+    }
+
+    /** One day/slot cell; its click handler reads whatever the last render put in it. */
+    private final class SlotCell extends VBox {
+        private final Label primary = new Label();
+        private final Label secondary = new Label();
+        private String variantClass;
+
+        private LocalDate date;
+        private String time;
+        private AppointmentDTO appointment;
+        private boolean available;
+
+        SlotCell() {
+            super(2);
+            setAlignment(Pos.CENTER);
+            getStyleClass().add("schedule-cell");
+            setMaxWidth(Double.MAX_VALUE);
+            setMaxHeight(Double.MAX_VALUE);
+
+            primary.setMaxWidth(Double.MAX_VALUE);
+            primary.setAlignment(Pos.CENTER);
+            secondary.setMaxWidth(Double.MAX_VALUE);
+            secondary.setAlignment(Pos.CENTER);
+
+            setOnMouseClicked(e -> {
+                if (appointment != null) onAppointmentClicked.accept(appointment);
+                else if (available) onAvailableClicked.accept(date, time);
+            });
+        }
+
+        void update(LocalDate date, String time, AppointmentDTO appointment, boolean available) {
+            this.date = date;
+            this.time = time;
+            this.appointment = appointment;
+            this.available = available;
+
+            if (appointment != null) {
+                setVariant("schedule-cell-" + appointment.getStatus());
+                setLabel(primary, "schedule-cell-client", appointment.getClientName());
+                setLabel(secondary, "schedule-cell-status", appointment.getStatusDisplay());
+                getChildren().setAll(primary, secondary);
+                setCursor(Cursor.HAND);
+            } else if (available) {
+                setVariant("schedule-cell-available");
+                setLabel(primary, "schedule-cell-available-text", "Disponible");
+                getChildren().setAll(primary);
+                setCursor(Cursor.HAND);
+            } else {
+                // Closed / not available
+                setVariant("schedule-cell-closed");
+                getChildren().clear();
+                setCursor(Cursor.DEFAULT);
+            }
+        }
+
+        private void setVariant(String styleClass) {
+            if (styleClass.equals(variantClass)) return;
+            if (variantClass != null) getStyleClass().remove(variantClass);
+            getStyleClass().add(styleClass);
+            variantClass = styleClass;
+        }
+
+        private static void setLabel(Label label, String styleClass, String text) {
+            label.setText(text);
+            if (!label.getStyleClass().contains(styleClass)) label.getStyleClass().setAll("label", styleClass);
+        }
+    }
+
+    private static LocalTime parseTime(String time) {
+        try {
+            return LocalTime.parse(time);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static String capitalize(String s) {
+        if (s == null || s.isEmpty()) return s;
+        return s.substring(0, 1).toUpperCase() + s.substring(1);
+    }
+}
@@ -6,10 +6,16 @@ import app.barbman.core.repositories.cashbox.closure.CashboxClosureRepositoryImp
 import app.barbman.core.repositories.cashbox.movement.CashboxMovementRepositoryImpl;
 import app.barbman.core.repositories.cashbox.opening.CashboxOpeningRepositoryImpl;
 import app.barbman.core.service.cashbox.CashboxService;
+import app.barbman.core.service.sales.saleflow.SaleJournalService;
+import app.barbman.core.service.sales.saleflow.SaleJournalService.RejectedSale;
 import app.barbman.core.util.AlertUtil;
 import app.barbman.core.util.NumberFormatterUtil;
 import app.barbman.core.util.SessionManager;
+import app.barbman.core.util.Money;
 import javafx.fxml.FXML;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ButtonBar;
+import javafx.scene.control.ButtonType;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
@@ -18,6 +24,9 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Controller for cashbox closure with reconciliation.
@@ -30,8 +39,8 @@ public class CashboxClosureController {
     private final CashboxService cashboxService;
     private Runnable onClosureSuccess;
 
-    private double expectedCash;
-    private double expectedBank;
+    private long expectedCash;
+    private long expectedBank;
 
     // ============================================================
     // FXML
@@ -92,7 +101,7 @@ public class CashboxClosureController {
             expectedCashLabel.setText(NumberFormatterUtil.format(expectedCash) + " Gs");
             expectedBankLabel.setText(NumberFormatterUtil.format(expectedBank) + " Gs");
 
-            double expectedTotal = expectedCash + expectedBank;
+            long expectedTotal = expectedCash + expectedBank;
             expectedTotalLabel.setText(NumberFormatterUtil.format(expectedTotal) + " Gs");
 
             // Initialize actual total and discrepancy
@@ -125,17 +134,17 @@ public class CashboxClosureController {
     }
 
     private void updateDiscrepancies() {
-        double actualCash = parseAmount(actualCashField.getText());
-        double actualBank = parseAmount(actualBankField.getText());
+        long actualCash = parseAmount(actualCashField.getText());
+        long actualBank = parseAmount(actualBankField.getText());
 
-        double cashDisc = actualCash - expectedCash;
-        double bankDisc = actualBank - expectedBank;
-        double totalDisc = cashDisc + bankDisc;
+        long cashDisc = actualCash - expectedCash;
+        long bankDisc = actualBank - expectedBank;
+        long totalDisc = cashDisc + bankDisc;
 
         cashDiscrepancyLabel.setText(formatDiscrepancy(cashDisc));
         bankDiscrepancyLabel.setText(formatDiscrepancy(bankDisc));
 
-        double actualTotal = actualCash + actualBank;
+        long actualTotal = actualCash + actualBank;
         actualTotalLabel.setText(NumberFormatterUtil.format(actualTotal) + " Gs");
         totalDiscrepancyLabel.setText(formatDiscrepancy(totalDisc));
 
@@ -145,12 +154,12 @@ public class CashboxClosureController {
         setDiscrepancyStyle(totalDiscrepancyLabel, totalDisc);
     }
 
-    private String formatDiscrepancy(double value) {
+    private String formatDiscrepancy(long value) {
         String sign = value > 0 ? "+" : "";
         return sign + NumberFormatterUtil.format(value) + " Gs";
     }
 
-    private void setDiscrepancyStyle(Label label, double value) {
+    private void setDiscrepancyStyle(Label label, long value) {
         label.getStyleClass().removeAll("discrepancy-positive", "discrepancy-negative", "discrepancy-zero");
         if (value == 0) {
             label.getStyleClass().add("discrepancy-zero");
@@ -174,14 +183,16 @@ public class CashboxClosureController {
                 return;
             }
 
-            double actualCash = parseAmount(actualCashField.getText());
-            double actualBank = parseAmount(actualBankField.getText());
+            long actualCash = parseAmount(actualCashField.getText());
+            long actualBank = parseAmount(actualBankField.getText());
 
             String notes = notesArea.getText();
             if (notes == null || notes.isBlank()) {
                 notes = "Cierre manual";
             }
 
+            if (!reviewRejectedSales()) return;
+
             CashboxClosure closure = cashboxService.closeCashbox(
                     actualCash,
                     actualBank,
@@ -217,6 +228,74 @@ public class CashboxClosureController {
         }
     }
 
+    /**
+     * Lets the admin retry or discard sales the journal could not save before closing.
+     * They never block the closure; sales still rejected are simply not part of it.
+     *
+     * @return false if the admin went back to the closure form
+     */
+    private boolean reviewRejectedSales() {
+        SaleJournalService journal = SaleJournalService.getInstance();
+        List<RejectedSale> rejected = journal.getRejected();
+        if (rejected.isEmpty()) return true;
+
+        DateTimeFormatter fmt = DateTimeFormatter.ofPattern("dd/MM HH:mm");
+        StringBuilder list = new StringBuilder();
+        for (RejectedSale r : rejected) {
+            var entry = r.entry();
+            String when = entry.getAcknowledgedAt() != null
+                    ? entry.getAcknowledgedAt().format(fmt)
+                    : entry.getDate().toString();
+            String items = entry.getLines().stream()
+                    .map(l -> l.displayName() + " x" + l.quantity())
+                    .collect(Collectors.joining(", "));
+            list.append("• ").append(when).append(" - ")
+                    .append(NumberFormatterUtil.format(entry.getTotal())).append(" Gs (")
+                    .append(items).append(")\n   ").append(r.reason()).append('\n');
+        }
+
+        ButtonType retry = new ButtonType("Reintentar");
+        ButtonType discard = new ButtonType("Descartar");
+        ButtonType closeWithout = new ButtonType("Cerrar sin ellas");
+        ButtonType back = new ButtonType("Volver", ButtonBar.ButtonData.CANCEL_CLOSE);
+
+        Optional<ButtonType> choice = AlertUtil.showAndWait(
+                "Ventas rechazadas",
+                rejected.size() + " venta(s) no se pudieron guardar y no entran en este cierre:\n\n" + list
+                        + "\nPuedes reintentarlas (por ejemplo, después de reponer stock), descartarlas"
+                        + " o cerrar sin ellas y decidir más tarde.",
+                Alert.AlertType.WARNING,
+                retry, discard, closeWithout, back
+        );
+        if (choice.isEmpty() || choice.get() == back) return false;
+
+        if (choice.get() == retry) {
+            int left = journal.retryRejected();
+            logger.info("{} Retried rejected sales, {} still rejected", PREFIX, left);
+            if (left > 0) {
+                AlertUtil.showWarning("Ventas rechazadas",
+                        left + " venta(s) siguen rechazadas. Revisa y vuelve a confirmar el cierre.");
+                return false;
+            }
+            // Saved sales change the expected amounts: refresh them, keeping what was counted
+            String cash = actualCashField.getText();
+            String bank = actualBankField.getText();
+            loadClosurePreview();
+            actualCashField.setText(cash);
+            actualBankField.setText(bank);
+            updateDiscrepancies();
+            AlertUtil.showInfo("Ventas guardadas",
+                    "Las ventas rechazadas se guardaron. Revisa los montos esperados y vuelve a confirmar el cierre.");
+            return false;
+        }
+
+        if (choice.get() == discard) {
+            for (RejectedSale r : rejected) journal.discardRejected(r.entry().getJournalId());
+            logger.warn("{} {} rejected sale(s) discarded before closure", PREFIX, rejected.size());
+        }
+        return true;
+    }
+
     @FXML
     private void onCancel() {
         logger.info("{} Closure cancelled by user", PREFIX);
@@ -236,11 +315,11 @@ public class CashboxClosureController {
         stage.close();
     }
 
-    private double parseAmount(String value) {
+    private long parseAmount(String value) {
         if (value == null || value.isBlank()) return 0;
         String clean = value.replace(".", "");
         try {
-            return Double.parseDouble(clean);
+            return Money.of(Double.parseDouble(clean));
         } catch (NumberFormatException e) {
             return 0;
         }
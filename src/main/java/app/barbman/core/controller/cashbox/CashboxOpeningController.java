@@ -8,6 +8,7 @@ import app.barbman.core.util.NumberFormatterUtil;
 import app.barbman.core.util.SessionManager;
 import app.barbman.core.util.window.WindowManager;
 import app.barbman.core.util.window.WindowRequest;
+import app.barbman.core.util.Money;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextArea;
@@ -77,7 +78,7 @@ public class CashboxOpeningController {
             previousBankLabel.setText(
                     "En el banco en ultimo cierre: " + NumberFormatterUtil.format(last.getActualBank()) + " Gs"
             );
-            double total = last.getActualCash() + last.getActualBank();
+            long total = last.getActualCash() + last.getActualBank();
             previousTotalLabel.setText(
                     "Total ultimo cierre: " + NumberFormatterUtil.format(total) + " Gs"
             );
@@ -107,8 +108,8 @@ public class CashboxOpeningController {
     @FXML
     private void onOpenCashbox() {
         try {
-            double cash = parseAmount(cashField.getText());
-            double bank = parseAmount(bankField.getText());
+            long cash = parseAmount(cashField.getText());
+            long bank = parseAmount(bankField.getText());
             String notes = notesArea.getText();
 
             User admin = SessionManager.getActiveUser();
@@ -162,18 +163,18 @@ public class CashboxOpeningController {
     }
 
     private void updateTotal() {
-        double cash = parseAmount(cashField.getText());
-        double bank = parseAmount(bankField.getText());
+        long cash = parseAmount(cashField.getText());
+        long bank = parseAmount(bankField.getText());
 
-        double total = cash + bank;
+        long total = cash + bank;
         totalOpeningLabel.setText(total != 0 ? NumberFormatterUtil.format(total) + " Gs" : 0 + " Gs");
     }
 
 
-    private double parseAmount(String value) {
+    private long parseAmount(String value) {
         if (value == null || value.isBlank()) return 0;
         String clean = value.replace(".", "");
-        return Double.parseDouble(clean);
+        return Money.of(Double.parseDouble(clean));
     }
 
 }
@@ -10,6 +10,7 @@ import app.barbman.core.service.users.UsersService;
 import app.barbman.core.util.AlertUtil;
 import app.barbman.core.util.NumberFormatterUtil;
 import app.barbman.core.util.SessionManager;
+import app.barbman.core.util.Money;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -139,7 +140,7 @@ public class AdvancesController implements Initializable {
                     .orElseThrow(() -> new IllegalArgumentException("Empleado no encontrado"));
 
             // Parse amount
-            double amount = parseAmount(amountField.getText());
+            long amount = parseAmount(amountField.getText());
 
             // Get payment method ID
             int paymentMethodId = getPaymentMethodId();
@@ -203,7 +204,7 @@ public class AdvancesController implements Initializable {
             throw new IllegalArgumentException("Debe ingresar un monto.");
         }
 
-        double amount = parseAmount(amountField.getText());
+        long amount = parseAmount(amountField.getText());
         if (amount <= 0) {
             throw new IllegalArgumentException("El monto debe ser mayor a 0.");
         }
@@ -224,14 +225,14 @@ public class AdvancesController implements Initializable {
         };
     }
 
-    private double parseAmount(String value) {
+    private long parseAmount(String value) {
         if (value == null || value.isBlank()) {
-            return 0.0;
+            return 0;
         }
 
         try {
             String clean = value.replace(".", "").replace(",", ".");
-            return Double.parseDouble(clean);
+            return Money.of(Double.parseDouble(clean));
         } catch (NumberFormatException e) {
             logger.warn("{} Invalid number format: {}", PREFIX, value);
             throw new IllegalArgumentException("El monto ingresado no es válido.");
@@ -16,6 +16,7 @@ import app.barbman.core.service.sales.services.ServiceHeaderService;
 import app.barbman.core.service.users.UsersService;
 import app.barbman.core.util.AlertUtil;
 import app.barbman.core.util.NumberFormatterUtil;
+import app.barbman.core.util.Money;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -196,8 +197,8 @@ public class ConfirmSalaryController implements Initializable {
     private void updateFinalAmount() {
         if (salaryDTO == null) return;
 
-        double bonus = parseAmount(bonusField.getText());
-        double finalAmount = salaryDTO.getFinalAmount() + bonus;
+        long bonus = parseAmount(bonusField.getText());
+        long finalAmount = salaryDTO.getFinalAmount() + bonus;
 
         lblFinalAmount.setText(
                 "Monto final: " + NumberFormatterUtil.format(finalAmount) + " Gs"
@@ -217,7 +218,7 @@ public class ConfirmSalaryController implements Initializable {
             validateInputs();
 
             // Parse bonus
-            double bonus = parseAmount(bonusField.getText());
+            long bonus = parseAmount(bonusField.getText());
 
             // Get payment method ID
             int paymentMethodId = getPaymentMethodId();
@@ -227,7 +228,7 @@ public class ConfirmSalaryController implements Initializable {
             if (user.getPaymentType() == 0) {
                 // Manual payment: override the calculated amount
                 salary = salariesService.calculateSalary(user, currentPeriodReference, 0);
-                double manualAmount = parseAmount(manualAmountField.getText());
+                long manualAmount = parseAmount(manualAmountField.getText());
                 salary.setAmountPaid(manualAmount);
             } else {
                 // Automatic calculation
@@ -291,7 +292,7 @@ public class ConfirmSalaryController implements Initializable {
                 throw new IllegalArgumentException("Debe ingresar un monto manual.");
             }
 
-            double amount = parseAmount(manualAmountField.getText());
+            long amount = parseAmount(manualAmountField.getText());
             if (amount <= 0) {
                 throw new IllegalArgumentException("El monto manual debe ser mayor a 0.");
             }
@@ -299,7 +300,7 @@ public class ConfirmSalaryController implements Initializable {
 
         // Validate bonus (optional, but if provided must be valid)
         if (bonusField.getText() != null && !bonusField.getText().isBlank()) {
-            double bonus = parseAmount(bonusField.getText());
+            long bonus = parseAmount(bonusField.getText());
             if (bonus < 0) {
                 throw new IllegalArgumentException("El bono no puede ser negativo.");
             }
@@ -330,7 +331,7 @@ public class ConfirmSalaryController implements Initializable {
     /**
      * Creates a manual salary record for paymentType = 0.
      */
-    private Salary createManualSalary(double amount) {
+    private Salary createManualSalary(long amount) {
         var range = new app.barbman.core.service.salaries.period.SalaryPeriodResolver()
                 .resolve(user, currentPeriodReference);
 
@@ -345,19 +346,19 @@ public class ConfirmSalaryController implements Initializable {
     }
 
     /**
-     * Parses a formatted number string to double.
+     * Parses a formatted number string to a whole amount (see Money).
      */
-    private double parseAmount(String value) {
+    private long parseAmount(String value) {
         if (value == null || value.isBlank()) {
-            return 0.0;
+            return 0;
         }
 
         try {
             String clean = value.replace(".", "").replace(",", ".");
-            return Double.parseDouble(clean);
+            return Money.of(Double.parseDouble(clean));
         } catch (NumberFormatException e) {
             logger.warn("{} Invalid number format: {}", PREFIX, value);
-            return 0.0;
+            return 0;
         }
     }
 
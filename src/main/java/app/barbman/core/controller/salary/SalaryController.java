@@ -59,6 +59,7 @@ public class SalaryController implements Initializable {
     @FXML private TableColumn<SalaryDTO, Void> colAccion;
 
     @FXML private Button btnRegistrarAdelanto;
+    @FXML private Button btnPagarTodos;
     @FXML private TextField searchField;
 
     // Stats labels
@@ -76,6 +77,7 @@ public class SalaryController implements Initializable {
     private final UsersService usersService;
 
     private ObservableList<SalaryDTO> allSalaries;
+    private List<User> employees = List.of();
     private LocalDate currentPeriodReference;
 
     // ============================================================
@@ -323,6 +325,46 @@ public class SalaryController implements Initializable {
         if (btnRegistrarAdelanto != null) {
             btnRegistrarAdelanto.setOnAction(e -> handleRegistrarAdelanto());
         }
+        if (btnPagarTodos != null) {
+            btnPagarTodos.setOnAction(e -> handlePagarTodos());
+        }
+    }
+
+    /**
+     * Pays every pending salary (except manual ones) in cash, in one transaction.
+     */
+    private void handlePagarTodos() {
+        if (allSalaries == null) return;
+
+        List<SalaryDTO> pendientes = allSalaries.stream()
+                .filter(dto -> !dto.isPaid())
+                .filter(dto -> employees.stream()
+                        .anyMatch(u -> u.getId() == dto.getUserId() && u.getPaymentType() != 0))
+                .toList();
+
+        if (pendientes.isEmpty()) {
+            AlertUtil.showInfo("Sin Pendientes", "No hay sueldos pendientes para pagar.");
+            return;
+        }
+
+        double total = pendientes.stream().mapToDouble(SalaryDTO::getFinalAmount).sum();
+        boolean confirmed = AlertUtil.showConfirmation(
+                "Pagar Todos",
+                String.format("Se pagarán %d sueldos pendientes en efectivo por un total de %s Gs.\n" +
+                                "Los sueldos de pago manual deben pagarse individualmente.",
+                        pendientes.size(), NumberFormatterUtil.format(total))
+        );
+        if (!confirmed) return;
+
+        try {
+            var paid = salariesService.payAllPending(employees, currentPeriodReference, 0);
+            logger.info("{} Paid {} pending salaries", PREFIX, paid.size());
+            AlertUtil.showInfo("Pago Exitoso", String.format("Se pagaron %d sueldos correctamente.", paid.size()));
+        } catch (Exception e) {
+            logger.error("{} Error paying pending salaries: {}", PREFIX, e.getMessage(), e);
+            AlertUtil.showError("Error al Pagar", "No se pudo completar el pago. No se registró ningún sueldo.");
+        }
+        reloadData();
     }
 
     private void handleRegistrarAdelanto() {
@@ -426,14 +468,12 @@ public class SalaryController implements Initializable {
 
         try {
             // Get all employees (admins and users, exclude superadmin)
-            List<User> employees = usersService.getAllUsers().stream()
+            employees = usersService.getAllUsers().stream()
                     .filter(u -> Objects.equals(u.getRole(), "user") || Objects.equals(u.getRole(), "admin")) // 1=Admin, 2=User/Barber
                     .toList();
 
-            // Build DTOs for each employee
-            List<SalaryDTO> dtos = employees.stream()
-                    .map(user -> salariesService.buildSalaryDTO(user, currentPeriodReference))
-                    .toList();
+            // Build DTOs for all employees (3 grouped queries total)
+            List<SalaryDTO> dtos = salariesService.buildSalaryDTOs(employees, currentPeriodReference);
 
             allSalaries = FXCollections.observableArrayList(dtos);
             sueldosTable.setItems(allSalaries);
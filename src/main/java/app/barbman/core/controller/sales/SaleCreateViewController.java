@@ -6,18 +6,17 @@ import app.barbman.core.model.human.User;
 import app.barbman.core.model.sales.products.Product;
 import app.barbman.core.model.sales.services.ServiceDefinition;
 import app.barbman.core.repositories.sales.SaleRepositoryImpl;
-import app.barbman.core.repositories.sales.products.product.ProductRepositoryImpl;
-import app.barbman.core.repositories.sales.services.servicedefinition.ServiceDefinitionRepositoryImpl;
 import app.barbman.core.repositories.users.UsersRepositoryImpl;
+import app.barbman.core.service.catalog.CatalogCache;
 import app.barbman.core.service.sales.SalesService;
-import app.barbman.core.service.sales.products.ProductService;
-import app.barbman.core.service.sales.services.ServiceDefinitionsService;
 import app.barbman.core.service.users.UsersService;
 import app.barbman.core.util.AlertUtil;
+import app.barbman.core.util.BarcodeScannerInput;
 import app.barbman.core.util.NumberFormatterUtil;
 import app.barbman.core.util.SessionManager;
 import app.barbman.core.util.TextFormatterUtil;
 import app.barbman.core.util.window.EmbeddedViewLoader;
+import javafx.beans.binding.Bindings;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -37,6 +36,9 @@ public class SaleCreateViewController implements Initializable {
     private static final Logger logger =
             LogManager.getLogger(SaleCreateViewController.class);
 
+    /** Cards shown for a typed search; the full list is only rendered with an empty filter. */
+    private static final int MAX_SEARCH_RESULTS = 60;
+
     // FXML
     @FXML private FlowPane itemsGrid;
     @FXML private VBox cartContainer;
@@ -51,25 +53,27 @@ public class SaleCreateViewController implements Initializable {
     @FXML private Label weekTotalLabel;
     @FXML private Label monthTotalLabel;
     @FXML private Label cartItemsCount;
+    @FXML private ToggleButton scannerToggle;
+    @FXML private Label scanStatusLabel;
 
     // STATE
     private SaleCartDTO cart;
     private Mode currentMode = Mode.SERVICES;
     private List<ServiceDefinition> cachedServices = new ArrayList<>();
     private List<Product> cachedProducts = new ArrayList<>();
+    private long cachedVersion = -1;
 
     private enum Mode { SERVICES, PRODUCTS }
 
     // SERVICES
-    private final ServiceDefinitionsService serviceDefinitionsService =
-            new ServiceDefinitionsService(new ServiceDefinitionRepositoryImpl());
-    private final ProductService productService =
-            new ProductService(new ProductRepositoryImpl());
+    private final CatalogCache catalogCache = CatalogCache.getInstance();
     private final SalesService salesService =
             new SalesService(new SaleRepositoryImpl());
     private final UsersService usersService =
             new UsersService(new UsersRepositoryImpl());
 
+    private final BarcodeScannerInput scannerInput = new BarcodeScannerInput(this::onBarcodeScanned);
+
     @Override
     public void initialize(URL url, ResourceBundle rb) {
         User user = SessionManager.getActiveUser();
@@ -82,7 +86,8 @@ public class SaleCreateViewController implements Initializable {
         setupUserSelector();
         setupToggle();
         setupSearch();
-        cacheData();
+        setupScanner();
+        bindCartTotals();
         loadCurrentMode();
         refreshCart();
         setupConfirmButton();
@@ -139,38 +144,101 @@ public class SaleCreateViewController implements Initializable {
 
     private void setupSearch() {
         searchField.textProperty().addListener((obs, old, text) -> loadCurrentMode());
+        // Keyboard / scanner entry: Enter adds the best match and clears for the next item
+        searchField.setOnAction(e -> addBestMatch());
+    }
+
+    /**
+     * Adds the top search result to the cart: current mode first, then the other one,
+     * so a scanned or typed product name works even while services are shown.
+     */
+    private void addBestMatch() {
+        String text = searchField.getText();
+        if (text == null || text.isBlank()) return;
+
+        List<ServiceDefinition> services = catalogCache.searchServices(text, 1);
+        List<Product> products = catalogCache.searchProductsInStock(text, 1);
+
+        boolean preferProducts = currentMode == Mode.PRODUCTS || services.isEmpty();
+        if (preferProducts && !products.isEmpty()) {
+            Product p = products.get(0);
+            cart.addProduct(p.getId(), p.getName(), p.getUnitPrice());
+        } else if (!services.isEmpty()) {
+            ServiceDefinition def = services.get(0);
+            cart.addService(def.getId(), def.getName(), def.getBasePrice());
+        } else {
+            logger.info("[SALE-CREATE] Sin coincidencias para: {}", text);
+            return;
+        }
+
+        searchField.clear();
+        refreshCart();
+    }
+
+    // ── Barcode scanner ────────────────────────────────────────
+
+    private void setupScanner() {
+        scannerInput.attach(itemsGrid);
+        scannerToggle.selectedProperty().addListener((obs, old, on) -> {
+            scannerInput.setActive(on);
+            showScanStatus(on ? "Modo escaner activo: escanee los productos" : null);
+            logger.info("[SALE-CREATE] Modo escaner {}", on ? "activado" : "desactivado");
+        });
+    }
+
+    /** Adds one unit of the scanned product. Runs on the FX thread, once per scan. */
+    private void onBarcodeScanned(String code) {
+        Product p = catalogCache.findProductByBarcode(code);
+        if (p == null) {
+            showScanStatus("Codigo no encontrado: " + code);
+            return;
+        }
+
+        int inCart = cart.getQuantity(SaleCartItemDTO.ItemType.PRODUCT, p.getId(), p.getUnitPrice());
+        if (p.getStock() <= inCart) {
+            showScanStatus("Sin stock: " + TextFormatterUtil.capitalizeFirstLetter(p.getName()));
+            return;
+        }
+
+        cart.addProduct(p.getId(), p.getName(), p.getUnitPrice());
+        refreshCart();
+        showScanStatus("+1 " + TextFormatterUtil.capitalizeFirstLetter(p.getName()));
     }
 
+    // Non-blocking feedback: a modal alert would swallow the next scans
+    private void showScanStatus(String text) {
+        boolean show = text != null;
+        scanStatusLabel.setText(show ? text : "");
+        scanStatusLabel.setVisible(show);
+        scanStatusLabel.setManaged(show);
+    }
+
+    /** Pulls services/products from the shared catalog cache when its version changed. */
     private void cacheData() {
-        cachedServices = serviceDefinitionsService.getAll().stream()
-                .filter(ServiceDefinition::isAvailable)
-                .toList();
-        cachedProducts = productService.getAll().stream()
-                .filter(p -> p.getStock() > 0)
-                .toList();
+        long version = catalogCache.getVersion();
+        if (version == cachedVersion) return;
+
+        cachedServices = catalogCache.getAvailableServices();
+        cachedProducts = catalogCache.getProductsInStock();
+        cachedVersion = version;
     }
 
     // ── Load items ─────────────────────────────────────────────
 
     private void loadCurrentMode() {
+        cacheData();
         itemsGrid.getChildren().clear();
         String filter = searchField.getText();
+        boolean all = filter == null || filter.isBlank();
 
         switch (currentMode) {
-            case SERVICES -> cachedServices.stream()
-                    .filter(def -> matches(def.getName(), filter))
+            case SERVICES -> (all ? cachedServices : catalogCache.searchServices(filter, MAX_SEARCH_RESULTS))
                     .forEach(def -> itemsGrid.getChildren().add(buildServiceCard(def)));
-            case PRODUCTS -> cachedProducts.stream()
-                    .filter(p -> matches(p.getName(), filter))
+            case PRODUCTS -> (all ? cachedProducts : catalogCache.searchProductsInStock(filter, MAX_SEARCH_RESULTS))
                     .forEach(p -> itemsGrid.getChildren().add(buildProductCard(p)));
         }
     }
 
-    private boolean matches(String name, String filter) {
-        return filter == null || filter.isBlank()
-                || name.toLowerCase().contains(filter.toLowerCase());
-    }
-
     // ── Cart ───────────────────────────────────────────────────
 
     private void refreshCart() {
@@ -186,11 +254,13 @@ public class SaleCreateViewController implements Initializable {
             }
         }
 
-        totalLabel.setText(NumberFormatterUtil.format(cart.getTotal()) + " Gs");
+    }
 
-        int count = cart.getCartItems().stream()
-                .mapToInt(SaleCartItemDTO::getQuantity).sum();
-        cartItemsCount.setText(String.valueOf(count));
+    /** Total and item count follow the cart's running totals. */
+    private void bindCartTotals() {
+        totalLabel.textProperty().bind(Bindings.createStringBinding(
+                () -> NumberFormatterUtil.format(cart.getTotal()) + " Gs", cart.totalProperty()));
+        cartItemsCount.textProperty().bind(cart.itemCountProperty().asString());
     }
 
     private void setupConfirmButton() {
@@ -247,7 +317,7 @@ public class SaleCreateViewController implements Initializable {
         add.setOnAction(e -> {
             String clean = priceField.getText().replace(".", "").trim();
             if (!clean.matches("\\d+")) return;
-            double price = Double.parseDouble(clean);
+            long price = Long.parseLong(clean);
             cart.addService(def.getId(), def.getName(), price);
             refreshCart();
         });
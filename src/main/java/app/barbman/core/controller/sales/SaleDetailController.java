@@ -24,6 +24,7 @@ import javafx.stage.Stage;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
 /**
@@ -82,11 +83,11 @@ public class SaleDetailController {
     /**
      * Loads and displays the detail of a sale.
      */
-    public void loadSaleDetail(int saleId) {
+    public void loadSaleDetail(int saleId, LocalDate date) {
         logger.info("{} Loading detail for sale ID={}", PREFIX, saleId);
 
         try {
-            SaleDetailDTO detail = historyService.getSaleDetail(saleId);
+            SaleDetailDTO detail = historyService.getSaleDetail(saleId, date);
 
             if (detail == null) {
                 AlertUtil.showInfo("Registro Histórico",
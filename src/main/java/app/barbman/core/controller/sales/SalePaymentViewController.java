@@ -5,26 +5,15 @@ import app.barbman.core.dto.salecart.SaleCartDTO;
 import app.barbman.core.dto.salecart.SaleCartItemDTO;
 import app.barbman.core.model.human.Client;
 import app.barbman.core.model.sales.Sale;
-import app.barbman.core.repositories.cashbox.closure.CashboxClosureRepositoryImpl;
-import app.barbman.core.repositories.cashbox.movement.CashboxMovementRepositoryImpl;
-import app.barbman.core.repositories.cashbox.opening.CashboxOpeningRepositoryImpl;
 import app.barbman.core.repositories.client.ClientRepositoryImpl;
-import app.barbman.core.repositories.sales.SaleRepositoryImpl;
-import app.barbman.core.repositories.sales.products.productheader.ProductHeaderRepositoryImpl;
-import app.barbman.core.repositories.sales.products.productsaleitem.ProductSaleItemRepositoryImpl;
-import app.barbman.core.repositories.sales.services.serviceheader.ServiceHeaderRepositoryImpl;
-import app.barbman.core.repositories.sales.services.serviceitems.ServiceItemRepositoryImpl;
-import app.barbman.core.service.cashbox.CashboxService;
+import app.barbman.core.repositories.sales.products.product.ProductRepository.InsufficientStockException;
 import app.barbman.core.service.clients.ClientService;
-import app.barbman.core.service.sales.products.ProductHeaderService;
-import app.barbman.core.service.sales.products.ProductItemService;
-import app.barbman.core.service.sales.saleflow.SaleFlowService;
-import app.barbman.core.service.sales.services.ServiceHeaderService;
-import app.barbman.core.service.sales.services.ServiceItemService;
+import app.barbman.core.service.sales.saleflow.SaleJournalService;
 import app.barbman.core.util.AlertUtil;
 import app.barbman.core.util.NumberFormatterUtil;
 import app.barbman.core.util.SessionManager;
 import app.barbman.core.util.window.EmbeddedViewLoader;
+import javafx.beans.binding.Bindings;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
@@ -42,17 +31,19 @@ import org.apache.logging.log4j.Logger;
 
 import java.net.URL;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 
 public class SalePaymentViewController implements Initializable {
 
     private static final Logger logger =
             LogManager.getLogger(SalePaymentViewController.class);
 
+    private static final int MAX_CLIENT_SUGGESTIONS = 20;
+
     // ============================================================
     // FXML COMPONENTS
     // ============================================================
@@ -85,19 +76,6 @@ public class SalePaymentViewController implements Initializable {
     // ============================================================
 
     private final ClientService clientService = new ClientService(new ClientRepositoryImpl());
-    private final SaleFlowService saleFlowService = new SaleFlowService(
-            new SaleRepositoryImpl(),
-            new ServiceHeaderService(new ServiceHeaderRepositoryImpl()),
-            new ServiceItemService(new ServiceItemRepositoryImpl()),
-            new ProductHeaderService(new ProductHeaderRepositoryImpl()),
-            new ProductItemService(new ProductSaleItemRepositoryImpl()),
-            new CashboxMovementRepositoryImpl(),
-            new CashboxService(
-                    new CashboxOpeningRepositoryImpl(),
-                    new CashboxClosureRepositoryImpl(),
-                    new CashboxMovementRepositoryImpl()
-            )
-    );
 
     // ============================================================
     // STATE
@@ -125,9 +103,8 @@ public class SalePaymentViewController implements Initializable {
         loadSummary();
         setupButtons();
 
-        totalLabel.setText(
-                NumberFormatterUtil.format(cart.getTotal()) + " Gs"
-        );
+        totalLabel.textProperty().bind(Bindings.createStringBinding(
+                () -> NumberFormatterUtil.format(cart.getTotal()) + " Gs", cart.totalProperty()));
 
         logger.info("[SALE-PAYMENT] Payment view initialized");
     }
@@ -158,9 +135,10 @@ public class SalePaymentViewController implements Initializable {
             // Se está escribiendo → limpiar selección previa
             selectedClientName = null;
 
-            String filter = text.toLowerCase();
-            List<String> filtered = allClientNames.stream()
-                    .filter(name -> name.toLowerCase().contains(filter))
+            // Índice en memoria: prefijo, nombre/documento/teléfono y coincidencias aproximadas
+            List<String> filtered = clientService.search(text, MAX_CLIENT_SUGGESTIONS).stream()
+                    .map(Client::getName)
+                    .distinct()
                     .toList();
 
             clientListView.getItems().setAll(filtered);
@@ -272,9 +250,7 @@ public class SalePaymentViewController implements Initializable {
         allClientNames.add("Ninguno");
         clientMap.put("Ninguno", null);
 
-        clientService.findAll().stream()
-                .filter(Client::isActive)
-                .sorted(Comparator.comparing(Client::getName, String.CASE_INSENSITIVE_ORDER))
+        clientService.findAllActive()
                 .forEach(client -> {
                     allClientNames.add(client.getName());
                     clientMap.put(client.getName(), client.getId());
@@ -451,6 +427,14 @@ public class SalePaymentViewController implements Initializable {
         }
         return clientMap.get(selectedClientName);
     }
+    private String productName(int productId) {
+        for (SaleCartItemDTO item : cart.getCartItems()) {
+            if (item.getType() == SaleCartItemDTO.ItemType.PRODUCT && item.getReferenceId() == productId) {
+                return item.getDisplayName();
+            }
+        }
+        return "un producto";
+    }
     private boolean isPaymentValid() {
 
         // 1. Método de pago seleccionado
@@ -495,8 +479,17 @@ public class SalePaymentViewController implements Initializable {
             cart.setClientId(getSelectedClientId());
             cart.setNotes(noteArea.getText());
 
-            // Save sale on database
-            Sale sale = saleFlowService.completeSale(cart);
+            // Journal the sale; it is written to the database in the background
+            CompletableFuture<Sale> sale;
+            try {
+                sale = SaleJournalService.getInstance().submit(cart);
+            } catch (InsufficientStockException ex) {
+                logger.warn("[SALE-PAYMENT] Sale refused: {}", ex.getMessage());
+                AlertUtil.showWarning("Sin stock",
+                        "No queda stock suficiente de " + productName(ex.getProductId())
+                                + ". Ajusta la cantidad en el carrito.");
+                return;
+            }
 
             // Save on session
             SessionManager.setLastSale(sale);
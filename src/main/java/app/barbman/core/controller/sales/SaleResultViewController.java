@@ -3,9 +3,12 @@ package app.barbman.core.controller.sales;
 import app.barbman.core.dto.SaleItemSummaryDTO;
 import app.barbman.core.dto.SaleSummaryDTO;
 import app.barbman.core.service.sales.SaleQueryService;
+import app.barbman.core.service.sales.saleflow.SaleJournalService;
+import app.barbman.core.util.AlertUtil;
 import app.barbman.core.util.NumberFormatterUtil;
 import app.barbman.core.util.NumberToWordsUtil;
 import app.barbman.core.util.SessionManager;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.geometry.Pos;
@@ -46,15 +49,32 @@ public class SaleResultViewController implements Initializable {
     @Override
     public void initialize(URL url, ResourceBundle rb) {
 
-        var sale = SessionManager.getLastSale();
-        if (sale == null) {
+        var pendingSale = SessionManager.getLastSale();
+        if (pendingSale == null) {
             throw new IllegalStateException("No sale in session");
         }
 
-        loadSale(sale.getId());
         setupButtons();
 
-        logger.info("[SALE-RESULT] View initialized for sale {}", sale.getId());
+        // The sale is already journaled; the receipt fills in once it is in the database
+        saleNumberLabel.setText("...");
+        pendingSale.whenComplete((sale, error) -> Platform.runLater(() -> {
+            if (error instanceof SaleJournalService.SaleRejectedException) {
+                logger.error("[SALE-RESULT] Journaled sale rejected: {}", error.getMessage());
+                AlertUtil.showError("Venta rechazada",
+                        "La venta no se pudo guardar (por ejemplo, ya no queda stock).\n"
+                                + "Quedó en la lista de ventas rechazadas: puedes reintentarla o descartarla al cerrar la caja.");
+                return;
+            }
+            if (error != null) {
+                logger.error("[SALE-RESULT] Journaled sale could not be saved yet: {}", error.getMessage());
+                AlertUtil.showWarning("Venta pendiente",
+                        "La venta quedó registrada y se guardará automáticamente en cuanto sea posible.");
+                return;
+            }
+            loadSale(sale.getId());
+            logger.info("[SALE-RESULT] View initialized for sale {}", sale.getId());
+        }));
     }
 
     private void loadSale(int saleId) {
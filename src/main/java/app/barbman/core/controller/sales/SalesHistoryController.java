@@ -170,7 +170,7 @@ public class SalesHistoryController implements Initializable {
             row.setOnMouseClicked(event -> {
                 if (!row.isEmpty() && event.getButton() == MouseButton.PRIMARY && event.getClickCount() == 2) {
                     SaleHistoryDTO sale = row.getItem();
-                    openSaleDetail(sale.getSaleId());
+                    openSaleDetail(sale.getSaleId(), sale.getDate());
                 }
             });
 
@@ -243,7 +243,7 @@ public class SalesHistoryController implements Initializable {
     // ACTIONS
     // ============================================================
 
-    private void openSaleDetail(int saleId) {
+    private void openSaleDetail(int saleId, LocalDate date) {
         logger.info("{} Opening detail for sale ID={}", PREFIX, saleId);
 
 
@@ -261,7 +261,7 @@ public class SalesHistoryController implements Initializable {
             );
 
             if (controller != null) {
-                controller.loadSaleDetail(saleId);
+                controller.loadSaleDetail(saleId, date);
             }
 
         } catch (Exception e) {
@@ -278,6 +278,18 @@ public class SalesHistoryController implements Initializable {
             return;
         }
 
+        if (selected.isArchived()) {
+            AlertUtil.showWarning("Venta archivada",
+                    "La venta pertenece a un año archivado y no se puede eliminar.");
+            return;
+        }
+
+        if (historyService.isInClosedPeriod(selected.getSaleId(), selected.getDate())) {
+            AlertUtil.showWarning("Caja cerrada",
+                    "La venta pertenece a una caja ya cerrada y no se puede eliminar.");
+            return;
+        }
+
         // Confirmation
         boolean confirmed = showConfirmation(
                 "Confirmar eliminación",
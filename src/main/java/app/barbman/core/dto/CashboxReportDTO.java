@@ -13,22 +13,27 @@ public class CashboxReportDTO {
     private LocalDate periodEnd;
 
     // Efectivo
-    private double cashIn;
-    private double cashOut;
-    private double cashBalance;
+    private long cashIn;
+    private long cashOut;
+    private long cashBalance;
 
     // Banco (transferencia + tarjeta + QR)
-    private double bankIn;
-    private double bankOut;
-    private double bankBalance;
+    private long bankIn;
+    private long bankOut;
+    private long bankBalance;
 
     // Total
-    private double totalIn;
-    private double totalOut;
-    private double totalBalance;
+    private long totalIn;
+    private long totalOut;
+    private long totalBalance;
+
+    // Cierre (solo reportes de un período cerrado)
+    private Integer openingId;
+    private long cashDiscrepancy;
+    private long bankDiscrepancy;
 
     // Producción por empleado: userId -> monto
-    private Map<Integer, Double> productionByUser = new HashMap<>();
+    private Map<Integer, Long> productionByUser = new HashMap<>();
 
     // Nombres de empleados: userId -> nombre
     private Map<Integer, String> userNames = new HashMap<>();
@@ -53,83 +58,107 @@ public class CashboxReportDTO {
         this.periodEnd = periodEnd;
     }
 
-    public double getCashIn() {
+    public long getCashIn() {
         return cashIn;
     }
 
-    public void setCashIn(double cashIn) {
+    public void setCashIn(long cashIn) {
         this.cashIn = cashIn;
     }
 
-    public double getCashOut() {
+    public long getCashOut() {
         return cashOut;
     }
 
-    public void setCashOut(double cashOut) {
+    public void setCashOut(long cashOut) {
         this.cashOut = cashOut;
     }
 
-    public double getCashBalance() {
+    public long getCashBalance() {
         return cashBalance;
     }
 
-    public void setCashBalance(double cashBalance) {
+    public void setCashBalance(long cashBalance) {
         this.cashBalance = cashBalance;
     }
 
-    public double getBankIn() {
+    public long getBankIn() {
         return bankIn;
     }
 
-    public void setBankIn(double bankIn) {
+    public void setBankIn(long bankIn) {
         this.bankIn = bankIn;
     }
 
-    public double getBankOut() {
+    public long getBankOut() {
         return bankOut;
     }
 
-    public void setBankOut(double bankOut) {
+    public void setBankOut(long bankOut) {
         this.bankOut = bankOut;
     }
 
-    public double getBankBalance() {
+    public long getBankBalance() {
         return bankBalance;
     }
 
-    public void setBankBalance(double bankBalance) {
+    public void setBankBalance(long bankBalance) {
         this.bankBalance = bankBalance;
     }
 
-    public double getTotalIn() {
+    public long getTotalIn() {
         return totalIn;
     }
 
-    public void setTotalIn(double totalIn) {
+    public void setTotalIn(long totalIn) {
         this.totalIn = totalIn;
     }
 
-    public double getTotalOut() {
+    public long getTotalOut() {
         return totalOut;
     }
 
-    public void setTotalOut(double totalOut) {
+    public void setTotalOut(long totalOut) {
         this.totalOut = totalOut;
     }
 
-    public double getTotalBalance() {
+    public long getTotalBalance() {
         return totalBalance;
     }
 
-    public void setTotalBalance(double totalBalance) {
+    public void setTotalBalance(long totalBalance) {
         this.totalBalance = totalBalance;
     }
 
-    public Map<Integer, Double> getProductionByUser() {
+    public Integer getOpeningId() {
+        return openingId;
+    }
+
+    public void setOpeningId(Integer openingId) {
+        this.openingId = openingId;
+    }
+
+    public long getCashDiscrepancy() {
+        return cashDiscrepancy;
+    }
+
+    public void setCashDiscrepancy(long cashDiscrepancy) {
+        this.cashDiscrepancy = cashDiscrepancy;
+    }
+
+    public long getBankDiscrepancy() {
+        return bankDiscrepancy;
+    }
+
+    public void setBankDiscrepancy(long bankDiscrepancy) {
+        this.bankDiscrepancy = bankDiscrepancy;
+    }
+
+    public Map<Integer, Long> getProductionByUser() {
         return productionByUser;
     }
 
-    public void setProductionByUser(Map<Integer, Double> productionByUser) {
+    public void setProductionByUser(Map<Integer, Long> productionByUser) {
         this.productionByUser = productionByUser;
     }
 
@@ -12,10 +12,10 @@ public class SalaryDTO {
     private LocalDate periodStart;
     private LocalDate periodEnd;
 
-    private double production;
-    private double advances;
-    private double calculatedAmount;
-    private double finalAmount;
+    private long production;
+    private long advances;
+    private long calculatedAmount;
+    private long finalAmount;
 
     private boolean paid;
     private Integer salaryId; // null if not yet paid
@@ -52,35 +52,35 @@ public class SalaryDTO {
         this.periodEnd = periodEnd;
     }
 
-    public double getProduction() {
+    public long getProduction() {
         return production;
     }
 
-    public void setProduction(double production) {
+    public void setProduction(long production) {
         this.production = production;
     }
 
-    public double getAdvances() {
+    public long getAdvances() {
         return advances;
     }
 
-    public void setAdvances(double advances) {
+    public void setAdvances(long advances) {
         this.advances = advances;
     }
 
-    public double getCalculatedAmount() {
+    public long getCalculatedAmount() {
         return calculatedAmount;
     }
 
-    public void setCalculatedAmount(double calculatedAmount) {
+    public void setCalculatedAmount(long calculatedAmount) {
         this.calculatedAmount = calculatedAmount;
     }
 
-    public double getFinalAmount() {
+    public long getFinalAmount() {
         return finalAmount;
     }
 
-    public void setFinalAmount(double finalAmount) {
+    public void setFinalAmount(long finalAmount) {
         this.finalAmount = finalAmount;
     }
 
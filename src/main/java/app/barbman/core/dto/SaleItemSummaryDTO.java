@@ -3,8 +3,8 @@ package app.barbman.core.dto;
 public class SaleItemSummaryDTO {
     private String name;
     private int quantity;
-    private double unitPrice;
-    private double subtotal;
+    private long unitPrice;
+    private long subtotal;
 
     public String getName() {
         return name;
@@ -22,19 +22,19 @@ public class SaleItemSummaryDTO {
         this.quantity = quantity;
     }
 
-    public double getUnitPrice() {
+    public long getUnitPrice() {
         return unitPrice;
     }
 
-    public void setUnitPrice(double unitPrice) {
+    public void setUnitPrice(long unitPrice) {
         this.unitPrice = unitPrice;
     }
 
-    public double getSubtotal() {
+    public long getSubtotal() {
         return subtotal;
     }
 
-    public void setSubtotal(double subtotal) {
+    public void setSubtotal(long subtotal) {
         this.subtotal = subtotal;
     }
 }
\ No newline at end of file
@@ -10,7 +10,7 @@ public class SaleSummaryDTO {
 
     private String paymentMethod;
 
-    private double total;
+    private long total;
 
     private List<SaleItemSummaryDTO> items;
 
@@ -46,11 +46,11 @@ public class SaleSummaryDTO {
         this.paymentMethod = paymentMethod;
     }
 
-    public double getTotal() {
+    public long getTotal() {
         return total;
     }
 
-    public void setTotal(double total) {
+    public void setTotal(long total) {
         this.total = total;
     }
 
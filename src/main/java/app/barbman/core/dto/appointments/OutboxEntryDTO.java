@@ -0,0 +1,24 @@
+package app.barbman.core.dto.appointments;
+
+/**
+ * One row of appointment_outbox: an appointment mutation waiting to be sent to OnBarber.
+ *
+ * {@code appointmentId} is the target of a "status" operation (negative while the
+ * appointment only exists locally); {@code payload} is JSON with the operation's fields.
+ */
+public record OutboxEntryDTO(long id,
+                             String idempotencyKey,
+                             String operation,
+                             Integer appointmentId,
+                             int barberId,
+                             String date,
+                             String payload,
+                             String expectedStatus,
+                             int attempts,
+                             String nextAttemptAt) {
+
+    public static final String CREATE = "create";
+    public static final String STATUS = "status";
+    public static final String CLOSE_DAY = "close_day";
+    public static final String REOPEN_DAY = "reopen_day";
+}
@@ -9,8 +9,8 @@ import java.util.Objects;
 public class ProductDetailDTO {
     private String name;
     private int quantity;
-    private double unitPrice;
-    private double total;
+    private long unitPrice;
+    private long total;
 
     public String getName() {
         return name;
@@ -28,19 +28,19 @@ public class ProductDetailDTO {
         this.quantity = quantity;
     }
 
-    public double getUnitPrice() {
+    public long getUnitPrice() {
         return unitPrice;
     }
 
-    public void setUnitPrice(double unitPrice) {
+    public void setUnitPrice(long unitPrice) {
         this.unitPrice = unitPrice;
     }
 
-    public double getTotal() {
+    public long getTotal() {
         return total;
     }
 
-    public void setTotal(double total) {
+    public void setTotal(long total) {
         this.total = total;
     }
 
@@ -48,7 +48,7 @@ public class ProductDetailDTO {
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
         ProductDetailDTO that = (ProductDetailDTO) o;
-        return quantity == that.quantity && Double.compare(unitPrice, that.unitPrice) == 0 && Double.compare(total, that.total) == 0 && Objects.equals(name, that.name);
+        return quantity == that.quantity && unitPrice == that.unitPrice && total == that.total && Objects.equals(name, that.name);
     }
 
     @Override
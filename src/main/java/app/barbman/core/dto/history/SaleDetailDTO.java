@@ -17,7 +17,7 @@ public class SaleDetailDTO {
     private String userName;
     private String clientName;
     private String paymentMethod;
-    private double total;
+    private long total;
 
     // Detail
     private List<ServiceDetailDTO> services;
@@ -63,11 +63,11 @@ public class SaleDetailDTO {
         this.paymentMethod = paymentMethod;
     }
 
-    public double getTotal() {
+    public long getTotal() {
         return total;
     }
 
-    public void setTotal(double total) {
+    public void setTotal(long total) {
         this.total = total;
     }
 
@@ -110,7 +110,7 @@ public class SaleDetailDTO {
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
         SaleDetailDTO that = (SaleDetailDTO) o;
-        return saleId == that.saleId && Double.compare(total, that.total) == 0 && Objects.equals(date, that.date) && Objects.equals(userName, that.userName) && Objects.equals(clientName, that.clientName) && Objects.equals(paymentMethod, that.paymentMethod) && Objects.equals(services, that.services) && Objects.equals(products, that.products);
+        return saleId == that.saleId && total == that.total && Objects.equals(date, that.date) && Objects.equals(userName, that.userName) && Objects.equals(clientName, that.clientName) && Objects.equals(paymentMethod, that.paymentMethod) && Objects.equals(services, that.services) && Objects.equals(products, that.products);
     }
 
     @Override
@@ -14,9 +14,11 @@ public class SaleHistoryDTO {
     private String userName;
     private String clientName;
 
-    private double total;
+    private long total;
     private String paymentMethod;
     private boolean beta;
+    // true when the sale lives in an archive_YYYY.db file (read-only)
+    private boolean archived;
 
     // opcional
     private boolean paid;
@@ -53,11 +55,11 @@ public class SaleHistoryDTO {
         this.clientName = clientName;
     }
 
-    public double getTotal() {
+    public long getTotal() {
         return total;
     }
 
-    public void setTotal(double total) {
+    public void setTotal(long total) {
         this.total = total;
     }
 
@@ -80,12 +82,15 @@ public class SaleHistoryDTO {
     public boolean isBeta() { return beta; }
     public void setBeta(boolean beta) { this.beta = beta; }
 
+    public boolean isArchived() { return archived; }
+    public void setArchived(boolean archived) { this.archived = archived; }
+
 
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
         SaleHistoryDTO that = (SaleHistoryDTO) o;
-        return saleId == that.saleId && Double.compare(total, that.total) == 0 && paid == that.paid && Objects.equals(date, that.date) && Objects.equals(userName, that.userName) && Objects.equals(clientName, that.clientName) && Objects.equals(paymentMethod, that.paymentMethod);
+        return saleId == that.saleId && total == that.total && paid == that.paid && Objects.equals(date, that.date) && Objects.equals(userName, that.userName) && Objects.equals(clientName, that.clientName) && Objects.equals(paymentMethod, that.paymentMethod);
     }
 
     @Override
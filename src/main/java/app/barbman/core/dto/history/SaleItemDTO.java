@@ -8,8 +8,8 @@ public class SaleItemDTO {
     private String type; // "SERVICE" or "PRODUCT"
     private String name;
     private int quantity;
-    private double unitPrice;
-    private double total;
+    private long unitPrice;
+    private long total;
 
     // ============================================================
     // GETTERS & SETTERS
@@ -39,19 +39,19 @@ public class SaleItemDTO {
         this.quantity = quantity;
     }
 
-    public double getUnitPrice() {
+    public long getUnitPrice() {
         return unitPrice;
     }
 
-    public void setUnitPrice(double unitPrice) {
+    public void setUnitPrice(long unitPrice) {
         this.unitPrice = unitPrice;
     }
 
-    public double getTotal() {
+    public long getTotal() {
         return total;
     }
 
-    public void setTotal(double total) {
+    public void setTotal(long total) {
         this.total = total;
     }
 }
\ No newline at end of file
@@ -0,0 +1,173 @@
+package app.barbman.core.dto.salecart;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Immutable snapshot of a confirmed SaleCartDTO, as written to the sale journal.
+// The live cart is cleared right after the sale is acknowledged, so the journal
+// applier rebuilds its own cart from this snapshot.
+//
+// It also records the cashbox opening that was current and the moment the sale was
+// acknowledged, so a sale applied late (retry, replay after a crash) is booked where
+// and when it happened rather than to whatever opening is current by then.
+//
+// Binary layout (DataOutput, big-endian), prefixed by FORMAT_VERSION so old journal
+// entries can still be read if fields are added later.
+// Version 1 had neither the opening nor the acknowledgement time.
+public final class JournaledSaleDTO {
+
+    private static final byte FORMAT_VERSION = 2;
+
+    public record Line(SaleCartItemDTO.ItemType type, int referenceId, String displayName,
+                       long unitPrice, int quantity) {}
+
+    private final String journalId;
+    private final int userId;
+    private final int selectedUserId;
+    private final Integer clientId;
+    private final LocalDate date;
+    private final int paymentMethod;
+    private final String notes;
+    private final Integer openingId;
+    private final LocalDateTime acknowledgedAt;
+    private final List<Line> lines;
+
+    private JournaledSaleDTO(String journalId, int userId, int selectedUserId, Integer clientId,
+                             LocalDate date, int paymentMethod, String notes,
+                             Integer openingId, LocalDateTime acknowledgedAt, List<Line> lines) {
+        this.journalId = journalId;
+        this.userId = userId;
+        this.selectedUserId = selectedUserId;
+        this.clientId = clientId;
+        this.date = date;
+        this.paymentMethod = paymentMethod;
+        this.notes = notes;
+        this.openingId = openingId;
+        this.acknowledgedAt = acknowledgedAt;
+        this.lines = List.copyOf(lines);
+    }
+
+    /** Snapshots the cart under a fresh journal id, acknowledged now against {@code openingId}. */
+    public static JournaledSaleDTO from(SaleCartDTO cart, Integer openingId) {
+        List<Line> lines = new ArrayList<>(cart.getCartItems().size());
+        for (SaleCartItemDTO item : cart.getCartItems()) {
+            lines.add(new Line(item.getType(), item.getReferenceId(), item.getDisplayName(),
+                    item.getUnitPrice(), item.getQuantity()));
+        }
+        return new JournaledSaleDTO(UUID.randomUUID().toString(), cart.getUserId(), cart.getSelectedUserId(),
+                cart.getClientId(), cart.getDate(), cart.getPaymentMethod(), cart.getNotes(),
+                openingId, LocalDateTime.now(), lines);
+    }
+
+    /** Rebuilds a cart equivalent to the one that was journaled. */
+    public SaleCartDTO toCart() {
+        SaleCartDTO cart = new SaleCartDTO(userId);
+        cart.setSelectedUserId(selectedUserId);
+        cart.setClientId(clientId);
+        cart.setDate(date);
+        cart.setPaymentMethod(paymentMethod);
+        cart.setNotes(notes);
+        for (Line line : lines) {
+            for (int i = 0; i < line.quantity(); i++) {
+                cart.addItem(line.type(), line.referenceId(), line.displayName(), line.unitPrice());
+            }
+        }
+        return cart;
+    }
+
+    public String getJournalId() { return journalId; }
+    public int getSelectedUserId() { return selectedUserId; }
+    public LocalDate getDate() { return date; }
+    public Integer getOpeningId() { return openingId; }
+    /** Null for entries written by format version 1. */
+    public LocalDateTime getAcknowledgedAt() { return acknowledgedAt; }
+    public List<Line> getLines() { return lines; }
+
+    public long getTotal() {
+        long total = 0;
+        for (Line line : lines) total += line.unitPrice() * line.quantity();
+        return total;
+    }
+
+    //
+    // Serialization
+    //
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128 + lines.size() * 48);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeUTF(journalId);
+            out.writeInt(userId);
+            out.writeInt(selectedUserId);
+            out.writeInt(clientId != null ? clientId : -1);
+            out.writeLong(date.toEpochDay());
+            out.writeInt(paymentMethod);
+            out.writeUTF(notes != null ? notes : "");
+            out.writeInt(openingId != null ? openingId : -1);
+            out.writeLong(acknowledgedAt.toLocalDate().toEpochDay());
+            out.writeLong(acknowledgedAt.toLocalTime().toNanoOfDay());
+            out.writeInt(lines.size());
+            for (Line line : lines) {
+                out.writeByte(line.type().ordinal());
+                out.writeInt(line.referenceId());
+                out.writeUTF(line.displayName() != null ? line.displayName() : "");
+                out.writeLong(line.unitPrice());
+                out.writeInt(line.quantity());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not serialize sale " + journalId, e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static JournaledSaleDTO fromBytes(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != 1 && version != FORMAT_VERSION) {
+                throw new IllegalStateException("Unsupported sale journal format: " + version);
+            }
+            String journalId = in.readUTF();
+            int userId = in.readInt();
+            int selectedUserId = in.readInt();
+            int rawClientId = in.readInt();
+            LocalDate date = LocalDate.ofEpochDay(in.readLong());
+            int paymentMethod = in.readInt();
+            String notes = in.readUTF();
+
+            Integer openingId = null;
+            LocalDateTime acknowledgedAt = null;
+            if (version >= 2) {
+                int rawOpeningId = in.readInt();
+                openingId = rawOpeningId >= 0 ? rawOpeningId : null;
+                acknowledgedAt = LocalDateTime.of(LocalDate.ofEpochDay(in.readLong()),
+                        LocalTime.ofNanoOfDay(in.readLong()));
+            }
+
+            int count = in.readInt();
+            List<Line> lines = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                lines.add(new Line(
+                        SaleCartItemDTO.ItemType.values()[in.readByte()],
+                        in.readInt(),
+                        in.readUTF(),
+                        in.readLong(),
+                        in.readInt()));
+            }
+            return new JournaledSaleDTO(journalId, userId, selectedUserId,
+                    rawClientId >= 0 ? rawClientId : null, date, paymentMethod,
+                    notes.isEmpty() ? null : notes, openingId, acknowledgedAt, lines);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt sale journal entry", e);
+        }
+    }
+}
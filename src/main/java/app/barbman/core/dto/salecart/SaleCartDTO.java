@@ -1,11 +1,21 @@
 package app.barbman.core.dto.salecart;
 
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.ReadOnlyLongWrapper;
+
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 // DTO representing a sale cart on memory before being persisted.
 // It contains items (services/products) to be sold, user, client, date, payment method, and notes.
+//
+// Items are indexed by (type, referenceId, unit price), so add/remove are O(1),
+// and totals are kept as running sums that views can bind to via the exposed properties.
 public class SaleCartDTO {
 
     private int userId;
@@ -15,28 +25,44 @@ public class SaleCartDTO {
     private int paymentMethod;
     private String notes;
 
-    private final List<SaleCartItemDTO> cartItems = new ArrayList<>();
+    // Insertion-ordered so the cart renders in the order items were added
+    private final Map<SaleCartItemDTO.Key, SaleCartItemDTO> cartItems = new LinkedHashMap<>();
+    private final Collection<SaleCartItemDTO> cartItemsView = Collections.unmodifiableCollection(cartItems.values());
+
+    // Running totals (see Money)
+    private long servicesTotal;
+    private long productsTotal;
+    private int itemCountValue;
+
+    private final ReadOnlyLongWrapper total = new ReadOnlyLongWrapper(0);
+    private final ReadOnlyIntegerWrapper itemCount = new ReadOnlyIntegerWrapper(0);
 
     public SaleCartDTO(int userId) {
         this.userId = userId;
         this.date = LocalDate.now();
     }
 
-    public List<SaleCartItemDTO> getCartItems() {
-        return cartItems;
+    /** Read-only view of the cart lines, in insertion order. */
+    public Collection<SaleCartItemDTO> getCartItems() {
+        return cartItemsView;
     }
 
+    /** Units of the given line already in the cart (0 if absent). */
+    public int getQuantity(SaleCartItemDTO.ItemType type, int referenceId, long price) {
+        SaleCartItemDTO item = cartItems.get(new SaleCartItemDTO.Key(type, referenceId, price));
+        return item != null ? item.getQuantity() : 0;
+    }
 
 
     /**
      * Add Service or Product to the cart.
      * Both methods will call addItem internally.
      */
-    public void addService(int definitionId, String name, double price) {
+    public void addService(int definitionId, String name, long price) {
         addItem(SaleCartItemDTO.ItemType.SERVICE, definitionId, name, price);
     }
 
-    public void addProduct(int productId, String name, double price) {
+    public void addProduct(int productId, String name, long price) {
         addItem(SaleCartItemDTO.ItemType.PRODUCT, productId, name, price);
     }
     /**
@@ -44,14 +70,16 @@ public class SaleCartDTO {
      * If an identical item (same type, definitionId, and price) exists, increments its quantity.
      * Otherwise, adds a new item to the cart.
      */
-    public void addItem(SaleCartItemDTO.ItemType type, int definitionId, String name, double price){
-        for (SaleCartItemDTO item : cartItems) {
-            if (item.getReferenceId() == definitionId && item.getType() == type && item.getUnitPrice() == price) {
-                item.increment(); // Increment quantity
-                return; // end method
-            }
+    public void addItem(SaleCartItemDTO.ItemType type, int definitionId, String name, long price){
+        SaleCartItemDTO.Key key = new SaleCartItemDTO.Key(type, definitionId, price);
+        SaleCartItemDTO item = cartItems.get(key);
+        if (item != null) {
+            item.increment(); // Increment quantity
+        } else {
+            item = new SaleCartItemDTO(type, definitionId, name, price);
+            cartItems.put(key, item);
         }
-        cartItems.add(new SaleCartItemDTO(type, definitionId, name, price));
+        applyDelta(type, price, 1);
     }
 
 
@@ -61,44 +89,78 @@ public class SaleCartDTO {
      * If the item's quantity reaches zero, it is removed from the cart entirely.
      */
     public void removeSingleUnit(SaleCartItemDTO target) {
-        SaleCartItemDTO found = findItem(target);
+        SaleCartItemDTO found = cartItems.get(target.getKey());
         if (found == null) return;
 
         found.decrement();
 
         if (found.getQuantity() < 1) {
-            cartItems.remove(found);
+            cartItems.remove(found.getKey());
         }
+        applyDelta(found.getType(), found.getUnitPrice(), -1);
     }
     /**
      * Remove the specified item entirely from the cart.
      */
     public void removeItem(SaleCartItemDTO target) {
-        SaleCartItemDTO found = findItem(target);
+        SaleCartItemDTO found = cartItems.remove(target.getKey());
         if (found != null) {
-            cartItems.remove(found);
+            applyDelta(found.getType(), found.getUnitPrice(), -found.getQuantity());
         }
     }
 
     /**
-     * Find an item in the cart that matches the target item.
-     * @param target
-     * @return
+     * Empties the cart and resets the running totals.
      */
-    private SaleCartItemDTO findItem(SaleCartItemDTO target) {
-        for (SaleCartItemDTO item : cartItems) {
-            if (item.equals(target)) return item;
+    public void clear() {
+        cartItems.clear();
+        servicesTotal = 0;
+        productsTotal = 0;
+        itemCountValue = 0;
+        publish();
+    }
+
+    private void applyDelta(SaleCartItemDTO.ItemType type, long unitPrice, int units) {
+        if (type == SaleCartItemDTO.ItemType.SERVICE) {
+            servicesTotal += unitPrice * units;
+        } else {
+            productsTotal += unitPrice * units;
         }
-        return null;
+        itemCountValue += units;
+        publish();
+    }
+
+    private void publish() {
+        total.set(getTotal());
+        itemCount.set(itemCountValue);
     }
 
     //
     // Get items total
     //
-    public double getTotal() {
-        return cartItems.stream()
-                .mapToDouble(SaleCartItemDTO::getItemTotal)
-                .sum();
+    public long getTotal() {
+        return servicesTotal + productsTotal;
+    }
+
+    public long getServicesTotal() {
+        return servicesTotal;
+    }
+
+    public long getProductsTotal() {
+        return productsTotal;
+    }
+
+    /** Total units in the cart (sum of quantities). */
+    public int getItemCount() {
+        return itemCountValue;
+    }
+
+    public ReadOnlyLongProperty totalProperty() {
+        return total.getReadOnlyProperty();
+    }
+
+    public ReadOnlyIntegerProperty itemCountProperty() {
+        return itemCount.getReadOnlyProperty();
     }
 
     public int getUserId() { return userId; }
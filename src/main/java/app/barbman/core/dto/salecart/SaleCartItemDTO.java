@@ -6,58 +6,57 @@ public class SaleCartItemDTO {
 
     public enum ItemType { SERVICE, PRODUCT }
 
-    private ItemType type;
-    private int referenceId; // service_definition_id or product_id
+    /**
+     * Identity of a cart line: same type, reference and unit price
+     * means the same line, regardless of quantity or display name.
+     */
+    public record Key(ItemType type, int referenceId, long unitPrice) {}
+
+    private final ItemType type;
+    private final int referenceId; // service_definition_id or product_id
     private String displayName;
-    private double unitPrice;
+    private final long unitPrice;
+    private final Key key;
     private int quantity;
 
-    public SaleCartItemDTO(ItemType type, int referenceId, String displayName, double unitPrice) {
+    public SaleCartItemDTO(ItemType type, int referenceId, String displayName, long unitPrice) {
         this.type = type;
         this.referenceId = referenceId;
         this.displayName = displayName;
         this.unitPrice = unitPrice;
-        this.quantity = 1; // Starts from 1. Can be changed with methods
+        this.key = new Key(type, referenceId, unitPrice);
+        this.quantity = 1; // Starts from 1. Changed only through SaleCartDTO
     }
 
+    public Key getKey() {
+        return key;
+    }
     public ItemType getType() {
         return type;
     }
-    public void setType(ItemType type) {
-        this.type = type;
-    }
     public int getReferenceId() {
         return referenceId;
     }
-    public void setReferenceId(int referenceId) {
-        this.referenceId = referenceId;
-    }
     public String getDisplayName() {
         return displayName;
     }
     public void setDisplayName(String displayName) {
         this.displayName = displayName;
     }
-    public double getUnitPrice() {
+    public long getUnitPrice() {
         return unitPrice;
     }
-    public void setUnitPrice(double unitPrice) {
-        this.unitPrice = unitPrice;
-    }
     public int getQuantity() {
         return quantity;
     }
-    public void setQuantity(int quantity) {
-        this.quantity = quantity;
-    }
 
-    public void increment() {
+    void increment() {
         quantity++;
     }
-    public void decrement() {
-        if (quantity > 1) quantity--;
+    void decrement() {
+        if (quantity > 0) quantity--;
     }
-    public double getItemTotal() {
+    public long getItemTotal() {
         return unitPrice * quantity;
     }
 
@@ -69,16 +68,13 @@ public class SaleCartItemDTO {
 
         SaleCartItemDTO that = (SaleCartItemDTO) o;
 
-        return referenceId == that.referenceId
-                && Double.compare(unitPrice, that.unitPrice) == 0
-                && type == that.type;
+        return key.equals(that.key);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(type, referenceId, displayName, unitPrice, quantity);
+        return Objects.hash(key);
     }
 
 
 }
-
@@ -0,0 +1,141 @@
+package app.barbman.core.infrastructure;
+
+import app.barbman.core.repositories.DbBootstrap;
+import jakarta.persistence.EntityManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Per-year archive files (data/archive_YYYY.db) and the registry of archived years.
+ *
+ * Archived years are read through a plain JDBC connection to database.db with the
+ * needed year files ATTACHed as schemas {@code y2023}, {@code y2024}, ... Unqualified
+ * table names still resolve to main first, so queries join archived rows with the
+ * live users, clients, products and payment methods.
+ *
+ * ATTACH is per connection and not allowed inside a transaction, which is why this
+ * does not go through Hibernate's pooled connections.
+ */
+public final class ArchiveDatabase {
+
+    private static final Logger logger = LogManager.getLogger(ArchiveDatabase.class);
+    private static final String PREFIX = "[ARCHIVE-DB]";
+
+    /** Archiving holds the write lock for a while; readers and writers wait instead of failing. */
+    private static final int BUSY_TIMEOUT_MS = 30_000;
+    /** SQLite's default SQLITE_MAX_ATTACHED, which the bundled driver keeps. */
+    public static final int MAX_ATTACHED = 10;
+
+    // year -> file name, loaded on first use (null until then)
+    private static volatile NavigableMap<Integer, String> archivedYears;
+
+    private ArchiveDatabase() {}
+
+    /** Schema name an archived year is attached as. */
+    public static String schema(int year) {
+        return "y" + year;
+    }
+
+    public static String fileName(int year) {
+        return "archive_" + year + ".db";
+    }
+
+    public static File fileFor(int year) {
+        return new File(new File(DbBootstrap.getDbPath()).getParentFile(), fileName(year));
+    }
+
+    // ============================================================
+    // REGISTRY
+    // ============================================================
+
+    /** Archived years whose dates overlap [from, to]; empty (the common case) means main has it all. */
+    public static SortedSet<Integer> yearsBetween(LocalDate from, LocalDate to) {
+        NavigableMap<Integer, String> years = registry();
+        if (years.isEmpty()) return Collections.emptySortedSet();
+        return new TreeSet<>(years.subMap(from.getYear(), true, to.getYear(), true).keySet());
+    }
+
+    public static SortedSet<Integer> allYears() {
+        return new TreeSet<>(registry().keySet());
+    }
+
+    /** Re-reads the registry, e.g. after a year was archived. */
+    public static void reload() {
+        archivedYears = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static NavigableMap<Integer, String> registry() {
+        NavigableMap<Integer, String> years = archivedYears;
+        if (years != null) return years;
+
+        TreeMap<Integer, String> loaded = new TreeMap<>();
+        try (EntityManager em = HibernateUtil.createEntityManager()) {
+            List<Object[]> rows = em.createNativeQuery("SELECT year, file_name FROM archived_years").getResultList();
+            for (Object[] row : rows) {
+                loaded.put(((Number) row[0]).intValue(), (String) row[1]);
+            }
+        } catch (Exception e) {
+            logger.error("{} Could not read archived years: {}", PREFIX, e.getMessage());
+        }
+        archivedYears = Collections.unmodifiableNavigableMap(loaded);
+        return archivedYears;
+    }
+
+    // ============================================================
+    // CONNECTIONS
+    // ============================================================
+
+    /**
+     * JDBC connection to database.db with the given years attached (a missing file is
+     * created empty, which is how the archiving job starts a new year). Readers pass
+     * the result of {@link #attachable}. Closing the connection detaches everything.
+     * Fails when more than {@link #MAX_ATTACHED} years are asked for at once.
+     */
+    public static Connection connect(Collection<Integer> years) throws SQLException {
+        if (years.size() > MAX_ATTACHED) {
+            throw new SQLException("Cannot attach " + years.size() + " archived years at once (max "
+                    + MAX_ATTACHED + "); narrow the date range");
+        }
+        Connection connection = DriverManager.getConnection("jdbc:sqlite:" + DbBootstrap.getDbPath());
+        try (Statement st = connection.createStatement()) {
+            st.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MS);
+            for (int year : years) {
+                String path = fileFor(year).getAbsolutePath().replace("'", "''");
+                st.execute("ATTACH DATABASE '" + path + "' AS " + schema(year));
+            }
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return connection;
+    }
+
+    /** The years whose archive file exists; a registered year without its file is logged and left out. */
+    public static SortedSet<Integer> attachable(Collection<Integer> years) {
+        SortedSet<Integer> result = new TreeSet<>();
+        for (int year : years) {
+            File file = fileFor(year);
+            if (file.exists()) {
+                result.add(year);
+            } else {
+                logger.warn("{} Archive file for {} not found: {}", PREFIX, year, file.getAbsolutePath());
+            }
+        }
+        return result;
+    }
+}
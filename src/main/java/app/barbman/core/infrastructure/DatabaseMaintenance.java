@@ -0,0 +1,167 @@
+package app.barbman.core.infrastructure;
+
+import app.barbman.core.repositories.DbBootstrap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Housekeeping for database.db, run in the background at quiet moments (after a
+ * cashbox closure) rather than on a timer:
+ * - PRAGMA optimize: refreshes planner statistics (ANALYZE) for the tables that need it.
+ * - PRAGMA incremental_vacuum: returns the freelist pages left by deleted sales,
+ *   expenses and archived years to the OS, in small steps so a sale that comes in
+ *   meanwhile only waits for one step. Needs auto_vacuum=INCREMENTAL (V12).
+ * - WAL checkpoint (TRUNCATE) when the file is in WAL mode; in the default rollback
+ *   journal mode there is nothing to checkpoint.
+ *
+ * Each run logs file size, freelist and per-step timings.
+ */
+public class DatabaseMaintenance {
+
+    private static final Logger logger = LogManager.getLogger(DatabaseMaintenance.class);
+    private static final String PREFIX = "[DB-MAINTENANCE]";
+
+    /** Lets the closure screen and its reports finish before the run starts. */
+    private static final long IDLE_DELAY_SECONDS = 30;
+    /** Pages freed per incremental_vacuum step (4 MB with the default page size). */
+    private static final int VACUUM_STEP_PAGES = 1024;
+    private static final int BUSY_TIMEOUT_MS = 10_000;
+    /** Upper bound on planner statistics work per table (PRAGMA analysis_limit). */
+    private static final int ANALYSIS_LIMIT = 1000;
+
+    /** Sizes in bytes, times in milliseconds. */
+    public record Report(long sizeBefore, long sizeAfter, long freeBefore, long freeAfter,
+                         long optimizeMillis, long vacuumMillis, long checkpointMillis, String journalMode) {}
+
+    private static final DatabaseMaintenance INSTANCE = new DatabaseMaintenance();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "db-maintenance");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private DatabaseMaintenance() {}
+
+    public static DatabaseMaintenance getInstance() {
+        return INSTANCE;
+    }
+
+    /** Schedules a run shortly from now; ignored while one is already scheduled or running. */
+    public void runWhenIdle(String reason) {
+        if (!running.compareAndSet(false, true)) {
+            logger.debug("{} Run already pending, ignoring ({})", PREFIX, reason);
+            return;
+        }
+        logger.info("{} Scheduled in {} s ({})", PREFIX, IDLE_DELAY_SECONDS, reason);
+        worker.schedule(() -> {
+            try {
+                run();
+            } catch (Exception e) {
+                logger.error("{} Maintenance failed: {}", PREFIX, e.getMessage(), e);
+            } finally {
+                running.set(false);
+            }
+        }, IDLE_DELAY_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /** Runs every step now on the calling thread. */
+    public Report run() throws SQLException {
+        try (Connection c = DriverManager.getConnection("jdbc:sqlite:" + DbBootstrap.getDbPath());
+             Statement st = c.createStatement()) {
+            st.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MS);
+
+            long pageSize = pragmaLong(st, "page_size");
+            long sizeBefore = pragmaLong(st, "page_count") * pageSize;
+            long freeBefore = pragmaLong(st, "freelist_count") * pageSize;
+
+            // Statistics: optimize decides per table whether ANALYZE is worth it
+            long start = System.nanoTime();
+            st.execute("PRAGMA analysis_limit = " + ANALYSIS_LIMIT);
+            st.execute("PRAGMA optimize = 0x10002");
+            long optimizeMillis = millisSince(start);
+
+            // Free pages back to the OS, one short write transaction per step
+            start = System.nanoTime();
+            long autoVacuum = pragmaLong(st, "auto_vacuum");
+            if (autoVacuum == 2) {
+                long free;
+                while ((free = pragmaLong(st, "freelist_count")) > 0) {
+                    drain(st, "PRAGMA incremental_vacuum(" + Math.min(free, VACUUM_STEP_PAGES) + ")");
+                    if (pragmaLong(st, "freelist_count") >= free) break;
+                }
+            } else {
+                logger.warn("{} auto_vacuum={} (expected 2 = incremental); free pages left in place",
+                        PREFIX, autoVacuum);
+            }
+            long vacuumMillis = millisSince(start);
+
+            start = System.nanoTime();
+            String journalMode = pragmaString(st, "journal_mode");
+            if ("wal".equalsIgnoreCase(journalMode)) {
+                try (ResultSet rs = st.executeQuery("PRAGMA wal_checkpoint(TRUNCATE)")) {
+                    if (rs.next()) {
+                        logger.info("{} WAL checkpoint: busy={}, frames={}, checkpointed={}",
+                                PREFIX, rs.getInt(1), rs.getInt(2), rs.getInt(3));
+                    }
+                }
+            }
+            long checkpointMillis = millisSince(start);
+
+            Report report = new Report(
+                    sizeBefore, pragmaLong(st, "page_count") * pageSize,
+                    freeBefore, pragmaLong(st, "freelist_count") * pageSize,
+                    optimizeMillis, vacuumMillis, checkpointMillis, journalMode);
+            logger.info("{} Done: size {} -> {} KB, free {} -> {} KB, optimize {} ms, vacuum {} ms, checkpoint {} ms ({})",
+                    PREFIX, report.sizeBefore() / 1024, report.sizeAfter() / 1024,
+                    report.freeBefore() / 1024, report.freeAfter() / 1024,
+                    optimizeMillis, vacuumMillis, checkpointMillis, journalMode);
+            return report;
+        }
+    }
+
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    // ============================================================
+    // HELPERS
+    // ============================================================
+
+    private static long pragmaLong(Statement st, String pragma) throws SQLException {
+        try (ResultSet rs = st.executeQuery("PRAGMA " + pragma)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private static String pragmaString(Statement st, String pragma) throws SQLException {
+        try (ResultSet rs = st.executeQuery("PRAGMA " + pragma)) {
+            return rs.next() ? rs.getString(1) : "";
+        }
+    }
+
+    /** Steps a statement to completion (incremental_vacuum frees pages as it is stepped). */
+    private static void drain(Statement st, String sql) throws SQLException {
+        if (st.execute(sql)) {
+            try (ResultSet rs = st.getResultSet()) {
+                while (rs.next()) { /* consume */ }
+            }
+        }
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -10,6 +10,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Comparator;
 
 /**
@@ -20,6 +25,8 @@ import java.util.Comparator;
  * restrictions (named modules encapsulate resources from external modules like Flyway).
  *
  * To add a new migration: create the .sql file and add its name to MIGRATION_FILES.
+ * A script that needs Flyway options (e.g. executeInTransaction=false for VACUUM) gets
+ * a companion {@code <script>.conf} next to it, which is extracted along with it.
  */
 public class FlywayMigrator {
 
@@ -30,7 +37,16 @@ public class FlywayMigrator {
             "V1__initial_schema.sql",
             "V2__seed_payment_methods.sql",
             "V3__cashbox_redesign.sql",
-            "V4__seed_default_admin.sql"
+            "V4__seed_default_admin.sql",
+            "V5__user_daily_production.sql",
+            "V6__money_as_integer.sql",
+            "V7__sale_journal_id.sql",
+            "V8__product_barcode.sql",
+            "V9__appointments_mirror.sql",
+            "V10__appointment_outbox.sql",
+            "V11__archived_years.sql",
+            "V12__incremental_auto_vacuum.sql",
+            "V13__cashbox_report_snapshots.sql"
     };
 
     private FlywayMigrator() {}
@@ -53,6 +69,10 @@ public class FlywayMigrator {
             MigrateResult result = flyway.migrate();
             logger.info("[FLYWAY] Migrations complete. Applied: {}", result.migrationsExecuted);
 
+            if (result.migrations.stream().anyMatch(m -> "6".equals(m.version))) {
+                reportMoneyRounding(dbPath);
+            }
+
         } catch (IOException e) {
             throw new RuntimeException("[FLYWAY] Failed to extract migration scripts", e);
         } finally {
@@ -60,6 +80,21 @@ public class FlywayMigrator {
         }
     }
 
+    /** Logs every amount V6 had to raise to 1 Gs to satisfy CHECK (amount > 0). */
+    private static void reportMoneyRounding(String dbPath) {
+        String sql = "SELECT table_name, row_id, original_amount, stored_amount FROM money_rounding_adjustments";
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dbPath);
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) {
+                logger.warn("[FLYWAY] V6: {} #{} amount {} rounds below 1 Gs, stored as {} Gs",
+                        rs.getString(1), rs.getInt(2), rs.getDouble(3), rs.getLong(4));
+            }
+        } catch (SQLException e) {
+            logger.warn("[FLYWAY] Could not read money_rounding_adjustments: {}", e.getMessage());
+        }
+    }
+
     /** Copies SQL files from the module's resources to a temp directory. */
     private static Path extractMigrations() throws IOException {
         Path tempDir = Files.createTempDirectory("barbman_migrations_");
@@ -72,6 +107,13 @@ public class FlywayMigrator {
                 Files.copy(is, dest);
                 dest.toFile().deleteOnExit();
             }
+            try (InputStream conf = FlywayMigrator.class.getResourceAsStream("/db/migration/" + file + ".conf")) {
+                if (conf != null) {
+                    Path dest = tempDir.resolve(file + ".conf");
+                    Files.copy(conf, dest);
+                    dest.toFile().deleteOnExit();
+                }
+            }
         }
         return tempDir;
     }
@@ -0,0 +1,248 @@
+package app.barbman.core.infrastructure;
+
+import jakarta.persistence.EntityManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Single-writer group commit for SQLite.
+ *
+ * Write requests (UI, journal applier, background jobs) are queued and executed by one
+ * writer thread. Requests that arrive within a short linger window are coalesced into
+ * one transaction, so N concurrent writes cost one commit (one journal sync) instead of N.
+ * Each request gets its own future, completed only after its transaction has committed.
+ *
+ * Failure isolation: if any request of a batch fails, the whole transaction is rolled back
+ * and every request of the batch is re-run in its own transaction. Work functions may
+ * therefore run twice and must build the entities they persist <em>inside</em> the
+ * function, never persist an instance captured from the caller.
+ *
+ * Work submitted from the writer thread itself (a service calling another service inside
+ * a queued transaction) joins the running transaction instead of deadlocking on the queue.
+ */
+public class GroupCommitQueue {
+
+    private static final Logger logger = LogManager.getLogger(GroupCommitQueue.class);
+    private static final String PREFIX = "[GROUP-COMMIT]";
+
+    /** How long the writer waits for more requests after the first one (-Dbarbman.groupCommit.lingerMs). */
+    private static final long LINGER_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong("barbman.groupCommit.lingerMs", 2));
+    private static final int MAX_BATCH = 64;
+
+    private static final GroupCommitQueue INSTANCE = new GroupCommitQueue();
+
+    private final BlockingQueue<Task<?>> queue = new LinkedBlockingQueue<>();
+    private volatile boolean closed;
+    private volatile boolean stopped;
+    private volatile Thread writer;
+
+    // Writer-thread state of the transaction being executed
+    private EntityManager batchEm;
+    private List<Task<?>> batchTasks;
+
+    private static final class Task<T> {
+        final Function<EntityManager, T> work;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        T result;
+
+        Task(Function<EntityManager, T> work) {
+            this.work = work;
+        }
+
+        void run(EntityManager em) {
+            result = work.apply(em);
+        }
+
+        void complete() {
+            future.complete(result);
+        }
+    }
+
+    private GroupCommitQueue() {}
+
+    public static GroupCommitQueue getInstance() {
+        return INSTANCE;
+    }
+
+    // ============================================================
+    // SUBMIT
+    // ============================================================
+
+    /**
+     * Queues {@code work} for the next group transaction.
+     * The future completes with the work's result after commit, or exceptionally with
+     * the cause if the work (run alone) failed.
+     */
+    public <T> CompletableFuture<T> submit(Function<EntityManager, T> work) {
+        Task<T> task = new Task<>(work);
+
+        if (Thread.currentThread() == writer) {
+            // Nested write: part of the running transaction, completes with it
+            task.run(batchEm);
+            batchTasks.add(task);
+            return task.future;
+        }
+
+        if (closed) throw new IllegalStateException("Write queue is shut down.");
+        ensureWriter();
+        queue.add(task);
+        // The writer may have exited between the check and the add; its drain could have missed us
+        if (stopped && queue.remove(task)) failStopped(task);
+        return task.future;
+    }
+
+    /**
+     * Same as {@link #submit(Function)} but waits for the commit.
+     * Failures are rethrown as RuntimeException with the original cause.
+     */
+    public <T> T execute(Function<EntityManager, T> work) {
+        if (Thread.currentThread() == writer) {
+            return work.apply(batchEm); // Already inside a queued transaction
+        }
+        try {
+            return submit(work).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /** Commits everything already queued and stops the writer thread. */
+    public void shutdown() {
+        closed = true;
+        Thread t;
+        synchronized (this) {
+            t = writer;
+        }
+        if (t == null) return;
+        try {
+            t.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("{} Writer stopped", PREFIX);
+    }
+
+    // ============================================================
+    // WRITER
+    // ============================================================
+
+    private synchronized void ensureWriter() {
+        if (writer != null) return;
+        writer = new Thread(this::writeLoop, "db-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private void writeLoop() {
+        try {
+            runBatches();
+        } finally {
+            // Anything still queued would otherwise wait forever
+            stopped = true;
+            Task<?> left;
+            while ((left = queue.poll()) != null) failStopped(left);
+        }
+    }
+
+    private void failStopped(Task<?> task) {
+        task.future.completeExceptionally(new IllegalStateException("Write queue is shut down."));
+    }
+
+    private void runBatches() {
+        List<Task<?>> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            try {
+                Task<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed) return;
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + LINGER_NANOS;
+                while (batch.size() < MAX_BATCH) {
+                    long left = deadline - System.nanoTime();
+                    Task<?> next = left > 0 ? queue.poll(left, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) break;
+                    batch.add(next);
+                }
+
+                commit(batch);
+            } catch (InterruptedException e) {
+                if (closed) return;
+            } catch (Throwable t) {
+                // Never let the only writer die; fail what it was holding
+                logger.error("{} Unexpected writer error: {}", PREFIX, t.getMessage(), t);
+                for (Task<?> task : batch) task.future.completeExceptionally(t);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Task<?>> batch) {
+        long start = System.nanoTime();
+        if (runInTransaction(batch, batch.size() == 1)) {
+            logger.debug("{} Committed {} write(s) in {} us",
+                    PREFIX, batch.size(), (System.nanoTime() - start) / 1_000);
+            return;
+        }
+
+        logger.warn("{} Batch of {} failed; retrying each write on its own", PREFIX, batch.size());
+        for (Task<?> task : batch) {
+            runInTransaction(List.of(task), true);
+        }
+    }
+
+    /**
+     * Runs the tasks in one transaction.
+     *
+     * @param failTasks on failure, complete the tasks exceptionally (otherwise leave them for a retry)
+     * @return true if the tasks were completed (committed, or failed with failTasks)
+     */
+    private boolean runInTransaction(List<Task<?>> tasks, boolean failTasks) {
+        EntityManager em = HibernateUtil.createEntityManager();
+        batchEm = em;
+        batchTasks = new ArrayList<>(tasks);
+        try {
+            em.getTransaction().begin();
+            for (Task<?> task : tasks) {
+                task.run(em);
+            }
+            em.getTransaction().commit();
+
+            for (Task<?> task : batchTasks) task.complete();
+            return true;
+
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+
+            // Nested writes belong to the rolled back attempt; they are recreated on retry
+            for (Task<?> nested : batchTasks.subList(tasks.size(), batchTasks.size())) {
+                nested.future.completeExceptionally(e);
+            }
+            if (!failTasks) return false;
+
+            logger.error("{} Write failed, rolled back: {}", PREFIX, e.getMessage(), e);
+            for (Task<?> task : tasks) task.future.completeExceptionally(e);
+            return true;
+
+        } finally {
+            batchEm = null;
+            batchTasks = null;
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package app.barbman.core.infrastructure;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Durable append-only record file backed by a memory-mapped region.
+ *
+ * Record layout: [int length][int crc32][payload]. A zero length marks the end of the
+ * written data (the mapped region is zero-filled by the OS when it grows). On open, the
+ * file is scanned up to the first zero length or CRC mismatch, so a record torn by a
+ * crash or power cut is discarded instead of replayed.
+ *
+ * {@link #append(byte[])} returns only after the record is forced to disk. Appenders
+ * that arrive while another one is forcing are covered by the same flush, so concurrent
+ * writers share one fsync instead of paying one each.
+ */
+public class MappedJournal implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(MappedJournal.class);
+    private static final String PREFIX = "[JOURNAL]";
+
+    private static final int HEADER_BYTES = 8;
+    private static final int INITIAL_CAPACITY = 1 << 20; // 1 MiB, plenty for a day of sales
+
+    private final File file;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    // Guarded by "this"
+    private int position;
+
+    // Guarded by syncLock. Whenever both locks are needed, syncLock is taken first.
+    private final Object syncLock = new Object();
+    private int syncedPosition;
+
+    public MappedJournal(File file) {
+        this.file = file;
+        try {
+            this.channel = FileChannel.open(file.toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = Math.max(channel.size(), INITIAL_CAPACITY);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open journal " + file.getAbsolutePath(), e);
+        }
+        this.position = scanEnd();
+        this.syncedPosition = position;
+        logger.info("{} Opened {} ({} bytes in use)", PREFIX, file.getName(), position);
+    }
+
+    // ============================================================
+    // WRITE
+    // ============================================================
+
+    /**
+     * Appends one record and forces it to disk.
+     *
+     * @return journal position right after the record
+     */
+    public int append(byte[] payload) {
+        if (payload.length == 0) throw new IllegalArgumentException("Empty journal record");
+
+        int end;
+        synchronized (this) {
+            ensureCapacity(position + HEADER_BYTES + payload.length + 4);
+
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+
+            buffer.position(position + 4);
+            buffer.putInt((int) crc.getValue());
+            buffer.put(payload);
+            // Length goes in last: a record is only visible once it is complete
+            buffer.putInt(position, payload.length);
+
+            position += HEADER_BYTES + payload.length;
+            end = position;
+        }
+        sync(end);
+        return end;
+    }
+
+    /**
+     * Discards every record if nothing was appended after {@code expectedEnd}.
+     * Used once all records have been applied, so the file never grows unbounded.
+     *
+     * @return true if the journal was emptied
+     */
+    public boolean resetIfAt(int expectedEnd) {
+        // Same lock order as sync(): syncLock, then this
+        synchronized (syncLock) {
+            synchronized (this) {
+                if (position != expectedEnd || position == 0) return false;
+
+                for (int i = 0; i < position; i++) buffer.put(i, (byte) 0);
+                buffer.force(0, position);
+                logger.debug("{} Reset {} ({} bytes cleared)", PREFIX, file.getName(), position);
+                position = 0;
+                syncedPosition = 0;
+            }
+        }
+        return true;
+    }
+
+    // ============================================================
+    // READ
+    // ============================================================
+
+    /** Payloads of every complete record, in append order. */
+    public synchronized List<byte[]> readAll() {
+        List<byte[]> records = new ArrayList<>();
+        int pos = 0;
+        while (pos < position) {
+            int length = buffer.getInt(pos);
+            byte[] payload = new byte[length];
+            buffer.get(pos + HEADER_BYTES, payload);
+            records.add(payload);
+            pos += HEADER_BYTES + length;
+        }
+        return records;
+    }
+
+    /** Journal position right after the last complete record. */
+    public synchronized int getPosition() {
+        return position;
+    }
+
+    @Override
+    public void close() {
+        try {
+            synchronized (this) {
+                buffer.force();
+                channel.close();
+            }
+        } catch (IOException e) {
+            logger.warn("{} Error closing {}: {}", PREFIX, file.getName(), e.getMessage());
+        }
+    }
+
+    // ============================================================
+    // INTERNALS
+    // ============================================================
+
+    private void sync(int upTo) {
+        synchronized (syncLock) {
+            if (syncedPosition >= upTo) return; // Flushed by a concurrent appender
+
+            int target;
+            MappedByteBuffer current;
+            synchronized (this) {
+                target = position;
+                current = buffer;
+            }
+            current.force(syncedPosition, target - syncedPosition);
+            syncedPosition = target;
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= buffer.capacity()) return;
+
+        long newSize = buffer.capacity();
+        while (newSize < required) newSize *= 2;
+        try {
+            buffer.force();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, newSize);
+            logger.info("{} Grew {} to {} bytes", PREFIX, file.getName(), newSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not grow journal " + file.getAbsolutePath(), e);
+        }
+    }
+
+    private int scanEnd() {
+        int pos = 0;
+        int limit = buffer.capacity();
+        while (pos + HEADER_BYTES <= limit) {
+            int length = buffer.getInt(pos);
+            if (length <= 0 || pos + HEADER_BYTES + length > limit) break;
+
+            byte[] payload = new byte[length];
+            buffer.get(pos + HEADER_BYTES, payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(pos + 4)) {
+                logger.warn("{} Torn record at {} in {}, discarding the tail", PREFIX, pos, file.getName());
+                break;
+            }
+            pos += HEADER_BYTES + length;
+        }
+        return pos;
+    }
+}
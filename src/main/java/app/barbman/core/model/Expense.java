@@ -35,7 +35,7 @@ public class Expense {
     private String description;
 
     @Column(nullable = false)
-    private double amount;
+    private long amount;
 
     @Column(nullable = false)
     private LocalDate date;
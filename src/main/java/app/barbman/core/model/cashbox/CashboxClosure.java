@@ -31,22 +31,22 @@ public class CashboxClosure {
     private Integer closedByUserId;
 
     @Column(name = "expected_cash", nullable = false)
-    private double expectedCash;
+    private long expectedCash;
 
     @Column(name = "expected_bank", nullable = false)
-    private double expectedBank;
+    private long expectedBank;
 
     @Column(name = "actual_cash", nullable = false)
-    private double actualCash;
+    private long actualCash;
 
     @Column(name = "actual_bank", nullable = false)
-    private double actualBank;
+    private long actualBank;
 
     @Column(name = "cash_discrepancy", nullable = false)
-    private double cashDiscrepancy;
+    private long cashDiscrepancy;
 
     @Column(name = "bank_discrepancy", nullable = false)
-    private double bankDiscrepancy;
+    private long bankDiscrepancy;
 
     private String notes;
 }
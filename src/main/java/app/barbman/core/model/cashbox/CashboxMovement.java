@@ -28,7 +28,7 @@ public class CashboxMovement {
     private String direction;
 
     @Column(nullable = false)
-    private double amount;
+    private long amount;
 
     @Column(name = "payment_method_id")
     private Integer paymentMethodId;
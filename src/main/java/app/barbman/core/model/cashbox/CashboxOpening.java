@@ -32,10 +32,10 @@ public class CashboxOpening {
     private Integer openedByUserId;
 
     @Column(name = "cash_amount", nullable = false)
-    private double cashAmount;
+    private long cashAmount;
 
     @Column(name = "bank_amount", nullable = false)
-    private double bankAmount;
+    private long bankAmount;
 
     private String notes;
 
@@ -0,0 +1,88 @@
+package app.barbman.core.model.cashbox;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Report of a closed cashbox period, frozen at closure (one row per opening).
+ */
+@Entity
+@Table(name = "cashbox_report_snapshots")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString
+public class CashboxReportSnapshot {
+
+    @Id
+    @Column(name = "opening_id")
+    @EqualsAndHashCode.Include
+    private Integer openingId;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "period_end", nullable = false)
+    private LocalDate periodEnd;
+
+    @Column(name = "covers_day", nullable = false)
+    private boolean coversDay;
+
+    @Column(name = "cash_in", nullable = false)
+    private long cashIn;
+
+    @Column(name = "cash_out", nullable = false)
+    private long cashOut;
+
+    @Column(name = "cash_balance", nullable = false)
+    private long cashBalance;
+
+    @Column(name = "bank_in", nullable = false)
+    private long bankIn;
+
+    @Column(name = "bank_out", nullable = false)
+    private long bankOut;
+
+    @Column(name = "bank_balance", nullable = false)
+    private long bankBalance;
+
+    @Column(name = "total_in", nullable = false)
+    private long totalIn;
+
+    @Column(name = "total_out", nullable = false)
+    private long totalOut;
+
+    @Column(name = "total_balance", nullable = false)
+    private long totalBalance;
+
+    @Column(name = "expected_cash", nullable = false)
+    private long expectedCash;
+
+    @Column(name = "expected_bank", nullable = false)
+    private long expectedBank;
+
+    @Column(name = "actual_cash", nullable = false)
+    private long actualCash;
+
+    @Column(name = "actual_bank", nullable = false)
+    private long actualBank;
+
+    @Column(name = "cash_discrepancy", nullable = false)
+    private long cashDiscrepancy;
+
+    @Column(name = "bank_discrepancy", nullable = false)
+    private long bankDiscrepancy;
+
+    /** JSON array of {"userId", "name", "total"}. */
+    @Column(nullable = false)
+    private String production;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
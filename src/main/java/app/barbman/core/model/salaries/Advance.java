@@ -25,7 +25,7 @@ public class Advance {
     private int userId;
 
     @Column(nullable = false)
-    private double amount;
+    private long amount;
 
     @Column(nullable = false)
     private LocalDate date;
@@ -31,14 +31,18 @@ public class Salary {
     private LocalDate endDate;
 
     @Column(name = "total_production", nullable = false)
-    private double totalProduction;
+    private long totalProduction;
 
     @Column(name = "amount_paid", nullable = false)
-    private double amountPaid;
+    private long amountPaid;
 
     @Column(name = "pay_type_snapshot", nullable = false)
     private int payTypeSnapshot;
 
+    /** Advances above the calculated amount. Not persisted; recorded as a new advance when the salary is paid. */
+    @Transient
+    private long carriedDebt;
+
     @Column(name = "pay_date")
     private LocalDate payDate;
 
@@ -38,5 +38,9 @@ public class Sale {
     private LocalDate date;
 
     @Column(nullable = false)
-    private double total;
+    private long total;
+
+    /** Sale journal entry this sale was applied from (null for sales created before the journal). */
+    @Column(name = "journal_id", unique = true)
+    private String journalId;
 }
@@ -23,14 +23,18 @@ public class Product {
     private String name;
 
     @Column(name = "cost_price", nullable = false)
-    private double costPrice;
+    private long costPrice;
 
     @Column(name = "unit_price", nullable = false)
-    private double unitPrice;
+    private long unitPrice;
 
     @Column(nullable = false)
     private int stock;
 
+    /** Barcode / SKU printed on the item, null when it has none. */
+    @Column(unique = true)
+    private String barcode;
+
     private String category;
     private String brand;
 
@@ -27,5 +27,5 @@ public class ProductHeader {
     private int saleId;
 
     @Column(nullable = false)
-    private double subtotal;
+    private long subtotal;
 }
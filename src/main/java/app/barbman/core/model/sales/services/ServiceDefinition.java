@@ -23,7 +23,7 @@ public class ServiceDefinition {
     private String name;
 
     @Column(name = "base_price", nullable = false)
-    private double basePrice;
+    private long basePrice;
 
     @Column(nullable = false)
     private boolean available = true;
@@ -31,5 +31,5 @@ public class ServiceHeader {
     private LocalDate date;
 
     @Column(nullable = false)
-    private double subtotal;
+    private long subtotal;
 }
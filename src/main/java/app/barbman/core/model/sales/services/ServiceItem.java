@@ -29,8 +29,8 @@ public class ServiceItem {
     private int quantity;
 
     @Column(name = "unit_price", nullable = false)
-    private double unitPrice;
+    private long unitPrice;
 
     @Column(name = "item_total", nullable = false)
-    private double itemTotal;
+    private long itemTotal;
 }
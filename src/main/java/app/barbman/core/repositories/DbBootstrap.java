@@ -2,6 +2,7 @@ package app.barbman.core.repositories;
 
 import app.barbman.core.infrastructure.FlywayMigrator;
 import app.barbman.core.infrastructure.HibernateUtil;
+import app.barbman.core.service.sales.saleflow.SaleJournalService;
 import com.sun.jna.Pointer;
 import com.sun.jna.platform.win32.KnownFolders;
 import com.sun.jna.platform.win32.Ole32;
@@ -27,7 +28,8 @@ import java.util.Comparator;
 
 /**
  * Resolves the application's data directory (Windows Documents via JNA),
- * sets up the folder structure, runs Flyway migrations, and initializes Hibernate.
+ * sets up the folder structure, runs Flyway migrations, initializes Hibernate and
+ * replays the sale journal.
  *
  * Table creation and schema migrations are handled by Flyway (db/migration/*.sql).
  * This class is only responsible for paths, directories, and startup wiring.
@@ -36,7 +38,8 @@ public class DbBootstrap {
 
     private static final Logger logger = LogManager.getLogger(DbBootstrap.class);
     private static final String DB_NAME = "database.db";
-    private static final File DOCUMENTS_FOLDER = resolveDocumentsFolder();
+    private static final String SALE_JOURNAL_NAME = "sale-journal.bin";
+    private static final String APP_FOLDER_NAME = "Barbman Data";
 
     private static File appFolder;
     private static File dataFolder;
@@ -44,9 +47,19 @@ public class DbBootstrap {
 
     public static void init() {
         logger.info("[DB] Initializing application data directory...");
-        logger.info("[DB] Windows Documents resolved at: {}", DOCUMENTS_FOLDER.getAbsolutePath());
+        File documentsFolder = resolveDocumentsFolder();
+        logger.info("[DB] Windows Documents resolved at: {}", documentsFolder.getAbsolutePath());
 
-        appFolder = new File(DOCUMENTS_FOLDER, "Barbman Data");
+        initAt(new File(documentsFolder, APP_FOLDER_NAME));
+    }
+
+    /**
+     * Same as {@link #init()} but with an explicit application folder instead of
+     * Windows Documents. Used by headless tools (data generator, benchmarks) and
+     * works on any OS.
+     */
+    public static void initAt(File folder) {
+        appFolder = folder;
         ensureDir(appFolder);
 
         dataFolder = new File(appFolder, "data");
@@ -59,6 +72,9 @@ public class DbBootstrap {
 
         FlywayMigrator.migrate(dbFile.getAbsolutePath());
         HibernateUtil.init(dbFile.getAbsolutePath());
+
+        // Re-applies sales acknowledged but not yet committed when the app last stopped
+        SaleJournalService.init(new File(dataFolder, SALE_JOURNAL_NAME));
     }
 
     // ============================================================
@@ -0,0 +1,36 @@
+package app.barbman.core.repositories.appointments;
+
+import app.barbman.core.service.OnBarberApiClient.AppointmentDTO;
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Local copy of OnBarber appointments (table appointments) and the sync cursors
+ * used to keep it up to date (table sync_cursors).
+ */
+public interface AppointmentMirrorRepository {
+
+    /**
+     * Inserts or updates the given appointments. Returns how many rows actually changed.
+     * Appointments with a pending status change in the outbox are not updated.
+     */
+    int upsertAll(Collection<AppointmentDTO> appointments, String syncedAt, EntityManager em);
+
+    void delete(int id, EntityManager em);
+
+    /**
+     * Deletes appointments dated within [from, to] whose ID is not in {@code keepIds}.
+     * Local-only appointments (negative IDs) are kept.
+     */
+    int deleteMissing(LocalDate from, LocalDate to, Collection<Integer> keepIds, EntityManager em);
+
+    /** A barber's appointments dated within [from, to], by date and time. */
+    List<AppointmentDTO> findByBarberAndDates(int barberId, LocalDate from, LocalDate to);
+
+    String getCursor(String name);
+
+    void saveCursor(String name, String cursor, String lastFullAt, EntityManager em);
+}
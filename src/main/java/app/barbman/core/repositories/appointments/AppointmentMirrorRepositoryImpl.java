@@ -0,0 +1,162 @@
+package app.barbman.core.repositories.appointments;
+
+import app.barbman.core.infrastructure.HibernateUtil;
+import app.barbman.core.service.OnBarberApiClient.AppointmentDTO;
+import app.barbman.core.service.OnBarberApiClient.BarberDTO;
+import jakarta.persistence.EntityManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Native SQL on the appointments mirror. Rows are the API's DTOs as received (ids are
+ * OnBarber ids), so there is no entity behind them.
+ */
+public class AppointmentMirrorRepositoryImpl implements AppointmentMirrorRepository {
+
+    private static final Logger logger = LogManager.getLogger(AppointmentMirrorRepositoryImpl.class);
+
+    // The WHERE clause skips rows that did not change, so the update count is a real change count,
+    // and rows with a status change still waiting in the outbox, so a sync does not undo it on screen
+    private static final String UPSERT = """
+            INSERT INTO appointments (id, barber_id, barber_name, client_name, client_phone,
+                                      appointment_date, appointment_time, status, updated_at, synced_at)
+            VALUES (:id, :barberId, :barberName, :clientName, :clientPhone,
+                    :date, :time, :status, :updatedAt, :syncedAt)
+            ON CONFLICT(id) DO UPDATE SET
+                barber_id = excluded.barber_id,
+                barber_name = COALESCE(excluded.barber_name, barber_name),
+                client_name = excluded.client_name,
+                client_phone = excluded.client_phone,
+                appointment_date = excluded.appointment_date,
+                appointment_time = excluded.appointment_time,
+                status = excluded.status,
+                updated_at = excluded.updated_at,
+                synced_at = excluded.synced_at
+            WHERE (barber_id IS NOT excluded.barber_id
+                   OR client_name IS NOT excluded.client_name
+                   OR client_phone IS NOT excluded.client_phone
+                   OR appointment_date IS NOT excluded.appointment_date
+                   OR appointment_time IS NOT excluded.appointment_time
+                   OR status IS NOT excluded.status
+                   OR updated_at IS NOT excluded.updated_at)
+              AND id NOT IN (SELECT appointment_id FROM appointment_outbox
+                             WHERE state = 'pending' AND operation = 'status' AND appointment_id IS NOT NULL)
+            """;
+
+    private static final String SAVE_CURSOR = """
+            INSERT INTO sync_cursors (name, cursor, last_full_at)
+            VALUES (:name, :cursor, :lastFullAt)
+            ON CONFLICT(name) DO UPDATE SET
+                cursor = COALESCE(excluded.cursor, cursor),
+                last_full_at = COALESCE(excluded.last_full_at, last_full_at)
+            """;
+
+    @Override
+    public int upsertAll(Collection<AppointmentDTO> appointments, String syncedAt, EntityManager em) {
+        int changed = 0;
+        for (AppointmentDTO a : appointments) {
+            changed += em.createNativeQuery(UPSERT)
+                    .setParameter("id", a.getId())
+                    .setParameter("barberId", a.getBarberId())
+                    .setParameter("barberName", a.getBarber() != null ? a.getBarber().getName() : null)
+                    .setParameter("clientName", a.getClientName())
+                    .setParameter("clientPhone", a.getClientPhone())
+                    .setParameter("date", a.getDateOnly())
+                    .setParameter("time", a.getAppointmentTime())
+                    .setParameter("status", a.getStatus())
+                    .setParameter("updatedAt", a.getUpdatedAt())
+                    .setParameter("syncedAt", syncedAt)
+                    .executeUpdate();
+        }
+        return changed;
+    }
+
+    @Override
+    public void delete(int id, EntityManager em) {
+        em.createNativeQuery("DELETE FROM appointments WHERE id = :id")
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    @Override
+    public int deleteMissing(LocalDate from, LocalDate to, Collection<Integer> keepIds, EntityManager em) {
+        // Negative IDs are appointments created offline, not on the server yet
+        if (keepIds.isEmpty()) {
+            return em.createNativeQuery(
+                    "DELETE FROM appointments WHERE id > 0 AND appointment_date BETWEEN :from AND :to")
+                    .setParameter("from", from.toString())
+                    .setParameter("to", to.toString())
+                    .executeUpdate();
+        }
+        return em.createNativeQuery(
+                "DELETE FROM appointments WHERE id > 0 AND appointment_date BETWEEN :from AND :to " +
+                        "AND id NOT IN (:ids)")
+                .setParameter("from", from.toString())
+                .setParameter("to", to.toString())
+                .setParameter("ids", keepIds)
+                .executeUpdate();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<AppointmentDTO> findByBarberAndDates(int barberId, LocalDate from, LocalDate to) {
+        List<AppointmentDTO> result = new ArrayList<>();
+        try (EntityManager em = HibernateUtil.createEntityManager()) {
+            List<Object[]> rows = em.createNativeQuery(
+                    "SELECT id, barber_id, barber_name, client_name, client_phone, appointment_date, " +
+                            "appointment_time, status, updated_at FROM appointments " +
+                            "WHERE barber_id = :barberId AND appointment_date BETWEEN :from AND :to " +
+                            "ORDER BY appointment_date, appointment_time")
+                    .setParameter("barberId", barberId)
+                    .setParameter("from", from.toString())
+                    .setParameter("to", to.toString())
+                    .getResultList();
+
+            for (Object[] row : rows) {
+                int barber = ((Number) row[1]).intValue();
+                String barberName = (String) row[2];
+                result.add(new AppointmentDTO(
+                        ((Number) row[0]).intValue(),
+                        barber,
+                        (String) row[3],
+                        (String) row[4],
+                        (String) row[5],
+                        (String) row[6],
+                        (String) row[7],
+                        barberName != null ? new BarberDTO(barber, barberName, null, null) : null,
+                        (String) row[8]));
+            }
+        } catch (Exception e) {
+            logger.error("[AppointmentMirrorRepositoryImpl] Error loading appointments of barber {}: {}",
+                    barberId, e.getMessage());
+        }
+        return result;
+    }
+
+    @Override
+    public String getCursor(String name) {
+        try (EntityManager em = HibernateUtil.createEntityManager()) {
+            List<?> rows = em.createNativeQuery("SELECT cursor FROM sync_cursors WHERE name = :name")
+                    .setParameter("name", name)
+                    .getResultList();
+            return rows.isEmpty() ? null : (String) rows.get(0);
+        } catch (Exception e) {
+            logger.error("[AppointmentMirrorRepositoryImpl] Error reading sync cursor '{}': {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void saveCursor(String name, String cursor, String lastFullAt, EntityManager em) {
+        em.createNativeQuery(SAVE_CURSOR)
+                .setParameter("name", name)
+                .setParameter("cursor", cursor)
+                .setParameter("lastFullAt", lastFullAt)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,38 @@
+package app.barbman.core.repositories.appointments;
+
+import app.barbman.core.dto.appointments.OutboxEntryDTO;
+import jakarta.persistence.EntityManager;
+
+import java.util.List;
+
+/**
+ * Pending appointment mutations (table appointment_outbox), oldest first.
+ */
+public interface AppointmentOutboxRepository {
+
+    /** Inserts a pending entry (its id is ignored) and returns the generated id. */
+    long insert(OutboxEntryDTO entry, String createdAt, EntityManager em);
+
+    /** Pending entries in send order. */
+    List<OutboxEntryDTO> findPending(int limit);
+
+    int countPending();
+
+    /** Target status of the newest pending "status" entry for the appointment, or null. */
+    String findPendingStatus(int appointmentId, EntityManager em);
+
+    void assignAppointment(long id, int appointmentId, EntityManager em);
+
+    void delete(long id, EntityManager em);
+
+    void reschedule(long id, int attempts, String nextAttemptAt, String error, EntityManager em);
+
+    /** Takes the entry out of the queue with state "conflict" or "failed". */
+    void reject(long id, String state, String error, EntityManager em);
+
+    /** Rejects every pending "status" entry for the appointment (e.g. it was never created). */
+    int rejectPendingFor(int appointmentId, String state, String error, EntityManager em);
+
+    /** Points pending entries at the real ID once a locally created appointment exists on the server. */
+    int remapAppointment(int localId, int remoteId, EntityManager em);
+}
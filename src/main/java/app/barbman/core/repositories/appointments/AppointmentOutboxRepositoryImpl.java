@@ -0,0 +1,154 @@
+package app.barbman.core.repositories.appointments;
+
+import app.barbman.core.dto.appointments.OutboxEntryDTO;
+import app.barbman.core.infrastructure.HibernateUtil;
+import jakarta.persistence.EntityManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Native SQL on appointment_outbox. Entries are queued work, not domain data,
+ * so there is no entity behind them.
+ */
+public class AppointmentOutboxRepositoryImpl implements AppointmentOutboxRepository {
+
+    private static final Logger logger = LogManager.getLogger(AppointmentOutboxRepositoryImpl.class);
+
+    private static final String INSERT = """
+            INSERT INTO appointment_outbox (idempotency_key, operation, appointment_id, barber_id, date,
+                                            payload, expected_status, next_attempt_at, created_at)
+            VALUES (:key, :operation, :appointmentId, :barberId, :date,
+                    :payload, :expectedStatus, :createdAt, :createdAt)
+            """;
+
+    @Override
+    public long insert(OutboxEntryDTO entry, String createdAt, EntityManager em) {
+        em.createNativeQuery(INSERT)
+                .setParameter("key", entry.idempotencyKey())
+                .setParameter("operation", entry.operation())
+                .setParameter("appointmentId", entry.appointmentId())
+                .setParameter("barberId", entry.barberId())
+                .setParameter("date", entry.date())
+                .setParameter("payload", entry.payload())
+                .setParameter("expectedStatus", entry.expectedStatus())
+                .setParameter("createdAt", createdAt)
+                .executeUpdate();
+        return ((Number) em.createNativeQuery("SELECT last_insert_rowid()").getSingleResult()).longValue();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<OutboxEntryDTO> findPending(int limit) {
+        List<OutboxEntryDTO> result = new ArrayList<>();
+        try (EntityManager em = HibernateUtil.createEntityManager()) {
+            List<Object[]> rows = em.createNativeQuery(
+                    "SELECT id, idempotency_key, operation, appointment_id, barber_id, date, payload, " +
+                            "expected_status, attempts, next_attempt_at FROM appointment_outbox " +
+                            "WHERE state = 'pending' ORDER BY id LIMIT :limit")
+                    .setParameter("limit", limit)
+                    .getResultList();
+
+            for (Object[] row : rows) {
+                result.add(new OutboxEntryDTO(
+                        ((Number) row[0]).longValue(),
+                        (String) row[1],
+                        (String) row[2],
+                        row[3] != null ? ((Number) row[3]).intValue() : null,
+                        ((Number) row[4]).intValue(),
+                        (String) row[5],
+                        (String) row[6],
+                        (String) row[7],
+                        ((Number) row[8]).intValue(),
+                        (String) row[9]));
+            }
+        } catch (Exception e) {
+            logger.error("[AppointmentOutboxRepositoryImpl] Error loading pending entries: {}", e.getMessage());
+        }
+        return result;
+    }
+
+    @Override
+    public int countPending() {
+        try (EntityManager em = HibernateUtil.createEntityManager()) {
+            Object result = em.createNativeQuery("SELECT COUNT(*) FROM appointment_outbox WHERE state = 'pending'")
+                    .getSingleResult();
+            return ((Number) result).intValue();
+        } catch (Exception e) {
+            logger.error("[AppointmentOutboxRepositoryImpl] Error counting pending entries: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    public String findPendingStatus(int appointmentId, EntityManager em) {
+        List<?> rows = em.createNativeQuery(
+                "SELECT json_extract(payload, '$.status') FROM appointment_outbox " +
+                        "WHERE state = 'pending' AND operation = :operation AND appointment_id = :id " +
+                        "ORDER BY id DESC LIMIT 1")
+                .setParameter("operation", OutboxEntryDTO.STATUS)
+                .setParameter("id", appointmentId)
+                .getResultList();
+        return rows.isEmpty() ? null : (String) rows.get(0);
+    }
+
+    @Override
+    public void assignAppointment(long id, int appointmentId, EntityManager em) {
+        em.createNativeQuery("UPDATE appointment_outbox SET appointment_id = :appointmentId WHERE id = :id")
+                .setParameter("appointmentId", appointmentId)
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    @Override
+    public void delete(long id, EntityManager em) {
+        em.createNativeQuery("DELETE FROM appointment_outbox WHERE id = :id")
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    @Override
+    public void reschedule(long id, int attempts, String nextAttemptAt, String error, EntityManager em) {
+        em.createNativeQuery(
+                "UPDATE appointment_outbox SET attempts = :attempts, next_attempt_at = :next, last_error = :error " +
+                        "WHERE id = :id")
+                .setParameter("attempts", attempts)
+                .setParameter("next", nextAttemptAt)
+                .setParameter("error", error)
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    @Override
+    public void reject(long id, String state, String error, EntityManager em) {
+        em.createNativeQuery("UPDATE appointment_outbox SET state = :state, last_error = :error WHERE id = :id")
+                .setParameter("state", state)
+                .setParameter("error", error)
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    @Override
+    public int rejectPendingFor(int appointmentId, String state, String error, EntityManager em) {
+        return em.createNativeQuery(
+                "UPDATE appointment_outbox SET state = :state, last_error = :error " +
+                        "WHERE state = 'pending' AND operation = :operation AND appointment_id = :id")
+                .setParameter("state", state)
+                .setParameter("error", error)
+                .setParameter("operation", OutboxEntryDTO.STATUS)
+                .setParameter("id", appointmentId)
+                .executeUpdate();
+    }
+
+    @Override
+    public int remapAppointment(int localId, int remoteId, EntityManager em) {
+        return em.createNativeQuery(
+                "UPDATE appointment_outbox SET appointment_id = :remoteId " +
+                        "WHERE state = 'pending' AND appointment_id = :localId")
+                .setParameter("remoteId", remoteId)
+                .setParameter("localId", localId)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,66 @@
+package app.barbman.core.repositories.archive;
+
+import app.barbman.core.dto.history.SaleDetailDTO;
+import app.barbman.core.dto.history.SaleHistoryDTO;
+import app.barbman.core.model.Expense;
+import app.barbman.core.model.cashbox.CashboxMovement;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedSet;
+
+/**
+ * Moves closed fiscal years out of database.db into data/archive_YYYY.db and answers
+ * the history / report queries that reach into them (see ArchiveDatabase).
+ *
+ * Range queries take the archived years the range overlaps and read main plus those
+ * files as one UNION ALL, so callers get the same rows as before the year was moved.
+ * Only those years are attached. Read failures (ATTACH included) are thrown as
+ * RuntimeException rather than returned as empty results.
+ */
+public interface ArchiveRepository {
+
+    /** Rows moved for one year. */
+    record YearArchive(int year, int sales, int movements, int expenses) {}
+
+    /** Years that still have sales, movements or expenses in the live database. */
+    SortedSet<Integer> findLiveYears();
+
+    /** True if no cashbox opening from {@code year} or earlier is still open. */
+    boolean isYearClosed(int year);
+
+    /**
+     * Moves the year's sales (with headers and items), cashbox movements and expenses
+     * into its archive file in one transaction and registers it in archived_years.
+     * Running it again for an archived year moves rows added to that year since.
+     */
+    YearArchive archiveYear(int year);
+
+    /** Reclaims the space freed by archiving (VACUUM). */
+    void compactLiveDatabase();
+
+    // ============================================================
+    // Queries routed to archived years
+    // ============================================================
+
+    List<SaleHistoryDTO> findSalesHistory(LocalDate from, LocalDate to, Collection<Integer> years);
+
+    /** Header and items of a sale that lives in the archive file of {@code year}, or null. */
+    SaleDetailDTO findSaleDetail(int saleId, int year);
+
+    /** Sum of sale totals in the range; {@code paymentMethodId} null means every method. */
+    long sumSales(Integer paymentMethodId, LocalDate from, LocalDate to, Collection<Integer> years);
+
+    /** Sum of expense amounts in the range; {@code paymentMethodId} null means every method. */
+    long sumExpenses(Integer paymentMethodId, LocalDate from, LocalDate to, Collection<Integer> years);
+
+    List<CashboxMovement> findMovementsByDateRange(LocalDateTime start, LocalDateTime end, Collection<Integer> years);
+
+    /** Expenses dated in the range, ordered by date and id. */
+    List<Expense> findExpenses(LocalDate from, LocalDate to, Collection<Integer> years);
+
+    /** Every expense of one archived year. */
+    List<Expense> findArchivedExpenses(int year);
+}
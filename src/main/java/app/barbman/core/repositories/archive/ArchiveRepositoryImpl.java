@@ -0,0 +1,510 @@
+package app.barbman.core.repositories.archive;
+
+import app.barbman.core.dto.history.SaleDetailDTO;
+import app.barbman.core.dto.history.SaleHistoryDTO;
+import app.barbman.core.dto.history.SaleItemDTO;
+import app.barbman.core.infrastructure.ArchiveDatabase;
+import app.barbman.core.infrastructure.HibernateUtil;
+import app.barbman.core.infrastructure.LocalDateTimeConverter;
+import app.barbman.core.model.Expense;
+import app.barbman.core.model.cashbox.CashboxMovement;
+import jakarta.persistence.EntityManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class ArchiveRepositoryImpl implements ArchiveRepository {
+
+    private static final Logger logger = LogManager.getLogger(ArchiveRepositoryImpl.class);
+    private static final String PREFIX = "[ARCHIVE-REPO]";
+
+    /** Tables whose rows move to the archive files. */
+    private static final List<String> ARCHIVED_TABLES = List.of(
+            "sales", "service_header", "service_item", "product_sales", "product_sale_items",
+            "cashbox_movements", "expenses");
+
+    private static final Pattern CREATE_TABLE =
+            Pattern.compile("(?is)^CREATE\\s+TABLE\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?(\"?)(\\w+)\\1");
+    private static final Pattern CREATE_INDEX =
+            Pattern.compile("(?is)^CREATE\\s+(UNIQUE\\s+)?INDEX\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?(\"?)(\\w+)\\2\\s+ON");
+
+    private static final String REGISTER = """
+            INSERT INTO main.archived_years (year, file_name, sales, movements, expenses)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT(year) DO UPDATE SET
+                sales       = sales + excluded.sales,
+                movements   = movements + excluded.movements,
+                expenses    = expenses + excluded.expenses,
+                archived_at = datetime('now')
+            """;
+
+    private static final String LIVE_YEARS = """
+            SELECT CAST(substr(date, 1, 4) AS INTEGER) FROM sales
+            UNION
+            SELECT CAST(substr(date, 1, 4) AS INTEGER) FROM expenses
+            UNION
+            SELECT CAST(substr(occurred_at, 1, 4) AS INTEGER) FROM cashbox_movements
+            WHERE occurred_at GLOB '[0-9][0-9][0-9][0-9]-*'
+            """;
+
+    // One SELECT per schema (%1$s), glued with UNION ALL; lookup tables resolve to main
+    private static final String SALES_HISTORY = """
+            SELECT s.id, s.date, u.displayName, c.displayName, s.total, pm.displayName, '%1$s'
+            FROM %1$s.sales s
+            JOIN users u ON u.id = s.user_id
+            LEFT JOIN clients c ON c.id = s.client_id
+            JOIN payment_methods pm ON pm.id = s.payment_method_id
+            WHERE s.date BETWEEN ? AND ?""";
+
+    private static final String SALE_HEADER = """
+            SELECT s.id, s.date, u.displayName, c.displayName, pm.displayName, s.total
+            FROM %1$s.sales s
+            JOIN users u ON u.id = s.user_id
+            LEFT JOIN clients c ON c.id = s.client_id
+            JOIN payment_methods pm ON pm.id = s.payment_method_id
+            WHERE s.id = ?""";
+
+    private static final String SALE_SERVICE_ITEMS = """
+            SELECT sd.displayName, si.quantity, si.unit_price, si.item_total
+            FROM %1$s.service_item si
+            JOIN %1$s.service_header sh ON sh.id = si.service_header_id
+            JOIN service_definition sd ON sd.id = si.service_definition_id
+            WHERE sh.sale_id = ?
+            ORDER BY si.id""";
+
+    private static final String SALE_PRODUCT_ITEMS = """
+            SELECT p.displayName, i.quantity, i.unit_price, i.item_total
+            FROM %1$s.product_sale_items i
+            JOIN %1$s.product_sales ps ON ps.id = i.product_header_id
+            JOIN products p ON p.id = i.product_id
+            WHERE ps.sale_id = ?
+            ORDER BY i.id""";
+
+    private static final String MOVEMENTS = """
+            SELECT id, movement_type, direction, amount, payment_method_id, reference_type, reference_id,
+                   description, user_id, occurred_at, created_at, opening_id
+            FROM %1$s.cashbox_movements
+            WHERE occurred_at BETWEEN ? AND ?""";
+
+    private static final String EXPENSES = """
+            SELECT id, description, amount, date, type, payment_method_id
+            FROM %1$s.expenses""";
+
+    private final LocalDateTimeConverter dateTimes = new LocalDateTimeConverter();
+
+    // ============================================================
+    // ARCHIVING
+    // ============================================================
+
+    @Override
+    public SortedSet<Integer> findLiveYears() {
+        SortedSet<Integer> years = new TreeSet<>();
+        try (EntityManager em = HibernateUtil.createEntityManager()) {
+            for (Object year : em.createNativeQuery(LIVE_YEARS).getResultList()) {
+                if (year != null) years.add(((Number) year).intValue());
+            }
+        } catch (Exception e) {
+            logger.error("{} Error listing live years: {}", PREFIX, e.getMessage());
+        }
+        return years;
+    }
+
+    @Override
+    public boolean isYearClosed(int year) {
+        try (EntityManager em = HibernateUtil.createEntityManager()) {
+            Number open = (Number) em.createNativeQuery(
+                    "SELECT COUNT(*) FROM cashbox_openings WHERE closed = 0 AND opened_at < :until")
+                    .setParameter("until", LocalDate.of(year + 1, 1, 1).toString())
+                    .getSingleResult();
+            return open.intValue() == 0;
+        } catch (Exception e) {
+            logger.error("{} Error checking open cashboxes for {}: {}", PREFIX, year, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public YearArchive archiveYear(int year) {
+        String schema = ArchiveDatabase.schema(year);
+        String from = LocalDate.of(year, 1, 1).toString();
+        String until = LocalDate.of(year + 1, 1, 1).toString();
+        logger.info("{} Archiving {} into {}", PREFIX, year, ArchiveDatabase.fileName(year));
+
+        YearArchive result;
+        try (Connection c = ArchiveDatabase.connect(List.of(year))) {
+            // DDL first: ATTACH'd schema changes are fine outside the data transaction
+            for (String table : ARCHIVED_TABLES) {
+                createArchiveTable(c, schema, table);
+            }
+
+            c.setAutoCommit(false);
+            try {
+                update(c, "CREATE TEMP TABLE archive_sale_ids AS SELECT id FROM main.sales WHERE date >= ? AND date < ?",
+                        from, until);
+                String bySale = "sale_id IN (SELECT id FROM temp.archive_sale_ids)";
+
+                // Children before parents: their filters read the parent rows still in main
+                move(c, schema, "service_item",
+                        "service_header_id IN (SELECT id FROM main.service_header WHERE " + bySale + ")");
+                move(c, schema, "service_header", bySale);
+                move(c, schema, "product_sale_items",
+                        "product_header_id IN (SELECT id FROM main.product_sales WHERE " + bySale + ")");
+                move(c, schema, "product_sales", bySale);
+                int sales = move(c, schema, "sales", "id IN (SELECT id FROM temp.archive_sale_ids)");
+                int movements = move(c, schema, "cashbox_movements", "occurred_at >= ? AND occurred_at < ?", from, until);
+                int expenses = move(c, schema, "expenses", "date >= ? AND date < ?", from, until);
+
+                update(c, REGISTER, year, ArchiveDatabase.fileName(year), sales, movements, expenses);
+                update(c, "DROP TABLE temp.archive_sale_ids");
+                c.commit();
+                result = new YearArchive(year, sales, movements, expenses);
+            } catch (SQLException | RuntimeException e) {
+                c.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            logger.error("{} Error archiving {}: {}", PREFIX, year, e.getMessage());
+            throw new RuntimeException("Failed to archive year " + year, e);
+        } finally {
+            ArchiveDatabase.reload();
+        }
+
+        logger.info("{} Archived {}: {} sales, {} movements, {} expenses",
+                PREFIX, year, result.sales(), result.movements(), result.expenses());
+        return result;
+    }
+
+    @Override
+    public void compactLiveDatabase() {
+        try (Connection c = ArchiveDatabase.connect(List.of());
+             Statement st = c.createStatement()) {
+            st.execute("VACUUM main");
+            logger.info("{} Live database compacted", PREFIX);
+        } catch (SQLException e) {
+            logger.error("{} Error compacting live database: {}", PREFIX, e.getMessage());
+        }
+    }
+
+    /**
+     * Creates {@code table} and its indexes in the archive schema from main's own DDL,
+     * then adds any column main gained since the archive file was created (migrations
+     * only ever add columns), so rows copy across by name.
+     */
+    private void createArchiveTable(Connection c, String schema, String table) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            String ddl = singleString(c, "SELECT sql FROM main.sqlite_master WHERE type = 'table' AND name = ?", table);
+            Matcher m = CREATE_TABLE.matcher(ddl);
+            if (!m.find()) throw new SQLException("Unexpected DDL for " + table + ": " + ddl);
+            st.execute("CREATE TABLE IF NOT EXISTS " + schema + ".\"" + table + "\"" + ddl.substring(m.end()));
+
+            Set<String> archiveColumns = columns(c, schema, table);
+            try (PreparedStatement ps = c.prepareStatement(
+                    "SELECT name, type FROM pragma_table_info(?, 'main')")) {
+                ps.setString(1, table);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        if (!archiveColumns.contains(rs.getString(1))) {
+                            st.execute("ALTER TABLE " + schema + "." + table + " ADD COLUMN "
+                                    + rs.getString(1) + " " + rs.getString(2));
+                        }
+                    }
+                }
+            }
+
+            List<String> indexes = new ArrayList<>();
+            try (PreparedStatement ps = c.prepareStatement(
+                    "SELECT sql FROM main.sqlite_master WHERE type = 'index' AND tbl_name = ? AND sql IS NOT NULL")) {
+                ps.setString(1, table);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) indexes.add(rs.getString(1));
+                }
+            }
+            for (String index : indexes) {
+                Matcher im = CREATE_INDEX.matcher(index);
+                if (im.find()) {
+                    String unique = im.group(1) != null ? "UNIQUE " : "";
+                    st.execute("CREATE " + unique + "INDEX IF NOT EXISTS " + schema + "." + im.group(3) + " ON"
+                            + index.substring(im.end()));
+                }
+            }
+        }
+    }
+
+    /** Copies the matching rows of {@code table} to the archive schema and deletes them from main. */
+    private int move(Connection c, String schema, String table, String where, Object... params) throws SQLException {
+        String cols = String.join(", ", columns(c, "main", table));
+        int copied = update(c, "INSERT OR REPLACE INTO " + schema + "." + table + " (" + cols + ") "
+                + "SELECT " + cols + " FROM main." + table + " WHERE " + where, params);
+        int deleted = update(c, "DELETE FROM main." + table + " WHERE " + where, params);
+        if (copied != deleted) {
+            throw new SQLException(table + ": copied " + copied + " rows but deleted " + deleted);
+        }
+        logger.debug("{} {}: {} rows moved", PREFIX, table, deleted);
+        return deleted;
+    }
+
+    private static Set<String> columns(Connection c, String schema, String table) throws SQLException {
+        Set<String> columns = new LinkedHashSet<>();
+        try (PreparedStatement ps = c.prepareStatement("SELECT name FROM pragma_table_info(?, ?)")) {
+            ps.setString(1, table);
+            ps.setString(2, schema);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) columns.add(rs.getString(1));
+            }
+        }
+        return columns;
+    }
+
+    // ============================================================
+    // ROUTED QUERIES
+    // ============================================================
+
+    @Override
+    public List<SaleHistoryDTO> findSalesHistory(LocalDate from, LocalDate to, Collection<Integer> years) {
+        List<SaleHistoryDTO> list = new ArrayList<>();
+        Set<Integer> attached = ArchiveDatabase.attachable(years);
+        List<String> schemas = schemas(attached);
+        String sql = union(SALES_HISTORY, schemas) + " ORDER BY 2 DESC, 1 DESC";
+
+        try (Connection c = ArchiveDatabase.connect(attached);
+             PreparedStatement ps = prepare(c, sql, schemas.size(), from.toString(), to.toString());
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                SaleHistoryDTO dto = new SaleHistoryDTO();
+                dto.setSaleId(rs.getInt(1));
+                dto.setDate(LocalDate.parse(rs.getString(2)));
+                dto.setUserName(rs.getString(3));
+                dto.setClientName(rs.getString(4));
+                dto.setTotal(rs.getLong(5));
+                dto.setPaymentMethod(rs.getString(6));
+                dto.setPaid(true);
+                dto.setArchived(!"main".equals(rs.getString(7)));
+                list.add(dto);
+            }
+        } catch (SQLException e) {
+            logger.error("{} Error loading sales history {} - {}: {}", PREFIX, from, to, e.getMessage());
+            throw new RuntimeException("Failed to load sales history " + from + " - " + to, e);
+        }
+        return list;
+    }
+
+    @Override
+    public SaleDetailDTO findSaleDetail(int saleId, int year) {
+        Set<Integer> attached = ArchiveDatabase.attachable(List.of(year));
+        if (attached.isEmpty()) return null;
+
+        String schema = ArchiveDatabase.schema(year);
+        try (Connection c = ArchiveDatabase.connect(attached)) {
+            SaleDetailDTO dto;
+            try (PreparedStatement ps = prepare(c, String.format(SALE_HEADER, schema), 1, saleId);
+                 ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return null;
+                dto = new SaleDetailDTO();
+                dto.setSaleId(rs.getInt(1));
+                dto.setDate(LocalDate.parse(rs.getString(2)));
+                dto.setUserName(rs.getString(3));
+                dto.setClientName(rs.getString(4));
+                dto.setPaymentMethod(rs.getString(5));
+                dto.setTotal(rs.getLong(6));
+            }
+            dto.setServiceItems(items(c, String.format(SALE_SERVICE_ITEMS, schema), "SERVICE", saleId));
+            dto.setProductItems(items(c, String.format(SALE_PRODUCT_ITEMS, schema), "PRODUCT", saleId));
+            return dto;
+        } catch (SQLException e) {
+            logger.error("{} Error loading archived sale {} ({}): {}", PREFIX, saleId, year, e.getMessage());
+            throw new RuntimeException("Failed to load archived sale " + saleId, e);
+        }
+    }
+
+    private static List<SaleItemDTO> items(Connection c, String sql, String type, int saleId) throws SQLException {
+        List<SaleItemDTO> items = new ArrayList<>();
+        try (PreparedStatement ps = prepare(c, sql, 1, saleId);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                SaleItemDTO item = new SaleItemDTO();
+                item.setType(type);
+                item.setName(rs.getString(1));
+                item.setQuantity(rs.getInt(2));
+                item.setUnitPrice(rs.getLong(3));
+                item.setTotal(rs.getLong(4));
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    @Override
+    public long sumSales(Integer paymentMethodId, LocalDate from, LocalDate to, Collection<Integer> years) {
+        return sum("total", "sales", "date", paymentMethodId, from, to, years);
+    }
+
+    @Override
+    public long sumExpenses(Integer paymentMethodId, LocalDate from, LocalDate to, Collection<Integer> years) {
+        return sum("amount", "expenses", "date", paymentMethodId, from, to, years);
+    }
+
+    private long sum(String column, String table, String dateColumn, Integer paymentMethodId,
+                     LocalDate from, LocalDate to, Collection<Integer> years) {
+        Set<Integer> attached = ArchiveDatabase.attachable(years);
+        List<String> schemas = schemas(attached);
+        String part = "SELECT " + column + " AS v FROM %1$s." + table + " WHERE " + dateColumn + " BETWEEN ? AND ?"
+                + (paymentMethodId != null ? " AND payment_method_id = ?" : "");
+        String sql = "SELECT COALESCE(SUM(v), 0) FROM (" + union(part, schemas) + ")";
+        Object[] params = paymentMethodId != null
+                ? new Object[]{from.toString(), to.toString(), paymentMethodId}
+                : new Object[]{from.toString(), to.toString()};
+
+        try (Connection c = ArchiveDatabase.connect(attached);
+             PreparedStatement ps = prepare(c, sql, schemas.size(), params);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        } catch (SQLException e) {
+            logger.error("{} Error summing {} {} - {}: {}", PREFIX, table, from, to, e.getMessage());
+            throw new RuntimeException("Failed to sum " + table + " " + from + " - " + to, e);
+        }
+    }
+
+    @Override
+    public List<CashboxMovement> findMovementsByDateRange(LocalDateTime start, LocalDateTime end,
+                                                          Collection<Integer> years) {
+        List<CashboxMovement> list = new ArrayList<>();
+        Set<Integer> attached = ArchiveDatabase.attachable(years);
+        List<String> schemas = schemas(attached);
+        String sql = union(MOVEMENTS, schemas) + " ORDER BY occurred_at";
+
+        try (Connection c = ArchiveDatabase.connect(attached);
+             PreparedStatement ps = prepare(c, sql, schemas.size(),
+                     dateTimes.convertToDatabaseColumn(start), dateTimes.convertToDatabaseColumn(end));
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                list.add(CashboxMovement.builder()
+                        .id(rs.getInt(1))
+                        .movementType(rs.getString(2))
+                        .direction(rs.getString(3))
+                        .amount(rs.getLong(4))
+                        .paymentMethodId(intOrNull(rs, 5))
+                        .referenceType(rs.getString(6))
+                        .referenceId(intOrNull(rs, 7))
+                        .description(rs.getString(8))
+                        .userId(intOrNull(rs, 9))
+                        .occurredAt(dateTimes.convertToEntityAttribute(rs.getString(10)))
+                        .createdAt(dateTimes.convertToEntityAttribute(rs.getString(11)))
+                        .openingId(intOrNull(rs, 12))
+                        .build());
+            }
+        } catch (SQLException e) {
+            logger.error("{} Error loading movements {} - {}: {}", PREFIX, start, end, e.getMessage());
+            throw new RuntimeException("Failed to load movements " + start + " - " + end, e);
+        }
+        return list;
+    }
+
+    @Override
+    public List<Expense> findExpenses(LocalDate from, LocalDate to, Collection<Integer> years) {
+        Set<Integer> attached = ArchiveDatabase.attachable(years);
+        List<String> schemas = schemas(attached);
+        String sql = union(EXPENSES + " WHERE date BETWEEN ? AND ?", schemas) + " ORDER BY 4, 1";
+
+        try (Connection c = ArchiveDatabase.connect(attached);
+             PreparedStatement ps = prepare(c, sql, schemas.size(), from.toString(), to.toString())) {
+            return expenses(ps);
+        } catch (SQLException e) {
+            logger.error("{} Error loading expenses {} - {}: {}", PREFIX, from, to, e.getMessage());
+            throw new RuntimeException("Failed to load expenses " + from + " - " + to, e);
+        }
+    }
+
+    @Override
+    public List<Expense> findArchivedExpenses(int year) {
+        Set<Integer> attached = ArchiveDatabase.attachable(List.of(year));
+        if (attached.isEmpty()) return List.of();
+
+        try (Connection c = ArchiveDatabase.connect(attached);
+             PreparedStatement ps = c.prepareStatement(String.format(EXPENSES, ArchiveDatabase.schema(year)))) {
+            return expenses(ps);
+        } catch (SQLException e) {
+            logger.error("{} Error loading archived expenses of {}: {}", PREFIX, year, e.getMessage());
+            throw new RuntimeException("Failed to load archived expenses of " + year, e);
+        }
+    }
+
+    private static List<Expense> expenses(PreparedStatement ps) throws SQLException {
+        List<Expense> list = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                list.add(Expense.builder()
+                        .id(rs.getInt(1))
+                        .description(rs.getString(2))
+                        .amount(rs.getLong(3))
+                        .date(LocalDate.parse(rs.getString(4)))
+                        .type(rs.getString(5))
+                        .paymentMethodId(rs.getInt(6))
+                        .build());
+            }
+        }
+        return list;
+    }
+
+    // ============================================================
+    // HELPERS
+    // ============================================================
+
+    /** main first, then the attached years. */
+    private static List<String> schemas(Collection<Integer> years) {
+        List<String> schemas = new ArrayList<>();
+        schemas.add("main");
+        for (int year : years) schemas.add(ArchiveDatabase.schema(year));
+        return schemas;
+    }
+
+    private static String union(String template, List<String> schemas) {
+        List<String> parts = new ArrayList<>();
+        for (String schema : schemas) parts.add(String.format(template, schema));
+        return String.join("\nUNION ALL\n", parts);
+    }
+
+    /** Prepares {@code sql} binding {@code params} once per UNION ALL part. */
+    private static PreparedStatement prepare(Connection c, String sql, int parts, Object... params) throws SQLException {
+        PreparedStatement ps = c.prepareStatement(sql);
+        int index = 1;
+        for (int p = 0; p < parts; p++) {
+            for (Object param : params) ps.setObject(index++, param);
+        }
+        return ps;
+    }
+
+    private static Integer intOrNull(ResultSet rs, int column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static int update(Connection c, String sql, Object... params) throws SQLException {
+        try (PreparedStatement ps = prepare(c, sql, 1, params)) {
+            return ps.executeUpdate();
+        }
+    }
+
+    private static String singleString(Connection c, String sql, Object... params) throws SQLException {
+        try (PreparedStatement ps = prepare(c, sql, 1, params);
+             ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) throw new SQLException("No result for: " + sql);
+            return rs.getString(1);
+        }
+    }
+}
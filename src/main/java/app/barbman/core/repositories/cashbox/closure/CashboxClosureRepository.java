@@ -1,6 +1,7 @@
 package app.barbman.core.repositories.cashbox.closure;
 
 import app.barbman.core.model.cashbox.CashboxClosure;
+import jakarta.persistence.EntityManager;
 
 public interface CashboxClosureRepository {
 
@@ -9,4 +10,6 @@ public interface CashboxClosureRepository {
     CashboxClosure findLast();
 
     void save(CashboxClosure closure);
+
+    void save(CashboxClosure closure, EntityManager em);
 }
@@ -1,9 +1,13 @@
 package app.barbman.core.repositories.cashbox.movement;
 
 import app.barbman.core.model.cashbox.CashboxMovement;
+import jakarta.persistence.EntityManager;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface CashboxMovementRepository {
 
@@ -17,13 +21,25 @@ public interface CashboxMovementRepository {
             Integer referenceId
     );
 
+    List<CashboxMovement> findByReference(String referenceType, Integer referenceId, EntityManager em);
+
     List<CashboxMovement> findByOpeningId(Integer openingId);
 
-    double sumByOpeningIdAndDirection(Integer openingId, String direction, boolean isCash);
+    /**
+     * Days in [start, end] with a movement (opening amounts aside) that belongs to none of
+     * {@code openingIds}, e.g. an expense recorded after that day's closure.
+     */
+    Set<LocalDate> findDaysOutsideOpenings(LocalDateTime start, LocalDateTime end, Collection<Integer> openingIds);
+
+    long sumByOpeningIdAndDirection(Integer openingId, String direction, boolean isCash);
 
     void save(CashboxMovement movement);
 
+    void save(CashboxMovement movement, EntityManager em);
+
     void delete(Integer id);
 
+    void delete(Integer id, EntityManager em);
+
     List<CashboxMovement> findAll();
 }
@@ -1,16 +1,26 @@
 package app.barbman.core.repositories.cashbox.movement;
 
+import app.barbman.core.infrastructure.ArchiveDatabase;
 import app.barbman.core.infrastructure.HibernateUtil;
 import app.barbman.core.model.cashbox.CashboxMovement;
 import app.barbman.core.repositories.AbstractHibernateRepository;
+import app.barbman.core.repositories.archive.ArchiveRepository;
+import app.barbman.core.repositories.archive.ArchiveRepositoryImpl;
 import jakarta.persistence.EntityManager;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
 
 public class CashboxMovementRepositoryImpl extends AbstractHibernateRepository<CashboxMovement, Integer>
         implements CashboxMovementRepository {
 
+    private final ArchiveRepository archiveRepo = new ArchiveRepositoryImpl();
+
     public CashboxMovementRepositoryImpl() {
         super(CashboxMovement.class);
     }
@@ -22,6 +32,9 @@ public class CashboxMovementRepositoryImpl extends AbstractHibernateRepository<C
 
     @Override
     public List<CashboxMovement> findByDateRange(LocalDateTime start, LocalDateTime end) {
+        SortedSet<Integer> archived = ArchiveDatabase.yearsBetween(start.toLocalDate(), end.toLocalDate());
+        if (!archived.isEmpty()) return archiveRepo.findMovementsByDateRange(start, end, archived);
+
         try (EntityManager em = HibernateUtil.createEntityManager()) {
             return em.createQuery(
                     "FROM CashboxMovement WHERE occurredAt BETWEEN :start AND :end ORDER BY occurredAt",
@@ -39,12 +52,7 @@ public class CashboxMovementRepositoryImpl extends AbstractHibernateRepository<C
     @Override
     public List<CashboxMovement> findByReference(String referenceType, Integer referenceId) {
         try (EntityManager em = HibernateUtil.createEntityManager()) {
-            return em.createQuery(
-                    "FROM CashboxMovement WHERE referenceType = :type AND referenceId = :refId",
-                    CashboxMovement.class)
-                    .setParameter("type", referenceType)
-                    .setParameter("refId", referenceId)
-                    .getResultList();
+            return findByReference(referenceType, referenceId, em);
         } catch (Exception e) {
             logger.warn("[CashboxMovementRepositoryImpl] Error fetching movements by reference: {}",
                     e.getMessage());
@@ -52,6 +60,16 @@ public class CashboxMovementRepositoryImpl extends AbstractHibernateRepository<C
         }
     }
 
+    @Override
+    public List<CashboxMovement> findByReference(String referenceType, Integer referenceId, EntityManager em) {
+        return em.createQuery(
+                "FROM CashboxMovement WHERE referenceType = :type AND referenceId = :refId",
+                CashboxMovement.class)
+                .setParameter("type", referenceType)
+                .setParameter("refId", referenceId)
+                .getResultList();
+    }
+
     @Override
     public List<CashboxMovement> findByOpeningId(Integer openingId) {
         try (EntityManager em = HibernateUtil.createEntityManager()) {
@@ -68,27 +86,52 @@ public class CashboxMovementRepositoryImpl extends AbstractHibernateRepository<C
     }
 
     @Override
-    public double sumByOpeningIdAndDirection(Integer openingId, String direction, boolean isCash) {
+    public Set<LocalDate> findDaysOutsideOpenings(LocalDateTime start, LocalDateTime end,
+                                                  Collection<Integer> openingIds) {
+        Set<LocalDate> days = new HashSet<>();
+        try (EntityManager em = HibernateUtil.createEntityManager()) {
+            em.createQuery("""
+                    SELECT occurredAt FROM CashboxMovement
+                    WHERE occurredAt BETWEEN :start AND :end
+                      AND movementType <> 'OPENING'
+                      AND (openingId IS NULL OR openingId NOT IN :ids)
+                    """, LocalDateTime.class)
+                    .setParameter("start", start)
+                    .setParameter("end", end)
+                    .setParameter("ids", openingIds.isEmpty() ? List.of(-1) : openingIds)
+                    .getResultList()
+                    .forEach(at -> days.add(at.toLocalDate()));
+        } catch (Exception e) {
+            // An empty set would mark every day as sealed and hide live movements from reports.
+            logger.error("[CashboxMovementRepositoryImpl] Error fetching movements outside openings: {}",
+                    e.getMessage());
+            throw new RuntimeException("Failed to load movements outside openings " + start + " - " + end, e);
+        }
+        return days;
+    }
+
+    @Override
+    public long sumByOpeningIdAndDirection(Integer openingId, String direction, boolean isCash) {
         try (EntityManager em = HibernateUtil.createEntityManager()) {
             String paymentFilter = isCash
                     ? "AND m.paymentMethodId = 0"
                     : "AND m.paymentMethodId IN (1, 2, 3)";
 
-            Double result = em.createQuery(
+            Long result = em.createQuery(
                     "SELECT COALESCE(SUM(m.amount), 0) FROM CashboxMovement m " +
                             "WHERE m.openingId = :openingId " +
                             "AND m.direction = :direction " +
                             "AND m.movementType <> 'OPENING' " +
                             paymentFilter,
-                    Double.class)
+                    Long.class)
                     .setParameter("openingId", openingId)
                     .setParameter("direction", direction)
                     .getSingleResult();
-            return result != null ? result : 0.0;
+            return result != null ? result : 0L;
         } catch (Exception e) {
             logger.warn("[CashboxMovementRepositoryImpl] Error summing movements for opening {}: {}",
                     openingId, e.getMessage());
-            return 0.0;
+            return 0L;
         }
     }
 }
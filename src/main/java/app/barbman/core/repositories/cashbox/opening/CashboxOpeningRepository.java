@@ -1,6 +1,7 @@
 package app.barbman.core.repositories.cashbox.opening;
 
 import app.barbman.core.model.cashbox.CashboxOpening;
+import jakarta.persistence.EntityManager;
 
 import java.time.LocalDate;
 
@@ -18,7 +19,11 @@ public interface CashboxOpeningRepository {
 
     void save(CashboxOpening opening);
 
+    void save(CashboxOpening opening, EntityManager em);
+
     void update(CashboxOpening opening);
 
+    void update(CashboxOpening opening, EntityManager em);
+
     java.util.List<CashboxOpening> findAll();
 }
@@ -0,0 +1,25 @@
+package app.barbman.core.repositories.cashbox.snapshot;
+
+import app.barbman.core.model.cashbox.CashboxReportSnapshot;
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface CashboxReportSnapshotRepository {
+
+    CashboxReportSnapshot findById(Integer openingId);
+
+    /** Snapshots whose period includes {@code date}. */
+    List<CashboxReportSnapshot> findCovering(LocalDate date);
+
+    /** Snapshots whose period shares at least one day with [from, to]. */
+    List<CashboxReportSnapshot> findOverlapping(LocalDate from, LocalDate to);
+
+    /** Ids of closed openings that have no snapshot yet (closed before snapshots existed). */
+    List<Integer> findClosedOpeningIdsWithoutSnapshot();
+
+    List<CashboxReportSnapshot> findAll();
+
+    void save(CashboxReportSnapshot snapshot, EntityManager em);
+}
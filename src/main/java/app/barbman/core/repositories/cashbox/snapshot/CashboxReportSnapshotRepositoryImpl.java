@@ -0,0 +1,95 @@
+package app.barbman.core.repositories.cashbox.snapshot;
+
+import app.barbman.core.infrastructure.HibernateUtil;
+import app.barbman.core.model.cashbox.CashboxReportSnapshot;
+import jakarta.persistence.EntityManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Insert-only: a snapshot is written once, with its closure, and never changed.
+ * That is why this does not extend AbstractHibernateRepository (no update/delete).
+ */
+public class CashboxReportSnapshotRepositoryImpl implements CashboxReportSnapshotRepository {
+
+    private static final Logger logger = LogManager.getLogger(CashboxReportSnapshotRepositoryImpl.class);
+
+    @Override
+    public CashboxReportSnapshot findById(Integer openingId) {
+        try (EntityManager em = HibernateUtil.createEntityManager()) {
+            return em.find(CashboxReportSnapshot.class, openingId);
+        } catch (Exception e) {
+            logger.error("[CashboxReportSnapshotRepositoryImpl] Error finding snapshot {}: {}", openingId, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public List<CashboxReportSnapshot> findCovering(LocalDate date) {
+        try (EntityManager em = HibernateUtil.createEntityManager()) {
+            return em.createQuery(
+                    "FROM CashboxReportSnapshot WHERE periodStart <= :date AND periodEnd >= :date",
+                    CashboxReportSnapshot.class)
+                    .setParameter("date", date)
+                    .getResultList();
+        } catch (Exception e) {
+            logger.warn("[CashboxReportSnapshotRepositoryImpl] Error fetching snapshots for {}: {}",
+                    date, e.getMessage());
+            return List.of();
+        }
+    }
+
+    @Override
+    public List<CashboxReportSnapshot> findOverlapping(LocalDate from, LocalDate to) {
+        try (EntityManager em = HibernateUtil.createEntityManager()) {
+            return em.createQuery(
+                    "FROM CashboxReportSnapshot WHERE periodStart <= :to AND periodEnd >= :from ORDER BY periodStart",
+                    CashboxReportSnapshot.class)
+                    .setParameter("from", from)
+                    .setParameter("to", to)
+                    .getResultList();
+        } catch (Exception e) {
+            logger.warn("[CashboxReportSnapshotRepositoryImpl] Error fetching snapshots for {} - {}: {}",
+                    from, to, e.getMessage());
+            return List.of();
+        }
+    }
+
+    @Override
+    public List<Integer> findClosedOpeningIdsWithoutSnapshot() {
+        List<Integer> ids = new ArrayList<>();
+        try (EntityManager em = HibernateUtil.createEntityManager()) {
+            List<?> rows = em.createNativeQuery("""
+                    SELECT o.id FROM cashbox_openings o
+                    WHERE o.closed = 1
+                      AND NOT EXISTS (SELECT 1 FROM cashbox_report_snapshots s WHERE s.opening_id = o.id)
+                    ORDER BY o.id
+                    """).getResultList();
+            for (Object row : rows) ids.add(((Number) row).intValue());
+        } catch (Exception e) {
+            logger.warn("[CashboxReportSnapshotRepositoryImpl] Error listing openings without snapshot: {}",
+                    e.getMessage());
+        }
+        return ids;
+    }
+
+    @Override
+    public List<CashboxReportSnapshot> findAll() {
+        try (EntityManager em = HibernateUtil.createEntityManager()) {
+            return em.createQuery("FROM CashboxReportSnapshot ORDER BY openingId", CashboxReportSnapshot.class)
+                    .getResultList();
+        } catch (Exception e) {
+            logger.error("[CashboxReportSnapshotRepositoryImpl] Error fetching snapshots: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    @Override
+    public void save(CashboxReportSnapshot snapshot, EntityManager em) {
+        em.persist(snapshot);
+    }
+}
@@ -0,0 +1,14 @@
+package app.barbman.core.repositories.client;
+
+import app.barbman.core.model.human.Client;
+
+import java.util.List;
+
+public interface ClientRepository {
+    Client findById(Integer id);
+    List<Client> findAll();
+    List<Client> findAllActive();
+    void save(Client client);
+    void update(Client client);
+    void delete(Integer id);
+}
@@ -1,11 +1,27 @@
 package app.barbman.core.repositories.client;
 
+import app.barbman.core.infrastructure.HibernateUtil;
 import app.barbman.core.model.human.Client;
 import app.barbman.core.repositories.AbstractHibernateRepository;
+import jakarta.persistence.EntityManager;
 
-public class ClientRepositoryImpl extends AbstractHibernateRepository<Client, Integer> {
+import java.util.List;
+
+public class ClientRepositoryImpl extends AbstractHibernateRepository<Client, Integer>
+        implements ClientRepository {
 
     public ClientRepositoryImpl() {
         super(Client.class);
     }
+
+    @Override
+    public List<Client> findAllActive() {
+        try (EntityManager em = HibernateUtil.createEntityManager()) {
+            return em.createQuery("FROM Client c WHERE c.active = true", Client.class)
+                    .getResultList();
+        } catch (Exception e) {
+            logger.error("[ClientRepositoryImpl] Error fetching active clients: {}", e.getMessage());
+            return List.of();
+        }
+    }
 }
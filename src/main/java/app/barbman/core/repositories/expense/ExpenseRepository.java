@@ -1,15 +1,19 @@
 package app.barbman.core.repositories.expense;
 
 import app.barbman.core.model.Expense;
+import jakarta.persistence.EntityManager;
 
 import java.time.LocalDate;
 import java.util.List;
 
 public interface ExpenseRepository {
     List<Expense> searchByDateRange(LocalDate startDate, LocalDate endDate);
-    double sumTotalByPaymentMethodAndPeriod(int paymentMethodId, LocalDate start, LocalDate end);
-    double sumTotalByPeriod(LocalDate start, LocalDate end);
+    long sumTotalByPaymentMethodAndPeriod(int paymentMethodId, LocalDate start, LocalDate end);
+    long sumTotalByPeriod(LocalDate start, LocalDate end);
     void save(Expense expense);
+    void save(Expense expense, EntityManager em);
     void delete(Integer id);
+    void delete(Integer id, EntityManager em);
+    Expense findById(Integer id);
     List<Expense> findAll();
 }
@@ -1,22 +1,31 @@
 package app.barbman.core.repositories.expense;
 
+import app.barbman.core.infrastructure.ArchiveDatabase;
 import app.barbman.core.infrastructure.HibernateUtil;
 import app.barbman.core.model.Expense;
 import app.barbman.core.repositories.AbstractHibernateRepository;
+import app.barbman.core.repositories.archive.ArchiveRepository;
+import app.barbman.core.repositories.archive.ArchiveRepositoryImpl;
 import jakarta.persistence.EntityManager;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.SortedSet;
 
 public class ExpenseRepositoryImpl extends AbstractHibernateRepository<Expense, Integer>
         implements ExpenseRepository {
 
+    private final ArchiveRepository archiveRepo = new ArchiveRepositoryImpl();
+
     public ExpenseRepositoryImpl() {
         super(Expense.class);
     }
 
     @Override
     public List<Expense> searchByDateRange(LocalDate startDate, LocalDate endDate) {
+        SortedSet<Integer> archived = ArchiveDatabase.yearsBetween(startDate, endDate);
+        if (!archived.isEmpty()) return archiveRepo.findExpenses(startDate, endDate, archived);
+
         try (EntityManager em = HibernateUtil.createEntityManager()) {
             return em.createQuery(
                     "FROM Expense WHERE date BETWEEN :start AND :end ORDER BY date, id",
@@ -31,35 +40,41 @@ public class ExpenseRepositoryImpl extends AbstractHibernateRepository<Expense,
     }
 
     @Override
-    public double sumTotalByPaymentMethodAndPeriod(int paymentMethodId, LocalDate start, LocalDate end) {
+    public long sumTotalByPaymentMethodAndPeriod(int paymentMethodId, LocalDate start, LocalDate end) {
+        SortedSet<Integer> archived = ArchiveDatabase.yearsBetween(start, end);
+        if (!archived.isEmpty()) return archiveRepo.sumExpenses(paymentMethodId, start, end, archived);
+
         try (EntityManager em = HibernateUtil.createEntityManager()) {
-            Double result = em.createQuery(
+            Long result = em.createQuery(
                     "SELECT SUM(e.amount) FROM Expense e WHERE e.paymentMethodId = :pm AND e.date BETWEEN :start AND :end",
-                    Double.class)
+                    Long.class)
                     .setParameter("pm", paymentMethodId)
                     .setParameter("start", start)
                     .setParameter("end", end)
                     .getSingleResult();
-            return result != null ? result : 0.0;
+            return result != null ? result : 0L;
         } catch (Exception e) {
             logger.error("[ExpenseRepositoryImpl] Error summing expenses by payment method: {}", e.getMessage());
-            return 0.0;
+            return 0L;
         }
     }
 
     @Override
-    public double sumTotalByPeriod(LocalDate start, LocalDate end) {
+    public long sumTotalByPeriod(LocalDate start, LocalDate end) {
+        SortedSet<Integer> archived = ArchiveDatabase.yearsBetween(start, end);
+        if (!archived.isEmpty()) return archiveRepo.sumExpenses(null, start, end, archived);
+
         try (EntityManager em = HibernateUtil.createEntityManager()) {
-            Double result = em.createQuery(
+            Long result = em.createQuery(
                     "SELECT SUM(e.amount) FROM Expense e WHERE e.date BETWEEN :start AND :end",
-                    Double.class)
+                    Long.class)
                     .setParameter("start", start)
                     .setParameter("end", end)
                     .getSingleResult();
-            return result != null ? result : 0.0;
+            return result != null ? result : 0L;
         } catch (Exception e) {
             logger.error("[ExpenseRepositoryImpl] Error summing expenses by period: {}", e.getMessage());
-            return 0.0;
+            return 0L;
         }
     }
 }
@@ -1,18 +1,26 @@
 package app.barbman.core.repositories.salaries.advance;
 
 import app.barbman.core.model.salaries.Advance;
+import jakarta.persistence.EntityManager;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface AdvanceRepository {
 
     List<Advance> findByUserAndDateRange(int userId, LocalDate from, LocalDate to);
 
-    double getTotalByUserAndDateRange(int userId, LocalDate from, LocalDate to);
+    long getTotalByUserAndDateRange(int userId, LocalDate from, LocalDate to);
+
+    /** Advance totals per user per day for several users at once: userId -> (date -> total). */
+    Map<Integer, Map<LocalDate, Long>> getTotalsByUsersPerDay(Collection<Integer> userIds, LocalDate from, LocalDate to);
 
     void save(Advance advance);
 
+    void save(Advance advance, EntityManager em);
+
     void delete(Integer id);
 
     List<Advance> findAll();
@@ -6,7 +6,10 @@ import app.barbman.core.repositories.AbstractHibernateRepository;
 import jakarta.persistence.EntityManager;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class AdvanceRepositoryImpl extends AbstractHibernateRepository<Advance, Integer>
         implements AdvanceRepository {
@@ -42,19 +45,46 @@ public class AdvanceRepositoryImpl extends AbstractHibernateRepository<Advance,
     }
 
     @Override
-    public double getTotalByUserAndDateRange(int userId, LocalDate from, LocalDate to) {
+    public long getTotalByUserAndDateRange(int userId, LocalDate from, LocalDate to) {
         try (EntityManager em = HibernateUtil.createEntityManager()) {
-            Double result = em.createQuery(
+            Long result = em.createQuery(
                     "SELECT SUM(a.amount) FROM Advance a WHERE a.userId = :userId AND a.date BETWEEN :from AND :to",
-                    Double.class)
+                    Long.class)
                     .setParameter("userId", userId)
                     .setParameter("from", from)
                     .setParameter("to", to)
                     .getSingleResult();
-            return result != null ? result : 0.0;
+            return result != null ? result : 0L;
         } catch (Exception e) {
             logger.warn("[AdvanceRepositoryImpl] Error calculating total advances: {}", e.getMessage());
-            return 0.0;
+            return 0L;
         }
     }
+
+    @Override
+    public Map<Integer, Map<LocalDate, Long>> getTotalsByUsersPerDay(Collection<Integer> userIds,
+                                                                      LocalDate from, LocalDate to) {
+        Map<Integer, Map<LocalDate, Long>> result = new HashMap<>();
+        if (userIds.isEmpty()) return result;
+
+        try (EntityManager em = HibernateUtil.createEntityManager()) {
+            List<Object[]> rows = em.createQuery(
+                    "SELECT a.userId, a.date, SUM(a.amount) FROM Advance a " +
+                            "WHERE a.userId IN :userIds AND a.date BETWEEN :from AND :to " +
+                            "GROUP BY a.userId, a.date",
+                    Object[].class)
+                    .setParameter("userIds", userIds)
+                    .setParameter("from", from)
+                    .setParameter("to", to)
+                    .getResultList();
+
+            for (Object[] row : rows) {
+                result.computeIfAbsent((Integer) row[0], k -> new HashMap<>())
+                        .put((LocalDate) row[1], row[2] != null ? ((Number) row[2]).longValue() : 0L);
+            }
+        } catch (Exception e) {
+            logger.warn("[AdvanceRepositoryImpl] Error calculating advances per user/day: {}", e.getMessage());
+        }
+        return result;
+    }
 }
@@ -1,14 +1,18 @@
 package app.barbman.core.repositories.salaries.salaries;
 
 import app.barbman.core.model.salaries.Salary;
+import jakarta.persistence.EntityManager;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface SalariesRepository {
     Salary findByUserAndDateWithinPeriod(int userId, LocalDate date);
+    List<Salary> findByUsersAndDateWithinPeriod(Collection<Integer> userIds, LocalDate date);
 
     void save(Salary salary);
+    void save(Salary salary, EntityManager em);
     void delete(Integer id);
     List<Salary> findAll();
 }
@@ -6,6 +6,8 @@ import app.barbman.core.repositories.AbstractHibernateRepository;
 import jakarta.persistence.EntityManager;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 
 public class SalariesRepositoryImpl extends AbstractHibernateRepository<Salary, Integer>
         implements SalariesRepository {
@@ -31,4 +33,22 @@ public class SalariesRepositoryImpl extends AbstractHibernateRepository<Salary,
             return null;
         }
     }
+
+    @Override
+    public List<Salary> findByUsersAndDateWithinPeriod(Collection<Integer> userIds, LocalDate date) {
+        if (userIds.isEmpty()) return List.of();
+
+        try (EntityManager em = HibernateUtil.createEntityManager()) {
+            return em.createQuery(
+                    "FROM Salary WHERE userId IN :userIds AND startDate <= :date AND endDate >= :date",
+                    Salary.class)
+                    .setParameter("userIds", userIds)
+                    .setParameter("date", date)
+                    .getResultList();
+        } catch (Exception e) {
+            logger.warn("[SalariesRepositoryImpl] Error finding salaries for {} users on {}: {}",
+                    userIds.size(), date, e.getMessage());
+            return List.of();
+        }
+    }
 }
@@ -15,10 +15,12 @@ public interface SaleRepository {
     void delete(Integer id, EntityManager em);
 
     Sale findById(Integer id);
+    /** Sale applied from the given sale journal entry, or null if it has not been applied yet. */
+    Sale findByJournalId(String journalId, EntityManager em);
     void delete(Integer id);
 
     List<SaleHistoryDTO> findSalesHistory(LocalDate from, LocalDate to);
     SaleDetailDTO findSaleHeaderDetail(int saleId);
-    double sumTotalByPaymentMethodAndPeriod(int paymentMethodId, LocalDate start, LocalDate end);
-    double sumTotalByPeriod(LocalDate start, LocalDate end);
+    long sumTotalByPaymentMethodAndPeriod(int paymentMethodId, LocalDate start, LocalDate end);
+    long sumTotalByPeriod(LocalDate start, LocalDate end);
 }
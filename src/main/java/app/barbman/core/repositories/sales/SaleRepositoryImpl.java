@@ -2,24 +2,42 @@ package app.barbman.core.repositories.sales;
 
 import app.barbman.core.dto.history.SaleDetailDTO;
 import app.barbman.core.dto.history.SaleHistoryDTO;
+import app.barbman.core.infrastructure.ArchiveDatabase;
 import app.barbman.core.infrastructure.HibernateUtil;
 import app.barbman.core.model.sales.Sale;
 import app.barbman.core.repositories.AbstractHibernateRepository;
+import app.barbman.core.repositories.archive.ArchiveRepository;
+import app.barbman.core.repositories.archive.ArchiveRepositoryImpl;
 import jakarta.persistence.EntityManager;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SortedSet;
 
 public class SaleRepositoryImpl extends AbstractHibernateRepository<Sale, Integer>
         implements SaleRepository {
 
+    private final ArchiveRepository archiveRepo = new ArchiveRepositoryImpl();
+
     public SaleRepositoryImpl() {
         super(Sale.class);
     }
 
+    @Override
+    public Sale findByJournalId(String journalId, EntityManager em) {
+        List<Sale> result = em.createQuery("FROM Sale s WHERE s.journalId = :journalId", Sale.class)
+                .setParameter("journalId", journalId)
+                .setMaxResults(1)
+                .getResultList();
+        return result.isEmpty() ? null : result.get(0);
+    }
+
     @Override
     public List<SaleHistoryDTO> findSalesHistory(LocalDate from, LocalDate to) {
+        SortedSet<Integer> archived = ArchiveDatabase.yearsBetween(from, to);
+        if (!archived.isEmpty()) return archiveRepo.findSalesHistory(from, to, archived);
+
         String sql = """
             SELECT s.id, s.date, u.displayName, c.displayName, s.total, pm.displayName
             FROM sales s
@@ -42,7 +60,7 @@ public class SaleRepositoryImpl extends AbstractHibernateRepository<Sale, Intege
                 dto.setDate(LocalDate.parse((String) row[1]));
                 dto.setUserName((String) row[2]);
                 dto.setClientName((String) row[3]);
-                dto.setTotal(((Number) row[4]).doubleValue());
+                dto.setTotal(((Number) row[4]).longValue());
                 dto.setPaymentMethod((String) row[5]);
                 dto.setPaid(true);
                 list.add(dto);
@@ -76,7 +94,7 @@ public class SaleRepositoryImpl extends AbstractHibernateRepository<Sale, Intege
                 dto.setUserName((String) row[2]);
                 dto.setClientName((String) row[3]);
                 dto.setPaymentMethod((String) row[4]);
-                dto.setTotal(((Number) row[5]).doubleValue());
+                dto.setTotal(((Number) row[5]).longValue());
                 return dto;
             }
         } catch (Exception e) {
@@ -86,35 +104,41 @@ public class SaleRepositoryImpl extends AbstractHibernateRepository<Sale, Intege
     }
 
     @Override
-    public double sumTotalByPaymentMethodAndPeriod(int paymentMethodId, LocalDate start, LocalDate end) {
+    public long sumTotalByPaymentMethodAndPeriod(int paymentMethodId, LocalDate start, LocalDate end) {
+        SortedSet<Integer> archived = ArchiveDatabase.yearsBetween(start, end);
+        if (!archived.isEmpty()) return archiveRepo.sumSales(paymentMethodId, start, end, archived);
+
         try (EntityManager em = HibernateUtil.createEntityManager()) {
-            Double result = em.createQuery(
+            Long result = em.createQuery(
                     "SELECT SUM(s.total) FROM Sale s WHERE s.paymentMethodId = :pm AND s.date BETWEEN :start AND :end",
-                    Double.class)
+                    Long.class)
                     .setParameter("pm", paymentMethodId)
                     .setParameter("start", start)
                     .setParameter("end", end)
                     .getSingleResult();
-            return result != null ? result : 0.0;
+            return result != null ? result : 0L;
         } catch (Exception e) {
             logger.error("[SaleRepositoryImpl] Error summing sales by payment method: {}", e.getMessage());
-            return 0.0;
+            return 0L;
         }
     }
 
     @Override
-    public double sumTotalByPeriod(LocalDate start, LocalDate end) {
+    public long sumTotalByPeriod(LocalDate start, LocalDate end) {
+        SortedSet<Integer> archived = ArchiveDatabase.yearsBetween(start, end);
+        if (!archived.isEmpty()) return archiveRepo.sumSales(null, start, end, archived);
+
         try (EntityManager em = HibernateUtil.createEntityManager()) {
-            Double result = em.createQuery(
+            Long result = em.createQuery(
                     "SELECT SUM(s.total) FROM Sale s WHERE s.date BETWEEN :start AND :end",
-                    Double.class)
+                    Long.class)
                     .setParameter("start", start)
                     .setParameter("end", end)
                     .getSingleResult();
-            return result != null ? result : 0.0;
+            return result != null ? result : 0L;
         } catch (Exception e) {
             logger.error("[SaleRepositoryImpl] Error summing sales by period: {}", e.getMessage());
-            return 0.0;
+            return 0L;
         }
     }
 }
@@ -0,0 +1,29 @@
+package app.barbman.core.repositories.sales.production;
+
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Pre-aggregated production per user per day (table user_daily_production).
+ * Range sums here read at most (users x days) rows instead of every sale.
+ */
+public interface UserDailyProductionRepository {
+
+    /** Adds (or subtracts, with negative values) to the user's row for that day. */
+    void add(int userId, LocalDate date, long serviceTotal, long productTotal, EntityManager em);
+    void add(int userId, LocalDate date, long serviceTotal, long productTotal);
+
+    long sumServiceTotal(int userId, LocalDate from, LocalDate to);
+
+    /** Service totals per user per day: userId -> (date -> total). */
+    Map<Integer, Map<LocalDate, Long>> sumServiceTotalsByUsersPerDay(Collection<Integer> userIds, LocalDate from, LocalDate to);
+
+    /** Services + products per user over the range: userId -> total. */
+    Map<Integer, Long> sumTotalsByUser(LocalDate from, LocalDate to);
+
+    /** Recomputes the whole table from service_header / product_sales. Returns rows written. */
+    int rebuild();
+}
@@ -0,0 +1,151 @@
+package app.barbman.core.repositories.sales.production;
+
+import app.barbman.core.infrastructure.HibernateUtil;
+import jakarta.persistence.EntityManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Native SQL on user_daily_production. The table has a composite key and is only
+ * ever upserted/summed, so there is no entity behind it.
+ */
+public class UserDailyProductionRepositoryImpl implements UserDailyProductionRepository {
+
+    private static final Logger logger = LogManager.getLogger(UserDailyProductionRepositoryImpl.class);
+
+    private static final String UPSERT = """
+            INSERT INTO user_daily_production (user_id, date, service_total, product_total)
+            VALUES (:userId, :date, :serviceTotal, :productTotal)
+            ON CONFLICT(user_id, date) DO UPDATE SET
+                service_total = service_total + excluded.service_total,
+                product_total = product_total + excluded.product_total
+            """;
+
+    // Archived years keep their aggregate: their sales are no longer in main to rebuild from
+    private static final String REBUILD = """
+            INSERT INTO user_daily_production (user_id, date, service_total, product_total)
+            SELECT user_id, date, SUM(service_total), SUM(product_total)
+            FROM (
+                SELECT sh.user_id AS user_id, sh.date AS date, sh.subtotal AS service_total, 0 AS product_total
+                FROM service_header sh
+                UNION ALL
+                SELECT s.user_id, s.date, 0, ps.subtotal
+                FROM product_sales ps
+                JOIN sales s ON s.id = ps.sale_id
+            )
+            WHERE CAST(substr(date, 1, 4) AS INTEGER) NOT IN (SELECT year FROM archived_years)
+            GROUP BY user_id, date
+            """;
+
+    @Override
+    public void add(int userId, LocalDate date, long serviceTotal, long productTotal, EntityManager em) {
+        if (serviceTotal == 0 && productTotal == 0) return;
+        em.createNativeQuery(UPSERT)
+                .setParameter("userId", userId)
+                .setParameter("date", date.toString())
+                .setParameter("serviceTotal", serviceTotal)
+                .setParameter("productTotal", productTotal)
+                .executeUpdate();
+    }
+
+    @Override
+    public void add(int userId, LocalDate date, long serviceTotal, long productTotal) {
+        try (EntityManager em = HibernateUtil.createEntityManager()) {
+            em.getTransaction().begin();
+            add(userId, date, serviceTotal, productTotal, em);
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            logger.error("[UserDailyProductionRepositoryImpl] Error updating production for user {} on {}: {}",
+                    userId, date, e.getMessage());
+            throw new RuntimeException("Failed to update daily production", e);
+        }
+    }
+
+    @Override
+    public long sumServiceTotal(int userId, LocalDate from, LocalDate to) {
+        try (EntityManager em = HibernateUtil.createEntityManager()) {
+            Object result = em.createNativeQuery(
+                    "SELECT COALESCE(SUM(service_total), 0) FROM user_daily_production " +
+                            "WHERE user_id = :userId AND date BETWEEN :from AND :to")
+                    .setParameter("userId", userId)
+                    .setParameter("from", from.toString())
+                    .setParameter("to", to.toString())
+                    .getSingleResult();
+            return result != null ? ((Number) result).longValue() : 0L;
+        } catch (Exception e) {
+            logger.error("[UserDailyProductionRepositoryImpl] Error summing service production: {}", e.getMessage());
+            return 0L;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<Integer, Map<LocalDate, Long>> sumServiceTotalsByUsersPerDay(Collection<Integer> userIds,
+                                                                             LocalDate from, LocalDate to) {
+        Map<Integer, Map<LocalDate, Long>> result = new HashMap<>();
+        if (userIds.isEmpty()) return result;
+
+        try (EntityManager em = HibernateUtil.createEntityManager()) {
+            List<Object[]> rows = em.createNativeQuery(
+                    "SELECT user_id, date, service_total FROM user_daily_production " +
+                            "WHERE user_id IN (:userIds) AND date BETWEEN :from AND :to")
+                    .setParameter("userIds", userIds)
+                    .setParameter("from", from.toString())
+                    .setParameter("to", to.toString())
+                    .getResultList();
+
+            for (Object[] row : rows) {
+                result.computeIfAbsent(((Number) row[0]).intValue(), k -> new HashMap<>())
+                        .put(LocalDate.parse((String) row[1]), ((Number) row[2]).longValue());
+            }
+        } catch (Exception e) {
+            logger.error("[UserDailyProductionRepositoryImpl] Error loading service production per user/day: {}",
+                    e.getMessage());
+        }
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<Integer, Long> sumTotalsByUser(LocalDate from, LocalDate to) {
+        Map<Integer, Long> result = new HashMap<>();
+        try (EntityManager em = HibernateUtil.createEntityManager()) {
+            List<Object[]> rows = em.createNativeQuery(
+                    "SELECT user_id, SUM(service_total + product_total) FROM user_daily_production " +
+                            "WHERE date BETWEEN :from AND :to GROUP BY user_id")
+                    .setParameter("from", from.toString())
+                    .setParameter("to", to.toString())
+                    .getResultList();
+
+            for (Object[] row : rows) {
+                result.put(((Number) row[0]).intValue(), ((Number) row[1]).longValue());
+            }
+        } catch (Exception e) {
+            logger.error("[UserDailyProductionRepositoryImpl] Error summing production by user: {}", e.getMessage());
+        }
+        return result;
+    }
+
+    @Override
+    public int rebuild() {
+        try (EntityManager em = HibernateUtil.createEntityManager()) {
+            em.getTransaction().begin();
+            em.createNativeQuery("DELETE FROM user_daily_production "
+                    + "WHERE CAST(substr(date, 1, 4) AS INTEGER) NOT IN (SELECT year FROM archived_years)")
+                    .executeUpdate();
+            int rows = em.createNativeQuery(REBUILD).executeUpdate();
+            em.getTransaction().commit();
+            logger.info("[UserDailyProductionRepositoryImpl] Rebuilt user_daily_production ({} rows)", rows);
+            return rows;
+        } catch (Exception e) {
+            logger.error("[UserDailyProductionRepositoryImpl] Error rebuilding daily production: {}", e.getMessage());
+            throw new RuntimeException("Failed to rebuild daily production", e);
+        }
+    }
+}
@@ -9,8 +9,16 @@ public interface ProductRepository {
 
     Product findByName(String name);
 
+    /** Product with the given barcode / SKU, or null. */
+    Product findByBarcode(String barcode);
+
     List<Product> findAllInStock();
 
+    /**
+     * Takes {@code quantity} units off the product's stock within the caller's transaction.
+     *
+     * @throws InsufficientStockException if fewer units are left
+     */
     void decreaseStock(int productId, int quantity, EntityManager em);
 
     Product findById(Integer id);
@@ -18,4 +26,16 @@ public interface ProductRepository {
     void save(Product entity);
     void update(Product entity);
     void delete(Integer id);
+
+    /** A sale asks for more units of a product than it has in stock. */
+    class InsufficientStockException extends RuntimeException {
+        private final int productId;
+
+        public InsufficientStockException(int productId, String message) {
+            super(message);
+            this.productId = productId;
+        }
+
+        public int getProductId() { return productId; }
+    }
 }
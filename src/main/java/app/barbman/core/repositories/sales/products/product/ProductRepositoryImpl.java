@@ -5,11 +5,17 @@ import app.barbman.core.model.sales.products.Product;
 import app.barbman.core.repositories.AbstractHibernateRepository;
 import jakarta.persistence.EntityManager;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ProductRepositoryImpl extends AbstractHibernateRepository<Product, Integer>
         implements ProductRepository {
 
+    // Barcode -> product ID, shared by every instance (repositories are created per service).
+    // Loaded on the first lookup and dropped on any product write through this repository.
+    private static volatile Map<String, Integer> barcodeIndex;
+
     public ProductRepositoryImpl() {
         super(Product.class);
     }
@@ -29,6 +35,13 @@ public class ProductRepositoryImpl extends AbstractHibernateRepository<Product,
         }
     }
 
+    @Override
+    public Product findByBarcode(String barcode) {
+        if (barcode == null || barcode.isBlank()) return null;
+        Integer id = barcodeIndex().get(barcode.trim());
+        return id != null ? findById(id) : null;
+    }
+
     @Override
     public List<Product> findAllInStock() {
         try (EntityManager em = HibernateUtil.createEntityManager()) {
@@ -47,7 +60,45 @@ public class ProductRepositoryImpl extends AbstractHibernateRepository<Product,
                 .setParameter("id", productId)
                 .executeUpdate();
         if (affected == 0) {
-            throw new RuntimeException("Insufficient stock for product ID " + productId);
+            throw new InsufficientStockException(productId, "Insufficient stock for product ID " + productId);
+        }
+    }
+
+    @Override
+    public void save(Product entity) {
+        super.save(entity);
+        barcodeIndex = null;
+    }
+
+    @Override
+    public void update(Product entity) {
+        super.update(entity);
+        barcodeIndex = null;
+    }
+
+    @Override
+    public void delete(Integer id) {
+        super.delete(id);
+        barcodeIndex = null;
+    }
+
+    private Map<String, Integer> barcodeIndex() {
+        Map<String, Integer> index = barcodeIndex;
+        if (index != null) return index;
+
+        index = new HashMap<>();
+        try (EntityManager em = HibernateUtil.createEntityManager()) {
+            List<Object[]> rows = em.createQuery(
+                    "SELECT p.barcode, p.id FROM Product p WHERE p.barcode IS NOT NULL", Object[].class)
+                    .getResultList();
+            for (Object[] row : rows) {
+                index.put((String) row[0], (Integer) row[1]);
+            }
+        } catch (Exception e) {
+            logger.error("[ProductRepositoryImpl] Error loading barcode index: {}", e.getMessage());
+            return Map.of(); // Not cached: retried on next lookup
         }
+        barcodeIndex = index;
+        return index;
     }
 }
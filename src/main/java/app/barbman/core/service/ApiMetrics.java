@@ -0,0 +1,122 @@
+package app.barbman.core.service;
+
+import app.barbman.core.service.OnBarberApiClient.EndpointStats;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Per-endpoint outcome and latency of OnBarber requests, over the last
+ * {@link #WINDOW} requests of each endpoint.
+ *
+ * Endpoints are keyed by method + path template ("GET /api/barbers/{id}/slots"),
+ * so every barber and date share one set of numbers. Also keeps the hedge budget:
+ * hedged requests may add at most {@link #HEDGE_RATIO} of an endpoint's traffic.
+ */
+final class ApiMetrics {
+
+    private static final int WINDOW = 512;
+    /** Samples needed before percentiles are trusted for hedging. */
+    private static final int MIN_SAMPLES = 20;
+    private static final double HEDGE_RATIO = 0.10;
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    static String endpointOf(String method, String path) {
+        int query = path.indexOf('?');
+        if (query >= 0) path = path.substring(0, query);
+        return method + " " + ID_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+
+    void record(String endpoint, long latencyNanos, boolean success) {
+        endpoints.computeIfAbsent(endpoint, k -> new Endpoint()).record(latencyNanos / 1_000, success);
+    }
+
+    /**
+     * Delay after which a request to {@code endpoint} should be hedged (its recent p95),
+     * or -1 when there are too few samples to tell.
+     */
+    long hedgeDelayMillis(String endpoint) {
+        Endpoint e = endpoints.get(endpoint);
+        if (e == null) return -1;
+        long[] latencies = e.latencies();
+        if (latencies.length < MIN_SAMPLES) return -1;
+        return percentile(latencies, 0.95) / 1_000;
+    }
+
+    /** Takes one hedge from the endpoint's budget; false if hedging now would exceed it. */
+    boolean tryHedge(String endpoint) {
+        Endpoint e = endpoints.get(endpoint);
+        return e != null && e.tryHedge();
+    }
+
+    List<EndpointStats> snapshot() {
+        List<EndpointStats> result = new ArrayList<>();
+        endpoints.forEach((name, e) -> result.add(e.stats(name)));
+        result.sort(Comparator.comparing(EndpointStats::endpoint));
+        return result;
+    }
+
+    /** Nearest-rank percentile of a sorted array. */
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(rank, sorted.length - 1))];
+    }
+
+    private static final class Endpoint {
+        private final long[] latencyMicros = new long[WINDOW];
+        private final boolean[] succeeded = new boolean[WINDOW];
+        private long requests;
+        private long hedges;
+
+        synchronized void record(long micros, boolean success) {
+            int slot = (int) (requests % WINDOW);
+            latencyMicros[slot] = micros;
+            succeeded[slot] = success;
+            requests++;
+        }
+
+        synchronized boolean tryHedge() {
+            if (hedges + 1 > requests * HEDGE_RATIO) return false;
+            hedges++;
+            return true;
+        }
+
+        /** Sorted latencies of the window. */
+        synchronized long[] latencies() {
+            long[] copy = Arrays.copyOf(latencyMicros, (int) Math.min(requests, WINDOW));
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        EndpointStats stats(String name) {
+            long total;
+            long hedged;
+            int ok = 0;
+            int samples;
+            long[] sorted;
+            synchronized (this) {
+                total = requests;
+                hedged = hedges;
+                samples = (int) Math.min(requests, WINDOW);
+                for (int i = 0; i < samples; i++) {
+                    if (succeeded[i]) ok++;
+                }
+                sorted = Arrays.copyOf(latencyMicros, samples);
+            }
+            Arrays.sort(sorted);
+            return new EndpointStats(name, total, hedged,
+                    samples == 0 ? 1.0 : ok / (double) samples,
+                    percentile(sorted, 0.50) / 1_000,
+                    percentile(sorted, 0.95) / 1_000,
+                    percentile(sorted, 0.99) / 1_000);
+        }
+    }
+}
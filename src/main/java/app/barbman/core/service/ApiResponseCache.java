@@ -0,0 +1,75 @@
+package app.barbman.core.service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decoded responses of OnBarber GET requests (DTO lists or JSON trees, treated as
+ * immutable), keyed by path + query, with the validators (ETag / Last-Modified)
+ * needed to revalidate them conditionally.
+ *
+ * Freshness policy (TTL, stale window) lives in {@link OnBarberApiClient}; this class only
+ * stores entries and guards against two races:
+ * - a response that was requested before an invalidation must not be stored after it
+ *   ({@link #epoch()} is checked on {@link #put});
+ * - a key is revalidated by at most one background request at a time.
+ */
+final class ApiResponseCache {
+
+    record Entry(Object body, String etag, String lastModified, long storedAtNanos) {
+        long ageNanos() {
+            return System.nanoTime() - storedAtNanos;
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+    private final AtomicLong epoch = new AtomicLong();
+
+    Entry get(String key) {
+        return entries.get(key);
+    }
+
+    /** Invalidation counter; read it before sending a request and pass it to {@link #put}. */
+    long epoch() {
+        return epoch.get();
+    }
+
+    /** Stores a response unless the cache was invalidated since {@code requestEpoch}. */
+    void put(String key, Object body, String etag, String lastModified, long requestEpoch) {
+        synchronized (this) {
+            if (epoch.get() != requestEpoch) return;
+            entries.put(key, new Entry(body, etag, lastModified, System.nanoTime()));
+        }
+    }
+
+    /** Marks an entry fresh again after a 304 Not Modified. */
+    void touch(String key, Entry entry, long requestEpoch) {
+        put(key, entry.body(), entry.etag(), entry.lastModified(), requestEpoch);
+    }
+
+    void invalidate(String key) {
+        synchronized (this) {
+            epoch.incrementAndGet();
+            entries.remove(key);
+        }
+    }
+
+    void invalidateAll() {
+        synchronized (this) {
+            epoch.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    /** True if the caller should revalidate {@code key}; pair with {@link #endRevalidation}. */
+    boolean startRevalidation(String key) {
+        return revalidating.add(key);
+    }
+
+    void endRevalidation(String key) {
+        revalidating.remove(key);
+    }
+}
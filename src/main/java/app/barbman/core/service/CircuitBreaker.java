@@ -0,0 +1,77 @@
+package app.barbman.core.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker for the OnBarber server.
+ *
+ * - CLOSED: requests go through; {@code failureThreshold} consecutive failures open it.
+ * - OPEN: requests are refused without I/O until {@code openFor} has passed.
+ * - HALF_OPEN: a single probe request goes through; success closes the breaker,
+ *   failure opens it again. Other requests keep being refused meanwhile.
+ *
+ * Only "server unavailable" outcomes count as failures (the caller decides which);
+ * a 4xx answer proves the server is up and counts as a success.
+ */
+final class CircuitBreaker {
+
+    private static final Logger logger = LogManager.getLogger(CircuitBreaker.class);
+    private static final String PREFIX = "[ONBARBER-CIRCUIT]";
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openForNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long changedAtNanos = System.nanoTime();
+
+    CircuitBreaker(int failureThreshold, Duration openFor) {
+        this.failureThreshold = failureThreshold;
+        this.openForNanos = openFor.toNanos();
+    }
+
+    /** True if a request may be sent now; pair every true with {@link #onSuccess} or {@link #onFailure}. */
+    synchronized boolean tryAcquire() {
+        return switch (state) {
+            case CLOSED -> true;
+            // A probe that never reported back (e.g. a stalled body) must not wedge the breaker
+            case OPEN, HALF_OPEN -> {
+                if (System.nanoTime() - changedAtNanos < openForNanos) yield false;
+                transition(State.HALF_OPEN);
+                yield true;
+            }
+        };
+    }
+
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        if (state != State.CLOSED) transition(State.CLOSED);
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            transition(State.OPEN);
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    private void transition(State next) {
+        if (next == State.OPEN) {
+            logger.warn("{} Open after {} consecutive failures; failing fast for {} s",
+                    PREFIX, consecutiveFailures, Duration.ofNanos(openForNanos).toSeconds());
+        } else {
+            logger.info("{} {} -> {}", PREFIX, state, next);
+        }
+        state = next;
+        changedAtNanos = System.nanoTime();
+    }
+}
@@ -1,306 +1,800 @@
 package app.barbman.core.service;
 
 import app.barbman.core.infrastructure.EnvConfig;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Client for the OnBarber booking API.
+ *
+ * Every call has an async form returning a CompletableFuture; the blocking methods
+ * are thin wrappers for code that already runs on a background thread. Requests go
+ * through one shared HttpClient ({@code sendAsync}, no thread parked per request),
+ * at most {@link #MAX_IN_FLIGHT} at a time, each with a deadline, so fanning out a
+ * week of requests costs about as much as the slowest one.
+ *
+ * Reads (barbers, slots, appointments, overrides) are cached per path + query with a
+ * per-endpoint TTL, served stale while revalidating, and revalidated with
+ * If-None-Match / If-Modified-Since. Mutations invalidate exactly the entries they
+ * affect (the appointments list, the slots of the touched day, the barber's overrides).
+ *
+ * Responses are requested gzip-compressed and decoded from the body stream straight
+ * into the DTOs ({@link OnBarberCodec}), without buffering the payload as a String.
+ *
+ * When the server stops answering, a shared {@link CircuitBreaker} makes further calls
+ * fail fast instead of each waiting out its timeout, and cached reads fall back to the
+ * last response they got. Small reads (slots, overrides, barbers) are hedged: if the
+ * answer takes longer than the endpoint's recent p95, the same request is sent again
+ * and the first success wins. Per-endpoint success rate and latency percentiles are
+ * available through {@link #getEndpointStats()}.
+ *
+ * Identical GETs issued while one is already in flight (rapid week navigation, the view
+ * and the sync thread asking for the same window) share that request instead of
+ * sending their own.
+ */
 public class OnBarberApiClient {
 
     private static final Logger logger = LogManager.getLogger(OnBarberApiClient.class);
     private static final String PREFIX = "[ONBARBER-API]";
 
+    /** Requests allowed in flight at once, across every client instance. */
+    private static final int MAX_IN_FLIGHT = 8;
+    /** Time the server has to answer once a request is sent. */
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(15);
+    /** Whole call, including time spent waiting for an in-flight slot. */
+    private static final Duration DEADLINE = Duration.ofSeconds(20);
+
+    // One connection pool and callback executor for the whole app; controllers create
+    // clients freely and all of them share these
+    private static final ExecutorService HTTP_EXECUTOR = Executors.newFixedThreadPool(4, r -> {
+        Thread thread = new Thread(r, "onbarber-http");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Reads response bodies (blocking stream reads); at most MAX_IN_FLIGHT busy at once
+    private static final ExecutorService DECODE_EXECUTOR = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "onbarber-decode");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final HttpClient SHARED_HTTP_CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(HTTP_EXECUTOR)
+            .build();
+    private static final InFlightLimiter IN_FLIGHT = new InFlightLimiter(MAX_IN_FLIGHT);
+    private static final CircuitBreaker BREAKER = new CircuitBreaker(5, Duration.ofSeconds(30));
+    private static final ApiMetrics METRICS = new ApiMetrics();
+    /** Hedging never fires sooner than this, however fast the endpoint usually is. */
+    private static final long MIN_HEDGE_DELAY_MILLIS = 50;
+
+    /** How long past its TTL a cached read is still served while it is revalidated. */
+    private static final Duration STALE_WINDOW = Duration.ofMinutes(5);
+    private static final ApiResponseCache CACHE = new ApiResponseCache();
+    /** GETs in flight, by path + cache epoch (see {@link #singleFlight}). */
+    private static final Map<String, CompletableFuture<?>> IN_FLIGHT_GETS = new ConcurrentHashMap<>();
+    private static final Set<OnBarberApiClient> REFRESH_SUBSCRIBERS =
+            Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private static final String BARBERS = "/barbers";
+    private static final String APPOINTMENTS = "/appointments";
+
     private final HttpClient httpClient;
-    private final ObjectMapper mapper;
     private final String baseUrl;
     private final String token;
+    private volatile Runnable onCacheRefreshed;
 
     public OnBarberApiClient() {
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(10))
-                .build();
-        this.mapper = new ObjectMapper();
-        String raw = EnvConfig.get("ONBARBER_API_URL", "http://localhost:8000/api");
+        this(EnvConfig.get("ONBARBER_API_URL", "http://localhost:8000/api"), EnvConfig.get("ONBARBER_API_TOKEN", ""));
+    }
+
+    /** Client for an explicit server, e.g. the local stand-in used by the load harness. */
+    public OnBarberApiClient(String baseUrl, String token) {
+        this.httpClient = SHARED_HTTP_CLIENT;
         // Normalize: remove trailing slash
-        this.baseUrl = raw.endsWith("/") ? raw.substring(0, raw.length() - 1) : raw;
-        this.token = EnvConfig.get("ONBARBER_API_TOKEN", "");
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.token = token;
     }
 
     // ============================================================
-    // PUBLIC API
+    // PUBLIC API (async)
     // ============================================================
 
     /**
      * GET /barbers — list active barbers (public endpoint)
      */
-    public List<BarberDTO> getBarbers() throws Exception {
-        JsonNode root = get("/barbers");
-        List<BarberDTO> barbers = new ArrayList<>();
-        for (JsonNode node : root) {
-            barbers.add(parseBarber(node));
-        }
-        return barbers;
+    public CompletableFuture<List<BarberDTO>> getBarbersAsync() {
+        return cachedGet(BARBERS, false, OnBarberCodec.BARBER_LIST);
     }
 
     /**
      * GET /barbers/{id}/slots?date=YYYY-MM-DD — available 1h slots (public endpoint)
      */
-    public List<String> getAvailableSlots(int barberId, LocalDate date) throws Exception {
-        JsonNode root = get("/barbers/" + barberId + "/slots?date=" + date);
-        List<String> slots = new ArrayList<>();
-        JsonNode slotsNode = root.get("slots");
-        if (slotsNode != null && slotsNode.isArray()) {
-            for (JsonNode s : slotsNode) {
-                if (s.isObject()) {
-                    boolean available = s.has("available") && s.get("available").asBoolean(false);
-                    if (available && s.has("time")) {
-                        slots.add(s.get("time").asText());
+    public CompletableFuture<List<String>> getAvailableSlotsAsync(int barberId, LocalDate date) {
+        return this.<JsonNode>cachedGet(slotsPath(barberId, date), false, OnBarberCodec.TREE).thenApply(root -> {
+            List<String> slots = new ArrayList<>();
+            JsonNode slotsNode = root.get("slots");
+            if (slotsNode != null && slotsNode.isArray()) {
+                for (JsonNode s : slotsNode) {
+                    if (s.isObject()) {
+                        boolean available = s.has("available") && s.get("available").asBoolean(false);
+                        if (available && s.has("time")) {
+                            slots.add(s.get("time").asText());
+                        }
+                    } else {
+                        // Fallback: plain string format
+                        slots.add(s.asText());
                     }
-                } else {
-                    // Fallback: plain string format
-                    slots.add(s.asText());
                 }
             }
-        }
-        return slots;
+            return slots;
+        });
     }
 
     /**
      * GET /appointments — list all appointments (protected)
      */
-    public List<AppointmentDTO> getAppointments() throws Exception {
-        JsonNode root = getProtected("/appointments");
-        List<AppointmentDTO> appointments = new ArrayList<>();
-        for (JsonNode node : root) {
-            appointments.add(parseAppointment(node));
-        }
-        return appointments;
+    public CompletableFuture<List<AppointmentDTO>> getAppointmentsAsync() {
+        return cachedGet(APPOINTMENTS, true, OnBarberCodec.APPOINTMENT_LIST);
+    }
+
+    /**
+     * GET /appointments?updated_since=... — appointments changed after {@code since}
+     * (protected, not cached). With a null cursor, or a date window instead, the call
+     * asks for the appointments dated within [from, to]. Servers that ignore these
+     * parameters answer with every appointment, which callers must tolerate.
+     */
+    public CompletableFuture<List<AppointmentDTO>> getAppointmentChangesAsync(String since, LocalDate from, LocalDate to) {
+        String query = since != null
+                ? "?updated_since=" + URLEncoder.encode(since, StandardCharsets.UTF_8)
+                : "?from=" + from + "&to=" + to;
+        return get(APPOINTMENTS + query, true, OnBarberCodec.APPOINTMENT_LIST);
     }
 
     /**
      * POST /appointments — create appointment (public endpoint)
      */
-    public AppointmentDTO createAppointment(int barberId, String clientName, String clientPhone,
-                                             LocalDate date, String time) throws Exception {
-        ObjectNode body = mapper.createObjectNode();
+    public CompletableFuture<AppointmentDTO> createAppointmentAsync(int barberId, String clientName, String clientPhone,
+                                                                  LocalDate date, String time) {
+        return createAppointmentAsync(barberId, clientName, clientPhone, date, time, null);
+    }
+
+    /**
+     * Same as above, sent with an Idempotency-Key header so a retried request
+     * (e.g. from the outbox after a lost response) does not book twice.
+     */
+    public CompletableFuture<AppointmentDTO> createAppointmentAsync(int barberId, String clientName, String clientPhone,
+                                                                  LocalDate date, String time, String idempotencyKey) {
+        ObjectNode body = OnBarberCodec.MAPPER.createObjectNode();
         body.put("barber_id", barberId);
         body.put("client_name", clientName);
         body.put("client_phone", clientPhone);
         body.put("appointment_date", date.toString());
         body.put("appointment_time", time);
 
-        JsonNode result = post("/appointments", body);
-        return parseAppointment(result);
+        return this.<AppointmentDTO>send("POST", APPOINTMENTS, body, false, idempotencyKey, OnBarberCodec.APPOINTMENT)
+                .whenComplete((a, e) -> {
+                    CACHE.invalidate(APPOINTMENTS);
+                    CACHE.invalidate(slotsPath(barberId, date));
+                });
     }
 
     /**
      * PATCH /appointments/{id} — update status (protected)
      */
-    public AppointmentDTO updateAppointmentStatus(int appointmentId, String status) throws Exception {
-        ObjectNode body = mapper.createObjectNode();
+    public CompletableFuture<AppointmentDTO> updateAppointmentStatusAsync(int appointmentId, String status) {
+        return updateAppointmentStatusAsync(appointmentId, status, null);
+    }
+
+    public CompletableFuture<AppointmentDTO> updateAppointmentStatusAsync(int appointmentId, String status,
+                                                                        String idempotencyKey) {
+        ObjectNode body = OnBarberCodec.MAPPER.createObjectNode();
         body.put("status", status);
 
-        JsonNode result = patch("/appointments/" + appointmentId, body);
-        return parseAppointment(result);
+        return this.<AppointmentDTO>send("PATCH", APPOINTMENTS + "/" + appointmentId, body, true, idempotencyKey,
+                        OnBarberCodec.APPOINTMENT)
+                .whenComplete((a, e) -> {
+                    CACHE.invalidate(APPOINTMENTS);
+                    // A cancelled appointment frees its slot
+                    if (a != null) CACHE.invalidate(slotsPath(a.getBarberId(), a.getDateOnly()));
+                });
+    }
+
+    /**
+     * PATCH several appointments to the same status in parallel (within the shared
+     * in-flight limit). Completes once every request has finished, with the updated
+     * appointments by ID; failed updates are logged and left out.
+     */
+    public CompletableFuture<Map<Integer, AppointmentDTO>> updateAppointmentStatusesAsync(Collection<Integer> appointmentIds,
+                                                                                         String status) {
+        Map<Integer, AppointmentDTO> updated = new ConcurrentHashMap<>();
+        CompletableFuture<?>[] calls = appointmentIds.stream()
+                .map(id -> updateAppointmentStatusAsync(id, status)
+                        .thenAccept(a -> updated.put(id, a))
+                        .exceptionally(e -> {
+                            logger.warn("{} Failed to set #{} to '{}': {}", PREFIX, id, status, rootCause(e).getMessage());
+                            return null;
+                        }))
+                .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(calls).thenApply(v -> updated);
     }
 
     /**
      * POST /schedule-overrides — close (or modify) a specific day for a barber (protected)
      */
-    public void closeDayForBarber(int barberId, LocalDate date) throws Exception {
-        ObjectNode body = mapper.createObjectNode();
+    public CompletableFuture<Void> closeDayForBarberAsync(int barberId, LocalDate date) {
+        return closeDayForBarberAsync(barberId, date, null);
+    }
+
+    public CompletableFuture<Void> closeDayForBarberAsync(int barberId, LocalDate date, String idempotencyKey) {
+        ObjectNode body = OnBarberCodec.MAPPER.createObjectNode();
         body.put("barber_id", barberId);
         body.put("date", date.toString());
         body.put("is_open", false);
 
-        postProtected("/schedule-overrides", body);
+        return send("POST", "/schedule-overrides", body, true, idempotencyKey, OnBarberCodec.TREE)
+                .<Void>thenApply(root -> null)
+                .whenComplete((v, e) -> invalidateDay(barberId, date));
     }
 
     /**
      * POST /schedule-overrides — reopen a previously closed day (protected)
      */
-    public void reopenDayForBarber(int barberId, LocalDate date) throws Exception {
+    public CompletableFuture<Void> reopenDayForBarberAsync(int barberId, LocalDate date) {
         // Fetch existing overrides to find the one for this date
-        JsonNode overrides = getProtected("/barbers/" + barberId + "/overrides");
-        for (JsonNode o : overrides) {
-            String overrideDate = o.get("date").asText();
-            // API returns "YYYY-MM-DDTHH:MM:SS.000000Z" or "YYYY-MM-DD"
-            if (overrideDate.startsWith(date.toString())) {
-                deleteProtected("/schedule-overrides/" + o.get("id").asInt());
-                return;
+        return this.<JsonNode>get(overridesPath(barberId), true, OnBarberCodec.TREE).thenCompose(overrides -> {
+            for (JsonNode o : overrides) {
+                String overrideDate = o.get("date").asText();
+                // API returns "YYYY-MM-DDTHH:MM:SS.000000Z" or "YYYY-MM-DD"
+                if (overrideDate.startsWith(date.toString())) {
+                    return send("DELETE", "/schedule-overrides/" + o.get("id").asInt(), null, true, null,
+                            OnBarberCodec.TREE)
+                            .thenApply(root -> (Void) null);
+                }
             }
-        }
+            return CompletableFuture.<Void>completedFuture(null);
+        }).whenComplete((v, e) -> invalidateDay(barberId, date));
+    }
+
+    private static void invalidateDay(int barberId, LocalDate date) {
+        CACHE.invalidate(overridesPath(barberId));
+        CACHE.invalidate(slotsPath(barberId, date));
+    }
+
+    /**
+     * Drops every cached response (paths are not tied to a server, so this is needed
+     * when talking to a different one, e.g. between load-test scenarios).
+     */
+    public static void clearCache() {
+        CACHE.invalidateAll();
+    }
+
+    /**
+     * Called (on an HTTP thread) when a background revalidation brought data that differs
+     * from what was served from cache, so the caller can re-read and redraw.
+     * Clients are held weakly: a discarded view's client stops being notified.
+     */
+    public void setOnCacheRefreshed(Runnable callback) {
+        this.onCacheRefreshed = callback;
+        REFRESH_SUBSCRIBERS.add(this);
     }
 
     /**
      * GET /barbers/{id}/overrides — list schedule overrides for a barber (protected)
      */
-    public List<ClosedDayDTO> getClosedDays(int barberId) throws Exception {
-        JsonNode root = getProtected("/barbers/" + barberId + "/overrides");
-        List<ClosedDayDTO> days = new ArrayList<>();
-        for (JsonNode node : root) {
-            if (!node.get("is_open").asBoolean(true)) {
-                String dateStr = node.get("date").asText();
-                // Normalize: "2026-03-20T00:00:00.000000Z" → "2026-03-20"
-                if (dateStr.length() > 10) dateStr = dateStr.substring(0, 10);
-                days.add(new ClosedDayDTO(node.get("id").asInt(), barberId, dateStr));
+    public CompletableFuture<List<ClosedDayDTO>> getClosedDaysAsync(int barberId) {
+        return this.<JsonNode>cachedGet(overridesPath(barberId), true, OnBarberCodec.TREE).thenApply(root -> {
+            List<ClosedDayDTO> days = new ArrayList<>();
+            for (JsonNode node : root) {
+                if (!node.get("is_open").asBoolean(true)) {
+                    String dateStr = node.get("date").asText();
+                    // Normalize: "2026-03-20T00:00:00.000000Z" → "2026-03-20"
+                    if (dateStr.length() > 10) dateStr = dateStr.substring(0, 10);
+                    days.add(new ClosedDayDTO(node.get("id").asInt(), barberId, dateStr));
+                }
             }
-        }
-        return days;
+            return days;
+        });
     }
 
     // ============================================================
-    // HTTP METHODS
+    // PUBLIC API (blocking, for callers already off the FX thread)
     // ============================================================
 
-    private JsonNode get(String path) throws Exception {
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(baseUrl + path))
-                .GET()
-                .header("Accept", "application/json")
-                .timeout(Duration.ofSeconds(15))
-                .build();
+    public List<BarberDTO> getBarbers() throws Exception {
+        return await(getBarbersAsync());
+    }
 
-        return execute(request);
+    public List<String> getAvailableSlots(int barberId, LocalDate date) throws Exception {
+        return await(getAvailableSlotsAsync(barberId, date));
     }
 
-    private JsonNode getProtected(String path) throws Exception {
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(baseUrl + path))
-                .GET()
-                .header("Accept", "application/json")
-                .header("Authorization", "Bearer " + token)
-                .timeout(Duration.ofSeconds(15))
-                .build();
+    public List<AppointmentDTO> getAppointments() throws Exception {
+        return await(getAppointmentsAsync());
+    }
 
-        return execute(request);
+    public AppointmentDTO createAppointment(int barberId, String clientName, String clientPhone,
+                                             LocalDate date, String time) throws Exception {
+        return await(createAppointmentAsync(barberId, clientName, clientPhone, date, time));
     }
 
-    private JsonNode post(String path, ObjectNode body) throws Exception {
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(baseUrl + path))
-                .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)))
-                .header("Content-Type", "application/json")
-                .header("Accept", "application/json")
-                .timeout(Duration.ofSeconds(15))
-                .build();
+    public AppointmentDTO updateAppointmentStatus(int appointmentId, String status) throws Exception {
+        return await(updateAppointmentStatusAsync(appointmentId, status));
+    }
 
-        return execute(request);
+    public void closeDayForBarber(int barberId, LocalDate date) throws Exception {
+        await(closeDayForBarberAsync(barberId, date));
     }
 
-    private JsonNode postProtected(String path, ObjectNode body) throws Exception {
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(baseUrl + path))
-                .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)))
-                .header("Content-Type", "application/json")
-                .header("Accept", "application/json")
-                .header("Authorization", "Bearer " + token)
-                .timeout(Duration.ofSeconds(15))
-                .build();
+    public void reopenDayForBarber(int barberId, LocalDate date) throws Exception {
+        await(reopenDayForBarberAsync(barberId, date));
+    }
 
-        return execute(request);
+    public List<ClosedDayDTO> getClosedDays(int barberId) throws Exception {
+        return await(getClosedDaysAsync(barberId));
     }
 
-    private JsonNode deleteProtected(String path) throws Exception {
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(baseUrl + path))
-                .DELETE()
-                .header("Accept", "application/json")
-                .header("Authorization", "Bearer " + token)
-                .timeout(Duration.ofSeconds(15))
-                .build();
+    /**
+     * Success rate and p50 / p95 / p99 latency of recent requests, per endpoint
+     * (method + path template), for diagnostics.
+     */
+    public static List<EndpointStats> getEndpointStats() {
+        return METRICS.snapshot();
+    }
+
+    /** State of the circuit breaker: "CLOSED", "OPEN" or "HALF_OPEN". */
+    public static String getCircuitState() {
+        return BREAKER.state().name();
+    }
+
+    /** Unwraps a failed future into the exception the request actually failed with. */
+    public static Throwable rootCause(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    // ============================================================
+    // HTTP METHODS
+    // ============================================================
 
-        return execute(request);
+    private <T> CompletableFuture<T> get(String path, boolean authenticated, JavaType type) {
+        return singleFlight(path, () -> send("GET", path, null, authenticated, null, type));
     }
 
-    private JsonNode patch(String path, ObjectNode body) throws Exception {
-        HttpRequest request = HttpRequest.newBuilder()
+    /**
+     * Joins the GET of {@code path} already in flight, or starts it with {@code call}.
+     * The key includes the cache epoch, so a read issued after a mutation never gets a
+     * response that was requested before it. Every caller receives its own copy of the
+     * shared future: cancelling one does not affect the others, and the request itself
+     * runs to completion (its response still lands in the cache).
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> CompletableFuture<T> singleFlight(String path, Supplier<CompletableFuture<T>> call) {
+        String key = path + "#" + CACHE.epoch();
+        CompletableFuture<T> shared = new CompletableFuture<>();
+        CompletableFuture<?> existing = IN_FLIGHT_GETS.putIfAbsent(key, shared);
+        if (existing != null) {
+            logger.debug("{} Joining in-flight GET {}", PREFIX, path);
+            return (CompletableFuture<T>) existing.copy();
+        }
+
+        CompletableFuture<T> request;
+        try {
+            request = call.get();
+        } catch (RuntimeException e) {
+            request = CompletableFuture.failedFuture(e);
+        }
+        request.whenComplete((value, error) -> {
+            IN_FLIGHT_GETS.remove(key, shared);
+            if (error != null) shared.completeExceptionally(rootCause(error));
+            else shared.complete(value);
+        });
+        return shared.copy();
+    }
+
+    private <T> CompletableFuture<T> send(String method, String path, ObjectNode body, boolean authenticated,
+                                          String idempotencyKey, JavaType type) {
+        HttpRequest.Builder builder = request(path, authenticated);
+        if (idempotencyKey != null) {
+            builder.header("Idempotency-Key", idempotencyKey);
+        }
+
+        if (body != null) {
+            try {
+                builder.method(method, HttpRequest.BodyPublishers.ofByteArray(OnBarberCodec.MAPPER.writeValueAsBytes(body)));
+            } catch (JsonProcessingException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            builder.header("Content-Type", "application/json");
+        } else {
+            builder.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+
+        return exchange(builder.build(), response -> readResponse(response, type));
+    }
+
+    private HttpRequest.Builder request(String path, boolean authenticated) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
                 .uri(URI.create(baseUrl + path))
-                .method("PATCH", HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)))
-                .header("Content-Type", "application/json")
                 .header("Accept", "application/json")
-                .header("Authorization", "Bearer " + token)
-                .timeout(Duration.ofSeconds(15))
-                .build();
+                .header("Accept-Encoding", "gzip")
+                .timeout(REQUEST_TIMEOUT);
+        if (authenticated) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
 
-        return execute(request);
+    /** Turns a response (status, headers and an unread body stream) into a result. */
+    @FunctionalInterface
+    private interface ResponseHandler<T> {
+        T handle(HttpResponse<InputStream> response) throws IOException;
     }
 
-    private JsonNode execute(HttpRequest request) throws Exception {
+    /**
+     * Sends the request through the shared limiter and hands the response to {@code handler},
+     * which reads the body stream on a decode thread (never on the HttpClient's own executor,
+     * which has to keep feeding that stream). The in-flight slot is held until the body has
+     * been read. The future fails with ApiException when the deadline (queue wait + request)
+     * passes, or right away while the circuit breaker is open; HTTP status is left to the handler.
+     */
+    private <T> CompletableFuture<T> exchange(HttpRequest request, ResponseHandler<T> handler) {
         logger.debug("{} {} {}", PREFIX, request.method(), request.uri());
+        String endpoint = ApiMetrics.endpointOf(request.method(), request.uri().getPath());
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-        logger.debug("{} Response: {} ({})", PREFIX, response.statusCode(), response.body().length());
+        return IN_FLIGHT.submit(() -> {
+                    // Checked once the call gets its slot, so queued calls fail fast too
+                    if (!BREAKER.tryAcquire()) {
+                        return CompletableFuture.failedFuture(new ApiException(0,
+                                "Servidor no disponible, reintentando en unos segundos"));
+                    }
+                    long start = System.nanoTime();
+                    return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                            .thenApplyAsync(response -> {
+                                try {
+                                    return handler.handle(response);
+                                } catch (IOException e) {
+                                    throw new CompletionException(e);
+                                }
+                            }, DECODE_EXECUTOR)
+                            .whenComplete((value, error) -> recordOutcome(endpoint, start, error));
+                })
+                .orTimeout(DEADLINE.toMillis(), TimeUnit.MILLISECONDS)
+                .handle((response, error) -> {
+                    if (error != null) {
+                        Throwable cause = rootCause(error);
+                        if (cause instanceof TimeoutException || cause instanceof HttpTimeoutException) {
+                            cause = new ApiException(0, "Sin respuesta del servidor (" + request.method() + " "
+                                    + request.uri().getPath() + ")");
+                        }
+                        throw new CompletionException(cause);
+                    }
+                    return response;
+                });
+    }
 
-        if (response.statusCode() >= 400) {
-            String errorMsg = response.body();
-            try {
-                JsonNode errorJson = mapper.readTree(errorMsg);
-                if (errorJson.has("message")) {
-                    errorMsg = errorJson.get("message").asText();
-                }
-            } catch (Exception ignored) {}
+    private static void recordOutcome(String endpoint, long startNanos, Throwable error) {
+        METRICS.record(endpoint, System.nanoTime() - startNanos, error == null);
+        if (error != null && isUnavailable(rootCause(error))) {
+            BREAKER.onFailure();
+        } else {
+            BREAKER.onSuccess();
+        }
+    }
 
-            throw new ApiException(response.statusCode(), errorMsg);
+    /**
+     * True for failures that say the server could not be reached or could not answer
+     * (network errors, timeouts, 429, 5xx). A 4xx or an unreadable body means it is up.
+     */
+    private static boolean isUnavailable(Throwable cause) {
+        if (cause instanceof ApiException api) {
+            int status = api.getStatusCode();
+            return status == 0 || status == 429 || status >= 500;
         }
+        return cause instanceof IOException && !(cause instanceof JsonProcessingException);
+    }
 
-        return mapper.readTree(response.body());
+    /**
+     * Sends {@code attempt} and, if no answer came within the endpoint's recent p95, sends
+     * it again; the first success wins and the call fails only if every attempt did.
+     * Hedges are skipped without enough latency history, while the breaker is not closed,
+     * or when they would exceed the endpoint's hedge budget. The slower attempt is left
+     * to finish (its response refreshes the cache like any other).
+     */
+    private static <T> CompletableFuture<T> hedged(String endpoint, Supplier<CompletableFuture<T>> attempt) {
+        long delay = METRICS.hedgeDelayMillis(endpoint);
+        CompletableFuture<T> primary = attempt.get();
+        if (delay < 0) return primary;
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger running = new AtomicInteger(1);
+        BiConsumer<T, Throwable> settle = (value, error) -> {
+            if (error == null) result.complete(value);
+            else if (running.decrementAndGet() == 0) result.completeExceptionally(error);
+        };
+        primary.whenComplete(settle);
+
+        long after = Math.max(delay, MIN_HEDGE_DELAY_MILLIS);
+        CompletableFuture.delayedExecutor(after, TimeUnit.MILLISECONDS, DECODE_EXECUTOR)
+                .execute(() -> {
+                    if (result.isDone() || BREAKER.state() != CircuitBreaker.State.CLOSED
+                            || !METRICS.tryHedge(endpoint)) {
+                        return;
+                    }
+                    logger.debug("{} Hedging {} after {} ms", PREFIX, endpoint, after);
+                    running.incrementAndGet();
+                    attempt.get().whenComplete(settle);
+                });
+        return result;
     }
 
     // ============================================================
-    // PARSING
+    // RESPONSE CACHE
     // ============================================================
 
-    private BarberDTO parseBarber(JsonNode node) {
-        return new BarberDTO(
-                node.get("id").asInt(),
-                node.get("name").asText(),
-                node.has("phone") && !node.get("phone").isNull() ? node.get("phone").asText() : null,
-                node.has("photo_url") && !node.get("photo_url").isNull() ? node.get("photo_url").asText() : null
-        );
+    /** How long a cached read is served without asking the server. */
+    private static Duration ttlFor(String path) {
+        if (path.equals(BARBERS)) return Duration.ofMinutes(10);
+        if (path.contains("/slots")) return Duration.ofSeconds(30);
+        if (path.endsWith("/overrides")) return Duration.ofSeconds(60);
+        if (path.equals(APPOINTMENTS)) return Duration.ofSeconds(15);
+        return Duration.ZERO;
+    }
+
+    /** Small, idempotent reads worth sending twice when the first answer is slow. */
+    private static boolean isHedged(String path) {
+        return path.equals(BARBERS) || path.contains("/slots") || path.endsWith("/overrides");
+    }
+
+    /**
+     * Cached GET. Fresh entries are returned without I/O; entries past their TTL but
+     * within {@link #STALE_WINDOW} are returned immediately and revalidated in the
+     * background; anything older (or missing) is fetched, conditionally if possible.
+     * If that fetch fails because the server is unavailable, the old entry is returned.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> cachedGet(String path, boolean authenticated, JavaType type) {
+        Duration ttl = ttlFor(path);
+        ApiResponseCache.Entry entry = CACHE.get(path);
+        if (entry != null) {
+            long age = entry.ageNanos();
+            if (age < ttl.toNanos()) {
+                return CompletableFuture.completedFuture((T) entry.body());
+            }
+            if (age < ttl.plus(STALE_WINDOW).toNanos()) {
+                revalidate(path, authenticated, type, entry);
+                return CompletableFuture.completedFuture((T) entry.body());
+            }
+        }
+        CompletableFuture<T> fetched = fetch(path, authenticated, type, entry);
+        if (entry == null) return fetched;
+        return fetched.exceptionally(error -> {
+            Throwable cause = rootCause(error);
+            if (!isUnavailable(cause)) throw new CompletionException(cause);
+            logger.warn("{} {} unavailable ({}), serving cached response from {} s ago",
+                    PREFIX, path, cause.getMessage(), Duration.ofNanos(entry.ageNanos()).toSeconds());
+            return (T) entry.body();
+        });
+    }
+
+    /** {@link #conditionalGet}, shared with an identical one already in flight. */
+    private <T> CompletableFuture<T> fetch(String path, boolean authenticated, JavaType type,
+                                           ApiResponseCache.Entry cached) {
+        return singleFlight(path, () -> conditionalGet(path, authenticated, type, cached));
     }
 
-    private AppointmentDTO parseAppointment(JsonNode node) {
-        BarberDTO barber = null;
-        if (node.has("barber") && !node.get("barber").isNull()) {
-            barber = parseBarber(node.get("barber"));
+    /** GET with If-None-Match / If-Modified-Since from {@code cached}; stores the result. */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> conditionalGet(String path, boolean authenticated, JavaType type,
+                                                    ApiResponseCache.Entry cached) {
+        HttpRequest.Builder builder = request(path, authenticated).GET();
+        if (cached != null && cached.etag() != null) {
+            builder.header("If-None-Match", cached.etag());
+        }
+        if (cached != null && cached.lastModified() != null) {
+            builder.header("If-Modified-Since", cached.lastModified());
         }
 
-        return new AppointmentDTO(
-                node.get("id").asInt(),
-                node.get("barber_id").asInt(),
-                node.get("client_name").asText(),
-                node.get("client_phone").asText(),
-                node.get("appointment_date").asText(),
-                node.get("appointment_time").asText(),
-                node.get("status").asText(),
-                barber
-        );
+        HttpRequest request = builder.build();
+        long epoch = CACHE.epoch();
+        ResponseHandler<T> handler = response -> {
+            if (response.statusCode() == 304 && cached != null) {
+                response.body().close();
+                CACHE.touch(path, cached, epoch);
+                return (T) cached.body();
+            }
+            T body = readResponse(response, type);
+            CACHE.put(path, body,
+                    response.headers().firstValue("ETag").orElse(null),
+                    response.headers().firstValue("Last-Modified").orElse(null),
+                    epoch);
+            return body;
+        };
+        if (!isHedged(path)) return exchange(request, handler);
+        return hedged(ApiMetrics.endpointOf("GET", request.uri().getPath()), () -> exchange(request, handler));
+    }
+
+    private void revalidate(String path, boolean authenticated, JavaType type, ApiResponseCache.Entry stale) {
+        if (!CACHE.startRevalidation(path)) return; // Already on its way
+
+        fetch(path, authenticated, type, stale).whenComplete((body, error) -> {
+            CACHE.endRevalidation(path);
+            if (error != null) {
+                logger.debug("{} Revalidation of {} failed: {}", PREFIX, path, rootCause(error).getMessage());
+            } else if (!body.equals(stale.body())) {
+                logger.debug("{} {} changed on revalidation", PREFIX, path);
+                notifyCacheRefreshed();
+            }
+        });
+    }
+
+    private static void notifyCacheRefreshed() {
+        List<OnBarberApiClient> subscribers;
+        synchronized (REFRESH_SUBSCRIBERS) {
+            subscribers = new ArrayList<>(REFRESH_SUBSCRIBERS);
+        }
+        for (OnBarberApiClient client : subscribers) {
+            Runnable callback = client.onCacheRefreshed;
+            if (callback != null) callback.run();
+        }
+    }
+
+    private static String slotsPath(int barberId, Object date) {
+        return "/barbers/" + barberId + "/slots?date=" + date;
+    }
+
+    private static String overridesPath(int barberId) {
+        return "/barbers/" + barberId + "/overrides";
+    }
+
+    private <T> T readResponse(HttpResponse<InputStream> response, JavaType type) throws IOException {
+        String encoding = response.headers().firstValue("Content-Encoding").orElse(null);
+        logger.debug("{} Response: {} ({} bytes{})", PREFIX, response.statusCode(),
+                response.headers().firstValue("Content-Length").orElse("?"), encoding != null ? ", " + encoding : "");
+
+        if (response.statusCode() >= 400) {
+            String errorMsg = OnBarberCodec.readErrorMessage(response.body(), encoding);
+            throw new CompletionException(new ApiException(response.statusCode(), errorMsg));
+        }
+        return OnBarberCodec.read(response.body(), encoding, type);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = rootCause(e);
+            if (cause instanceof Exception ex) throw ex;
+            throw e;
+        }
+    }
+
+    /**
+     * Caps concurrent requests without blocking the caller: calls over the limit
+     * wait in a FIFO queue and start as earlier ones complete. A queued call whose
+     * result is already settled (deadline passed, cancelled) is dropped and never sent.
+     */
+    private static final class InFlightLimiter {
+        private final int max;
+        // Each entry starts its call, or returns false without sending if it was abandoned
+        private final Deque<BooleanSupplier> waiting = new ArrayDeque<>();
+        private int active;
+
+        InFlightLimiter(int max) {
+            this.max = max;
+        }
+
+        <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> call) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            BooleanSupplier start = () -> {
+                if (result.isDone()) return false; // Caller already got its timeout
+                CompletableFuture<T> inner;
+                try {
+                    inner = call.get();
+                } catch (RuntimeException e) {
+                    inner = CompletableFuture.failedFuture(e);
+                }
+                inner.whenComplete((value, error) -> {
+                    release();
+                    if (error != null) result.completeExceptionally(error);
+                    else result.complete(value);
+                });
+                return true;
+            };
+
+            synchronized (this) {
+                if (active >= max) {
+                    waiting.add(start);
+                    // Settled while queued: leave the queue so the request is never sent
+                    result.whenComplete((value, error) -> {
+                        synchronized (this) {
+                            waiting.remove(start);
+                        }
+                    });
+                    return result;
+                }
+                active++;
+            }
+            if (!start.getAsBoolean()) release();
+            return result;
+        }
+
+        private void release() {
+            while (true) {
+                BooleanSupplier next;
+                synchronized (this) {
+                    next = waiting.poll();
+                    if (next == null) {
+                        active--;
+                        return;
+                    }
+                }
+                if (next.getAsBoolean()) return; // Slot handed over to the next queued call
+            }
+        }
     }
 
     // ============================================================
     // INNER CLASSES
     // ============================================================
 
+    /** Recent numbers of one endpoint; latencies in milliseconds. */
+    public record EndpointStats(String endpoint, long requests, long hedges, double successRate,
+                                long p50Millis, long p95Millis, long p99Millis) {}
+
     public static class BarberDTO {
         private final int id;
         private final String name;
         private final String phone;
         private final String photoUrl;
 
-        public BarberDTO(int id, String name, String phone, String photoUrl) {
+        @JsonCreator
+        public BarberDTO(@JsonProperty("id") int id,
+                         @JsonProperty("name") String name,
+                         @JsonProperty("phone") String phone,
+                         @JsonProperty("photo_url") String photoUrl) {
             this.id = id;
             this.name = name;
             this.phone = phone;
@@ -312,6 +806,16 @@ public class OnBarberApiClient {
         public String getPhone() { return phone; }
         public String getPhotoUrl() { return photoUrl; }
 
+        // Value equality: lets cache revalidation tell whether a list really changed
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof BarberDTO b && id == b.id && Objects.equals(name, b.name)
+                    && Objects.equals(phone, b.phone) && Objects.equals(photoUrl, b.photoUrl);
+        }
+
+        @Override
+        public int hashCode() { return Objects.hash(id, name, phone, photoUrl); }
+
         @Override
         public String toString() { return name; }
     }
@@ -325,10 +829,24 @@ public class OnBarberApiClient {
         private final String appointmentTime;
         private final String status;
         private final BarberDTO barber;
+        private final String updatedAt;
 
         public AppointmentDTO(int id, int barberId, String clientName, String clientPhone,
                               String appointmentDate, String appointmentTime, String status,
                               BarberDTO barber) {
+            this(id, barberId, clientName, clientPhone, appointmentDate, appointmentTime, status, barber, null);
+        }
+
+        @JsonCreator
+        public AppointmentDTO(@JsonProperty("id") int id,
+                              @JsonProperty("barber_id") int barberId,
+                              @JsonProperty("client_name") String clientName,
+                              @JsonProperty("client_phone") String clientPhone,
+                              @JsonProperty("appointment_date") String appointmentDate,
+                              @JsonProperty("appointment_time") String appointmentTime,
+                              @JsonProperty("status") String status,
+                              @JsonProperty("barber") BarberDTO barber,
+                              @JsonProperty("updated_at") String updatedAt) {
             this.id = id;
             this.barberId = barberId;
             this.clientName = clientName;
@@ -337,6 +855,7 @@ public class OnBarberApiClient {
             this.appointmentTime = appointmentTime;
             this.status = status;
             this.barber = barber;
+            this.updatedAt = updatedAt;
         }
 
         public int getId() { return id; }
@@ -347,6 +866,8 @@ public class OnBarberApiClient {
         public String getAppointmentTime() { return appointmentTime; }
         public String getStatus() { return status; }
         public BarberDTO getBarber() { return barber; }
+        /** Server-side last modification ("updated_at"), or null if the API does not send it. */
+        public String getUpdatedAt() { return updatedAt; }
 
         public String getBarberName() {
             return barber != null ? barber.getName() : "—";
@@ -385,6 +906,19 @@ public class OnBarberApiClient {
                 default -> status;
             };
         }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof AppointmentDTO a && id == a.id && barberId == a.barberId
+                    && Objects.equals(clientName, a.clientName) && Objects.equals(clientPhone, a.clientPhone)
+                    && Objects.equals(appointmentDate, a.appointmentDate)
+                    && Objects.equals(appointmentTime, a.appointmentTime)
+                    && Objects.equals(status, a.status) && Objects.equals(barber, a.barber)
+                    && Objects.equals(updatedAt, a.updatedAt);
+        }
+
+        @Override
+        public int hashCode() { return Objects.hash(id, status, updatedAt); }
     }
 
     public static class ClosedDayDTO {
@@ -0,0 +1,87 @@
+package app.barbman.core.service;
+
+import app.barbman.core.service.OnBarberApiClient.AppointmentDTO;
+import app.barbman.core.service.OnBarberApiClient.BarberDTO;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * JSON decoding of OnBarber responses.
+ *
+ * Bodies are read straight from the response stream (gunzipped on the fly when the
+ * server compressed them) and bound to the DTOs by Jackson's streaming parser: no
+ * String copy of the payload and no intermediate JsonNode tree for the large lists.
+ * Small, loosely shaped responses (slots, overrides, errors) are still read as trees.
+ *
+ * Public so the benchmarks can decode fixtures the same way the client does.
+ */
+public final class OnBarberCodec {
+
+    static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    public static final JavaType APPOINTMENT = MAPPER.constructType(AppointmentDTO.class);
+    public static final JavaType APPOINTMENT_LIST =
+            MAPPER.getTypeFactory().constructCollectionType(List.class, AppointmentDTO.class);
+    public static final JavaType BARBER_LIST =
+            MAPPER.getTypeFactory().constructCollectionType(List.class, BarberDTO.class);
+    public static final JavaType TREE = MAPPER.constructType(JsonNode.class);
+
+    private OnBarberCodec() {}
+
+    /**
+     * Decodes {@code body} as {@code type}. Lists come back unmodifiable, since they may
+     * be shared through the response cache. An empty body reads as a missing node when
+     * a tree is asked for (e.g. 204 No Content).
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T read(InputStream body, String contentEncoding, JavaType type) throws IOException {
+        try (InputStream in = decoded(body, contentEncoding)) {
+            if (type.getRawClass() == JsonNode.class) {
+                return (T) MAPPER.readTree(in);
+            }
+            Object value = MAPPER.readValue(in, type);
+            if (value instanceof List<?> list) {
+                return (T) Collections.unmodifiableList(list);
+            }
+            return (T) value;
+        }
+    }
+
+    public static List<AppointmentDTO> readAppointments(InputStream body, String contentEncoding) throws IOException {
+        return read(body, contentEncoding, APPOINTMENT_LIST);
+    }
+
+    /** The "message" of an error body, or the raw body if it is not JSON. */
+    static String readErrorMessage(InputStream body, String contentEncoding) {
+        String raw;
+        try (InputStream in = decoded(body, contentEncoding)) {
+            raw = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return e.getMessage();
+        }
+        try {
+            JsonNode errorJson = MAPPER.readTree(raw);
+            if (errorJson != null && errorJson.has("message")) {
+                return errorJson.get("message").asText();
+            }
+        } catch (IOException ignored) {}
+        return raw;
+    }
+
+    private static InputStream decoded(InputStream body, String contentEncoding) throws IOException {
+        if (contentEncoding != null && contentEncoding.trim().equalsIgnoreCase("gzip")) {
+            return new GZIPInputStream(body, 8192);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,243 @@
+package app.barbman.core.service.appointments;
+
+import app.barbman.core.infrastructure.GroupCommitQueue;
+import app.barbman.core.repositories.appointments.AppointmentMirrorRepository;
+import app.barbman.core.repositories.appointments.AppointmentMirrorRepositoryImpl;
+import app.barbman.core.service.OnBarberApiClient;
+import app.barbman.core.service.OnBarberApiClient.AppointmentDTO;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the local appointments table in step with OnBarber, so the calendar reads a
+ * barber's week with one indexed query instead of downloading every appointment.
+ *
+ * A single background thread syncs every {@link #SYNC_INTERVAL_SECONDS}:
+ * - delta sync: asks for appointments updated since the stored cursor (the highest
+ *   "updated_at" seen) and upserts them;
+ * - window sync: fetches every appointment dated within the covered window and deletes
+ *   local rows the API no longer returns. Used when there is no cursor yet (or the API
+ *   does not send "updated_at"), and every {@link #RECONCILE_INTERVAL_MINUTES} so hard
+ *   deletes on the server are eventually seen.
+ *
+ * The covered window starts around the current week and grows when the calendar asks
+ * for a week outside it ({@link #focus}). Listeners are notified, on the sync thread,
+ * only when a sync actually changed rows.
+ */
+public class AppointmentMirrorService {
+
+    private static final Logger logger = LogManager.getLogger(AppointmentMirrorService.class);
+    private static final String PREFIX = "[APPOINTMENT-MIRROR]";
+
+    private static final long SYNC_INTERVAL_SECONDS = 30;
+    private static final long RECONCILE_INTERVAL_MINUTES = 10;
+    private static final int WEEKS_BEHIND = 1;
+    private static final int WEEKS_AHEAD = 8;
+
+    private static final String CURSOR_NAME = "onbarber.appointments";
+
+    private static final AppointmentMirrorService INSTANCE = new AppointmentMirrorService();
+
+    private final AppointmentMirrorRepository repository = new AppointmentMirrorRepositoryImpl();
+    private final OnBarberApiClient apiClient = new OnBarberApiClient();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "appointment-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by "this"
+    private LocalDate coveredFrom;
+    private LocalDate coveredTo;
+    private boolean started;
+
+    // Written by the sync thread; cleared by requestReconcile()
+    private volatile long lastReconcileNanos;
+    private volatile boolean reconciled;
+
+    private AppointmentMirrorService() {
+        LocalDate monday = LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        coveredFrom = monday.minusWeeks(WEEKS_BEHIND);
+        coveredTo = monday.plusWeeks(WEEKS_AHEAD).minusDays(1);
+    }
+
+    public static AppointmentMirrorService getInstance() {
+        return INSTANCE;
+    }
+
+    // ============================================================
+    // LIFECYCLE
+    // ============================================================
+
+    /** Starts the periodic sync (first run right away). Safe to call more than once. */
+    public synchronized void start() {
+        if (started) return;
+        started = true;
+        executor.scheduleWithFixedDelay(this::syncQuietly, 0, SYNC_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        logger.info("{} Sync started (every {} s)", PREFIX, SYNC_INTERVAL_SECONDS);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    // ============================================================
+    // READ
+    // ============================================================
+
+    /** The barber's appointments from Monday {@code weekStart} to Sunday, from the local table. */
+    public List<AppointmentDTO> findWeek(int barberId, LocalDate weekStart) {
+        return repository.findByBarberAndDates(barberId, weekStart, weekStart.plusDays(6));
+    }
+
+    // ============================================================
+    // SYNC
+    // ============================================================
+
+    /** Runs a sync now (after any sync already running). */
+    public CompletableFuture<Void> syncNow() {
+        return CompletableFuture.runAsync(this::sync, executor);
+    }
+
+    /**
+     * Makes sure [from, to] is part of the synced window. Completes right away when it
+     * already is; otherwise the missing dates are fetched before the future completes.
+     */
+    public CompletableFuture<Void> focus(LocalDate from, LocalDate to) {
+        synchronized (this) {
+            if (!from.isBefore(coveredFrom) && !to.isAfter(coveredTo)) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (from.isBefore(coveredFrom)) coveredFrom = from;
+            if (to.isAfter(coveredTo)) coveredTo = to;
+        }
+        return CompletableFuture.runAsync(() -> syncWindow(from, to), executor);
+    }
+
+    /** Stores appointments the app itself just changed through the API. */
+    public void upsert(Collection<AppointmentDTO> appointments) {
+        if (appointments.isEmpty()) return;
+        String now = LocalDateTime.now().toString();
+        int changed = GroupCommitQueue.getInstance().execute(em -> repository.upsertAll(appointments, now, em));
+        if (changed > 0) notifyListeners();
+    }
+
+    /**
+     * Runs a full window sync soon, e.g. after a local change was rejected and the
+     * server's version of the affected rows must be read back.
+     */
+    public CompletableFuture<Void> requestReconcile() {
+        reconciled = false;
+        return syncNow();
+    }
+
+    /** Tells listeners the table changed outside a sync (e.g. an optimistic outbox write). */
+    public void notifyChanged() {
+        notifyListeners();
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (Exception e) {
+            // Keep the schedule alive; the next run retries
+            logger.warn("{} Sync failed: {}", PREFIX, OnBarberApiClient.rootCause(e).getMessage());
+        }
+    }
+
+    private void sync() {
+        String cursor = repository.getCursor(CURSOR_NAME);
+        boolean reconcileDue = !reconciled
+                || System.nanoTime() - lastReconcileNanos > TimeUnit.MINUTES.toNanos(RECONCILE_INTERVAL_MINUTES);
+
+        if (cursor == null || reconcileDue) {
+            LocalDate from;
+            LocalDate to;
+            synchronized (this) {
+                from = coveredFrom;
+                to = coveredTo;
+            }
+            syncWindow(from, to);
+            reconciled = true;
+            lastReconcileNanos = System.nanoTime();
+        } else {
+            syncDelta(cursor);
+        }
+    }
+
+    private void syncDelta(String cursor) {
+        List<AppointmentDTO> changes = apiClient.getAppointmentChangesAsync(cursor, null, null).join();
+        String now = LocalDateTime.now().toString();
+        String next = maxUpdatedAt(changes, cursor);
+
+        int changed = GroupCommitQueue.getInstance().execute(em -> {
+            int rows = repository.upsertAll(changes, now, em);
+            if (!next.equals(cursor)) repository.saveCursor(CURSOR_NAME, next, null, em);
+            return rows;
+        });
+
+        logger.debug("{} Delta since {}: {} received, {} changed", PREFIX, cursor, changes.size(), changed);
+        if (changed > 0) notifyListeners();
+    }
+
+    private void syncWindow(LocalDate from, LocalDate to) {
+        List<AppointmentDTO> appointments = apiClient.getAppointmentChangesAsync(null, from, to).join();
+        String now = LocalDateTime.now().toString();
+        String cursor = maxUpdatedAt(appointments, repository.getCursor(CURSOR_NAME));
+
+        List<Integer> ids = new ArrayList<>(appointments.size());
+        for (AppointmentDTO a : appointments) ids.add(a.getId());
+
+        int changed = GroupCommitQueue.getInstance().execute(em -> {
+            int rows = repository.upsertAll(appointments, now, em);
+            rows += repository.deleteMissing(from, to, ids, em);
+            repository.saveCursor(CURSOR_NAME, cursor, now, em);
+            return rows;
+        });
+
+        logger.info("{} Window {}..{}: {} received, {} changed", PREFIX, from, to, appointments.size(), changed);
+        if (changed > 0) notifyListeners();
+    }
+
+    /** Highest "updated_at" of the batch (ISO-8601, so string order is time order), or {@code current}. */
+    private static String maxUpdatedAt(List<AppointmentDTO> appointments, String current) {
+        String max = current;
+        for (AppointmentDTO a : appointments) {
+            String updatedAt = a.getUpdatedAt();
+            if (updatedAt != null && (max == null || updatedAt.compareTo(max) > 0)) max = updatedAt;
+        }
+        return max;
+    }
+
+    private void notifyListeners() {
+        for (Runnable listener : listeners) {
+            try {
+                listener.run();
+            } catch (Exception e) {
+                logger.warn("{} Listener failed: {}", PREFIX, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,417 @@
+package app.barbman.core.service.appointments;
+
+import app.barbman.core.dto.appointments.OutboxEntryDTO;
+import app.barbman.core.infrastructure.GroupCommitQueue;
+import app.barbman.core.repositories.appointments.AppointmentMirrorRepository;
+import app.barbman.core.repositories.appointments.AppointmentMirrorRepositoryImpl;
+import app.barbman.core.repositories.appointments.AppointmentOutboxRepository;
+import app.barbman.core.repositories.appointments.AppointmentOutboxRepositoryImpl;
+import app.barbman.core.service.OnBarberApiClient;
+import app.barbman.core.service.OnBarberApiClient.ApiException;
+import app.barbman.core.service.OnBarberApiClient.AppointmentDTO;
+import app.barbman.core.service.OnBarberApiClient.BarberDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Store-and-forward path for appointment mutations.
+ *
+ * Creating an appointment, changing its status and closing/reopening a day are written
+ * to the appointment_outbox table (and, where it applies, to the local appointments
+ * mirror so the calendar shows the change at once) in one local transaction. The caller
+ * never waits on the network.
+ *
+ * A single dispatcher thread sends the entries in id order, each with its idempotency
+ * key, so a request whose response was lost can be repeated safely:
+ * - network errors, timeouts, 429 and 5xx are retried with exponential backoff
+ *   ({@link #BASE_DELAY_SECONDS} doubling up to {@link #MAX_DELAY_SECONDS}, with jitter).
+ *   Later entries wait behind the failing one, so per-appointment order is kept;
+ * - 404 / 409 / 410 / 412 / 422 mean the change no longer fits the server's state
+ *   (slot taken, appointment deleted, ...): the entry is marked "conflict";
+ * - any other 4xx marks it "failed".
+ * A status change that waited in the queue is first checked against the server: if the
+ * appointment changed meanwhile (status differs from the one the user saw), it is a
+ * conflict rather than a blind overwrite. Rejected changes are undone locally and
+ * reported to listeners.
+ */
+public class AppointmentOutboxService {
+
+    private static final Logger logger = LogManager.getLogger(AppointmentOutboxService.class);
+    private static final String PREFIX = "[APPOINTMENT-OUTBOX]";
+
+    private static final long POLL_SECONDS = 5;
+    private static final long BASE_DELAY_SECONDS = 2;
+    private static final long MAX_DELAY_SECONDS = 300;
+    private static final int BATCH = 20;
+
+    private static final String CONFLICT = "conflict";
+    private static final String FAILED = "failed";
+
+    /** Outcome of one entry, for the UI. {@code message} is null when it was delivered. */
+    public record Event(OutboxEntryDTO entry, boolean delivered, String message) {}
+
+    private static final AppointmentOutboxService INSTANCE = new AppointmentOutboxService();
+
+    private final AppointmentOutboxRepository outboxRepository = new AppointmentOutboxRepositoryImpl();
+    private final AppointmentMirrorRepository mirrorRepository = new AppointmentMirrorRepositoryImpl();
+    private final AppointmentMirrorService mirror = AppointmentMirrorService.getInstance();
+    private final OnBarberApiClient apiClient = new OnBarberApiClient();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<Consumer<Event>> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "appointment-outbox");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private boolean started;
+
+    private AppointmentOutboxService() {}
+
+    public static AppointmentOutboxService getInstance() {
+        return INSTANCE;
+    }
+
+    // ============================================================
+    // LIFECYCLE
+    // ============================================================
+
+    /** Starts draining (including entries left by a previous run). Safe to call more than once. */
+    public synchronized void start() {
+        if (started) return;
+        started = true;
+        dispatcher.scheduleWithFixedDelay(this::drainQuietly, 0, POLL_SECONDS, TimeUnit.SECONDS);
+        logger.info("{} Dispatcher started", PREFIX);
+    }
+
+    public void shutdown() {
+        dispatcher.shutdownNow();
+    }
+
+    public void addListener(Consumer<Event> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<Event> listener) {
+        listeners.remove(listener);
+    }
+
+    public int pendingCount() {
+        return outboxRepository.countPending();
+    }
+
+    // ============================================================
+    // ENQUEUE
+    // ============================================================
+
+    /**
+     * Queues a new appointment and shows it right away in the mirror under a temporary
+     * negative ID, replaced by the server's appointment once it is created.
+     */
+    public AppointmentDTO createAppointment(BarberDTO barber, String clientName, String clientPhone,
+                                            LocalDate date, String time) {
+        ObjectNode payload = mapper.createObjectNode();
+        payload.put("client_name", clientName);
+        payload.put("client_phone", clientPhone);
+        payload.put("appointment_time", time);
+
+        String now = LocalDateTime.now().toString();
+        AppointmentDTO placeholder = GroupCommitQueue.getInstance().execute(em -> {
+            long id = outboxRepository.insert(entry(OutboxEntryDTO.CREATE, null, barber.getId(), date,
+                    payload, null), now, em);
+            int localId = (int) -id;
+            // The create entry points at its own placeholder, so a rejection knows what to remove
+            outboxRepository.assignAppointment(id, localId, em);
+            AppointmentDTO local = new AppointmentDTO(localId, barber.getId(), clientName, clientPhone,
+                    date.toString(), time, "pending", barber, null);
+            mirrorRepository.upsertAll(List.of(local), now, em);
+            return local;
+        });
+
+        logger.info("{} Queued new appointment {} {} for barber #{} (local #{})",
+                PREFIX, date, time, barber.getId(), placeholder.getId());
+        afterEnqueue();
+        return placeholder;
+    }
+
+    /** Queues a status change and applies it to the mirror right away. */
+    public void updateStatus(AppointmentDTO appointment, String status) {
+        ObjectNode payload = mapper.createObjectNode();
+        payload.put("status", status);
+
+        String now = LocalDateTime.now().toString();
+        GroupCommitQueue.getInstance().execute(em -> {
+            // Mirror first: once the entry exists, the upsert skips this appointment
+            mirrorRepository.upsertAll(List.of(withStatus(appointment, status)), now, em);
+            return outboxRepository.insert(entry(OutboxEntryDTO.STATUS, appointment.getId(),
+                    appointment.getBarberId(), LocalDate.parse(appointment.getDateOnly()),
+                    payload, appointment.getStatus()), now, em);
+        });
+
+        logger.info("{} Queued #{}: {} -> {}", PREFIX, appointment.getId(), appointment.getStatus(), status);
+        afterEnqueue();
+    }
+
+    public void closeDay(int barberId, LocalDate date) {
+        enqueueDay(OutboxEntryDTO.CLOSE_DAY, barberId, date);
+    }
+
+    public void reopenDay(int barberId, LocalDate date) {
+        enqueueDay(OutboxEntryDTO.REOPEN_DAY, barberId, date);
+    }
+
+    private void enqueueDay(String operation, int barberId, LocalDate date) {
+        String now = LocalDateTime.now().toString();
+        ObjectNode payload = mapper.createObjectNode();
+        GroupCommitQueue.getInstance().execute(em -> outboxRepository.insert(
+                entry(operation, null, barberId, date, payload, null), now, em));
+
+        logger.info("{} Queued {} {} for barber #{}", PREFIX, operation, date, barberId);
+        afterEnqueue();
+    }
+
+    private OutboxEntryDTO entry(String operation, Integer appointmentId, int barberId, LocalDate date,
+                                 ObjectNode payload, String expectedStatus) {
+        return new OutboxEntryDTO(0, UUID.randomUUID().toString(), operation,
+                appointmentId, barberId, date.toString(),
+                payload.toString(), expectedStatus, 0, null);
+    }
+
+    private void afterEnqueue() {
+        mirror.notifyChanged();
+        dispatcher.execute(this::drainQuietly);
+    }
+
+    // ============================================================
+    // DISPATCH
+    // ============================================================
+
+    private void drainQuietly() {
+        try {
+            drain();
+        } catch (Exception e) {
+            // Keep the schedule alive; the next poll retries
+            logger.error("{} Drain failed: {}", PREFIX, e.getMessage(), e);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            List<OutboxEntryDTO> entries = outboxRepository.findPending(BATCH);
+            for (OutboxEntryDTO entry : entries) {
+                // The oldest entry blocks the rest until it is due: keeps changes in order
+                if (LocalDateTime.parse(entry.nextAttemptAt()).isAfter(LocalDateTime.now())) return;
+                if (!dispatch(entry)) return;
+            }
+            if (entries.size() < BATCH) return;
+        }
+    }
+
+    /** Sends one entry. Returns false if it must be retried later (stop draining). */
+    private boolean dispatch(OutboxEntryDTO entry) {
+        try {
+            switch (entry.operation()) {
+                case OutboxEntryDTO.CREATE -> sendCreate(entry);
+                case OutboxEntryDTO.STATUS -> sendStatus(entry);
+                case OutboxEntryDTO.CLOSE_DAY -> {
+                    apiClient.closeDayForBarberAsync(entry.barberId(), LocalDate.parse(entry.date()),
+                            entry.idempotencyKey()).join();
+                    GroupCommitQueue.getInstance().execute(em -> {
+                        outboxRepository.delete(entry.id(), em);
+                        return null;
+                    });
+                }
+                case OutboxEntryDTO.REOPEN_DAY -> {
+                    // DELETE of the override: repeating it is harmless
+                    apiClient.reopenDayForBarberAsync(entry.barberId(), LocalDate.parse(entry.date())).join();
+                    GroupCommitQueue.getInstance().execute(em -> {
+                        outboxRepository.delete(entry.id(), em);
+                        return null;
+                    });
+                }
+                default -> throw new ApiException(400, "Operacion desconocida: " + entry.operation());
+            }
+            logger.info("{} Delivered {} #{}", PREFIX, entry.operation(), entry.id());
+            notifyListeners(new Event(entry, true, null));
+            return true;
+        } catch (Exception e) {
+            Throwable cause = OnBarberApiClient.rootCause(e);
+            if (isRetryable(cause)) {
+                retryLater(entry, cause);
+                return false;
+            }
+            reject(entry, cause instanceof ApiException api && isConflict(api.getStatusCode()) ? CONFLICT : FAILED,
+                    cause.getMessage());
+            return true;
+        }
+    }
+
+    private void sendCreate(OutboxEntryDTO entry) throws Exception {
+        JsonNode payload = readPayload(entry);
+        AppointmentDTO created = apiClient.createAppointmentAsync(entry.barberId(),
+                payload.get("client_name").asText(), payload.get("client_phone").asText(),
+                LocalDate.parse(entry.date()), payload.get("appointment_time").asText(),
+                entry.idempotencyKey()).join();
+
+        int localId = entry.appointmentId();
+        String now = LocalDateTime.now().toString();
+        GroupCommitQueue.getInstance().execute(em -> {
+            outboxRepository.delete(entry.id(), em);
+            mirrorRepository.delete(localId, em);
+            // Status changes queued on the placeholder now target the real appointment
+            outboxRepository.remapAppointment(localId, created.getId(), em);
+            String pendingStatus = outboxRepository.findPendingStatus(created.getId(), em);
+            AppointmentDTO shown = pendingStatus != null ? withStatus(created, pendingStatus) : created;
+            mirrorRepository.upsertAll(List.of(shown), now, em);
+            return null;
+        });
+    }
+
+    private void sendStatus(OutboxEntryDTO entry) throws Exception {
+        int appointmentId = entry.appointmentId();
+        String target = readPayload(entry).get("status").asText();
+        if (appointmentId < 0) {
+            // Its create entry was rejected (or lost): nothing to update on the server
+            throw new ApiException(404, "La reserva no existe en el servidor");
+        }
+
+        // A change that waited in the queue may be stale: compare with the server first
+        if (entry.attempts() > 0) {
+            LocalDate date = LocalDate.parse(entry.date());
+            AppointmentDTO remote = apiClient.getAppointmentChangesAsync(null, date, date).join().stream()
+                    .filter(a -> a.getId() == appointmentId)
+                    .findFirst()
+                    .orElse(null);
+            if (remote == null) {
+                throw new ApiException(404, "La reserva ya no existe en el servidor");
+            }
+            if (target.equals(remote.getStatus())) {
+                finishStatus(entry, remote); // Applied already (response lost on a previous attempt)
+                return;
+            }
+            if (entry.expectedStatus() != null && !entry.expectedStatus().equals(remote.getStatus())) {
+                throw new ApiException(409, "La reserva fue modificada en el servidor (ahora: "
+                        + remote.getStatusDisplay() + ")");
+            }
+        }
+
+        AppointmentDTO updated = apiClient.updateAppointmentStatusAsync(appointmentId, target,
+                entry.idempotencyKey()).join();
+        finishStatus(entry, updated);
+    }
+
+    private void finishStatus(OutboxEntryDTO entry, AppointmentDTO remote) {
+        String now = LocalDateTime.now().toString();
+        GroupCommitQueue.getInstance().execute(em -> {
+            outboxRepository.delete(entry.id(), em);
+            // Skipped by the upsert if a newer change for this appointment is still queued
+            mirrorRepository.upsertAll(List.of(remote), now, em);
+            return null;
+        });
+    }
+
+    // ============================================================
+    // FAILURES
+    // ============================================================
+
+    private void retryLater(OutboxEntryDTO entry, Throwable cause) {
+        int attempts = entry.attempts() + 1;
+        long delay = Math.min(BASE_DELAY_SECONDS << Math.min(attempts - 1, 20), MAX_DELAY_SECONDS);
+        long jitterMillis = (long) (delay * 1000 * ThreadLocalRandom.current().nextDouble(0.8, 1.2));
+        String next = LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(jitterMillis)).toString();
+
+        GroupCommitQueue.getInstance().execute(em -> {
+            outboxRepository.reschedule(entry.id(), attempts, next, cause.getMessage(), em);
+            return null;
+        });
+        logger.warn("{} {} #{} failed (attempt {}), retry in ~{} s: {}",
+                PREFIX, entry.operation(), entry.id(), attempts, delay, cause.getMessage());
+    }
+
+    /** Takes the entry out of the queue and undoes its optimistic change. */
+    private void reject(OutboxEntryDTO entry, String state, String error) {
+        GroupCommitQueue.getInstance().execute(em -> {
+            outboxRepository.reject(entry.id(), state, error, em);
+            if (OutboxEntryDTO.CREATE.equals(entry.operation())) {
+                mirrorRepository.delete(entry.appointmentId(), em);
+                outboxRepository.rejectPendingFor(entry.appointmentId(), state, "Reserva no creada: " + error, em);
+            }
+            return null;
+        });
+        if (OutboxEntryDTO.STATUS.equals(entry.operation())) {
+            mirror.requestReconcile(); // Bring back the server's status
+        }
+        mirror.notifyChanged();
+
+        logger.warn("{} {} #{} rejected ({}): {}", PREFIX, entry.operation(), entry.id(), state, error);
+        notifyListeners(new Event(entry, false, describe(entry) + ": " + error));
+    }
+
+    private static boolean isRetryable(Throwable cause) {
+        if (cause instanceof ApiException api) {
+            int code = api.getStatusCode();
+            return code == 0 || code == 408 || code == 429 || code >= 500;
+        }
+        // A payload or response that does not parse will not parse next time either
+        return cause instanceof IOException && !(cause instanceof JsonProcessingException);
+    }
+
+    private static boolean isConflict(int statusCode) {
+        return statusCode == 404 || statusCode == 409 || statusCode == 410
+                || statusCode == 412 || statusCode == 422;
+    }
+
+    private String describe(OutboxEntryDTO entry) {
+        return switch (entry.operation()) {
+            case OutboxEntryDTO.CREATE -> "No se pudo crear la reserva del " + entry.date();
+            case OutboxEntryDTO.STATUS -> "No se pudo actualizar la reserva #" + entry.appointmentId();
+            case OutboxEntryDTO.CLOSE_DAY -> "No se pudo cerrar el dia " + entry.date();
+            case OutboxEntryDTO.REOPEN_DAY -> "No se pudo reabrir el dia " + entry.date();
+            default -> "No se pudo enviar el cambio";
+        };
+    }
+
+    // ============================================================
+    // HELPERS
+    // ============================================================
+
+    private JsonNode readPayload(OutboxEntryDTO entry) {
+        try {
+            return mapper.readTree(entry.payload());
+        } catch (JsonProcessingException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static AppointmentDTO withStatus(AppointmentDTO a, String status) {
+        return new AppointmentDTO(a.getId(), a.getBarberId(), a.getClientName(), a.getClientPhone(),
+                a.getAppointmentDate(), a.getAppointmentTime(), status, a.getBarber(), a.getUpdatedAt());
+    }
+
+    private void notifyListeners(Event event) {
+        for (Consumer<Event> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (Exception e) {
+                logger.warn("{} Listener failed: {}", PREFIX, e.getMessage());
+            }
+        }
+    }
+}
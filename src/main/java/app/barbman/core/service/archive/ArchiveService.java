@@ -0,0 +1,64 @@
+package app.barbman.core.service.archive;
+
+import app.barbman.core.repositories.archive.ArchiveRepository;
+import app.barbman.core.repositories.archive.ArchiveRepository.YearArchive;
+import app.barbman.core.repositories.archive.ArchiveRepositoryImpl;
+import app.barbman.core.repositories.cashbox.movement.CashboxMovementRepositoryImpl;
+import app.barbman.core.repositories.cashbox.opening.CashboxOpeningRepositoryImpl;
+import app.barbman.core.repositories.sales.production.UserDailyProductionRepositoryImpl;
+import app.barbman.core.repositories.users.UsersRepositoryImpl;
+import app.barbman.core.service.cashbox.CashboxReportService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves closed fiscal years out of the live database (see ArchiveRepository).
+ *
+ * A year is archivable once it is over and every cashbox opened in it has been
+ * closed; the current year always stays live.
+ */
+public class ArchiveService {
+
+    private static final Logger logger = LogManager.getLogger(ArchiveService.class);
+    private static final String PREFIX = "[ARCHIVE-SERVICE]";
+
+    private final ArchiveRepository archiveRepo = new ArchiveRepositoryImpl();
+    private final CashboxReportService reportService = new CashboxReportService(
+            new CashboxMovementRepositoryImpl(),
+            new UserDailyProductionRepositoryImpl(),
+            new UsersRepositoryImpl(),
+            new CashboxOpeningRepositoryImpl()
+    );
+
+    public List<Integer> findArchivableYears() {
+        int currentYear = LocalDate.now().getYear();
+        List<Integer> years = new ArrayList<>();
+        for (int year : archiveRepo.findLiveYears()) {
+            if (year < currentYear && archiveRepo.isYearClosed(year)) years.add(year);
+        }
+        return years;
+    }
+
+    /** Archives every closed year still in the live database, then compacts it. */
+    public List<YearArchive> archiveClosedYears() {
+        List<Integer> years = findArchivableYears();
+        if (years.isEmpty()) {
+            logger.info("{} No closed years to archive", PREFIX);
+            return List.of();
+        }
+
+        // Freeze the report of every closed period while its movements are still live
+        reportService.snapshotClosedPeriods();
+
+        List<YearArchive> archived = new ArrayList<>();
+        for (int year : years) {
+            archived.add(archiveRepo.archiveYear(year));
+        }
+        archiveRepo.compactLiveDatabase();
+        return archived;
+    }
+}
@@ -1,14 +1,23 @@
 package app.barbman.core.service.cashbox;
 
+import app.barbman.core.infrastructure.DatabaseMaintenance;
+import app.barbman.core.infrastructure.GroupCommitQueue;
 import app.barbman.core.model.cashbox.*;
 import app.barbman.core.repositories.cashbox.closure.CashboxClosureRepository;
 import app.barbman.core.repositories.cashbox.movement.CashboxMovementRepository;
 import app.barbman.core.repositories.cashbox.opening.CashboxOpeningRepository;
+import app.barbman.core.repositories.cashbox.snapshot.CashboxReportSnapshotRepository;
+import app.barbman.core.repositories.cashbox.snapshot.CashboxReportSnapshotRepositoryImpl;
+import app.barbman.core.repositories.sales.production.UserDailyProductionRepositoryImpl;
+import app.barbman.core.repositories.users.UsersRepositoryImpl;
+import app.barbman.core.service.sales.saleflow.SaleJournalService;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
 
 public class CashboxService {
 
@@ -18,6 +27,8 @@ public class CashboxService {
     private final CashboxOpeningRepository openingRepo;
     private final CashboxClosureRepository closureRepo;
     private final CashboxMovementRepository movementRepo;
+    private final CashboxReportSnapshotRepository snapshotRepo = new CashboxReportSnapshotRepositoryImpl();
+    private final CashboxReportService reportService;
 
     public CashboxService(
             CashboxOpeningRepository openingRepo,
@@ -27,6 +38,8 @@ public class CashboxService {
         this.openingRepo = openingRepo;
         this.closureRepo = closureRepo;
         this.movementRepo = movementRepo;
+        this.reportService = new CashboxReportService(
+                movementRepo, new UserDailyProductionRepositoryImpl(), new UsersRepositoryImpl(), openingRepo);
     }
 
     // ============================================================
@@ -45,6 +58,28 @@ public class CashboxService {
     // GUARDS
     // ============================================================
 
+    /**
+     * True if the sale/expense with this reference belongs to a closed cashbox period, whose
+     * report is frozen in its snapshot. Its movements tell the period; one without movements
+     * (a free sale) is in a closed period if one covers {@code date} and no open one does.
+     */
+    public boolean isInClosedPeriod(String referenceType, int referenceId, LocalDate date) {
+        List<CashboxMovement> movements = movementRepo.findByReference(referenceType, referenceId);
+        if (!movements.isEmpty()) {
+            return movements.stream()
+                    .map(CashboxMovement::getOpeningId)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .map(openingRepo::findById)
+                    .anyMatch(opening -> opening != null && opening.isClosed());
+        }
+        if (date == null) return false;
+
+        CashboxOpening open = getCurrentOpening();
+        if (open != null && !open.getOpenedAt().toLocalDate().isAfter(date)) return false;
+        return !snapshotRepo.findCovering(date).isEmpty();
+    }
+
     public void assertCashboxOpened() {
         if (!isCashboxOpen()) {
             throw new IllegalStateException(
@@ -58,8 +93,8 @@ public class CashboxService {
     // ============================================================
 
     public void openCashbox(
-            double cashAmount,
-            double bankAmount,
+            long cashAmount,
+            long bankAmount,
             Integer adminUserId,
             String notes
     ) {
@@ -69,28 +104,31 @@ public class CashboxService {
 
         LocalDateTime now = LocalDateTime.now();
 
-        CashboxOpening opening = CashboxOpening.builder()
-                .periodStartDate(now.toLocalDate())
-                .openedAt(now)
-                .openedByUserId(adminUserId)
-                .cashAmount(cashAmount)
-                .bankAmount(bankAmount)
-                .notes(notes)
-                .closed(false)
-                .build();
-
-        openingRepo.save(opening);
-
-        // Log opening movements with correct payment method IDs
-        if (cashAmount > 0) {
-            movementRepo.save(buildMovement("OPENING", "IN", cashAmount, 0,
-                    "CASHBOX_OPENING", opening.getId(), "Initial cash opening", adminUserId, opening.getId()));
-        }
-
-        if (bankAmount > 0) {
-            movementRepo.save(buildMovement("OPENING", "IN", bankAmount, 1,
-                    "CASHBOX_OPENING", opening.getId(), "Initial bank opening", adminUserId, opening.getId()));
-        }
+        // Opening and its movements commit together (group-committed, see GroupCommitQueue)
+        CashboxOpening opening = GroupCommitQueue.getInstance().execute(em -> {
+            CashboxOpening o = CashboxOpening.builder()
+                    .periodStartDate(now.toLocalDate())
+                    .openedAt(now)
+                    .openedByUserId(adminUserId)
+                    .cashAmount(cashAmount)
+                    .bankAmount(bankAmount)
+                    .notes(notes)
+                    .closed(false)
+                    .build();
+            openingRepo.save(o, em);
+
+            // Log opening movements with correct payment method IDs
+            if (cashAmount > 0) {
+                movementRepo.save(buildMovement("OPENING", "IN", cashAmount, 0,
+                        "CASHBOX_OPENING", o.getId(), "Initial cash opening", adminUserId, o.getId()), em);
+            }
+
+            if (bankAmount > 0) {
+                movementRepo.save(buildMovement("OPENING", "IN", bankAmount, 1,
+                        "CASHBOX_OPENING", o.getId(), "Initial bank opening", adminUserId, o.getId()), em);
+            }
+            return o;
+        });
 
         logger.info("{} Cashbox opened (id={}, cash={}, bank={})",
                 PREFIX, opening.getId(), cashAmount, bankAmount);
@@ -101,8 +139,8 @@ public class CashboxService {
     // ============================================================
 
     public CashboxClosure closeCashbox(
-            double actualCash,
-            double actualBank,
+            long actualCash,
+            long actualBank,
             Integer adminUserId,
             String notes
     ) {
@@ -111,34 +149,49 @@ public class CashboxService {
             throw new IllegalStateException("Cannot close cashbox: no open cashbox found.");
         }
 
-        double expectedCash = getExpectedCash(opening.getId());
-        double expectedBank = getExpectedBank(opening.getId());
-
-        double cashDiscrepancy = actualCash - expectedCash;
-        double bankDiscrepancy = actualBank - expectedBank;
-
-        CashboxClosure closure = CashboxClosure.builder()
-                .openingId(opening.getId())
-                .closedAt(LocalDateTime.now())
-                .closedByUserId(adminUserId)
-                .expectedCash(expectedCash)
-                .expectedBank(expectedBank)
-                .actualCash(actualCash)
-                .actualBank(actualBank)
-                .cashDiscrepancy(cashDiscrepancy)
-                .bankDiscrepancy(bankDiscrepancy)
-                .notes(notes)
-                .build();
-
-        closureRepo.save(closure);
-
-        // Mark opening as closed
-        opening.setClosed(true);
-        openingRepo.update(opening);
+        // Sales acknowledged from the journal must be in the ledger before anything is computed
+        SaleJournalService.awaitAppliedIfRunning();
+
+        long expectedCash = getExpectedCash(opening.getId());
+        long expectedBank = getExpectedBank(opening.getId());
+
+        long cashDiscrepancy = actualCash - expectedCash;
+        long bankDiscrepancy = actualBank - expectedBank;
+
+        // Period report frozen with the closure; computed before the write transaction
+        LocalDateTime closedAt = LocalDateTime.now();
+        CashboxReportService.ClosingReport closingReport =
+                reportService.buildClosingReport(opening, closedAt.toLocalDate());
+
+        // Closure row, report snapshot and closed flag commit together
+        CashboxClosure closure = GroupCommitQueue.getInstance().execute(em -> {
+            CashboxClosure c = CashboxClosure.builder()
+                    .openingId(opening.getId())
+                    .closedAt(closedAt)
+                    .closedByUserId(adminUserId)
+                    .expectedCash(expectedCash)
+                    .expectedBank(expectedBank)
+                    .actualCash(actualCash)
+                    .actualBank(actualBank)
+                    .cashDiscrepancy(cashDiscrepancy)
+                    .bankDiscrepancy(bankDiscrepancy)
+                    .notes(notes)
+                    .build();
+            closureRepo.save(c, em);
+            snapshotRepo.save(reportService.toSnapshot(closingReport, c), em);
+
+            // Mark opening as closed
+            opening.setClosed(true);
+            openingRepo.update(opening, em);
+            return c;
+        });
 
         logger.info("{} Cashbox closed (openingId={}, expectedCash={}, expectedBank={}, actualCash={}, actualBank={})",
                 PREFIX, opening.getId(), expectedCash, expectedBank, actualCash, actualBank);
 
+        // End of the business day: good moment for statistics and freeing deleted pages
+        DatabaseMaintenance.getInstance().runWhenIdle("cashbox closure");
+
         return closure;
     }
 
@@ -150,22 +203,22 @@ public class CashboxService {
     // BALANCE CALCULATIONS (movement-based ledger)
     // ============================================================
 
-    public double getExpectedCash(Integer openingId) {
+    public long getExpectedCash(Integer openingId) {
         CashboxOpening opening = openingRepo.findById(openingId);
         if (opening == null) return 0;
 
-        double cashIn = movementRepo.sumByOpeningIdAndDirection(openingId, "IN", true);
-        double cashOut = movementRepo.sumByOpeningIdAndDirection(openingId, "OUT", true);
+        long cashIn = movementRepo.sumByOpeningIdAndDirection(openingId, "IN", true);
+        long cashOut = movementRepo.sumByOpeningIdAndDirection(openingId, "OUT", true);
 
         return opening.getCashAmount() + cashIn - cashOut;
     }
 
-    public double getExpectedBank(Integer openingId) {
+    public long getExpectedBank(Integer openingId) {
         CashboxOpening opening = openingRepo.findById(openingId);
         if (opening == null) return 0;
 
-        double bankIn = movementRepo.sumByOpeningIdAndDirection(openingId, "IN", false);
-        double bankOut = movementRepo.sumByOpeningIdAndDirection(openingId, "OUT", false);
+        long bankIn = movementRepo.sumByOpeningIdAndDirection(openingId, "IN", false);
+        long bankOut = movementRepo.sumByOpeningIdAndDirection(openingId, "OUT", false);
 
         return opening.getBankAmount() + bankIn - bankOut;
     }
@@ -174,7 +227,7 @@ public class CashboxService {
     // HELPERS
     // ============================================================
 
-    private CashboxMovement buildMovement(String movementType, String direction, double amount,
+    private CashboxMovement buildMovement(String movementType, String direction, long amount,
                                           Integer paymentMethodId, String refType, Integer refId,
                                           String description, Integer userId, Integer openingId) {
         LocalDateTime now = LocalDateTime.now();
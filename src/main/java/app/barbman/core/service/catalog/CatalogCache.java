@@ -0,0 +1,281 @@
+package app.barbman.core.service.catalog;
+
+import app.barbman.core.dto.salecart.SaleCartDTO;
+import app.barbman.core.dto.salecart.SaleCartItemDTO;
+import app.barbman.core.model.PaymentMethod;
+import app.barbman.core.model.sales.products.Product;
+import app.barbman.core.model.sales.services.ServiceDefinition;
+import app.barbman.core.repositories.paymentmethod.PaymentMethodRepositoryImpl;
+import app.barbman.core.repositories.sales.products.product.ProductRepositoryImpl;
+import app.barbman.core.repositories.sales.services.servicedefinition.ServiceDefinitionRepositoryImpl;
+import app.barbman.core.service.paymentmethods.PaymentMethodsService;
+import app.barbman.core.service.sales.products.ProductService;
+import app.barbman.core.service.sales.services.ServiceDefinitionsService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Application-scoped, in-memory copy of the sellable catalog: service definitions,
+ * products (with live stock) and payment methods.
+ *
+ * Freshness is tracked with a monotonically increasing catalog version:
+ * - {@link #invalidate()} bumps it when the catalog is edited (Settings) and
+ *   triggers a background reload, so the next reader usually finds it ready.
+ * - {@link #applyStockDecrease(SaleCartDTO)} publishes copies of the sold products
+ *   with their new stock after a sale commits, without touching the database.
+ *
+ * Readers never wait on SQLite once the first load is done: while the catalog is
+ * stale they get the last published snapshot, and a single loader thread refreshes it.
+ * Only the very first read (nothing loaded yet) blocks on the load. Readers compare
+ * {@link #getVersion()} with the version they last rendered to know when to redraw.
+ *
+ * Service and product names are also kept in {@link PrefixIndex}es for as-you-type
+ * lookup from the POS. Each reload diffs the indexes against the new snapshot
+ * (changed items re-indexed, removed ones dropped) instead of rebuilding them.
+ */
+public class CatalogCache {
+
+    private static final Logger logger = LogManager.getLogger(CatalogCache.class);
+    private static final String PREFIX = "[CATALOG-CACHE]";
+
+    private static final CatalogCache INSTANCE = new CatalogCache(
+            new ServiceDefinitionsService(new ServiceDefinitionRepositoryImpl()),
+            new ProductService(new ProductRepositoryImpl()),
+            new PaymentMethodsService(new PaymentMethodRepositoryImpl())
+    );
+
+    /** Immutable view of the catalog as loaded for a given version. */
+    private record Snapshot(long version,
+                            List<ServiceDefinition> services,
+                            Map<Integer, Product> products,
+                            Map<String, Product> productsByBarcode,
+                            Map<Integer, PaymentMethod> paymentMethods) {}
+
+    private final ServiceDefinitionsService serviceDefinitionsService;
+    private final ProductService productService;
+    private final PaymentMethodsService paymentMethodsService;
+
+    private final AtomicLong version = new AtomicLong(1);
+    private volatile Snapshot snapshot;
+
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "catalog-cache-loader");
+        t.setDaemon(true);
+        return t;
+    });
+    /** A reload is queued on the loader and has not started yet. */
+    private final AtomicBoolean reloadQueued = new AtomicBoolean();
+
+    private final PrefixIndex<ServiceDefinition> serviceIndex = new PrefixIndex<>();
+    private final PrefixIndex<Product> productIndex = new PrefixIndex<>();
+
+    public CatalogCache(ServiceDefinitionsService serviceDefinitionsService,
+                        ProductService productService,
+                        PaymentMethodsService paymentMethodsService) {
+        this.serviceDefinitionsService = serviceDefinitionsService;
+        this.productService = productService;
+        this.paymentMethodsService = paymentMethodsService;
+    }
+
+    public static CatalogCache getInstance() {
+        return INSTANCE;
+    }
+
+    // ============================================================
+    // READ
+    // ============================================================
+
+    /**
+     * Version of the catalog readers currently get. Changes whenever services, products
+     * or stock change and the refreshed catalog has been published.
+     */
+    public long getVersion() {
+        return current().version();
+    }
+
+    /** Service definitions marked as available, in repository order. */
+    public List<ServiceDefinition> getAvailableServices() {
+        return current().services();
+    }
+
+    /** Products with stock > 0, in repository order. */
+    public List<Product> getProductsInStock() {
+        return current().products().values().stream()
+                .filter(p -> p.getStock() > 0)
+                .toList();
+    }
+
+    /** Available services with a name word starting with the query, best matches first. */
+    public List<ServiceDefinition> searchServices(String query, int limit) {
+        current();
+        return serviceIndex.search(query, limit, def -> true);
+    }
+
+    /** Products in stock with a name word or barcode starting with the query, best matches first. */
+    public List<Product> searchProductsInStock(String query, int limit) {
+        current();
+        return productIndex.search(query, limit, p -> p.getStock() > 0);
+    }
+
+    /** Product (with live stock) by ID, or null if it is not in the catalog. */
+    public Product findProduct(int id) {
+        return current().products().get(id);
+    }
+
+    /** Product (with live stock) whose barcode / SKU is exactly {@code barcode}, or null. */
+    public Product findProductByBarcode(String barcode) {
+        if (barcode == null) return null;
+        return current().productsByBarcode().get(barcode.trim());
+    }
+
+    /** Payment method by ID, or null if unknown. */
+    public PaymentMethod getPaymentMethod(int id) {
+        return current().paymentMethods().get(id);
+    }
+
+    // ============================================================
+    // INVALIDATION
+    // ============================================================
+
+    /** Marks the catalog as changed and reloads it in the background. */
+    public void invalidate() {
+        long v = version.incrementAndGet();
+        logger.info("{} Catalog invalidated (version {})", PREFIX, v);
+        warmUpAsync();
+    }
+
+    /**
+     * Applies the product quantities of a committed sale to the cached stock.
+     * Must be called after the transaction that decreased stock has committed.
+     *
+     * Runs on the sale journal applier while the FX thread reads the catalog, so the
+     * cached products are never modified: the changed ones are copied and a new
+     * snapshot is published.
+     */
+    public synchronized void applyStockDecrease(SaleCartDTO cart) {
+        Snapshot s = snapshot;
+        if (s == null) return; // Nothing cached yet: next reader loads fresh stock
+
+        Map<Integer, Product> changed = new HashMap<>();
+        for (SaleCartItemDTO item : cart.getCartItems()) {
+            if (item.getType() != SaleCartItemDTO.ItemType.PRODUCT) continue;
+
+            Product p = changed.getOrDefault(item.getReferenceId(), s.products().get(item.getReferenceId()));
+            if (p != null) {
+                changed.put(p.getId(), withStock(p, Math.max(0, p.getStock() - item.getQuantity())));
+            }
+        }
+        if (changed.isEmpty()) return;
+
+        // Only publish a new snapshot if the current one was up to date; otherwise the
+        // queued reload picks up the committed stock.
+        long v = version.incrementAndGet();
+        if (s.version() != v - 1) {
+            warmUpAsync();
+            return;
+        }
+
+        Map<Integer, Product> products = new LinkedHashMap<>(s.products());
+        Map<String, Product> productsByBarcode = new HashMap<>(s.productsByBarcode());
+        for (Product p : changed.values()) {
+            products.put(p.getId(), p);
+            if (p.getBarcode() != null) productsByBarcode.put(p.getBarcode(), p);
+            productIndex.put(p.getId(), p, p.getName(), p.getBarcode());
+        }
+        snapshot = new Snapshot(v, s.services(), products, productsByBarcode, s.paymentMethods());
+    }
+
+    /** Loads the catalog on the loader thread if it is missing or stale. */
+    public void warmUpAsync() {
+        if (!reloadQueued.compareAndSet(false, true)) return; // One queued reload covers every change so far
+
+        loader.execute(() -> {
+            // Cleared before loading: a change made during this reload queues the next one
+            reloadQueued.set(false);
+            try {
+                reload();
+            } catch (Exception e) {
+                logger.warn("{} Background reload failed: {}", PREFIX, e.getMessage());
+            }
+        });
+    }
+
+    // ============================================================
+    // INTERNALS
+    // ============================================================
+
+    /** The published snapshot, refreshed in the background if stale; loads inline only the first time. */
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (s == null) return reload();
+        if (s.version() != version.get()) warmUpAsync();
+        return s;
+    }
+
+    private synchronized Snapshot reload() {
+        long target = version.get();
+        Snapshot s = snapshot;
+        if (s != null && s.version() == target) return s; // Another thread already reloaded
+
+        List<ServiceDefinition> services = serviceDefinitionsService.getAll().stream()
+                .filter(ServiceDefinition::isAvailable)
+                .toList();
+
+        Map<Integer, Product> products = new LinkedHashMap<>();
+        Map<String, Product> productsByBarcode = new HashMap<>();
+        for (Product p : productService.getAll()) {
+            products.put(p.getId(), p);
+            if (p.getBarcode() != null) productsByBarcode.put(p.getBarcode(), p);
+        }
+
+        Map<Integer, PaymentMethod> paymentMethods = new HashMap<>();
+        for (PaymentMethod pm : paymentMethodsService.getAllPaymentMethods()) {
+            paymentMethods.put(pm.getId(), pm);
+        }
+
+        syncIndexes(services, products);
+
+        s = new Snapshot(target, services, products, productsByBarcode, paymentMethods);
+        snapshot = s;
+        logger.info("{} Catalog loaded (version {}): {} services, {} products, {} payment methods",
+                PREFIX, target, services.size(), products.size(), paymentMethods.size());
+        return s;
+    }
+
+    private static Product withStock(Product p, int stock) {
+        return Product.builder()
+                .id(p.getId())
+                .name(p.getName())
+                .costPrice(p.getCostPrice())
+                .unitPrice(p.getUnitPrice())
+                .stock(stock)
+                .barcode(p.getBarcode())
+                .category(p.getCategory())
+                .brand(p.getBrand())
+                .imagePath(p.getImagePath())
+                .notes(p.getNotes())
+                .build();
+    }
+
+    /** Re-indexes new or renamed items and drops the ones no longer in the catalog. */
+    private void syncIndexes(List<ServiceDefinition> services, Map<Integer, Product> products) {
+        for (ServiceDefinition def : services) {
+            serviceIndex.put(def.getId(), def, def.getName());
+        }
+        serviceIndex.retainOnly(services.stream().map(ServiceDefinition::getId).toList());
+
+        for (Product p : products.values()) {
+            productIndex.put(p.getId(), p, p.getName(), p.getBarcode());
+        }
+        productIndex.retainOnly(products.keySet());
+    }
+}
@@ -0,0 +1,154 @@
+package app.barbman.core.service.catalog;
+
+import app.barbman.core.util.TextFormatterUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Sorted term index for as-you-type catalog lookup.
+ *
+ * Every word of an item's name (and any extra codes such as a barcode) is a key of a
+ * {@link TreeMap}, so all items having a word that starts with the typed prefix are
+ * one {@code subMap} range away instead of a scan over the whole catalog.
+ * Matching is accent- and case-insensitive; a multi-word query must prefix-match
+ * one term per typed word ("pom mat" finds "Pomada mate").
+ *
+ * Updates are per item: {@link #put} only re-tokenizes when the name or codes changed,
+ * so refreshing the index after a catalog reload costs a diff, not a rebuild.
+ */
+public final class PrefixIndex<T> {
+
+    private record Entry<T>(T value, String name, List<String> terms) {}
+
+    // Guarded by "this"
+    private final NavigableMap<String, Set<Integer>> terms = new TreeMap<>();
+    private final Map<Integer, Entry<T>> entries = new HashMap<>();
+
+    // ============================================================
+    // SEARCH
+    // ============================================================
+
+    /**
+     * Up to {@code limit} items matching the query and the filter: items whose name starts
+     * with the query first, then the rest, each group in name order.
+     * A blank query matches nothing.
+     */
+    public synchronized List<T> search(String query, int limit, Predicate<T> filter) {
+        String q = TextFormatterUtil.normalizeForSearch(query);
+        if (q.isEmpty() || limit <= 0) return List.of();
+
+        String[] words = q.split(" ");
+        List<Entry<T>> hits = new ArrayList<>();
+        for (Integer id : idsWithPrefix(mostSelective(words))) {
+            Entry<T> e = entries.get(id);
+            if (matchesAll(e, words) && filter.test(e.value())) hits.add(e);
+        }
+
+        hits.sort(Comparator.<Entry<T>>comparingInt(e -> e.name().startsWith(q) ? 0 : 1)
+                .thenComparing(Entry::name));
+        return hits.stream().limit(limit).map(Entry::value).toList();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // ============================================================
+    // MAINTENANCE
+    // ============================================================
+
+    /** Adds or refreshes an item. Codes are indexed as whole terms next to the name's words. */
+    public synchronized void put(int id, T value, String name, String... codes) {
+        String normalized = TextFormatterUtil.normalizeForSearch(name);
+        List<String> newTerms = new ArrayList<>(Arrays.asList(normalized.split(" ")));
+        for (String code : codes) {
+            String c = TextFormatterUtil.normalizeForSearch(code);
+            if (!c.isEmpty()) newTerms.add(c);
+        }
+
+        Entry<T> old = entries.get(id);
+        if (old != null && old.terms().equals(newTerms)) {
+            entries.put(id, new Entry<>(value, normalized, old.terms())); // Same terms: swap the value only
+            return;
+        }
+        if (old != null) unlink(id, old);
+
+        entries.put(id, new Entry<>(value, normalized, newTerms));
+        for (String term : newTerms) {
+            if (!term.isEmpty()) terms.computeIfAbsent(term, k -> new HashSet<>()).add(id);
+        }
+    }
+
+    public synchronized void remove(int id) {
+        Entry<T> old = entries.remove(id);
+        if (old != null) unlink(id, old);
+    }
+
+    /** Removes every item whose ID is not in {@code ids}. */
+    public synchronized void retainOnly(Collection<Integer> ids) {
+        Set<Integer> keep = new HashSet<>(ids);
+        for (Integer id : new ArrayList<>(entries.keySet())) {
+            if (!keep.contains(id)) remove(id);
+        }
+    }
+
+    // ============================================================
+    // INTERNALS
+    // ============================================================
+
+    private NavigableMap<String, Set<Integer>> range(String prefix) {
+        return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    /** Typed word matching the fewest items ("producto 12" is driven by "12"). */
+    private String mostSelective(String[] words) {
+        String best = words[0];
+        int bestCount = Integer.MAX_VALUE;
+        for (String word : words) {
+            int count = 0;
+            for (Set<Integer> group : range(word).values()) {
+                count += group.size();
+                if (count >= bestCount) break; // Already worse than the best, stop counting
+            }
+            if (count < bestCount) {
+                best = word;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+
+    private Set<Integer> idsWithPrefix(String prefix) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (Set<Integer> group : range(prefix).values()) {
+            ids.addAll(group);
+        }
+        return ids;
+    }
+
+    private static boolean matchesAll(Entry<?> e, String[] words) {
+        for (String word : words) {
+            if (e.terms().stream().noneMatch(t -> t.startsWith(word))) return false;
+        }
+        return true;
+    }
+
+    private void unlink(int id, Entry<T> entry) {
+        for (String term : entry.terms()) {
+            Set<Integer> ids = terms.get(term);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) terms.remove(term);
+        }
+    }
+}
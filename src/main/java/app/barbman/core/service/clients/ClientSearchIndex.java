@@ -0,0 +1,227 @@
+package app.barbman.core.service.clients;
+
+import app.barbman.core.model.human.Client;
+import app.barbman.core.repositories.client.ClientRepository;
+import app.barbman.core.util.TextFormatterUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory trigram index over active clients (name, document, phone) for
+ * search-as-you-type pickers.
+ *
+ * Matching is accent- and case-insensitive. Results are ranked:
+ * name/word prefix, then substring (name, document or phone digits), then fuzzy
+ * matches by trigram similarity, so "gonzales" still finds "González".
+ *
+ * Owned by a {@link ClientService} and built lazily from that service's repository
+ * on first use, then kept in sync on register, update and (soft) delete. Several
+ * services can be alive at once (one per controller), so every change also bumps a
+ * shared counter: an index that missed a change made through another service
+ * rebuilds itself on next use.
+ */
+public class ClientSearchIndex {
+
+    private static final Logger logger = LogManager.getLogger(ClientSearchIndex.class);
+    private static final String PREFIX = "[CLIENT-INDEX]";
+
+    /** Bumped on every change made through any index. */
+    private static final AtomicLong CHANGES = new AtomicLong();
+
+    /** Minimum share of the query's trigrams a client must contain to be a fuzzy match. */
+    private static final double FUZZY_THRESHOLD = 0.5;
+
+    private static final double SCORE_PREFIX = 3.0;
+    private static final double SCORE_SUBSTRING = 2.0;
+
+    private record Entry(Client client, String name, String[] words, String digits, Set<String> grams) {}
+    private record Hit(Entry entry, double score) {}
+
+    private final ClientRepository repo;
+
+    // Guarded by "this"
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final Map<String, Set<Integer>> postings = new HashMap<>();
+    private boolean loaded;
+    private long seenChanges;
+
+    public ClientSearchIndex(ClientRepository repo) {
+        this.repo = repo;
+    }
+
+    // ============================================================
+    // SEARCH
+    // ============================================================
+
+    /**
+     * Best {@code limit} active clients for the typed text, best first.
+     * A blank query returns the first clients in name order; {@code limit <= 0} returns nothing.
+     */
+    public synchronized List<Client> search(String query, int limit) {
+        if (limit <= 0) return List.of();
+        ensureLoaded();
+        String q = TextFormatterUtil.normalizeForSearch(query);
+        if (q.isEmpty()) return allActive().stream().limit(limit).toList();
+
+        String qDigits = digitsOf(query);
+        Set<String> qGrams = trigrams(q);
+
+        // Candidates: anything sharing a trigram. Short queries have too few trigrams
+        // to be selective, so they scan every entry (still only a few thousand).
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String gram : qGrams) {
+            Set<Integer> ids = postings.get(gram);
+            if (ids == null) continue;
+            for (Integer id : ids) shared.merge(id, 1, Integer::sum);
+        }
+        Iterable<Entry> candidates = q.length() < 3
+                ? entries.values()
+                : shared.keySet().stream().map(entries::get).toList();
+
+        PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Hit::score));
+        for (Entry e : candidates) {
+            double score = score(e, q, qDigits, qGrams, shared.getOrDefault(e.client().getId(), 0));
+            if (score <= 0) continue;
+
+            top.add(new Hit(e, score));
+            if (top.size() > limit) top.poll();
+        }
+
+        List<Hit> ranked = new ArrayList<>(top);
+        ranked.sort(Comparator.comparingDouble(Hit::score).reversed()
+                .thenComparing(h -> h.entry().name()));
+        return ranked.stream().map(h -> h.entry().client()).toList();
+    }
+
+    /** All active clients sorted by name (case-insensitive). */
+    public synchronized List<Client> allActive() {
+        ensureLoaded();
+        return entries.values().stream()
+                .sorted(Comparator.comparing(Entry::name))
+                .map(Entry::client)
+                .toList();
+    }
+
+    // ============================================================
+    // MAINTENANCE
+    // ============================================================
+
+    /** Adds or refreshes a client; inactive clients are removed from the index. */
+    public synchronized void put(Client client) {
+        recordChange(() -> {
+            removeEntry(client.getId());
+            if (client.isActive()) add(client);
+        });
+    }
+
+    public synchronized void remove(int clientId) {
+        recordChange(() -> removeEntry(clientId));
+    }
+
+    /** Drops the index; it is rebuilt from the database on next use. */
+    public synchronized void invalidate() {
+        entries.clear();
+        postings.clear();
+        loaded = false;
+    }
+
+    // ============================================================
+    // INTERNALS
+    // ============================================================
+
+    /**
+     * Applies a change in place when this index is up to date, and bumps the shared
+     * counter either way so the other indexes reload.
+     */
+    private void recordChange(Runnable change) {
+        if (loaded && CHANGES.compareAndSet(seenChanges, seenChanges + 1)) {
+            change.run();
+            seenChanges++;
+        } else {
+            CHANGES.incrementAndGet(); // Picked up by the next (re)load
+        }
+    }
+
+    /** Loaded and no change has been made through another index since. */
+    private boolean isCurrent() {
+        return loaded && seenChanges == CHANGES.get();
+    }
+
+    private void ensureLoaded() {
+        if (isCurrent()) return;
+        entries.clear();
+        postings.clear();
+        // Read before loading: a change made during the load triggers another one
+        seenChanges = CHANGES.get();
+        List<Client> clients = repo.findAllActive();
+        loaded = true;
+        for (Client c : clients) add(c);
+        logger.info("{} Indexed {} active clients ({} trigrams)", PREFIX, entries.size(), postings.size());
+    }
+
+    private void removeEntry(int clientId) {
+        Entry old = entries.remove(clientId);
+        if (old == null) return;
+        for (String gram : old.grams()) {
+            Set<Integer> ids = postings.get(gram);
+            if (ids != null && ids.remove(clientId) && ids.isEmpty()) postings.remove(gram);
+        }
+    }
+
+    private void add(Client client) {
+        String name = TextFormatterUtil.normalizeForSearch(client.getName());
+        String digits = digitsOf(client.getDocument()) + " " + digitsOf(client.getPhone());
+
+        Set<String> grams = trigrams(name);
+        grams.addAll(trigrams(digits.trim()));
+
+        Entry entry = new Entry(client, name, name.split(" "), digits, grams);
+        entries.put(client.getId(), entry);
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, k -> new HashSet<>()).add(client.getId());
+        }
+    }
+
+    private static double score(Entry e, String q, String qDigits, Set<String> qGrams, int sharedGrams) {
+        if (e.name().startsWith(q)) return SCORE_PREFIX + 0.5;
+        for (String word : e.words()) {
+            if (word.startsWith(q)) return SCORE_PREFIX;
+        }
+        if (e.name().contains(q)) return SCORE_SUBSTRING;
+        if (qDigits.length() >= 3 && e.digits().contains(qDigits)) return SCORE_SUBSTRING;
+
+        if (sharedGrams == 0) return 0;
+        // Containment rather than Jaccard: a client has many more trigrams (full name,
+        // document, phone) than what is typed, which would drown the similarity
+        double similarity = (double) sharedGrams / qGrams.size();
+        return similarity >= FUZZY_THRESHOLD ? similarity : 0;
+    }
+
+    /** Trigrams of each word, padded so word starts weigh more ("  g", " go", "gon", ...). */
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        if (text.isEmpty()) return grams;
+        for (String word : text.split(" ")) {
+            if (word.isEmpty()) continue;
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+
+    private static String digitsOf(String s) {
+        return s == null ? "" : s.replaceAll("\\D", "");
+    }
+}
@@ -1,7 +1,7 @@
 package app.barbman.core.service.clients;
 
 import app.barbman.core.model.human.Client;
-import app.barbman.core.repositories.client.ClientRepositoryImpl;
+import app.barbman.core.repositories.client.ClientRepository;
 import app.barbman.core.util.RucValidator;
 import app.barbman.core.util.SessionManager;
 import org.apache.logging.log4j.LogManager;
@@ -14,17 +14,21 @@ public class ClientService {
     private static final Logger logger = LogManager.getLogger(ClientService.class);
     private static final String PREFIX = "[CLIENT-SERVICE]";
 
-    private final ClientRepositoryImpl repo;
+    private final ClientRepository repo;
+    private final ClientSearchIndex searchIndex;
 
-    public ClientService(ClientRepositoryImpl repo) {
+    public ClientService(ClientRepository repo) {
         this.repo = repo;
+        this.searchIndex = new ClientSearchIndex(repo);
     }
 
     /**
      * Registers a new client after validating required fields.
      * Only name is required. Phone, email, document, and notes are optional.
+     *
+     * @return the persisted client (with its generated ID)
      */
-    public void registerClient(String name, String document, String phone, String email, String notes) {
+    public Client registerClient(String name, String document, String phone, String email, String notes) {
 
         // Only name is required
         if (name == null || name.isBlank()) {
@@ -40,25 +44,42 @@ public class ClientService {
                 .active(true)
                 .build();
         repo.save(c);
+        searchIndex.put(c);
 
         logger.info("{} Client registered -> {} (ID {})", PREFIX, name, c.getId());
+        return c;
     }
 
     public List<Client> findAll() {
         return repo.findAll();
     }
 
+    /**
+     * Search-as-you-type over active clients (name, document, phone):
+     * prefix and substring matches first, then fuzzy matches. Served from memory.
+     */
+    public List<Client> search(String query, int limit) {
+        return searchIndex.search(query, limit);
+    }
+
+    /** Active clients sorted by name, served from the search index. */
+    public List<Client> findAllActive() {
+        return searchIndex.allActive();
+    }
+
     public Client findById(int id) {
         return repo.findById(id);
     }
 
     public void update(Client c) {
         repo.update(c);
+        searchIndex.put(c);
         logger.info("{} Client updated -> {}", PREFIX, c.getId());
     }
 
     public void delete(int id) {
         repo.delete(id);
+        searchIndex.remove(id);
         logger.info("{} Client deleted -> {}", PREFIX, id);
     }
     public void softDelete(int id) {
@@ -66,6 +87,7 @@ public class ClientService {
         if (client != null) {
             client.setActive(false);  // Soft delete
             repo.update(client);
+            searchIndex.remove(id);
             logger.info("{} Client soft deleted (set inactive) -> ID {}", PREFIX, id);
         }
     }
@@ -1,14 +1,19 @@
 package app.barbman.core.service.expenses;
 
+import app.barbman.core.infrastructure.ArchiveDatabase;
+import app.barbman.core.infrastructure.GroupCommitQueue;
 import app.barbman.core.model.Expense;
 import app.barbman.core.model.cashbox.CashboxMovement;
 import app.barbman.core.model.cashbox.CashboxOpening;
+import app.barbman.core.repositories.archive.ArchiveRepository;
+import app.barbman.core.repositories.archive.ArchiveRepositoryImpl;
 import app.barbman.core.repositories.cashbox.movement.CashboxMovementRepository;
 import app.barbman.core.repositories.cashbox.movement.CashboxMovementRepositoryImpl;
 import app.barbman.core.repositories.expense.ExpenseRepository;
 import app.barbman.core.repositories.expense.ExpenseRepositoryImpl;
 import app.barbman.core.service.cashbox.CashboxService;
 import app.barbman.core.util.legacy.LegacyExpenseRepository;
+import jakarta.persistence.EntityManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -17,6 +22,7 @@ import java.time.LocalDateTime;
 import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 public class ExpensesService {
 
@@ -26,6 +32,7 @@ public class ExpensesService {
     private final ExpenseRepository expenseRepo;
     private final CashboxMovementRepository movementRepo = new CashboxMovementRepositoryImpl();
     private final LegacyExpenseRepository legacyExpenseRepo;
+    private final ArchiveRepository archiveRepo = new ArchiveRepositoryImpl();
     private final CashboxService cashboxService;
 
     public ExpensesService(ExpenseRepository expenseRepo, CashboxService cashboxService) {
@@ -34,7 +41,7 @@ public class ExpensesService {
         this.cashboxService = cashboxService;
     }
 
-    public void registerExpense(String type, double amount, String description, int paymentMethodId, int userId) {
+    public void registerExpense(String type, long amount, String description, int paymentMethodId, int userId) {
         if (type == null || type.isBlank()) {
             throw new IllegalArgumentException("Expense type must not be empty.");
         }
@@ -46,24 +53,36 @@ public class ExpensesService {
         }
 
         LocalDate today = LocalDate.now();
-
-        Expense expense = Expense.builder()
-                .description(description)
-                .amount(amount)
-                .date(today)
-                .type(type)
-                .paymentMethodId(paymentMethodId)
-                .build();
-        expenseRepo.save(expense);
-
-        movementRepo.save(buildMovement("EXPENSE", "OUT", amount, paymentMethodId,
-                "EXPENSE", expense.getId(), "Expense registered", userId));
+        Integer openingId = getCurrentOpeningId();
+        Expense expense = inTransaction(em -> {
+            Expense e = Expense.builder()
+                    .description(description)
+                    .amount(amount)
+                    .date(today)
+                    .type(type)
+                    .paymentMethodId(paymentMethodId)
+                    .build();
+            expenseRepo.save(e, em);
+            movementRepo.save(buildMovement("EXPENSE", "OUT", amount, paymentMethodId,
+                    "EXPENSE", e.getId(), "Expense registered", userId, openingId), em);
+            return e;
+        });
 
         logger.info("{} Expense registered -> type={}, amount={}, method={}, date={}, expenseID={}",
                 PREFIX, type, amount, paymentMethodId, today, expense.getId());
     }
 
-    public Expense registerAdvanceExpense(int userId, double amount, int paymentMethodId) {
+    public Expense registerAdvanceExpense(int userId, long amount, int paymentMethodId) {
+        Integer openingId = getCurrentOpeningId();
+        return inTransaction(em -> registerAdvanceExpense(userId, amount, paymentMethodId, openingId, em));
+    }
+
+    /**
+     * Advance expense + its cashbox movement within a caller-managed transaction.
+     * The opening is resolved once by the caller (see {@link #getCurrentOpeningId()}).
+     */
+    public Expense registerAdvanceExpense(int userId, long amount, int paymentMethodId,
+                                          Integer openingId, EntityManager em) {
         LocalDate date = LocalDate.now();
         String description = String.format("Advance | user_id: %d | date %s", userId, date);
 
@@ -74,18 +93,27 @@ public class ExpensesService {
                 .type("advance")
                 .paymentMethodId(paymentMethodId)
                 .build();
-        expenseRepo.save(expense);
+        expenseRepo.save(expense, em);
 
         logger.info("{} Advance expense created -> user={}, amount={}, method={}, expenseID={}",
                 PREFIX, userId, amount, paymentMethodId, expense.getId());
 
         movementRepo.save(buildMovement("EXPENSE", "OUT", amount, paymentMethodId,
-                "EXPENSE", expense.getId(), "Advance registered", userId));
+                "EXPENSE", expense.getId(), "Advance registered", userId, openingId), em);
 
         return expense;
     }
 
-    public Expense registerSalaryExpense(int userId, double amount, int paymentMethodId) {
+    public Expense registerSalaryExpense(int userId, long amount, int paymentMethodId) {
+        Integer openingId = getCurrentOpeningId();
+        return inTransaction(em -> registerSalaryExpense(userId, amount, paymentMethodId, openingId, em));
+    }
+
+    /**
+     * Salary expense + its cashbox movement within a caller-managed transaction.
+     */
+    public Expense registerSalaryExpense(int userId, long amount, int paymentMethodId,
+                                         Integer openingId, EntityManager em) {
         LocalDate date = LocalDate.now();
         String description = String.format("Salary | user_id: %d | date %s | method %d",
                 userId, date, paymentMethodId);
@@ -97,10 +125,10 @@ public class ExpensesService {
                 .type("salary")
                 .paymentMethodId(paymentMethodId)
                 .build();
-        expenseRepo.save(expense);
+        expenseRepo.save(expense, em);
 
         movementRepo.save(buildMovement("EXPENSE", "OUT", amount, paymentMethodId,
-                "EXPENSE", expense.getId(), "Salary registered", userId));
+                "EXPENSE", expense.getId(), "Salary registered", userId, openingId), em);
 
         logger.info("{} Salary expense created -> user={}, amount={}, method={}, expenseID={}",
                 PREFIX, userId, amount, paymentMethodId, expense.getId());
@@ -108,16 +136,32 @@ public class ExpensesService {
         return expense;
     }
 
+    /**
+     * ID of the open cashbox, or null. Resolve it once before a transaction that
+     * registers several expenses instead of querying per movement.
+     */
+    public Integer getCurrentOpeningId() {
+        CashboxOpening currentOpening = cashboxService.getCurrentOpening();
+        return currentOpening != null ? currentOpening.getId() : null;
+    }
+
     public void deleteExpense(int expenseId) {
+        Expense expense = expenseRepo.findById(expenseId);
+        if (expense != null && isInClosedPeriod(expense)) {
+            throw new IllegalStateException("Expense " + expenseId + " belongs to a closed cashbox period.");
+        }
         try {
             logger.warn("{} Deleting expense ID={}", PREFIX, expenseId);
-            var movements = movementRepo.findByReference("EXPENSE", expenseId);
-            for (var movement : movements) {
-                movementRepo.delete(movement.getId());
-                logger.debug("{} Deleted movement ID={}", PREFIX, movement.getId());
-            }
-            logger.info("{} Deleted {} cashbox movements for expense {}", PREFIX, movements.size(), expenseId);
-            expenseRepo.delete(expenseId);
+            // Movements and expense go in one writer transaction: never a movement without its expense
+            int deletedMovements = GroupCommitQueue.getInstance().execute(em -> {
+                List<CashboxMovement> movements = movementRepo.findByReference("EXPENSE", expenseId, em);
+                for (CashboxMovement movement : movements) {
+                    movementRepo.delete(movement.getId(), em);
+                }
+                expenseRepo.delete(expenseId, em);
+                return movements.size();
+            });
+            logger.info("{} Deleted {} cashbox movements for expense {}", PREFIX, deletedMovements, expenseId);
             logger.info("{} Expense deleted (movements + expense + related salary/advance)", PREFIX);
         } catch (Exception e) {
             logger.error("{} Error deleting expense ID {}: {}", PREFIX, expenseId, e.getMessage());
@@ -128,6 +172,10 @@ public class ExpensesService {
     public List<Expense> findAll() {
         try {
             List<Expense> combined = new ArrayList<>(legacyExpenseRepo.findAll());
+            // One archive file at a time: never more attached than one year
+            for (int year : ArchiveDatabase.allYears()) {
+                combined.addAll(archiveRepo.findArchivedExpenses(year));
+            }
             combined.addAll(expenseRepo.findAll());
             return combined;
         } catch (Exception e) {
@@ -136,23 +184,34 @@ public class ExpensesService {
         }
     }
 
-    public double getTotalForPaymentMethodInPeriod(int paymentMethodId, LocalDate start, LocalDate end) {
+    /** True if the expense was moved to an archive file (archived years are read-only). */
+    public boolean isArchived(Expense expense) {
+        return ArchiveDatabase.allYears().contains(expense.getDate().getYear())
+                && expenseRepo.findById(expense.getId()) == null;
+    }
+
+    /** True if the expense belongs to a closed cashbox period (its report is frozen). */
+    public boolean isInClosedPeriod(Expense expense) {
+        return cashboxService.isInClosedPeriod("EXPENSE", expense.getId(), expense.getDate());
+    }
+
+    public long getTotalForPaymentMethodInPeriod(int paymentMethodId, LocalDate start, LocalDate end) {
         return expenseRepo.sumTotalByPaymentMethodAndPeriod(paymentMethodId, start, end);
     }
 
-    public double getTodayTotal() {
+    public long getTodayTotal() {
         LocalDate today = LocalDate.now();
         return expenseRepo.sumTotalByPeriod(today, today);
     }
 
-    public double getWeekTotal() {
+    public long getWeekTotal() {
         LocalDate today = LocalDate.now();
         LocalDate startOfWeek = today.with(TemporalAdjusters.previousOrSame(java.time.DayOfWeek.MONDAY));
         LocalDate endOfWeek = today.with(TemporalAdjusters.nextOrSame(java.time.DayOfWeek.SUNDAY));
         return expenseRepo.sumTotalByPeriod(startOfWeek, endOfWeek);
     }
 
-    public double getMonthTotal() {
+    public long getMonthTotal() {
         LocalDate today = LocalDate.now();
         LocalDate startOfMonth = today.with(TemporalAdjusters.firstDayOfMonth());
         LocalDate endOfMonth = today.with(TemporalAdjusters.lastDayOfMonth());
@@ -163,12 +222,20 @@ public class ExpensesService {
         logger.debug("{} Repository health check executed successfully.", PREFIX);
     }
 
-    private CashboxMovement buildMovement(String movementType, String direction, double amount,
+    /** Runs the work in a group-committed transaction (see GroupCommitQueue). */
+    private <T> T inTransaction(Function<EntityManager, T> work) {
+        try {
+            return GroupCommitQueue.getInstance().execute(work);
+        } catch (Exception e) {
+            logger.error("{} Expense transaction failed, rolled back: {}", PREFIX, e.getMessage(), e);
+            throw new RuntimeException("Expense could not be registered", e);
+        }
+    }
+
+    private CashboxMovement buildMovement(String movementType, String direction, long amount,
                                           Integer paymentMethodId, String refType, Integer refId,
-                                          String description, Integer userId) {
+                                          String description, Integer userId, Integer openingId) {
         LocalDateTime now = LocalDateTime.now();
-        CashboxOpening currentOpening = cashboxService.getCurrentOpening();
-        Integer openingId = currentOpening != null ? currentOpening.getId() : null;
 
         return CashboxMovement.builder()
                 .movementType(movementType)
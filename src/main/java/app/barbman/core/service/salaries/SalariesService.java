@@ -1,6 +1,7 @@
 package app.barbman.core.service.salaries;
 
 import app.barbman.core.dto.SalaryDTO;
+import app.barbman.core.infrastructure.GroupCommitQueue;
 import app.barbman.core.model.Expense;
 import app.barbman.core.model.salaries.Salary;
 import app.barbman.core.model.human.User;
@@ -10,10 +11,17 @@ import app.barbman.core.service.salaries.advances.AdvancesService;
 import app.barbman.core.service.expenses.ExpensesService;
 import app.barbman.core.service.salaries.period.SalaryPeriodResolver;
 import app.barbman.core.service.sales.services.ServiceHeaderService;
+import app.barbman.core.util.Money;
+import jakarta.persistence.EntityManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Handles salary calculations, salaries, and weekly salary DTO generation.
@@ -45,12 +53,15 @@ public class SalariesService {
 
     /**
      * Registers a salary payment and links it with its corresponding expense record.
+     * Carried debt (advance), expense, cashbox movement and salary are committed in
+     * a single transaction on the writer queue. {@code salary} is only a template:
+     * the persisted row is built inside that transaction.
      *
      * @param salary          Salary to be paid (must include userId, week range, and calculated amount)
      * @param paymentMethodId Payment method ID (links to payment_methods table)
      * @param bonus           Optional bonus amount to add to the payment
      */
-    public void paySalary(User user, Salary salary, int paymentMethodId, double bonus) {
+    public void paySalary(User user, Salary salary, int paymentMethodId, long bonus) {
         if (salary == null) throw new IllegalArgumentException("Salary is null");
 
         // Prevent duplicate payment
@@ -59,28 +70,112 @@ public class SalariesService {
         }
 
         salary.setAmountPaid(salary.getAmountPaid() + bonus);
-        salary.setPayDate(LocalDate.now());
-        salary.setPaymentMethodId(paymentMethodId);
+
+        Integer openingId = expensesService.getCurrentOpeningId();
+        try {
+            GroupCommitQueue.getInstance().execute(em ->
+                    persistPayment(salary, paymentMethodId, openingId, em));
+        } catch (Exception e) {
+            logger.error("{} Salary payment failed, rolled back: {}", PREFIX, e.getMessage(), e);
+            throw new RuntimeException("Salary could not be paid", e);
+        }
+    }
+
+    /**
+     * Pays every pending (not yet paid) salary of the period containing {@code referenceDate}
+     * in one transaction: either the whole payroll is settled or nothing is.
+     * Users with manual payment type (0) are skipped since their amount is entered by hand.
+     *
+     * @return the salaries that were paid
+     */
+    public List<Salary> payAllPending(List<User> users, LocalDate referenceDate, int paymentMethodId) {
+        Map<Integer, User> usersById = new HashMap<>();
+        for (User user : users) usersById.put(user.getId(), user);
+
+        List<Salary> pending = new ArrayList<>();
+        for (SalaryDTO dto : buildSalaryDTOs(users, referenceDate)) {
+            User user = usersById.get(dto.getUserId());
+            if (dto.isPaid() || user.getPaymentType() == 0) continue;
+
+            pending.add(Salary.builder()
+                    .userId(user.getId())
+                    .startDate(dto.getPeriodStart())
+                    .endDate(dto.getPeriodEnd())
+                    .totalProduction(dto.getProduction())
+                    .amountPaid(dto.getFinalAmount())
+                    .payTypeSnapshot(user.getPaymentType())
+                    .carriedDebt(Math.max(0, dto.getAdvances() - dto.getCalculatedAmount()))
+                    .build());
+        }
+        if (pending.isEmpty()) return pending;
+
+        Integer openingId = expensesService.getCurrentOpeningId();
+        List<Salary> paid;
+        try {
+            paid = GroupCommitQueue.getInstance().execute(em -> {
+                List<Salary> persisted = new ArrayList<>(pending.size());
+                for (Salary template : pending) {
+                    persisted.add(persistPayment(template, paymentMethodId, openingId, em));
+                }
+                return persisted;
+            });
+        } catch (Exception e) {
+            logger.error("{} Payroll payment failed, rolled back: {}", PREFIX, e.getMessage(), e);
+            throw new RuntimeException("Payroll could not be paid", e);
+        }
+
+        logger.info("{} Payroll paid -> {} salaries, method={}", PREFIX, paid.size(), paymentMethodId);
+        return paid;
+    }
+
+    /**
+     * Carried debt advance + salary expense/movement + salary row, within the caller's transaction.
+     * Every row is built here from {@code template}, so a retried transaction never
+     * re-persists an entity from a rolled back attempt.
+     */
+    private Salary persistPayment(Salary template, int paymentMethodId, Integer openingId, EntityManager em) {
+        if (template.getCarriedDebt() > 0) {
+            String description = String.format(
+                    "Deuda salarial pendiente del período %s - %s",
+                    template.getStartDate(),
+                    template.getEndDate()
+            );
+            advancesService.saveAdvance(template.getUserId(), template.getCarriedDebt(), 0, description, openingId, em);
+        }
 
         // Register expense for the user receiving the payment
         Expense expense = expensesService.registerSalaryExpense(
-                salary.getUserId(),
-                salary.getAmountPaid(),
-                paymentMethodId
+                template.getUserId(),
+                template.getAmountPaid(),
+                paymentMethodId,
+                openingId,
+                em
         );
 
         // Link salary to expense
-        salary.setExpenseId(expense.getId());
-        salariesRepository.save(salary);
+        Salary salary = Salary.builder()
+                .userId(template.getUserId())
+                .startDate(template.getStartDate())
+                .endDate(template.getEndDate())
+                .totalProduction(template.getTotalProduction())
+                .amountPaid(template.getAmountPaid())
+                .payTypeSnapshot(template.getPayTypeSnapshot())
+                .carriedDebt(template.getCarriedDebt())
+                .payDate(LocalDate.now())
+                .paymentMethodId(paymentMethodId)
+                .expenseId(expense.getId())
+                .build();
+        salariesRepository.save(salary, em);
 
         logger.info("{} Salary paid and expense linked -> user={}, amount={}, method={}, expenseID={}",
                 PREFIX, salary.getUserId(), salary.getAmountPaid(), paymentMethodId, expense.getId());
+        return salary;
     }
 
     /**
      * Calculates a user's salary for the current date range (Defined on User's configuration).
      */
-    public Salary calculateSalary(User user, LocalDate referenceDate, double bonus) {
+    public Salary calculateSalary(User user, LocalDate referenceDate, long bonus) {
         if (user == null) {
             throw new IllegalArgumentException("User is null");
         }
@@ -88,21 +183,21 @@ public class SalariesService {
         DateRange range =
                 salaryPeriodResolver.resolve(user, referenceDate);
 
-        double production =
+        long production =
                 servicesHeaderService.getProductionByUserAndDateRange(
                         user.getId(),
                         range.getStart(),
                         range.getEnd()
                 );
 
-        double advances =
+        long advances =
                 advancesService.getTotalByUserAndRange(
                         user.getId(),
                         range.getStart(),
                         range.getEnd()
                 );
 
-        double calculated =
+        long calculated =
                 calculateByPaymentType(
                         user.getPaymentType(),
                         production,
@@ -110,18 +205,13 @@ public class SalariesService {
                         user.getParam2()
                 );
 
-        double finalAmount = calculated + bonus - advances;
-
-        String description = String.format(
-                "Deuda salarial pendiente del período %s - %s",
-                range.getStart(),
-                range.getEnd()
-        );
+        long finalAmount = calculated + bonus - advances;
 
+        // Debt is carried to the next period as an advance, recorded by paySalary
+        long debt = 0;
         if (finalAmount < 0) {
-            double debt = Math.abs(finalAmount);
+            debt = Math.abs(finalAmount);
             finalAmount = 0;
-            advancesService.saveAdvance(user.getId(), debt, 0, description);
         }
 
         return Salary.builder()
@@ -131,28 +221,29 @@ public class SalariesService {
                 .totalProduction(production)
                 .amountPaid(finalAmount)
                 .payTypeSnapshot(user.getPaymentType())
+                .carriedDebt(debt)
                 .build();
     }
 
     /**
      * Calculates salary based on payment type.
      */
-    private double calculateByPaymentType(
+    private long calculateByPaymentType(
             int paymentType,
-            double production,
+            long production,
             double param1,
             double param2
     ) {
         return switch (paymentType) {
 
-            case 0 -> 0.0;
+            case 0 -> 0L;
             // Manual payment → the amount will be entered manually at pay time
 
             case 1 -> calculateProductionSalary(production, param1);
 
             case 2 -> calculateBasePlusPercent(production, param1, param2);
 
-            case 3 -> param1;
+            case 3 -> Money.of(param1);
             // Fixed amount (weekly / monthly / whatever the period is)
 
             case 4 -> calculateMinThresholdOrPercentage(production, param1, param2);
@@ -167,8 +258,8 @@ public class SalariesService {
     /**
      * Calculates salary based on production percentage.
      */
-    private double calculateProductionSalary(double production, double percentage) {
-        double result = production * percentage;
+    private long calculateProductionSalary(long production, double percentage) {
+        long result = Money.of(production * percentage);
         logger.debug("{} Production-based salary -> prod={}, percent={}, result={}", PREFIX, production, percentage, result);
         return result;
     }
@@ -176,8 +267,8 @@ public class SalariesService {
     /**
      * Calculates salary as base + production percentage.
      */
-    private double calculateBasePlusPercent(double production, double baseSalary, double percentage) {
-        double result = baseSalary + (production * percentage);
+    private long calculateBasePlusPercent(long production, double baseSalary, double percentage) {
+        long result = Money.of(baseSalary + (production * percentage));
         logger.debug("{} Base+percent salary -> prod={}, base={}, percent={}, result={}", PREFIX, production, baseSalary, percentage, result);
         return result;
     }
@@ -185,9 +276,9 @@ public class SalariesService {
     /**
      * Calculates salary with guaranteed minimum threshold.
      */
-    private double calculateMinThresholdOrPercentage(double production, double minThreshold, double percentage) {
-        double calculated = production * percentage;
-        double result = Math.max(minThreshold, calculated);
+    private long calculateMinThresholdOrPercentage(long production, double minThreshold, double percentage) {
+        long calculated = Money.of(production * percentage);
+        long result = Math.max(Money.of(minThreshold), calculated);
         logger.info("{} MinThresholdOrPercentage salary -> prod={}, min={}, percent={}, result={}",
                 PREFIX, production, minThreshold, percentage, result);
         return result;
@@ -205,21 +296,21 @@ public class SalariesService {
 
         DateRange range = salaryPeriodResolver.resolve(user, referenceDate);
 
-        double production =
+        long production =
                 servicesHeaderService.getProductionByUserAndDateRange(
                         user.getId(),
                         range.getStart(),
                         range.getEnd()
                 );
 
-        double advances =
+        long advances =
                 advancesService.getTotalByUserAndRange(
                         user.getId(),
                         range.getStart(),
                         range.getEnd()
                 );
 
-        double calculated =
+        long calculated =
                 calculateByPaymentType(
                         user.getPaymentType(),
                         production,
@@ -227,14 +318,76 @@ public class SalariesService {
                         user.getParam2()
                 );
 
-        double finalAmount = Math.max(0, calculated - advances);
-
         Salary existingSalary =
                 salariesRepository.findByUserAndDateWithinPeriod(
                         user.getId(),
                         referenceDate
                 );
 
+        return toSalaryDTO(user, range, production, advances, calculated, existingSalary);
+    }
+
+    /**
+     * Batch version of {@link #buildSalaryDTO} for the salaries table.
+     *
+     * Periods are resolved per user (they depend on pay frequency), then production,
+     * advances and already-paid salaries are loaded with one grouped query each over
+     * the envelope of all periods, and summed in memory per user over its own period.
+     * Three queries total regardless of the number of users.
+     */
+    public List<SalaryDTO> buildSalaryDTOs(List<User> users, LocalDate referenceDate) {
+        if (users.isEmpty()) return List.of();
+
+        Map<Integer, DateRange> ranges = new HashMap<>();
+        LocalDate from = null;
+        LocalDate to = null;
+        for (User user : users) {
+            DateRange range = salaryPeriodResolver.resolve(user, referenceDate);
+            ranges.put(user.getId(), range);
+            if (from == null || range.getStart().isBefore(from)) from = range.getStart();
+            if (to == null || range.getEnd().isAfter(to)) to = range.getEnd();
+        }
+
+        Collection<Integer> userIds = ranges.keySet();
+        Map<Integer, Map<LocalDate, Long>> productionByDay =
+                servicesHeaderService.getDailyProductionByUsers(userIds, from, to);
+        Map<Integer, Map<LocalDate, Long>> advancesByDay =
+                advancesService.getDailyTotalsByUsers(userIds, from, to);
+
+        Map<Integer, Salary> paidByUser = new HashMap<>();
+        for (Salary s : salariesRepository.findByUsersAndDateWithinPeriod(userIds, referenceDate)) {
+            paidByUser.putIfAbsent(s.getUserId(), s);
+        }
+
+        List<SalaryDTO> dtos = new ArrayList<>(users.size());
+        for (User user : users) {
+            DateRange range = ranges.get(user.getId());
+            long production = sumWithin(productionByDay.get(user.getId()), range);
+            long advances = sumWithin(advancesByDay.get(user.getId()), range);
+            long calculated = calculateByPaymentType(
+                    user.getPaymentType(), production, user.getParam1(), user.getParam2());
+
+            dtos.add(toSalaryDTO(user, range, production, advances, calculated, paidByUser.get(user.getId())));
+        }
+
+        logger.info("{} Built {} salary DTOs for {} ({} -> {})", PREFIX, dtos.size(), referenceDate, from, to);
+        return dtos;
+    }
+
+    private static long sumWithin(Map<LocalDate, Long> byDay, DateRange range) {
+        if (byDay == null) return 0L;
+        long total = 0L;
+        for (Map.Entry<LocalDate, Long> e : byDay.entrySet()) {
+            LocalDate d = e.getKey();
+            if (!d.isBefore(range.getStart()) && !d.isAfter(range.getEnd())) total += e.getValue();
+        }
+        return total;
+    }
+
+    private SalaryDTO toSalaryDTO(User user, DateRange range, long production, long advances,
+                                  long calculated, Salary existingSalary) {
+        long finalAmount = Math.max(0, calculated - advances);
+
         SalaryDTO dto = new SalaryDTO();
         dto.setUserId(user.getId());
         dto.setUsername(user.getName());
@@ -1,5 +1,6 @@
 package app.barbman.core.service.salaries.advances;
 
+import app.barbman.core.infrastructure.GroupCommitQueue;
 import app.barbman.core.model.salaries.Advance;
 import app.barbman.core.model.Expense;
 import app.barbman.core.repositories.salaries.advance.AdvanceRepository;
@@ -7,11 +8,14 @@ import app.barbman.core.repositories.salaries.advance.AdvanceRepositoryImpl;
 import app.barbman.core.repositories.expense.ExpenseRepository;
 import app.barbman.core.repositories.expense.ExpenseRepositoryImpl;
 import app.barbman.core.service.expenses.ExpensesService;
+import jakarta.persistence.EntityManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Handles creation, retrieval and total calculation of employee advances.
@@ -35,17 +39,35 @@ public class AdvancesService {
 
     /**
      * Registers a new advance for a specific user and automatically creates
-     * an Expense record linked to it.
+     * an Expense record linked to it. Expense, cashbox movement and advance are
+     * committed in a single transaction.
      *
      * @param userId ID of the barber receiving the advance
      * @param amount Amount of the advance
      * @param paymentMethodId Payment method used (cash, transfer, etc.)
      */
-    public void saveAdvance(int userId, double amount, int paymentMethodId, String description) {
+    public void saveAdvance(int userId, long amount, int paymentMethodId, String description) {
+        Integer openingId = expenseService.getCurrentOpeningId();
+
+        try {
+            GroupCommitQueue.getInstance().execute(em ->
+                    saveAdvance(userId, amount, paymentMethodId, description, openingId, em));
+        } catch (Exception e) {
+            logger.error("{} Advance failed, rolled back: {}", PREFIX, e.getMessage(), e);
+            throw new RuntimeException("Advance could not be registered", e);
+        }
+    }
+
+    /**
+     * Same as {@link #saveAdvance(int, long, int, String)} within a caller-managed
+     * transaction: expense, cashbox movement and advance are persisted with {@code em}.
+     */
+    public Advance saveAdvance(int userId, long amount, int paymentMethodId, String description,
+                               Integer openingId, EntityManager em) {
         LocalDate date = LocalDate.now();
 
         // Register the expense
-        Expense expense = expenseService.registerAdvanceExpense(userId, amount, paymentMethodId);
+        Expense expense = expenseService.registerAdvanceExpense(userId, amount, paymentMethodId, openingId, em);
 
         // Link advance to the expense
         Advance advance = Advance.builder()
@@ -56,10 +78,11 @@ public class AdvancesService {
                 .expenseId(expense.getId())
                 .description(description)
                 .build();
-        advanceRepo.save(advance);
+        advanceRepo.save(advance, em);
 
         logger.info("{} Advance registered -> user={}, amount={}, method={}, expenseID={}",
                 PREFIX, userId, amount, paymentMethodId, expense.getId());
+        return advance;
     }
 
     /**
@@ -79,7 +102,15 @@ public class AdvancesService {
     /**
      * Calculates total advances for a user in a given period.
      */
-    public double getTotalByUserAndRange(int userId, LocalDate from, LocalDate to) {
+    public long getTotalByUserAndRange(int userId, LocalDate from, LocalDate to) {
         return advanceRepo.getTotalByUserAndDateRange(userId, from, to);
     }
+
+    /**
+     * Advance totals per user per day for several users in one query: userId -> (date -> total).
+     */
+    public Map<Integer, Map<LocalDate, Long>> getDailyTotalsByUsers(Collection<Integer> userIds,
+                                                                     LocalDate from, LocalDate to) {
+        return advanceRepo.getTotalsByUsersPerDay(userIds, from, to);
+    }
 }
@@ -21,10 +21,9 @@ import app.barbman.core.repositories.sales.products.productsaleitem.*;
 import app.barbman.core.repositories.sales.products.product.*;
 
 import app.barbman.core.repositories.client.*;
-import app.barbman.core.repositories.paymentmethod.*;
 
+import app.barbman.core.service.catalog.CatalogCache;
 import app.barbman.core.service.clients.ClientService;
-import app.barbman.core.service.paymentmethods.PaymentMethodsService;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -53,9 +52,6 @@ public class SaleQueryService {
     private final ClientService clientService =
             new ClientService(new ClientRepositoryImpl());
 
-    private final PaymentMethodsService paymentService =
-            new PaymentMethodsService(new PaymentMethodRepositoryImpl());
-
     // =====================
     // MAIN API
     // =====================
@@ -91,7 +87,7 @@ public class SaleQueryService {
         // PAYMENT METHOD
         // =====================
         PaymentMethod pm =
-                paymentService.getPaymentMethodById(
+                CatalogCache.getInstance().getPaymentMethod(
                         sale.getPaymentMethodId()
                 );
 
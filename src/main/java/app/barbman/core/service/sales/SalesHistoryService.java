@@ -3,15 +3,29 @@ package app.barbman.core.service.sales;
 import app.barbman.core.dto.history.SaleDetailDTO;
 import app.barbman.core.dto.history.SaleHistoryDTO;
 import app.barbman.core.dto.history.SaleItemDTO;
+import app.barbman.core.infrastructure.ArchiveDatabase;
+import app.barbman.core.infrastructure.GroupCommitQueue;
+import app.barbman.core.model.cashbox.CashboxMovement;
+import app.barbman.core.model.sales.Sale;
+import app.barbman.core.model.sales.products.ProductHeader;
+import app.barbman.core.model.sales.services.ServiceHeader;
+import app.barbman.core.repositories.archive.ArchiveRepository;
+import app.barbman.core.repositories.archive.ArchiveRepositoryImpl;
+import app.barbman.core.repositories.cashbox.closure.CashboxClosureRepositoryImpl;
 import app.barbman.core.repositories.cashbox.movement.CashboxMovementRepository;
+import app.barbman.core.repositories.cashbox.opening.CashboxOpeningRepositoryImpl;
 import app.barbman.core.repositories.sales.SaleRepository;
+import app.barbman.core.repositories.sales.production.UserDailyProductionRepository;
+import app.barbman.core.repositories.sales.production.UserDailyProductionRepositoryImpl;
 import app.barbman.core.repositories.sales.products.product.ProductRepository;
 import app.barbman.core.repositories.sales.products.productheader.ProductHeaderRepository;
 import app.barbman.core.repositories.sales.products.productsaleitem.ProductSaleItemRepository;
 import app.barbman.core.repositories.sales.services.servicedefinition.ServiceDefinitionRepository;
 import app.barbman.core.repositories.sales.services.serviceheader.ServiceHeaderRepository;
 import app.barbman.core.repositories.sales.services.serviceitems.ServiceItemRepository;
+import app.barbman.core.service.cashbox.CashboxService;
 import app.barbman.core.util.legacy.LegacySaleRepository;
+import jakarta.persistence.EntityManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -39,6 +53,9 @@ public class SalesHistoryService {
 
     private final CashboxMovementRepository movementRepo;
     private final LegacySaleRepository legacySaleRepository;
+    private final UserDailyProductionRepository productionRepository = new UserDailyProductionRepositoryImpl();
+    private final ArchiveRepository archiveRepo = new ArchiveRepositoryImpl();
+    private final CashboxService cashboxService;
 
     public SalesHistoryService(
             SaleRepository saleRepo,
@@ -60,6 +77,8 @@ public class SalesHistoryService {
         this.productRepo = productRepo;
         this.movementRepo = movementRepo;
         this.legacySaleRepository = legacySaleRepository;
+        this.cashboxService = new CashboxService(
+                new CashboxOpeningRepositoryImpl(), new CashboxClosureRepositoryImpl(), movementRepo);
     }
 
     // ============================================================
@@ -105,14 +124,24 @@ public class SalesHistoryService {
 
     /**
      * Returns complete detail of a sale including all items.
+     * {@code date} (the sale's date, as listed in the history) locates archived sales;
+     * null looks in the live database only.
      */
-    public SaleDetailDTO getSaleDetail(int saleId) {
+    public SaleDetailDTO getSaleDetail(int saleId, LocalDate date) {
         logger.info("{} Fetching detail for sale ID={}", PREFIX, saleId);
 
         // Get sale header
         SaleDetailDTO detail = saleRepo.findSaleHeaderDetail(saleId);
 
         if (detail == null) {
+            // Not in the live database: it may belong to its year's archive (items come with it)
+            SaleDetailDTO archived = date != null && ArchiveDatabase.allYears().contains(date.getYear())
+                    ? archiveRepo.findSaleDetail(saleId, date.getYear())
+                    : null;
+            if (archived != null) {
+                logger.info("{} Sale ID={} loaded from archive", PREFIX, saleId);
+                return archived;
+            }
             logger.warn("{} Sale ID={} not found", PREFIX, saleId);
             return null;
         }
@@ -213,107 +242,38 @@ public class SalesHistoryService {
     // DELETE SALE
     // ============================================================
 
+    /** True if the sale belongs to a closed cashbox period (its report is frozen). */
+    public boolean isInClosedPeriod(int saleId, LocalDate date) {
+        return cashboxService.isInClosedPeriod("SALE", saleId, date);
+    }
+
     /**
      * Deletes a sale completely with all related data (admin only).
      * Manually deletes in correct order since CASCADE was removed.
      *
      * Deletion order:
-     * 1. Service items (by service_header_id)
-     * 2. Service headers (by sale_id)
-     * 3. Product sale items (by product_header_id)
-     * 4. Product sales (by sale_id)
-     * 5. Cashbox movements (by reference to sale)
-     * 6. Sale itself
+     * 1. Service items and header, minus their total in the daily production aggregate
+     * 2. Product sale items and header, minus their total in the daily production aggregate
+     * 3. Cashbox movements (by reference to sale)
+     * 4. Sale itself
+     *
+     * Everything runs in one transaction through the single writer, so a failure leaves
+     * neither orphan rows nor a production aggregate out of step with the sales.
+     * Refused for a sale of a closed cashbox period: its report is frozen in a snapshot.
      */
     public void deleteSaleComplete(int saleId) {
         logger.warn("{} Starting complete deletion of sale ID={}", PREFIX, saleId);
 
-        try {
-            // ==================================================
-            // 1. DELETE SERVICE SIDE
-            // ==================================================
-            logger.debug("{} [Using ServiceHeaderRepository] Finding service header for sale {}",
-                    PREFIX, saleId);
-
-            var serviceHeader = serviceHeaderRepo.findBySaleId(saleId);
-
-            if (serviceHeader != null) {
-                logger.info("{} Found service header ID={} for sale {}",
-                        PREFIX, serviceHeader.getId(), saleId);
-
-                // 1.1 Delete service items first
-                logger.debug("{} [Using ServiceItemRepository] Deleting items for header {}",
-                        PREFIX, serviceHeader.getId());
-
-                var serviceItems = serviceItemRepo.findByServiceId(serviceHeader.getId());
-                logger.info("{} Found {} service items to delete", PREFIX, serviceItems.size());
-
-                for (var item : serviceItems) {
-                    serviceItemRepo.delete(item.getId());
-                    logger.debug("{} Deleted service item ID={}", PREFIX, item.getId());
-                }
-
-                // 1.2 Delete service header
-                serviceHeaderRepo.delete(serviceHeader.getId());
-                logger.info("{} Deleted service header ID={}", PREFIX, serviceHeader.getId());
-
-            } else {
-                logger.debug("{} No service header found for sale {}", PREFIX, saleId);
-            }
-
-            // ==================================================
-            // 2. DELETE PRODUCT SIDE
-            // ==================================================
-            logger.debug("{} [Using ProductHeaderRepository] Finding product sales for sale {}",
-                    PREFIX, saleId);
-
-            var productHeader = productHeaderRepo.findBySaleId(saleId);
-
-            if (productHeader != null) {
-                logger.info("{} Found product header ID={} for sale {}",
-                        PREFIX, productHeader.getId(), saleId);
-
-                // 2.1 Delete product sale items first
-                logger.debug("{} [Using ProductSaleItemRepository] Deleting items for header {}",
-                        PREFIX, productHeader.getId());
-
-                var productItems = productSaleItemRepo.findBySaleId(productHeader.getId());
-                logger.info("{} Found {} product items to delete", PREFIX, productItems.size());
-
-                for (var item : productItems) {
-                    productSaleItemRepo.delete(item.getId());
-                    logger.debug("{} Deleted product item ID={}", PREFIX, item.getId());
-                }
-
-                // 2.2 Delete product header
-                productHeaderRepo.delete(productHeader.getId());
-                logger.info("{} Deleted product header ID={}", PREFIX, productHeader.getId());
-
-            } else {
-                logger.debug("{} No product header found for sale {}", PREFIX, saleId);
-            }
-
-            // ==================================================
-            // 3. DELETE CASHBOX MOVEMENTS
-            // ==================================================
-            logger.debug("{} [Using CashboxMovementRepository] Deleting movements for sale {}",
-                    PREFIX, saleId);
-
-            var movements = movementRepo.findByReference("SALE", saleId);
-            logger.info("{} Found {} cashbox movements to delete", PREFIX, movements.size());
-
-            for (var movement : movements) {
-                movementRepo.delete(movement.getId());
-                logger.debug("{} Deleted cashbox movement ID={}", PREFIX, movement.getId());
-            }
-
-            // ==================================================
-            // 4. DELETE SALE
-            // ==================================================
-            logger.debug("{} [Using SaleRepository] Deleting sale {}", PREFIX, saleId);
-            saleRepo.delete(saleId);
-            logger.info("{} Deleted sale ID={}", PREFIX, saleId);
+        var sale = saleRepo.findById(saleId);
+        if (sale != null && isInClosedPeriod(saleId, sale.getDate())) {
+            throw new IllegalStateException("Sale " + saleId + " belongs to a closed cashbox period.");
+        }
 
+        try {
+            GroupCommitQueue.getInstance().execute(em -> {
+                deleteSaleInTransaction(saleId, em);
+                return null;
+            });
             logger.info("{} ✓ Sale ID={} deleted successfully with all related data",
                     PREFIX, saleId);
 
@@ -322,4 +282,55 @@ public class SalesHistoryService {
             throw new RuntimeException("Error al eliminar la venta ID " + saleId + ": " + e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+
+    /** Rows are read with the caller's EntityManager: the queue may run this twice. */
+    private void deleteSaleInTransaction(int saleId, EntityManager em) {
+        Sale sale = em.find(Sale.class, saleId);
+
+        // ==================================================
+        // 1. DELETE SERVICE SIDE
+        // ==================================================
+        ServiceHeader serviceHeader = serviceHeaderRepo.findBySaleId(saleId, em);
+        if (serviceHeader != null) {
+            serviceItemRepo.deleteByHeaderId(serviceHeader.getId(), em);
+            serviceHeaderRepo.delete(serviceHeader.getId(), em);
+            productionRepository.add(serviceHeader.getUserId(), serviceHeader.getDate(),
+                    -serviceHeader.getSubtotal(), 0, em);
+            logger.info("{} Deleted service header ID={} and its items", PREFIX, serviceHeader.getId());
+        } else {
+            logger.debug("{} No service header found for sale {}", PREFIX, saleId);
+        }
+
+        // ==================================================
+        // 2. DELETE PRODUCT SIDE
+        // ==================================================
+        ProductHeader productHeader = productHeaderRepo.findBySaleId(saleId, em);
+        if (productHeader != null) {
+            productSaleItemRepo.deleteBySaleId(productHeader.getId(), em);
+            productHeaderRepo.delete(productHeader.getId(), em);
+            // Product production is attributed through the sale (user, date); a header
+            // without its sale was never counted in the aggregate
+            if (sale != null) {
+                productionRepository.add(sale.getUserId(), sale.getDate(), 0, -productHeader.getSubtotal(), em);
+            }
+            logger.info("{} Deleted product header ID={} and its items", PREFIX, productHeader.getId());
+        } else {
+            logger.debug("{} No product header found for sale {}", PREFIX, saleId);
+        }
+
+        // ==================================================
+        // 3. DELETE CASHBOX MOVEMENTS
+        // ==================================================
+        List<CashboxMovement> movements = movementRepo.findByReference("SALE", saleId, em);
+        for (CashboxMovement movement : movements) {
+            movementRepo.delete(movement.getId(), em);
+        }
+        logger.info("{} Deleted {} cashbox movements for sale {}", PREFIX, movements.size(), saleId);
+
+        // ==================================================
+        // 4. DELETE SALE
+        // ==================================================
+        saleRepo.delete(saleId, em);
+        logger.info("{} Deleted sale ID={}", PREFIX, saleId);
+    }
+}
@@ -22,7 +22,7 @@ public class SalesService {
     /**
      * Get total sales amount for a specific payment method within a date range.
      */
-    public double getTotalForPaymentMethodInPeriod(
+    public long getTotalForPaymentMethodInPeriod(
             int paymentMethodId,
             LocalDate start,
             LocalDate end
@@ -36,10 +36,10 @@ public class SalesService {
     /**
      * Get total sales for today.
      */
-    public double getTodayTotal() {
+    public long getTodayTotal() {
         LocalDate today = LocalDate.now();
         logger.info("[SALES-SERVICE] Getting TODAY total for: {}", today);
-        double total = saleRepository.sumTotalByPeriod(today, today);
+        long total = saleRepository.sumTotalByPeriod(today, today);
         logger.info("[SALES-SERVICE] TODAY total = {}", total);
         return total;
     }
@@ -47,7 +47,7 @@ public class SalesService {
     /**
      * Get total sales for current week (Monday to Sunday).
      */
-    public double getWeekTotal() {
+    public long getWeekTotal() {
         LocalDate today = LocalDate.now();
         LocalDate startOfWeek = today.with(TemporalAdjusters.previousOrSame(
                 java.time.DayOfWeek.MONDAY
@@ -57,7 +57,7 @@ public class SalesService {
         ));
 
         logger.info("[SALES-SERVICE] Getting WEEK total [{} -> {}]", startOfWeek, endOfWeek);
-        double total = saleRepository.sumTotalByPeriod(startOfWeek, endOfWeek);
+        long total = saleRepository.sumTotalByPeriod(startOfWeek, endOfWeek);
         logger.info("[SALES-SERVICE] WEEK total = {}", total);
         return total;
     }
@@ -65,13 +65,13 @@ public class SalesService {
     /**
      * Get total sales for current month.
      */
-    public double getMonthTotal() {
+    public long getMonthTotal() {
         LocalDate today = LocalDate.now();
         LocalDate startOfMonth = today.with(TemporalAdjusters.firstDayOfMonth());
         LocalDate endOfMonth = today.with(TemporalAdjusters.lastDayOfMonth());
 
         logger.info("[SALES-SERVICE] Getting MONTH total [{} -> {}]", startOfMonth, endOfMonth);
-        double total = saleRepository.sumTotalByPeriod(startOfMonth, endOfMonth);
+        long total = saleRepository.sumTotalByPeriod(startOfMonth, endOfMonth);
         logger.info("[SALES-SERVICE] MONTH total = {}", total);
         return total;
     }
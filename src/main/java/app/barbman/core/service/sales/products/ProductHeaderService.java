@@ -1,7 +1,6 @@
 package app.barbman.core.service.sales.products;
 
 import app.barbman.core.dto.salecart.SaleCartDTO;
-import app.barbman.core.dto.salecart.SaleCartItemDTO;
 import app.barbman.core.model.sales.products.ProductHeader;
 import app.barbman.core.repositories.sales.products.productheader.ProductHeaderRepository;
 import jakarta.persistence.EntityManager;
@@ -20,7 +19,7 @@ public class ProductHeaderService {
     }
 
     public ProductHeader createFromCart(SaleCartDTO cart, int saleId, EntityManager em) {
-        double subtotal = calculateProductsSubtotal(cart);
+        long subtotal = calculateProductsSubtotal(cart);
 
         if (subtotal <= 0) {
             logger.debug("{} No product items found. Skipping ProductHeader.", PREFIX);
@@ -37,10 +36,7 @@ public class ProductHeaderService {
         return header;
     }
 
-    private double calculateProductsSubtotal(SaleCartDTO cart) {
-        return cart.getCartItems().stream()
-                .filter(item -> item.getType() == SaleCartItemDTO.ItemType.PRODUCT)
-                .mapToDouble(SaleCartItemDTO::getItemTotal)
-                .sum();
+    private long calculateProductsSubtotal(SaleCartDTO cart) {
+        return cart.getProductsTotal();
     }
 }
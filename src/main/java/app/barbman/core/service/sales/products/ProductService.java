@@ -48,6 +48,11 @@ public class ProductService {
         return productRepository.findByName(name);
     }
 
+    /** Find a product by barcode / SKU. */
+    public Product getByBarcode(String barcode) {
+        return productRepository.findByBarcode(barcode);
+    }
+
     /** Creates a new product entry. */
     public void save(Product p) {
         if (p == null) throw new IllegalArgumentException("Product cannot be null");
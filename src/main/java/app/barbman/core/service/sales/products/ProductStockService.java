@@ -4,6 +4,7 @@ import app.barbman.core.dto.salecart.SaleCartDTO;
 import app.barbman.core.dto.salecart.SaleCartItemDTO;
 import app.barbman.core.repositories.sales.products.product.ProductRepository;
 import app.barbman.core.repositories.sales.products.product.ProductRepositoryImpl;
+import app.barbman.core.service.catalog.CatalogCache;
 import jakarta.persistence.EntityManager;
 
 public class ProductStockService {
@@ -17,4 +18,9 @@ public class ProductStockService {
             productRepo.decreaseStock(item.getReferenceId(), item.getQuantity(), em);
         }
     }
+
+    /** Publishes a committed stock decrease to the POS catalog cache. */
+    public void publishStockDecrease(SaleCartDTO cart) {
+        CatalogCache.getInstance().applyStockDecrease(cart);
+    }
 }
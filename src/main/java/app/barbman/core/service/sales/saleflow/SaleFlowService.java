@@ -1,8 +1,9 @@
 package app.barbman.core.service.sales.saleflow;
 
+import app.barbman.core.dto.salecart.JournaledSaleDTO;
 import app.barbman.core.dto.salecart.SaleCartDTO;
 import app.barbman.core.dto.salecart.SaleCartItemDTO;
-import app.barbman.core.infrastructure.HibernateUtil;
+import app.barbman.core.infrastructure.GroupCommitQueue;
 import app.barbman.core.model.cashbox.CashboxMovement;
 import app.barbman.core.model.sales.Sale;
 import app.barbman.core.model.sales.products.ProductHeader;
@@ -10,6 +11,8 @@ import app.barbman.core.model.sales.services.ServiceHeader;
 import app.barbman.core.model.cashbox.CashboxOpening;
 import app.barbman.core.repositories.cashbox.movement.CashboxMovementRepository;
 import app.barbman.core.repositories.sales.SaleRepository;
+import app.barbman.core.repositories.sales.production.UserDailyProductionRepository;
+import app.barbman.core.repositories.sales.production.UserDailyProductionRepositoryImpl;
 import app.barbman.core.service.cashbox.CashboxService;
 import app.barbman.core.service.sales.products.ProductHeaderService;
 import app.barbman.core.service.sales.products.ProductItemService;
@@ -20,11 +23,10 @@ import jakarta.persistence.EntityManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
- * Orchestrates the entire sale flow in a single JPA transaction.
+ * Orchestrates the entire sale flow in a single JPA transaction (group-committed, see GroupCommitQueue).
  */
 public class SaleFlowService {
 
@@ -37,6 +39,7 @@ public class SaleFlowService {
     private final ProductHeaderService productHeaderService;
     private final ProductItemService productItemService;
     private final ProductStockService productStockService = new ProductStockService();
+    private final UserDailyProductionRepository productionRepository = new UserDailyProductionRepositoryImpl();
     private final CashboxMovementRepository cashboxMovementRepository;
     private final CashboxService cashboxService;
 
@@ -60,11 +63,11 @@ public class SaleFlowService {
 
     // ── Cart operations ──────────────────────────────────────────────────────
 
-    public void addService(SaleCartDTO cart, int serviceDefinitionId, String name, double price) {
+    public void addService(SaleCartDTO cart, int serviceDefinitionId, String name, long price) {
         cart.addService(serviceDefinitionId, name, price);
     }
 
-    public void addProduct(SaleCartDTO cart, int productId, String name, double price) {
+    public void addProduct(SaleCartDTO cart, int productId, String name, long price) {
         cart.addProduct(productId, name, price);
     }
 
@@ -76,71 +79,124 @@ public class SaleFlowService {
         cart.removeItem(item);
     }
 
-    public double calculateTotal(SaleCartDTO cart) {
+    public long calculateTotal(SaleCartDTO cart) {
         return cart.getTotal();
     }
 
     // ── Persistence ──────────────────────────────────────────────────────────
 
+    /**
+     * Persists the cart synchronously and clears it.
+     * The POS goes through {@link SaleJournalService#submit(SaleCartDTO)} instead, which
+     * acknowledges from the journal and calls {@link #applyJournaled(JournaledSaleDTO)}.
+     */
     public Sale completeSale(SaleCartDTO cart) {
-        EntityManager em = HibernateUtil.createEntityManager();
-        try {
-            em.getTransaction().begin();
+        Sale sale = persist(cart, null, currentOpeningIdFor(cart), LocalDateTime.now());
+        cart.clear();
+        return sale;
+    }
 
-            // 1. Sale (root)
-            Sale sale = Sale.builder()
-                    .userId(cart.getSelectedUserId())
-                    .clientId(cart.getClientId())
-                    .paymentMethodId(cart.getPaymentMethod())
-                    .date(cart.getDate())
-                    .total(cart.getTotal())
-                    .build();
-            saleRepository.save(sale, em);
+    /**
+     * Applies a sale journal entry, booked to the opening and time it was acknowledged
+     * with. Idempotent: if a sale with the entry's journal id was already committed
+     * (e.g. the app died before the journal was trimmed), that sale is returned and
+     * nothing is written or published.
+     */
+    public Sale applyJournaled(JournaledSaleDTO entry) {
+        SaleCartDTO cart = entry.toCart();
+        if (entry.getAcknowledgedAt() == null) {
+            // Format 1 entries did not record where they were acknowledged
+            return persist(cart, entry.getJournalId(), currentOpeningIdFor(cart), LocalDateTime.now());
+        }
+        return persist(cart, entry.getJournalId(), entry.getOpeningId(), entry.getAcknowledgedAt());
+    }
 
-            logger.info("{} Sale created for userId={}", PREFIX, cart.getSelectedUserId());
+    /** Opening a sale of this cart is booked to: the current one, or none for a free sale. */
+    public Integer currentOpeningIdFor(SaleCartDTO cart) {
+        if (cart.getTotal() <= 0) return null;
+        CashboxOpening opening = cashboxService.getCurrentOpening();
+        return opening != null ? opening.getId() : null;
+    }
 
-            // 2. Services
-            ServiceHeader serviceHeader = serviceHeaderService.createFromCart(cart, sale.getId(), em);
-            serviceItemService.createItemsFromCart(serviceHeader, cart, em);
+    private record Persisted(Sale sale, boolean written) {}
 
-            // 3. Products
-            ProductHeader productHeader = productHeaderService.createFromCart(cart, sale.getId(), em);
-            productItemService.createItemsFromCart(productHeader, cart, em);
-            productStockService.decreaseStockFromCart(cart, em);
+    private Sale persist(SaleCartDTO cart, String journalId, Integer openingId, LocalDateTime occurredAt) {
+        try {
+            Persisted result = GroupCommitQueue.getInstance().execute(em -> {
+                if (journalId != null) {
+                    Sale applied = saleRepository.findByJournalId(journalId, em);
+                    if (applied != null) {
+                        logger.info("{} Journal entry {} already applied (saleId={})", PREFIX, journalId, applied.getId());
+                        return new Persisted(applied, false);
+                    }
+                }
+                return new Persisted(persistInTransaction(cart, journalId, openingId, occurredAt, em), true);
+            });
+
+            Sale sale = result.sale();
+            if (!result.written()) return sale;
 
-            em.getTransaction().commit();
             logger.info("{} Sale completed (saleId={}, userId={})",
                     PREFIX, sale.getId(), cart.getSelectedUserId());
-
-            // 4. Cashbox movement (outside main transaction — its own persist)
-            if (sale.getTotal() > 0) {
-                CashboxOpening currentOpening = cashboxService.getCurrentOpening();
-                Integer openingId = currentOpening != null ? currentOpening.getId() : null;
-
-                cashboxMovementRepository.save(CashboxMovement.builder()
-                        .movementType("SALE")
-                        .direction("IN")
-                        .amount(sale.getTotal())
-                        .paymentMethodId(sale.getPaymentMethodId())
-                        .referenceType("SALE")
-                        .referenceId(sale.getId())
-                        .description("Sale registered")
-                        .userId(cart.getSelectedUserId())
-                        .occurredAt(LocalDateTime.now())
-                        .createdAt(LocalDateTime.now())
-                        .openingId(openingId)
-                        .build());
-            }
-
-            cart.getCartItems().clear();
+            productStockService.publishStockDecrease(cart);
             return sale;
 
         } catch (Exception e) {
-            if (em.getTransaction().isActive()) em.getTransaction().rollback();
             logger.error("{} Sale failed, rolled back: {}", PREFIX, e.getMessage(), e);
             throw new RuntimeException("Sale could not be completed", e);
-        } finally {
-            em.close();
         }
     }
+
+    /** Sale, headers, items, stock, production aggregate and cashbox movement with the caller's EntityManager. */
+    private Sale persistInTransaction(SaleCartDTO cart, String journalId, Integer openingId,
+                                      LocalDateTime occurredAt, EntityManager em) {
+        // 1. Sale (root)
+        Sale sale = Sale.builder()
+                .userId(cart.getSelectedUserId())
+                .clientId(cart.getClientId())
+                .paymentMethodId(cart.getPaymentMethod())
+                .date(cart.getDate())
+                .total(cart.getTotal())
+                .journalId(journalId)
+                .build();
+        saleRepository.save(sale, em);
+
+        logger.info("{} Sale created for userId={}", PREFIX, cart.getSelectedUserId());
+
+        // 2. Services
+        ServiceHeader serviceHeader = serviceHeaderService.createFromCart(cart, sale.getId(), em);
+        serviceItemService.createItemsFromCart(serviceHeader, cart, em);
+
+        // 3. Products
+        ProductHeader productHeader = productHeaderService.createFromCart(cart, sale.getId(), em);
+        productItemService.createItemsFromCart(productHeader, cart, em);
+        productStockService.decreaseStockFromCart(cart, em);
+
+        // 4. Daily production aggregate (same dates the rebuild uses)
+        if (serviceHeader != null) {
+            productionRepository.add(serviceHeader.getUserId(), serviceHeader.getDate(),
+                    serviceHeader.getSubtotal(), 0, em);
+        }
+        if (productHeader != null) {
+            productionRepository.add(sale.getUserId(), sale.getDate(), 0, productHeader.getSubtotal(), em);
+        }
+
+        // 5. Cashbox movement (same transaction, so a replayed entry never books it twice)
+        if (sale.getTotal() > 0) {
+            cashboxMovementRepository.save(CashboxMovement.builder()
+                    .movementType("SALE")
+                    .direction("IN")
+                    .amount(sale.getTotal())
+                    .paymentMethodId(sale.getPaymentMethodId())
+                    .referenceType("SALE")
+                    .referenceId(sale.getId())
+                    .description("Sale registered")
+                    .userId(cart.getSelectedUserId())
+                    .occurredAt(occurredAt)
+                    .createdAt(LocalDateTime.now())
+                    .openingId(openingId)
+                    .build(), em);
+        }
+        return sale;
+    }
 }
@@ -0,0 +1,566 @@
+package app.barbman.core.service.sales.saleflow;
+
+import app.barbman.core.dto.salecart.JournaledSaleDTO;
+import app.barbman.core.dto.salecart.SaleCartDTO;
+import app.barbman.core.dto.salecart.SaleCartItemDTO;
+import app.barbman.core.infrastructure.MappedJournal;
+import app.barbman.core.model.sales.Sale;
+import app.barbman.core.model.sales.products.Product;
+import app.barbman.core.repositories.cashbox.closure.CashboxClosureRepositoryImpl;
+import app.barbman.core.repositories.cashbox.movement.CashboxMovementRepositoryImpl;
+import app.barbman.core.repositories.cashbox.opening.CashboxOpeningRepositoryImpl;
+import app.barbman.core.repositories.sales.SaleRepositoryImpl;
+import app.barbman.core.repositories.sales.products.product.ProductRepository.InsufficientStockException;
+import app.barbman.core.repositories.sales.products.productheader.ProductHeaderRepositoryImpl;
+import app.barbman.core.repositories.sales.products.productsaleitem.ProductSaleItemRepositoryImpl;
+import app.barbman.core.repositories.sales.services.serviceheader.ServiceHeaderRepositoryImpl;
+import app.barbman.core.repositories.sales.services.serviceitems.ServiceItemRepositoryImpl;
+import app.barbman.core.service.cashbox.CashboxService;
+import app.barbman.core.service.catalog.CatalogCache;
+import app.barbman.core.service.sales.products.ProductHeaderService;
+import app.barbman.core.service.sales.products.ProductItemService;
+import app.barbman.core.service.sales.services.ServiceHeaderService;
+import app.barbman.core.service.sales.services.ServiceItemService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.exception.ConstraintViolationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-ahead path for checkout.
+ *
+ * {@link #submit(SaleCartDTO)} writes the confirmed cart to the local sale journal
+ * (a memory-mapped append-only file, fsynced before returning) and acknowledges the
+ * sale right away. A single background applier then replays each entry into SQLite
+ * through {@link SaleFlowService#applyJournaled(JournaledSaleDTO)}, which is
+ * idempotent on the entry's journal id. Each entry carries the cashbox opening and
+ * time it was acknowledged with, so it is booked there however late it is applied.
+ *
+ * Before acknowledging, the cart's products are checked against the cached stock minus
+ * the units of sales still waiting in the journal, so two quick sales of the last unit
+ * cannot both be accepted against a cache that has not caught up yet.
+ *
+ * An entry that fails to apply for a transient reason (e.g. the database is busy) stays in
+ * the journal and is retried in the background (with backoff) until it succeeds. An entry
+ * that can never apply as written (no stock left, a constraint violation) is moved to the
+ * rejected list instead: it is kept in its own file, shown to the user, and retried or
+ * discarded by them (see {@link #getRejected()}). The journal is emptied once every entry
+ * written so far has been applied or rejected. {@link #awaitApplied()} lets the cashbox
+ * closure wait for all acknowledged sales to be in the ledger before it computes anything;
+ * rejected sales do not hold it up.
+ *
+ * Crash recovery: {@link #init(File)} runs at startup (from DbBootstrap) and re-applies
+ * every entry still in the journal before the UI opens; entries already committed are
+ * only looked up.
+ */
+public class SaleJournalService {
+
+    private static final Logger logger = LogManager.getLogger(SaleJournalService.class);
+    private static final String PREFIX = "[SALE-JOURNAL]";
+
+    private static final long RETRY_INITIAL_SECONDS = 5;
+    private static final long RETRY_MAX_SECONDS = 300;
+    private static final long AWAIT_SECONDS = 30;
+
+    private static SaleJournalService instance;
+
+    /** A journaled sale that cannot be written as is, waiting for the user to retry or discard it. */
+    public record RejectedSale(JournaledSaleDTO entry, String reason) {}
+
+    /** The future of a submitted sale fails with this when the sale was rejected. */
+    public static class SaleRejectedException extends RuntimeException {
+        public SaleRejectedException(String journalId, Throwable cause) {
+            super("Sale " + journalId + " rejected: " + rootMessage(cause), cause);
+        }
+    }
+
+    private final MappedJournal journal;
+    private final File rejectedFile;
+    private final SaleFlowService saleFlowService;
+    private final CatalogCache catalogCache = CatalogCache.getInstance();
+    private final ScheduledThreadPoolExecutor applier;
+
+    // Entries acknowledged but not yet through their first apply attempt
+    private final AtomicInteger pending = new AtomicInteger();
+
+    // Product units of entries not yet applied or rejected; guarded by itself
+    private final Map<Integer, Integer> reservedStock = new HashMap<>();
+
+    // Replaced (never modified) on the applier thread; read from the FX thread
+    private volatile List<RejectedSale> rejected = List.of();
+
+    // Applier thread only: entries whose apply failed, waiting for a retry
+    private final List<JournaledSaleDTO> failed = new ArrayList<>();
+    private ScheduledFuture<?> retryTask;
+    private long retryDelaySeconds = RETRY_INITIAL_SECONDS;
+
+    private SaleJournalService(MappedJournal journal, File rejectedFile, SaleFlowService saleFlowService) {
+        this.journal = journal;
+        this.rejectedFile = rejectedFile;
+        this.saleFlowService = saleFlowService;
+        this.applier = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "sale-journal-applier");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // A retry still waiting at shutdown runs at the next start instead
+        this.applier.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Opens the journal and re-applies any entry left by a previous run.
+     * Rejected sales are kept next to it, in {@code <journal>.rejected}.
+     * Must be called once after Hibernate is initialized.
+     */
+    public static synchronized void init(File journalFile) {
+        if (instance != null) instance.shutdown();
+
+        SaleFlowService saleFlowService = new SaleFlowService(
+                new SaleRepositoryImpl(),
+                new ServiceHeaderService(new ServiceHeaderRepositoryImpl()),
+                new ServiceItemService(new ServiceItemRepositoryImpl()),
+                new ProductHeaderService(new ProductHeaderRepositoryImpl()),
+                new ProductItemService(new ProductSaleItemRepositoryImpl()),
+                new CashboxMovementRepositoryImpl(),
+                new CashboxService(
+                        new CashboxOpeningRepositoryImpl(),
+                        new CashboxClosureRepositoryImpl(),
+                        new CashboxMovementRepositoryImpl()
+                )
+        );
+        instance = new SaleJournalService(new MappedJournal(journalFile),
+                new File(journalFile.getPath() + ".rejected"), saleFlowService);
+        instance.loadRejected();
+        instance.recover();
+    }
+
+    public static SaleJournalService getInstance() {
+        if (instance == null) {
+            throw new IllegalStateException("SaleJournalService not initialized. Call init() first.");
+        }
+        return instance;
+    }
+
+    /** {@link #awaitApplied()} on the running journal; no-op when it was never started (CLI commands). */
+    public static void awaitAppliedIfRunning() {
+        SaleJournalService current;
+        synchronized (SaleJournalService.class) {
+            current = instance;
+        }
+        if (current != null) current.awaitApplied();
+    }
+
+    // ============================================================
+    // CHECKOUT
+    // ============================================================
+
+    /**
+     * Journals the cart, clears it and returns as soon as the entry is durable.
+     * The returned future completes with the persisted sale once the applier has
+     * committed it, or exceptionally if the first attempt failed: with
+     * {@link SaleRejectedException} if the sale was rejected, otherwise the entry is
+     * kept and retried in the background.
+     *
+     * @throws InsufficientStockException if a product does not have the units left;
+     *                                    nothing is journaled and the cart is kept
+     */
+    public CompletableFuture<Sale> submit(SaleCartDTO cart) {
+        JournaledSaleDTO entry = JournaledSaleDTO.from(cart, saleFlowService.currentOpeningIdFor(cart));
+
+        reserveStock(entry);
+        pending.incrementAndGet();
+        try {
+            journal.append(entry.toBytes());
+        } catch (RuntimeException e) {
+            pending.decrementAndGet();
+            releaseStock(entry);
+            logger.error("{} Could not journal sale: {}", PREFIX, e.getMessage(), e);
+            throw e;
+        }
+        logger.info("{} Sale {} acknowledged ({} lines)", PREFIX, entry.getJournalId(), entry.getLines().size());
+
+        cart.clear();
+
+        CompletableFuture<Sale> future = new CompletableFuture<>();
+        applier.execute(() -> apply(entry, future));
+        return future;
+    }
+
+    /**
+     * Blocks until every sale acknowledged so far has been written to the database or
+     * rejected, giving failed entries one more attempt first.
+     *
+     * @throws IllegalStateException if some sale still cannot be written
+     */
+    public void awaitApplied() {
+        int left;
+        try {
+            // The applier is single-threaded: this runs after every entry queued before it
+            left = applier.submit(() -> {
+                if (!failed.isEmpty()) retryFailed();
+                return failed.size();
+            }).get(AWAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for pending sales.", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Pending sales are still being saved; try again.", e);
+        }
+        if (left > 0) {
+            throw new IllegalStateException(left + " journaled sale(s) could not be saved yet; see the log.");
+        }
+    }
+
+    // ============================================================
+    // REJECTED SALES
+    // ============================================================
+
+    /** Sales that could not be written as acknowledged, oldest first. */
+    public List<RejectedSale> getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Tries every rejected sale again, e.g. after restocking. A sale is only retried
+     * while the cashbox it was acknowledged in is still open; otherwise it can only be
+     * discarded.
+     *
+     * @return how many sales are still rejected
+     */
+    public int retryRejected() {
+        return onApplier(() -> {
+            for (RejectedSale r : rejected) {
+                JournaledSaleDTO entry = r.entry();
+                Integer openingId = entry.getOpeningId();
+                if (openingId != null && !openingId.equals(saleFlowService.currentOpeningIdFor(entry.toCart()))) {
+                    logger.warn("{} Rejected sale {} belongs to a closed cashbox; not retried",
+                            PREFIX, entry.getJournalId());
+                    continue;
+                }
+                holdStock(entry);
+                try {
+                    Sale sale = applyEntry(entry);
+                    logger.info("{} Rejected sale {} saved on retry (saleId={})",
+                            PREFIX, entry.getJournalId(), sale.getId());
+                } catch (Exception e) {
+                    // Rejected again, or queued for a background retry by applyEntry
+                }
+            }
+            return rejected.size();
+        });
+    }
+
+    /** Drops a rejected sale for good (refunded, or entered again by hand). */
+    public void discardRejected(String journalId) {
+        onApplier(() -> {
+            List<RejectedSale> kept = withoutEntry(journalId);
+            saveRejected(kept);
+            rejected = List.copyOf(kept);
+            logger.warn("{} Rejected sale {} discarded by user", PREFIX, journalId);
+            return null;
+        });
+    }
+
+    /** Waits for queued entries to be applied and closes the journal file. */
+    public void shutdown() {
+        applier.shutdown();
+        try {
+            if (!applier.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn("{} Applier still busy at shutdown; pending entries replay on next start", PREFIX);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journal.close();
+    }
+
+    // ============================================================
+    // INTERNALS (applier thread)
+    // ============================================================
+
+    private void apply(JournaledSaleDTO entry, CompletableFuture<Sale> future) {
+        try {
+            future.complete(applyEntry(entry));
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        } finally {
+            pending.decrementAndGet();
+            resetIfDrained();
+        }
+    }
+
+    /**
+     * Writes one held entry. On success its stock hold is released (and it leaves the
+     * rejected list if it was there). A permanent failure rejects it and throws
+     * {@link SaleRejectedException}; any other failure queues it for a background retry.
+     */
+    private Sale applyEntry(JournaledSaleDTO entry) throws Exception {
+        try {
+            Sale sale = saleFlowService.applyJournaled(entry);
+            releaseStock(entry);
+            if (rejected.stream().anyMatch(r -> r.entry().getJournalId().equals(entry.getJournalId()))) {
+                List<RejectedSale> kept = withoutEntry(entry.getJournalId());
+                try {
+                    saveRejected(kept);
+                } catch (UncheckedIOException io) {
+                    logger.warn("{} Could not update rejected sales file: {}", PREFIX, io.getMessage());
+                }
+                rejected = List.copyOf(kept);
+            }
+            return sale;
+        } catch (Exception e) {
+            if (isPermanent(e)) {
+                try {
+                    reject(entry, e);
+                    throw new SaleRejectedException(entry.getJournalId(), e);
+                } catch (UncheckedIOException io) {
+                    // Not durable as rejected: keep it in the journal instead
+                    logger.error("{} Could not record rejected sale {}: {}", PREFIX, entry.getJournalId(), io.getMessage());
+                }
+            }
+            logger.error("{} Could not apply sale {}; kept in journal, retrying in background: {}",
+                    PREFIX, entry.getJournalId(), e.getMessage());
+            retryLater(entry);
+            throw e;
+        }
+    }
+
+    /** Failures that retrying the same entry cannot fix. */
+    private static boolean isPermanent(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof InsufficientStockException || t instanceof ConstraintViolationException) return true;
+        }
+        return false;
+    }
+
+    /** Moves an entry to the rejected list; durable before the journal can drop it. */
+    private void reject(JournaledSaleDTO entry, Exception cause) {
+        List<RejectedSale> updated = withoutEntry(entry.getJournalId());
+        updated.add(new RejectedSale(entry, rootMessage(cause)));
+        saveRejected(updated);
+        rejected = List.copyOf(updated);
+        releaseStock(entry);
+        logger.error("{} Sale {} rejected, waiting for the user to retry or discard it: {}",
+                PREFIX, entry.getJournalId(), rootMessage(cause));
+    }
+
+    private List<RejectedSale> withoutEntry(String journalId) {
+        List<RejectedSale> list = new ArrayList<>(rejected);
+        list.removeIf(r -> r.entry().getJournalId().equals(journalId));
+        return list;
+    }
+
+    private void retryLater(JournaledSaleDTO entry) {
+        failed.add(entry);
+        if (retryTask == null || retryTask.isDone()) {
+            retryTask = applier.schedule(this::retryFailed, retryDelaySeconds, TimeUnit.SECONDS);
+            retryDelaySeconds = Math.min(retryDelaySeconds * 2, RETRY_MAX_SECONDS);
+        }
+    }
+
+    private void retryFailed() {
+        if (retryTask != null) retryTask.cancel(false);
+        retryTask = null;
+
+        List<JournaledSaleDTO> retrying = new ArrayList<>(failed);
+        failed.clear();
+        for (JournaledSaleDTO entry : retrying) {
+            try {
+                Sale sale = applyEntry(entry);
+                logger.info("{} Retried sale {} saved (saleId={})", PREFIX, entry.getJournalId(), sale.getId());
+            } catch (Exception e) {
+                // Rejected, or queued again by applyEntry
+            }
+        }
+
+        if (failed.isEmpty()) {
+            retryDelaySeconds = RETRY_INITIAL_SECONDS;
+            resetIfDrained();
+        }
+    }
+
+    /** Empties the journal once nothing written to it is still waiting to be applied. */
+    private void resetIfDrained() {
+        // Position first: an entry appended after this read moves it and the reset is refused
+        int end = journal.getPosition();
+        if (pending.get() == 0 && failed.isEmpty()) {
+            journal.resetIfAt(end);
+        }
+    }
+
+    private void recover() {
+        List<byte[]> records = journal.readAll();
+        if (records.isEmpty()) return;
+
+        logger.info("{} Replaying {} journaled sale(s) from previous run", PREFIX, records.size());
+        try {
+            // On the applier, which owns the retry list
+            applier.submit(() -> {
+                for (byte[] record : records) {
+                    JournaledSaleDTO entry;
+                    try {
+                        entry = JournaledSaleDTO.fromBytes(record);
+                    } catch (RuntimeException e) {
+                        logger.error("{} Unreadable journal record skipped: {}", PREFIX, e.getMessage());
+                        continue;
+                    }
+                    holdStock(entry);
+                    try {
+                        Sale sale = applyEntry(entry);
+                        logger.info("{} Recovered sale {} (saleId={})", PREFIX, entry.getJournalId(), sale.getId());
+                    } catch (Exception e) {
+                        // Rejected, or retried in background by applyEntry
+                    }
+                }
+                resetIfDrained();
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.error("{} Journal replay failed: {}", PREFIX, e.getMessage(), e);
+        }
+    }
+
+    // ============================================================
+    // STOCK HOLDS
+    // ============================================================
+
+    /**
+     * Checks the entry's products against the cached stock minus the units held by
+     * entries not applied yet, and holds its own units.
+     *
+     * A committed sale reaches the cache before its hold is released, so for a moment
+     * its units count twice; that only errs on the side of refusing.
+     */
+    private void reserveStock(JournaledSaleDTO entry) {
+        Map<Integer, Integer> wanted = productQuantities(entry);
+        if (wanted.isEmpty()) return;
+
+        synchronized (reservedStock) {
+            for (Map.Entry<Integer, Integer> e : wanted.entrySet()) {
+                Product product = catalogCache.findProduct(e.getKey());
+                int available = (product != null ? product.getStock() : 0)
+                        - reservedStock.getOrDefault(e.getKey(), 0);
+                if (e.getValue() > available) {
+                    throw new InsufficientStockException(e.getKey(), String.format(
+                            "Insufficient stock for product ID %d: %d requested, %d available",
+                            e.getKey(), e.getValue(), Math.max(0, available)));
+                }
+            }
+            wanted.forEach((id, qty) -> reservedStock.merge(id, qty, Integer::sum));
+        }
+    }
+
+    /** Holds the entry's units without checking (entries acknowledged earlier). */
+    private void holdStock(JournaledSaleDTO entry) {
+        synchronized (reservedStock) {
+            productQuantities(entry).forEach((id, qty) -> reservedStock.merge(id, qty, Integer::sum));
+        }
+    }
+
+    private void releaseStock(JournaledSaleDTO entry) {
+        synchronized (reservedStock) {
+            productQuantities(entry).forEach((id, qty) ->
+                    reservedStock.computeIfPresent(id, (k, held) -> held > qty ? held - qty : null));
+        }
+    }
+
+    private static Map<Integer, Integer> productQuantities(JournaledSaleDTO entry) {
+        Map<Integer, Integer> quantities = new HashMap<>();
+        for (JournaledSaleDTO.Line line : entry.getLines()) {
+            if (line.type() == SaleCartItemDTO.ItemType.PRODUCT) {
+                quantities.merge(line.referenceId(), line.quantity(), Integer::sum);
+            }
+        }
+        return quantities;
+    }
+
+    // ============================================================
+    // REJECTED FILE
+    // ============================================================
+
+    // Layout: [int count] then per sale [UTF reason][int length][journal entry bytes].
+    // Small and rarely written, so it is rewritten whole and swapped in atomically.
+
+    private void loadRejected() {
+        if (!rejectedFile.exists()) return;
+        List<RejectedSale> loaded = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(rejectedFile.toPath()))) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String reason = in.readUTF();
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                loaded.add(new RejectedSale(JournaledSaleDTO.fromBytes(bytes), reason));
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("{} Could not read rejected sales ({} read): {}", PREFIX, loaded.size(), e.getMessage());
+        }
+        rejected = List.copyOf(loaded);
+        if (!loaded.isEmpty()) {
+            logger.warn("{} {} rejected sale(s) waiting for review", PREFIX, loaded.size());
+        }
+    }
+
+    private void saveRejected(List<RejectedSale> sales) {
+        File tmp = new File(rejectedFile.getPath() + ".tmp");
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeInt(sales.size());
+                for (RejectedSale r : sales) {
+                    byte[] entry = r.entry().toBytes();
+                    out.writeUTF(r.reason());
+                    out.writeInt(entry.length);
+                    out.write(entry);
+                }
+            }
+            try (FileOutputStream out = new FileOutputStream(tmp)) {
+                bytes.writeTo(out);
+                out.getFD().sync();
+            }
+            Files.move(tmp.toPath(), rejectedFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + rejectedFile.getName(), e);
+        }
+    }
+
+    private <T> T onApplier(Callable<T> task) {
+        try {
+            return applier.submit(task).get(AWAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while updating rejected sales.", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Rejected sales could not be updated; try again.", e);
+        }
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) root = root.getCause();
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+}
@@ -1,14 +1,17 @@
 package app.barbman.core.service.sales.services;
 
 import app.barbman.core.dto.salecart.SaleCartDTO;
-import app.barbman.core.dto.salecart.SaleCartItemDTO;
 import app.barbman.core.model.sales.services.ServiceHeader;
+import app.barbman.core.repositories.sales.production.UserDailyProductionRepository;
+import app.barbman.core.repositories.sales.production.UserDailyProductionRepositoryImpl;
 import app.barbman.core.repositories.sales.services.serviceheader.ServiceHeaderRepository;
 import jakarta.persistence.EntityManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
 
 public class ServiceHeaderService {
 
@@ -16,13 +19,14 @@ public class ServiceHeaderService {
     private static final String PREFIX = "[SERVICE-HEADER-SERVICE]";
 
     private final ServiceHeaderRepository serviceHeaderRepository;
+    private final UserDailyProductionRepository productionRepository = new UserDailyProductionRepositoryImpl();
 
     public ServiceHeaderService(ServiceHeaderRepository serviceHeaderRepository) {
         this.serviceHeaderRepository = serviceHeaderRepository;
     }
 
     public ServiceHeader createFromCart(SaleCartDTO cart, int saleId, EntityManager em) {
-        double subtotal = calculateServicesSubtotal(cart);
+        long subtotal = calculateServicesSubtotal(cart);
 
         if (subtotal <= 0) {
             logger.debug("{} No service items found. Skipping ServiceHeader.", PREFIX);
@@ -42,14 +46,22 @@ public class ServiceHeaderService {
         return header;
     }
 
-    private double calculateServicesSubtotal(SaleCartDTO cart) {
-        return cart.getCartItems().stream()
-                .filter(item -> item.getType() == SaleCartItemDTO.ItemType.SERVICE)
-                .mapToDouble(SaleCartItemDTO::getItemTotal)
-                .sum();
+    private long calculateServicesSubtotal(SaleCartDTO cart) {
+        return cart.getServicesTotal();
     }
 
-    public double getProductionByUserAndDateRange(int userId, LocalDate from, LocalDate to) {
-        return serviceHeaderRepository.sumServiceTotalsByUserAndDateRange(userId, from, to);
+    /**
+     * Service production of a user in the range, read from the daily aggregate.
+     */
+    public long getProductionByUserAndDateRange(int userId, LocalDate from, LocalDate to) {
+        return productionRepository.sumServiceTotal(userId, from, to);
+    }
+
+    /**
+     * Production per user per day for several users in one query: userId -> (date -> total).
+     */
+    public Map<Integer, Map<LocalDate, Long>> getDailyProductionByUsers(Collection<Integer> userIds,
+                                                                         LocalDate from, LocalDate to) {
+        return productionRepository.sumServiceTotalsByUsersPerDay(userIds, from, to);
     }
 }
@@ -0,0 +1,114 @@
+package app.barbman.core.util;
+
+import javafx.animation.PauseTransition;
+import javafx.event.EventHandler;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.util.Duration;
+
+import java.util.function.Consumer;
+
+/**
+ * Captures keyboard-wedge barcode scanners at scene level.
+ *
+ * A wedge scanner "types" the code as a burst of key events a few milliseconds apart,
+ * usually followed by Enter. While active, this input filters every typed key of the
+ * scene (whatever control has focus), so codes never land in a text field:
+ * - keys closer than {@link #MAX_KEY_GAP_MS} are accumulated as one burst;
+ * - a slower key starts a new burst, so stray manual typing is dropped;
+ * - the burst is emitted on Enter, or after {@link #IDLE_FLUSH_MS} of silence for
+ *   scanners configured without an Enter suffix.
+ *
+ * Codes shorter than {@link #MIN_LENGTH} are discarded. The callback runs on the FX thread.
+ */
+public class BarcodeScannerInput {
+
+    private static final long MAX_KEY_GAP_MS = 40;
+    private static final long IDLE_FLUSH_MS = 80;
+    private static final int MIN_LENGTH = 4;
+
+    private final Consumer<String> onScan;
+    private final StringBuilder burst = new StringBuilder(32);
+    private final PauseTransition idle = new PauseTransition(Duration.millis(IDLE_FLUSH_MS));
+
+    private final EventHandler<KeyEvent> typedFilter = this::onKeyTyped;
+    private final EventHandler<KeyEvent> pressedFilter = this::onKeyPressed;
+
+    private Scene scene;
+    private boolean active;
+    private long lastKeyNanos;
+
+    public BarcodeScannerInput(Consumer<String> onScan) {
+        this.onScan = onScan;
+        this.idle.setOnFinished(e -> flush());
+    }
+
+    /**
+     * Listens on the scene of {@code anchor}, following it if the node moves and
+     * detaching when it leaves the scene (e.g. the embedded view is replaced).
+     */
+    public void attach(Node anchor) {
+        anchor.sceneProperty().addListener((obs, old, now) -> bind(now));
+        bind(anchor.getScene());
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+        burst.setLength(0);
+        idle.stop();
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    // ============================================================
+    // INTERNALS
+    // ============================================================
+
+    private void bind(Scene next) {
+        if (scene == next) return;
+        if (scene != null) {
+            scene.removeEventFilter(KeyEvent.KEY_TYPED, typedFilter);
+            scene.removeEventFilter(KeyEvent.KEY_PRESSED, pressedFilter);
+        }
+        scene = next;
+        if (scene != null) {
+            scene.addEventFilter(KeyEvent.KEY_TYPED, typedFilter);
+            scene.addEventFilter(KeyEvent.KEY_PRESSED, pressedFilter);
+        } else {
+            setActive(false);
+        }
+    }
+
+    private void onKeyPressed(KeyEvent e) {
+        if (!active || e.getCode() != KeyCode.ENTER) return;
+        e.consume(); // Keep Enter from firing default buttons or text field actions
+        flush();
+    }
+
+    private void onKeyTyped(KeyEvent e) {
+        if (!active || e.isShortcutDown() || e.isAltDown()) return;
+
+        String ch = e.getCharacter();
+        e.consume();
+        if (ch.isEmpty() || ch.charAt(0) < ' ') return; // Enter (handled on press), tab, control chars
+
+        long now = System.nanoTime();
+        if (burst.length() > 0 && now - lastKeyNanos > MAX_KEY_GAP_MS * 1_000_000) {
+            burst.setLength(0); // Too slow for a scanner: start over
+        }
+        burst.append(ch);
+        lastKeyNanos = now;
+        idle.playFromStart();
+    }
+
+    private void flush() {
+        idle.stop();
+        String code = burst.toString().trim();
+        burst.setLength(0);
+        if (code.length() >= MIN_LENGTH) onScan.accept(code);
+    }
+}
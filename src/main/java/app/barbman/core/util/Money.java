@@ -0,0 +1,21 @@
+package app.barbman.core.util;
+
+/**
+ * Fixed-point money helpers.
+ *
+ * Amounts are plain {@code long} values in the currency's minor unit. The shop works in
+ * guaraníes, which have no subdivision, so one unit is 1 Gs. Keeping amounts as primitive
+ * longs makes sums exact over any amount of history and avoids allocating wrapper objects
+ * in report loops.
+ */
+public final class Money {
+
+    private Money() {
+        // Utility class
+    }
+
+    /** Rounds a (legacy or user-entered) decimal amount to whole units, half-up. */
+    public static long of(double amount) {
+        return Math.round(amount);
+    }
+}
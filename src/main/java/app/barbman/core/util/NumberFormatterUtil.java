@@ -39,7 +39,15 @@ public class NumberFormatterUtil {
      * Ej: 30000.5 -> "30.001"
      */
     public static String format(double value) {
-        return formatter.format(Math.round(value));
+        return format(Math.round(value));
+    }
+
+    /**
+     * Formatea un monto entero (ver {@link Money}) sin redondeo previo.
+     * Ej: 30000 -> "30.000"
+     */
+    public static String format(long value) {
+        return formatter.format(value);
     }
 
     /**
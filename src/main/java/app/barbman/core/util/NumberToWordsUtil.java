@@ -12,13 +12,15 @@ public class NumberToWordsUtil {
             );
 
     public static String convert(double amount) {
-        long intAmount = (long) amount;
+        return convert((long) amount);
+    }
 
-        if (intAmount == 0) {
+    public static String convert(long amount) {
+        if (amount == 0) {
             return "CERO";
         }
 
-        String words = FORMATTER.format(intAmount);
+        String words = FORMATTER.format(amount);
         return words.toUpperCase();
     }
 
@@ -6,6 +6,7 @@ import app.barbman.core.model.sales.Sale;
 import javafx.scene.layout.BorderPane;
 
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 
 public class SessionManager {
     /** Active user in session */
@@ -17,8 +18,8 @@ public class SessionManager {
     /** Temporal storage for the ServiceDTO being created/edited */
     private static SaleCartDTO currentServiceDTO;
 
-    /** Temporal storage for the Sale for showing the receipt after payment */
-    private static Sale lastSale;
+    /** Temporal storage for the Sale for showing the receipt after payment (completes once applied from the journal) */
+    private static CompletableFuture<Sale> lastSale;
 
     /** Region code for validation rules (default PY) */
     private static String regionCode = "PY";  // Default Paraguay
@@ -82,11 +83,11 @@ public class SessionManager {
     /**
      * LAST SALE METHODS
      */
-    public static void setLastSale(Sale sale) {
+    public static void setLastSale(CompletableFuture<Sale> sale) {
         lastSale = sale;
     }
 
-    public static Sale getLastSale() {
+    public static CompletableFuture<Sale> getLastSale() {
         return lastSale;
     }
 
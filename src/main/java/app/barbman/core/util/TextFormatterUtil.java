@@ -1,5 +1,8 @@
 package app.barbman.core.util;
 
+import java.text.Normalizer;
+import java.util.Locale;
+
 public class TextFormatterUtil {
     /**
      * Capitalizes the first letter of the given text.
@@ -20,4 +23,17 @@ public class TextFormatterUtil {
 
         return Character.toUpperCase(text.charAt(0)) + text.substring(1);
     }
+
+    /**
+     * Normalizes text for search indexes: lowercase, accents stripped and
+     * whitespace collapsed, so "Pomada  Mate" and "pomáda mate" compare equal.
+     *
+     * @param text The input text, may be null.
+     * @return The normalized text, or an empty string for null.
+     */
+    public static String normalizeForSearch(String text) {
+        if (text == null) return "";
+        String stripped = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+    }
 }
@@ -1,6 +1,7 @@
 package app.barbman.core.util.legacy;
 
 import app.barbman.core.model.Expense;
+import app.barbman.core.util.Money;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -30,7 +31,7 @@ public class LegacyExpenseRepository {
                     Expense expense = Expense.builder()
                             .id(rs.getInt("id"))
                             .description(rs.getString("descripcion"))
-                            .amount(rs.getDouble("monto"))
+                            .amount(Money.of(rs.getDouble("monto")))
                             .date(LocalDate.parse(rs.getString("fecha")))
                             .type(mapLegacyType(rs.getString("tipo")))
                             .paymentMethodId(mapLegacyPayment(rs.getString("forma_pago")))
@@ -1,6 +1,7 @@
 package app.barbman.core.util.legacy;
 
 import app.barbman.core.dto.history.SaleHistoryDTO;
+import app.barbman.core.util.Money;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -42,7 +43,7 @@ public class LegacySaleRepository {
                         count++;
                         SaleHistoryDTO dto = new SaleHistoryDTO();
                         dto.setSaleId(rs.getInt("id"));
-                        dto.setTotal(rs.getDouble("precio"));
+                        dto.setTotal(Money.of(rs.getDouble("precio")));
                         dto.setDate(LocalDate.parse(rs.getString("fecha")));
                         dto.setPaymentMethod(mapLegacyPayment(rs.getString("forma_pago")));
 
@@ -49,6 +49,9 @@ module app.barbman.core {
     opens app.barbman.core.model.time to org.hibernate.orm.core, javafx.base;
     opens app.barbman.core.infrastructure to org.hibernate.orm.core;
 
+    // OnBarber DTOs are bound by Jackson (OnBarberCodec)
+    opens app.barbman.core.service to com.fasterxml.jackson.databind;
+
     // DTOs used in TableView/ObservableList need javafx.base
     opens app.barbman.core.dto.salecart to javafx.base;
     opens app.barbman.core.dto.history to javafx.base;
@@ -0,0 +1,23 @@
+-- V10: Outbox of appointment mutations waiting to reach OnBarber
+-- Front-desk actions (create, status change, close/reopen day) are recorded here first
+-- and sent by AppointmentOutboxService in id order, so they survive a dropped connection
+-- or a restart. Rows are deleted once the API accepted them; rejected ones are kept
+-- with state 'conflict' / 'failed' for the record.
+
+CREATE TABLE IF NOT EXISTS appointment_outbox (
+    id               INTEGER PRIMARY KEY AUTOINCREMENT,
+    idempotency_key  TEXT    NOT NULL UNIQUE,
+    operation        TEXT    NOT NULL,                  -- create | status | close_day | reopen_day
+    appointment_id   INTEGER,                           -- status: target (negative = not created yet)
+    barber_id        INTEGER NOT NULL,
+    date             TEXT    NOT NULL,
+    payload          TEXT    NOT NULL,                  -- JSON with the operation's fields
+    expected_status  TEXT,                              -- status: what the user saw when acting
+    state            TEXT    NOT NULL DEFAULT 'pending', -- pending | conflict | failed
+    attempts         INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at  TEXT    NOT NULL,
+    last_error       TEXT,
+    created_at       TEXT    NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_appointment_outbox_state ON appointment_outbox(state, id);
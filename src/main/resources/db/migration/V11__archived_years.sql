@@ -0,0 +1,14 @@
+-- V11: Fiscal years moved out of database.db into data/archive_YYYY.db
+-- Each archive file holds that year's sales (with their service/product headers and
+-- items), cashbox_movements and expenses, in the same schema as the live tables.
+-- History and report queries ATTACH the files of the years they touch (ArchiveDatabase).
+-- user_daily_production keeps every year, so salaries and production charts are unaffected.
+
+CREATE TABLE IF NOT EXISTS archived_years (
+    year        INTEGER PRIMARY KEY,
+    file_name   TEXT    NOT NULL,
+    archived_at TEXT    NOT NULL DEFAULT (datetime('now')),
+    sales       INTEGER NOT NULL DEFAULT 0,
+    movements   INTEGER NOT NULL DEFAULT 0,
+    expenses    INTEGER NOT NULL DEFAULT 0
+);
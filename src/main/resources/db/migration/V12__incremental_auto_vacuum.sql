@@ -0,0 +1,9 @@
+-- V12: Switch the database file to incremental auto-vacuum.
+--
+-- Pages freed by deletes (sale/expense deletion, archived years) go to the freelist
+-- and the maintenance run hands them back to the OS with PRAGMA incremental_vacuum,
+-- instead of needing a full VACUUM. Changing auto_vacuum on an existing file only
+-- takes effect after a VACUUM, which rewrites the file once here.
+
+PRAGMA auto_vacuum = INCREMENTAL;
+VACUUM;
@@ -0,0 +1,32 @@
+-- V13: Frozen report of each closed cashbox period
+-- Written in the closure's transaction (CashboxService.closeCashbox) from the period's
+-- movements and production; closed periods are then shown from this row instead of being
+-- recomputed. Rows are never updated; CashboxReportService.audit* recomputes from the
+-- raw data to check them. covers_day = 1 when the period is a single day and the row
+-- equals that day's report, so the day's report can be read from it too.
+
+CREATE TABLE IF NOT EXISTS cashbox_report_snapshots (
+    opening_id       INTEGER PRIMARY KEY REFERENCES cashbox_openings(id),
+    period_start     TEXT    NOT NULL,
+    period_end       TEXT    NOT NULL,
+    covers_day       INTEGER NOT NULL DEFAULT 0,
+    cash_in          INTEGER NOT NULL,
+    cash_out         INTEGER NOT NULL,
+    cash_balance     INTEGER NOT NULL,
+    bank_in          INTEGER NOT NULL,
+    bank_out         INTEGER NOT NULL,
+    bank_balance     INTEGER NOT NULL,
+    total_in         INTEGER NOT NULL,
+    total_out        INTEGER NOT NULL,
+    total_balance    INTEGER NOT NULL,
+    expected_cash    INTEGER NOT NULL,
+    expected_bank    INTEGER NOT NULL,
+    actual_cash      INTEGER NOT NULL,
+    actual_bank      INTEGER NOT NULL,
+    cash_discrepancy INTEGER NOT NULL,
+    bank_discrepancy INTEGER NOT NULL,
+    production       TEXT    NOT NULL,                  -- JSON: [{"userId", "name", "total"}]
+    created_at       TEXT    NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_cashbox_report_snapshots_period ON cashbox_report_snapshots(period_start, period_end);
@@ -0,0 +1,27 @@
+-- V5: Pre-aggregated production per user per day
+-- Maintained by SaleFlowService.completeSale / SalesHistoryService.deleteSaleComplete.
+-- Salary, report and chart production queries read this table instead of scanning
+-- service_header / product_sales. Rebuild with: Main --rebuild-production
+
+CREATE TABLE IF NOT EXISTS user_daily_production (
+    user_id       INTEGER NOT NULL,
+    date          TEXT    NOT NULL CHECK (date = date(date)),
+    service_total REAL    NOT NULL DEFAULT 0,
+    product_total REAL    NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, date)
+) WITHOUT ROWID;
+
+CREATE INDEX IF NOT EXISTS idx_user_daily_production_date ON user_daily_production(date);
+
+-- Backfill from existing sales
+INSERT INTO user_daily_production (user_id, date, service_total, product_total)
+SELECT user_id, date, SUM(service_total), SUM(product_total)
+FROM (
+    SELECT sh.user_id AS user_id, sh.date AS date, sh.subtotal AS service_total, 0 AS product_total
+    FROM service_header sh
+    UNION ALL
+    SELECT s.user_id, s.date, 0, ps.subtotal
+    FROM product_sales ps
+    JOIN sales s ON s.id = ps.sale_id
+)
+GROUP BY user_id, date;
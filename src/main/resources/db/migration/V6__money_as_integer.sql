@@ -0,0 +1,290 @@
+-- V6: Store money as INTEGER guaraníes instead of REAL
+-- Entities now hold amounts as long (see util/Money). REAL columns accumulated
+-- floating point drift in SUM() over years of history; INTEGER sums are exact.
+-- SQLite doesn't support ALTER COLUMN, so each table is recreated (same as V3)
+-- and existing values are rounded to whole guaraníes on copy.
+--
+-- Expenses, advances and cashbox movements keep CHECK (amount > 0). A legacy amount
+-- below 0.5 Gs would round to 0 and fail that check, aborting the upgrade, so it is
+-- stored as 1 Gs instead (MAX(1, ...) below). Every row changed that way is recorded
+-- in money_rounding_adjustments, and FlywayMigrator logs them when V6 runs.
+CREATE TABLE money_rounding_adjustments (
+    table_name      TEXT    NOT NULL,
+    row_id          INTEGER NOT NULL,
+    original_amount REAL    NOT NULL,
+    stored_amount   INTEGER NOT NULL,
+    PRIMARY KEY (table_name, row_id)
+);
+
+-- ── service_definition ──────────────────────────────────────
+CREATE TABLE service_definition_new (
+    id          INTEGER PRIMARY KEY AUTOINCREMENT,
+    displayName TEXT    NOT NULL UNIQUE,
+    base_price  INTEGER NOT NULL,
+    available   INTEGER NOT NULL DEFAULT 1 CHECK (available IN (0, 1))
+);
+INSERT INTO service_definition_new (id, displayName, base_price, available)
+SELECT id, displayName, CAST(ROUND(base_price) AS INTEGER), available FROM service_definition;
+DROP TABLE service_definition;
+ALTER TABLE service_definition_new RENAME TO service_definition;
+
+-- ── products ────────────────────────────────────────────────
+CREATE TABLE products_new (
+    id          INTEGER PRIMARY KEY AUTOINCREMENT,
+    displayName TEXT    NOT NULL UNIQUE,
+    cost_price  INTEGER NOT NULL,
+    unit_price  INTEGER NOT NULL,
+    stock       INTEGER NOT NULL DEFAULT 0,
+    category    TEXT,
+    brand       TEXT,
+    image_path  TEXT,
+    notes       TEXT    NOT NULL
+);
+INSERT INTO products_new (id, displayName, cost_price, unit_price, stock, category, brand, image_path, notes)
+SELECT id, displayName, CAST(ROUND(cost_price) AS INTEGER), CAST(ROUND(unit_price) AS INTEGER),
+       stock, category, brand, image_path, notes
+FROM products;
+DROP TABLE products;
+ALTER TABLE products_new RENAME TO products;
+
+-- ── sales ───────────────────────────────────────────────────
+CREATE TABLE sales_new (
+    id                INTEGER PRIMARY KEY AUTOINCREMENT,
+    user_id           INTEGER NOT NULL,
+    client_id         INTEGER,
+    payment_method_id INTEGER NOT NULL,
+    date              TEXT    NOT NULL CHECK (date = date(date)),
+    total             INTEGER NOT NULL,
+    FOREIGN KEY (user_id)           REFERENCES users(id),
+    FOREIGN KEY (client_id)         REFERENCES clients(id),
+    FOREIGN KEY (payment_method_id) REFERENCES payment_methods(id)
+);
+INSERT INTO sales_new (id, user_id, client_id, payment_method_id, date, total)
+SELECT id, user_id, client_id, payment_method_id, date, CAST(ROUND(total) AS INTEGER) FROM sales;
+DROP TABLE sales;
+ALTER TABLE sales_new RENAME TO sales;
+
+-- ── service_header ──────────────────────────────────────────
+CREATE TABLE service_header_new (
+    id       INTEGER PRIMARY KEY AUTOINCREMENT,
+    user_id  INTEGER NOT NULL,
+    sale_id  INTEGER NOT NULL,
+    date     TEXT    NOT NULL CHECK (date = date(date)),
+    subtotal INTEGER NOT NULL DEFAULT 0,
+    FOREIGN KEY (user_id) REFERENCES users(id),
+    FOREIGN KEY (sale_id) REFERENCES sales(id)
+);
+INSERT INTO service_header_new (id, user_id, sale_id, date, subtotal)
+SELECT id, user_id, sale_id, date, CAST(ROUND(subtotal) AS INTEGER) FROM service_header;
+DROP TABLE service_header;
+ALTER TABLE service_header_new RENAME TO service_header;
+
+-- ── service_item ────────────────────────────────────────────
+CREATE TABLE service_item_new (
+    id                    INTEGER PRIMARY KEY AUTOINCREMENT,
+    service_header_id     INTEGER NOT NULL,
+    service_definition_id INTEGER NOT NULL,
+    quantity              INTEGER NOT NULL DEFAULT 1 CHECK (quantity > 0),
+    unit_price            INTEGER NOT NULL,
+    item_total            INTEGER NOT NULL DEFAULT 0,
+    FOREIGN KEY (service_header_id)     REFERENCES service_header(id),
+    FOREIGN KEY (service_definition_id) REFERENCES service_definition(id)
+);
+INSERT INTO service_item_new (id, service_header_id, service_definition_id, quantity, unit_price, item_total)
+SELECT id, service_header_id, service_definition_id, quantity,
+       CAST(ROUND(unit_price) AS INTEGER), CAST(ROUND(item_total) AS INTEGER)
+FROM service_item;
+DROP TABLE service_item;
+ALTER TABLE service_item_new RENAME TO service_item;
+
+-- ── product_sales ───────────────────────────────────────────
+CREATE TABLE product_sales_new (
+    id       INTEGER PRIMARY KEY AUTOINCREMENT,
+    sale_id  INTEGER NOT NULL,
+    subtotal INTEGER NOT NULL,
+    FOREIGN KEY (sale_id) REFERENCES sales(id)
+);
+INSERT INTO product_sales_new (id, sale_id, subtotal)
+SELECT id, sale_id, CAST(ROUND(subtotal) AS INTEGER) FROM product_sales;
+DROP TABLE product_sales;
+ALTER TABLE product_sales_new RENAME TO product_sales;
+
+-- ── product_sale_items ──────────────────────────────────────
+CREATE TABLE product_sale_items_new (
+    id                INTEGER PRIMARY KEY AUTOINCREMENT,
+    product_header_id INTEGER NOT NULL,
+    product_id        INTEGER NOT NULL,
+    quantity          INTEGER NOT NULL CHECK (quantity > 0),
+    unit_price        INTEGER NOT NULL,
+    item_total        INTEGER NOT NULL,
+    FOREIGN KEY (product_header_id) REFERENCES product_sales(id),
+    FOREIGN KEY (product_id)        REFERENCES products(id)
+);
+INSERT INTO product_sale_items_new (id, product_header_id, product_id, quantity, unit_price, item_total)
+SELECT id, product_header_id, product_id, quantity,
+       CAST(ROUND(unit_price) AS INTEGER), CAST(ROUND(item_total) AS INTEGER)
+FROM product_sale_items;
+DROP TABLE product_sale_items;
+ALTER TABLE product_sale_items_new RENAME TO product_sale_items;
+
+-- ── expenses ────────────────────────────────────────────────
+CREATE TABLE expenses_new (
+    id                INTEGER PRIMARY KEY AUTOINCREMENT,
+    description       TEXT    NOT NULL,
+    amount            INTEGER NOT NULL CHECK (amount > 0),
+    date              TEXT    NOT NULL CHECK (date = date(date)),
+    type              TEXT    NOT NULL CHECK (
+        type IN ('supply', 'service', 'purchase', 'tax', 'other', 'salary', 'advance')
+    ),
+    payment_method_id INTEGER NOT NULL,
+    FOREIGN KEY (payment_method_id) REFERENCES payment_methods(id)
+);
+INSERT INTO money_rounding_adjustments (table_name, row_id, original_amount, stored_amount)
+SELECT 'expenses', id, amount, 1 FROM expenses WHERE CAST(ROUND(amount) AS INTEGER) < 1;
+INSERT INTO expenses_new (id, description, amount, date, type, payment_method_id)
+SELECT id, description, MAX(1, CAST(ROUND(amount) AS INTEGER)), date, type, payment_method_id FROM expenses;
+DROP TABLE expenses;
+ALTER TABLE expenses_new RENAME TO expenses;
+
+-- ── salaries ────────────────────────────────────────────────
+CREATE TABLE salaries_new (
+    id                  INTEGER PRIMARY KEY AUTOINCREMENT,
+    user_id             INTEGER NOT NULL,
+    start_date          TEXT    NOT NULL,
+    end_date            TEXT    NOT NULL,
+    total_production    INTEGER NOT NULL,
+    amount_paid         INTEGER NOT NULL,
+    pay_type_snapshot   INTEGER NOT NULL,
+    pay_date            TEXT,
+    payment_method_id   INTEGER NOT NULL,
+    expense_id          INTEGER,
+    FOREIGN KEY (payment_method_id) REFERENCES payment_methods(id),
+    FOREIGN KEY (user_id)           REFERENCES users(id),
+    FOREIGN KEY (expense_id)        REFERENCES expenses(id)
+);
+INSERT INTO salaries_new (id, user_id, start_date, end_date, total_production, amount_paid,
+                          pay_type_snapshot, pay_date, payment_method_id, expense_id)
+SELECT id, user_id, start_date, end_date, CAST(ROUND(total_production) AS INTEGER),
+       CAST(ROUND(amount_paid) AS INTEGER), pay_type_snapshot, pay_date, payment_method_id, expense_id
+FROM salaries;
+DROP TABLE salaries;
+ALTER TABLE salaries_new RENAME TO salaries;
+
+-- ── advances ────────────────────────────────────────────────
+CREATE TABLE advances_new (
+    id                INTEGER PRIMARY KEY AUTOINCREMENT,
+    user_id           INTEGER NOT NULL,
+    amount            INTEGER NOT NULL CHECK (amount > 0),
+    date              TEXT    NOT NULL CHECK (date = date(date)),
+    payment_method_id INTEGER NOT NULL,
+    expense_id        INTEGER NOT NULL,
+    description       TEXT    NOT NULL,
+    FOREIGN KEY (user_id)           REFERENCES users(id),
+    FOREIGN KEY (payment_method_id) REFERENCES payment_methods(id),
+    FOREIGN KEY (expense_id)        REFERENCES expenses(id)
+);
+INSERT INTO money_rounding_adjustments (table_name, row_id, original_amount, stored_amount)
+SELECT 'advances', id, amount, 1 FROM advances WHERE CAST(ROUND(amount) AS INTEGER) < 1;
+INSERT INTO advances_new (id, user_id, amount, date, payment_method_id, expense_id, description)
+SELECT id, user_id, MAX(1, CAST(ROUND(amount) AS INTEGER)), date, payment_method_id, expense_id, description
+FROM advances;
+DROP TABLE advances;
+ALTER TABLE advances_new RENAME TO advances;
+
+-- ── cashbox_openings ────────────────────────────────────────
+CREATE TABLE cashbox_openings_new (
+    id                  INTEGER PRIMARY KEY AUTOINCREMENT,
+    period_start_date   TEXT    NOT NULL,
+    opened_at           TEXT    NOT NULL DEFAULT (datetime('now')),
+    opened_by_user_id   INTEGER NOT NULL,
+    cash_amount         INTEGER NOT NULL CHECK (cash_amount >= 0),
+    bank_amount         INTEGER NOT NULL CHECK (bank_amount >= 0),
+    notes               TEXT,
+    closed              INTEGER NOT NULL DEFAULT 0,
+    UNIQUE (period_start_date),
+    FOREIGN KEY (opened_by_user_id) REFERENCES users(id)
+);
+INSERT INTO cashbox_openings_new (id, period_start_date, opened_at, opened_by_user_id,
+                                  cash_amount, bank_amount, notes, closed)
+SELECT id, period_start_date, opened_at, opened_by_user_id,
+       CAST(ROUND(cash_amount) AS INTEGER), CAST(ROUND(bank_amount) AS INTEGER), notes, closed
+FROM cashbox_openings;
+DROP TABLE cashbox_openings;
+ALTER TABLE cashbox_openings_new RENAME TO cashbox_openings;
+
+-- ── cashbox_closures ────────────────────────────────────────
+CREATE TABLE cashbox_closures_new (
+    id                INTEGER PRIMARY KEY AUTOINCREMENT,
+    opening_id        INTEGER NOT NULL,
+    closed_at         TEXT    NOT NULL DEFAULT (datetime('now')),
+    closed_by_user_id INTEGER NOT NULL,
+    expected_cash     INTEGER NOT NULL DEFAULT 0,
+    expected_bank     INTEGER NOT NULL DEFAULT 0,
+    actual_cash       INTEGER NOT NULL DEFAULT 0,
+    actual_bank       INTEGER NOT NULL DEFAULT 0,
+    cash_discrepancy  INTEGER NOT NULL DEFAULT 0,
+    bank_discrepancy  INTEGER NOT NULL DEFAULT 0,
+    notes             TEXT,
+    FOREIGN KEY (opening_id) REFERENCES cashbox_openings(id),
+    FOREIGN KEY (closed_by_user_id) REFERENCES users(id)
+);
+INSERT INTO cashbox_closures_new (id, opening_id, closed_at, closed_by_user_id, expected_cash, expected_bank,
+                                  actual_cash, actual_bank, cash_discrepancy, bank_discrepancy, notes)
+SELECT id, opening_id, closed_at, closed_by_user_id,
+       CAST(ROUND(expected_cash) AS INTEGER), CAST(ROUND(expected_bank) AS INTEGER),
+       CAST(ROUND(actual_cash) AS INTEGER), CAST(ROUND(actual_bank) AS INTEGER),
+       CAST(ROUND(cash_discrepancy) AS INTEGER), CAST(ROUND(bank_discrepancy) AS INTEGER), notes
+FROM cashbox_closures;
+DROP TABLE cashbox_closures;
+ALTER TABLE cashbox_closures_new RENAME TO cashbox_closures;
+
+-- ── cashbox_movements ───────────────────────────────────────
+CREATE TABLE cashbox_movements_new (
+    id                INTEGER PRIMARY KEY AUTOINCREMENT,
+    movement_type     TEXT    NOT NULL,
+    direction         TEXT    NOT NULL,
+    amount            INTEGER NOT NULL CHECK (amount > 0),
+    payment_method_id INTEGER,
+    reference_type    TEXT,
+    reference_id      INTEGER,
+    description       TEXT,
+    user_id           INTEGER,
+    occurred_at       TEXT    NOT NULL,
+    created_at        TEXT    NOT NULL DEFAULT (datetime('now')),
+    opening_id        INTEGER REFERENCES cashbox_openings(id),
+    FOREIGN KEY (payment_method_id) REFERENCES payment_methods(id),
+    FOREIGN KEY (user_id)           REFERENCES users(id)
+);
+INSERT INTO money_rounding_adjustments (table_name, row_id, original_amount, stored_amount)
+SELECT 'cashbox_movements', id, amount, 1 FROM cashbox_movements WHERE CAST(ROUND(amount) AS INTEGER) < 1;
+INSERT INTO cashbox_movements_new (id, movement_type, direction, amount, payment_method_id, reference_type,
+                                   reference_id, description, user_id, occurred_at, created_at, opening_id)
+SELECT id, movement_type, direction, MAX(1, CAST(ROUND(amount) AS INTEGER)), payment_method_id, reference_type,
+       reference_id, description, user_id, occurred_at, created_at, opening_id
+FROM cashbox_movements;
+DROP TABLE cashbox_movements;
+ALTER TABLE cashbox_movements_new RENAME TO cashbox_movements;
+
+-- ── user_daily_production ───────────────────────────────────
+CREATE TABLE user_daily_production_new (
+    user_id       INTEGER NOT NULL,
+    date          TEXT    NOT NULL CHECK (date = date(date)),
+    service_total INTEGER NOT NULL DEFAULT 0,
+    product_total INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, date)
+) WITHOUT ROWID;
+-- Re-aggregated from the rounded rows above so it matches Main --rebuild-production
+INSERT INTO user_daily_production_new (user_id, date, service_total, product_total)
+SELECT user_id, date, SUM(service_total), SUM(product_total)
+FROM (
+    SELECT sh.user_id AS user_id, sh.date AS date, sh.subtotal AS service_total, 0 AS product_total
+    FROM service_header sh
+    UNION ALL
+    SELECT s.user_id, s.date, 0, ps.subtotal
+    FROM product_sales ps
+    JOIN sales s ON s.id = ps.sale_id
+)
+GROUP BY user_id, date;
+DROP TABLE user_daily_production;
+ALTER TABLE user_daily_production_new RENAME TO user_daily_production;
+CREATE INDEX IF NOT EXISTS idx_user_daily_production_date ON user_daily_production(date);
@@ -0,0 +1,8 @@
+-- V7: Sale journal idempotency key
+-- Sales acknowledged through the local sale journal (SaleJournalService) carry the
+-- journal entry id, so replaying an entry after a crash never inserts it twice.
+-- Sales created before the journal keep NULL (UNIQUE allows many NULLs in SQLite).
+
+ALTER TABLE sales ADD COLUMN journal_id TEXT;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_sales_journal_id ON sales(journal_id);
@@ -0,0 +1,8 @@
+-- V8: Product barcode / SKU
+-- Retail items can carry the code printed on their label, so the POS can add them
+-- with a barcode scanner. Optional: products without a code keep NULL
+-- (UNIQUE allows many NULLs in SQLite).
+
+ALTER TABLE products ADD COLUMN barcode TEXT;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_products_barcode ON products(barcode);
@@ -0,0 +1,26 @@
+-- V9: Local mirror of OnBarber appointments
+-- Filled by AppointmentMirrorService from the OnBarber API (ids are the API's ids).
+-- The calendar reads a barber's week from here through idx_appointments_barber_date
+-- instead of downloading and filtering every appointment ever booked.
+
+CREATE TABLE IF NOT EXISTS appointments (
+    id               INTEGER PRIMARY KEY,
+    barber_id        INTEGER NOT NULL,
+    barber_name      TEXT,
+    client_name      TEXT    NOT NULL,
+    client_phone     TEXT,
+    appointment_date TEXT    NOT NULL,
+    appointment_time TEXT    NOT NULL,
+    status           TEXT    NOT NULL,
+    updated_at       TEXT,
+    synced_at        TEXT    NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_appointments_barber_date ON appointments(barber_id, appointment_date);
+
+-- Sync cursors per remote collection (last updated_at seen, last full reconcile)
+CREATE TABLE IF NOT EXISTS sync_cursors (
+    name          TEXT PRIMARY KEY,
+    cursor        TEXT,
+    last_full_at  TEXT
+) WITHOUT ROWID;
@@ -0,0 +1,70 @@
+package app.barbman.core.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApiResponseCacheTest {
+
+    private final ApiResponseCache cache = new ApiResponseCache();
+
+    @Test
+    void storesResponseRequestedInCurrentEpoch() {
+        cache.put("/appointments", "body", "\"v1\"", "Mon, 19 Oct 2026 10:00:00 GMT", cache.epoch());
+
+        ApiResponseCache.Entry entry = cache.get("/appointments");
+        assertNotNull(entry);
+        assertEquals("body", entry.body());
+        assertEquals("\"v1\"", entry.etag());
+        assertEquals("Mon, 19 Oct 2026 10:00:00 GMT", entry.lastModified());
+    }
+
+    @Test
+    void dropsResponseRequestedBeforeInvalidation() {
+        long requestEpoch = cache.epoch();
+        cache.invalidate("/barbers/1/slots?date=2026-10-19");
+
+        cache.put("/appointments", "stale", null, null, requestEpoch);
+
+        assertNull(cache.get("/appointments"));
+    }
+
+    @Test
+    void dropsResponseRequestedBeforeInvalidateAll() {
+        cache.put("/barbers", "barbers", null, null, cache.epoch());
+        long requestEpoch = cache.epoch();
+        cache.invalidateAll();
+
+        cache.put("/appointments", "stale", null, null, requestEpoch);
+        cache.touch("/barbers", new ApiResponseCache.Entry("barbers", null, null, System.nanoTime()), requestEpoch);
+
+        assertNull(cache.get("/appointments"));
+        assertNull(cache.get("/barbers"));
+    }
+
+    @Test
+    void invalidateRemovesOnlyThatKey() {
+        cache.put("/appointments", "appointments", null, null, cache.epoch());
+        cache.put("/barbers", "barbers", null, null, cache.epoch());
+
+        cache.invalidate("/appointments");
+
+        assertNull(cache.get("/appointments"));
+        assertNotNull(cache.get("/barbers"));
+    }
+
+    @Test
+    void oneRevalidationPerKeyAtATime() {
+        assertTrue(cache.startRevalidation("/appointments"));
+        assertFalse(cache.startRevalidation("/appointments"));
+        assertTrue(cache.startRevalidation("/barbers"));
+
+        cache.endRevalidation("/appointments");
+
+        assertTrue(cache.startRevalidation("/appointments"));
+    }
+}
@@ -0,0 +1,329 @@
+package app.barbman.core.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Response cache of OnBarberApiClient against a JDK HttpServer stub: TTL hits,
+ * conditional revalidation, stale-while-revalidate, invalidation by mutations and the
+ * epoch guard. Entries are aged by moving their stored time back instead of sleeping.
+ */
+class OnBarberApiClientCacheTest {
+
+    private static final int BARBER = 1;
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 20);
+    private static final String LAST_MODIFIED = "Mon, 19 Oct 2026 10:00:00 GMT";
+
+    private static final String APPOINTMENTS = "/appointments";
+    private static final String SLOTS = "/barbers/" + BARBER + "/slots?date=" + DAY;
+    private static final String OVERRIDES = "/barbers/" + BARBER + "/overrides";
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private OnBarberApiClient client;
+
+    /** Requests received, by "METHOD path?query". */
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private volatile String appointmentsEtag = "\"v1\"";
+    private volatile String appointmentsBody = appointmentsJson(5);
+    private volatile String lastIfNoneMatch;
+    private volatile String lastIfModifiedSince;
+    /** When set, GET /appointments is answered only once this is released. */
+    private volatile CountDownLatch holdAppointments;
+    private final CountDownLatch appointmentsHeld = new CountDownLatch(1);
+
+    @BeforeEach
+    void startServer() throws IOException {
+        OnBarberApiClient.clearCache();
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/api", this::handle);
+        server.start();
+
+        client = new OnBarberApiClient("http://127.0.0.1:" + server.getAddress().getPort() + "/api", "token");
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        OnBarberApiClient.clearCache();
+    }
+
+    // ============================================================
+    // TTL
+    // ============================================================
+
+    @Test
+    void freshEntryIsServedWithoutRequest() throws Exception {
+        List<OnBarberApiClient.AppointmentDTO> first = client.getAppointmentsAsync().get(5, TimeUnit.SECONDS);
+        List<OnBarberApiClient.AppointmentDTO> second = client.getAppointmentsAsync().get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, hits("GET " + APPOINTMENTS));
+        assertEquals(first, second);
+        assertEquals(5, second.get(0).getId());
+    }
+
+    // ============================================================
+    // CONDITIONAL REVALIDATION
+    // ============================================================
+
+    @Test
+    void expiredEntryIsRevalidatedWith304() throws Exception {
+        List<OnBarberApiClient.AppointmentDTO> cached = client.getAppointmentsAsync().get(5, TimeUnit.SECONDS);
+        // Past TTL and stale window: the next read waits for the server
+        age(APPOINTMENTS, Duration.ofMinutes(10));
+
+        List<OnBarberApiClient.AppointmentDTO> revalidated = client.getAppointmentsAsync().get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, hits("GET " + APPOINTMENTS));
+        assertEquals("\"v1\"", lastIfNoneMatch);
+        assertEquals(LAST_MODIFIED, lastIfModifiedSince);
+        assertSame(cached, revalidated);
+
+        // The 304 made the entry fresh again
+        client.getAppointmentsAsync().get(5, TimeUnit.SECONDS);
+        assertEquals(2, hits("GET " + APPOINTMENTS));
+    }
+
+    @Test
+    void expiredEntryIsReplacedWhenChanged() throws Exception {
+        client.getAppointmentsAsync().get(5, TimeUnit.SECONDS);
+        age(APPOINTMENTS, Duration.ofMinutes(10));
+        appointmentsEtag = "\"v2\"";
+        appointmentsBody = appointmentsJson(6);
+
+        List<OnBarberApiClient.AppointmentDTO> changed = client.getAppointmentsAsync().get(5, TimeUnit.SECONDS);
+
+        assertEquals("\"v1\"", lastIfNoneMatch);
+        assertEquals(6, changed.get(0).getId());
+    }
+
+    // ============================================================
+    // STALE-WHILE-REVALIDATE
+    // ============================================================
+
+    @Test
+    void staleEntryIsServedAndRefreshedInBackground() throws Exception {
+        client.getAppointmentsAsync().get(5, TimeUnit.SECONDS);
+        CountDownLatch refreshed = new CountDownLatch(1);
+        client.setOnCacheRefreshed(refreshed::countDown);
+
+        // Past the 15 s TTL, within the stale window
+        age(APPOINTMENTS, Duration.ofSeconds(20));
+        appointmentsEtag = "\"v2\"";
+        appointmentsBody = appointmentsJson(6);
+
+        List<OnBarberApiClient.AppointmentDTO> stale = client.getAppointmentsAsync().get(5, TimeUnit.SECONDS);
+        assertEquals(5, stale.get(0).getId());
+
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS), "callback not called after the background refresh");
+        assertEquals(2, hits("GET " + APPOINTMENTS));
+        assertEquals("\"v1\"", lastIfNoneMatch);
+
+        List<OnBarberApiClient.AppointmentDTO> fresh = client.getAppointmentsAsync().get(5, TimeUnit.SECONDS);
+        assertEquals(6, fresh.get(0).getId());
+        assertEquals(2, hits("GET " + APPOINTMENTS));
+    }
+
+    // ============================================================
+    // INVALIDATION
+    // ============================================================
+
+    @Test
+    void createAppointmentInvalidatesListAndSlots() throws Exception {
+        client.getAppointmentsAsync().get(5, TimeUnit.SECONDS);
+        client.getAvailableSlotsAsync(BARBER, DAY).get(5, TimeUnit.SECONDS);
+
+        client.createAppointmentAsync(BARBER, "Ana", "0981000000", DAY, "10:00").get(5, TimeUnit.SECONDS);
+        client.getAppointmentsAsync().get(5, TimeUnit.SECONDS);
+        client.getAvailableSlotsAsync(BARBER, DAY).get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, hits("GET " + APPOINTMENTS));
+        assertEquals(2, hits("GET " + SLOTS));
+    }
+
+    @Test
+    void updateAppointmentStatusInvalidatesListAndSlots() throws Exception {
+        client.getAppointmentsAsync().get(5, TimeUnit.SECONDS);
+        client.getAvailableSlotsAsync(BARBER, DAY).get(5, TimeUnit.SECONDS);
+
+        client.updateAppointmentStatusAsync(5, "cancelled").get(5, TimeUnit.SECONDS);
+        client.getAppointmentsAsync().get(5, TimeUnit.SECONDS);
+        client.getAvailableSlotsAsync(BARBER, DAY).get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, hits("GET " + APPOINTMENTS));
+        assertEquals(2, hits("GET " + SLOTS));
+    }
+
+    @Test
+    void closeDayInvalidatesOverridesAndSlots() throws Exception {
+        client.getClosedDaysAsync(BARBER).get(5, TimeUnit.SECONDS);
+        client.getAvailableSlotsAsync(BARBER, DAY).get(5, TimeUnit.SECONDS);
+
+        client.closeDayForBarberAsync(BARBER, DAY).get(5, TimeUnit.SECONDS);
+        client.getClosedDaysAsync(BARBER).get(5, TimeUnit.SECONDS);
+        client.getAvailableSlotsAsync(BARBER, DAY).get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, hits("POST /schedule-overrides"));
+        assertEquals(2, hits("GET " + OVERRIDES));
+        assertEquals(2, hits("GET " + SLOTS));
+    }
+
+    @Test
+    void reopenDayInvalidatesOverridesAndSlots() throws Exception {
+        client.getClosedDaysAsync(BARBER).get(5, TimeUnit.SECONDS);
+        client.getAvailableSlotsAsync(BARBER, DAY).get(5, TimeUnit.SECONDS);
+
+        client.reopenDayForBarberAsync(BARBER, DAY).get(5, TimeUnit.SECONDS);
+        int overridesBefore = hits("GET " + OVERRIDES); // reopen reads them itself, uncached
+        client.getClosedDaysAsync(BARBER).get(5, TimeUnit.SECONDS);
+        client.getAvailableSlotsAsync(BARBER, DAY).get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, hits("DELETE /schedule-overrides/7"));
+        assertEquals(overridesBefore + 1, hits("GET " + OVERRIDES));
+        assertEquals(2, hits("GET " + SLOTS));
+    }
+
+    // ============================================================
+    // EPOCH GUARD
+    // ============================================================
+
+    @Test
+    void responseRequestedBeforeMutationIsNotCached() throws Exception {
+        holdAppointments = new CountDownLatch(1);
+        var inFlight = client.getAppointmentsAsync();
+        assertTrue(appointmentsHeld.await(5, TimeUnit.SECONDS), "GET /appointments never reached the server");
+
+        // The mutation completes (and invalidates) while the read is still on the wire
+        client.updateAppointmentStatusAsync(5, "cancelled").get(5, TimeUnit.SECONDS);
+        holdAppointments.countDown();
+        inFlight.get(5, TimeUnit.SECONDS);
+
+        assertNull(cache().get(APPOINTMENTS), "a response older than the invalidation was stored");
+        client.getAppointmentsAsync().get(5, TimeUnit.SECONDS);
+        assertEquals(2, hits("GET " + APPOINTMENTS));
+    }
+
+    // ============================================================
+    // STUB SERVER
+    // ============================================================
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String query = exchange.getRequestURI().getRawQuery();
+        String path = exchange.getRequestURI().getPath().substring("/api".length());
+        String target = query != null ? path + "?" + query : path;
+        exchange.getRequestBody().readAllBytes();
+        hits.computeIfAbsent(method + " " + target, k -> new AtomicInteger()).incrementAndGet();
+
+        try {
+            if (method.equals("GET") && target.equals(APPOINTMENTS)) {
+                CountDownLatch hold = holdAppointments;
+                if (hold != null) {
+                    appointmentsHeld.countDown();
+                    hold.await(5, TimeUnit.SECONDS);
+                }
+                lastIfNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+                lastIfModifiedSince = exchange.getRequestHeaders().getFirst("If-Modified-Since");
+                String etag = appointmentsEtag;
+                if (etag.equals(lastIfNoneMatch)) {
+                    exchange.getResponseHeaders().set("ETag", etag);
+                    exchange.sendResponseHeaders(304, -1);
+                    exchange.close();
+                    return;
+                }
+                exchange.getResponseHeaders().set("ETag", etag);
+                exchange.getResponseHeaders().set("Last-Modified", LAST_MODIFIED);
+                respond(exchange, 200, appointmentsBody);
+            } else if (method.equals("GET") && target.equals(SLOTS)) {
+                respond(exchange, 200, "{\"slots\":[{\"time\":\"10:00\",\"available\":true}]}");
+            } else if (method.equals("GET") && target.equals(OVERRIDES)) {
+                respond(exchange, 200, "[{\"id\":7,\"barber_id\":" + BARBER + ",\"date\":\"" + DAY + "\",\"is_open\":false}]");
+            } else if (method.equals("POST") && target.equals(APPOINTMENTS)) {
+                respond(exchange, 201, appointmentJson(9, "pending"));
+            } else if (method.equals("PATCH") && target.equals(APPOINTMENTS + "/5")) {
+                respond(exchange, 200, appointmentJson(5, "cancelled"));
+            } else if (method.equals("POST") && target.equals("/schedule-overrides")) {
+                respond(exchange, 201, "{\"id\":7,\"barber_id\":" + BARBER + ",\"date\":\"" + DAY + "\",\"is_open\":false}");
+            } else if (method.equals("DELETE") && target.equals("/schedule-overrides/7")) {
+                respond(exchange, 200, "{}");
+            } else {
+                respond(exchange, 404, "{\"message\":\"Not found\"}");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.close();
+        }
+    }
+
+    private int hits(String request) {
+        AtomicInteger count = hits.get(request);
+        return count != null ? count.get() : 0;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String appointmentJson(int id, String status) {
+        return "{\"id\":" + id + ",\"barber_id\":" + BARBER + ",\"client_name\":\"Ana\",\"client_phone\":\"0981000000\","
+                + "\"appointment_date\":\"" + DAY + "\",\"appointment_time\":\"10:00:00\",\"status\":\"" + status + "\"}";
+    }
+
+    private static String appointmentsJson(int id) {
+        return "[" + appointmentJson(id, "pending") + "]";
+    }
+
+    // ============================================================
+    // CACHE ACCESS
+    // ============================================================
+
+    private static ApiResponseCache cache() throws ReflectiveOperationException {
+        Field field = OnBarberApiClient.class.getDeclaredField("CACHE");
+        field.setAccessible(true);
+        return (ApiResponseCache) field.get(null);
+    }
+
+    /** Moves the stored time of {@code path}'s entry {@code by} into the past. */
+    @SuppressWarnings("unchecked")
+    private static void age(String path, Duration by) throws ReflectiveOperationException {
+        Field field = ApiResponseCache.class.getDeclaredField("entries");
+        field.setAccessible(true);
+        Map<String, ApiResponseCache.Entry> entries = (Map<String, ApiResponseCache.Entry>) field.get(cache());
+        ApiResponseCache.Entry entry = entries.get(path);
+        entries.put(path, new ApiResponseCache.Entry(entry.body(), entry.etag(), entry.lastModified(),
+                entry.storedAtNanos() - by.toNanos()));
+    }
+}